@@ -49,10 +49,23 @@ public class CRC16 {
      * @return CRC16 as interger value
      */
     public static int crc16(byte[] bytes) {
+        return crc16(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Create a CRC16 checksum from a range of the bytes.
+     * 
+     * @param bytes
+     * @param off offset of the first byte
+     * @param len number of bytes
+     * @return CRC16 as interger value
+     */
+    public static int crc16(byte[] bytes, int off, int len) {
         int crc = 0x0000;
+        int end = off + len;
 
-        for (byte b : bytes) {
-            crc = ((crc << 8) ^ LOOKUP_TABLE[((crc >>> 8) ^ (b & 0xFF)) & 0xFF]);
+        for (int i = off; i < end; i++) {
+            crc = ((crc << 8) ^ LOOKUP_TABLE[((crc >>> 8) ^ (bytes[i] & 0xFF)) & 0xFF]);
         }
         return crc & 0xFFFF;
     }
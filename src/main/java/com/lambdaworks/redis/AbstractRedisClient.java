@@ -6,9 +6,18 @@ import java.io.Closeable;
 import java.lang.reflect.Proxy;
 import java.net.SocketAddress;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.lambdaworks.redis.protocol.CommandHandler;
 import com.lambdaworks.redis.protocol.ConnectionWatchdog;
 import com.lambdaworks.redis.pubsub.PubSubCommandHandler;
@@ -16,6 +25,7 @@ import com.lambdaworks.redis.pubsub.PubSubCommandHandler;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
@@ -26,6 +36,8 @@ import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import io.netty.util.internal.ConcurrentSet;
@@ -41,6 +53,7 @@ public abstract class AbstractRedisClient {
     protected static final InternalLogger logger = InternalLoggerFactory.getInstance(RedisClient.class);
 
     private static final int DEFAULT_EVENT_LOOP_THREADS;
+    private static final int DEFAULT_LISTENER_THREADS = Runtime.getRuntime().availableProcessors();
 
     static {
         DEFAULT_EVENT_LOOP_THREADS = Math.max(1,
@@ -52,6 +65,7 @@ public abstract class AbstractRedisClient {
     }
 
     protected EventLoopGroup eventLoopGroup;
+    protected ExecutorService listenerExecutor;
 
     protected HashedWheelTimer timer;
     protected ChannelGroup channels;
@@ -64,6 +78,7 @@ public abstract class AbstractRedisClient {
         timer = new HashedWheelTimer();
         eventLoopGroup = new NioEventLoopGroup(DEFAULT_EVENT_LOOP_THREADS);
         channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+        listenerExecutor = newListenerExecutor();
         timer.start();
     }
 
@@ -87,25 +102,7 @@ public abstract class AbstractRedisClient {
 
             logger.debug("Connecting to Redis, address: " + redisAddress);
 
-            final Bootstrap redisBootstrap = new Bootstrap().channel(NioSocketChannel.class).group(eventLoopGroup);
-            redisBootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) unit.toMillis(timeout));
-
-            final ConnectionWatchdog watchdog = new ConnectionWatchdog(redisBootstrap, timer, socketAddressSupplier);
-
-            redisBootstrap.handler(new ChannelInitializer<Channel>() {
-                @Override
-                protected void initChannel(Channel ch) throws Exception {
-
-                    if (withReconnect) {
-                        watchdog.setReconnect(true);
-                        ch.pipeline().addLast(watchdog);
-                    }
-
-                    ch.pipeline().addLast(new ChannelGroupListener(channels),
-                            new ConnectionEventTrigger(connectionEvents, connection), handler, connection);
-                }
-            });
-
+            Bootstrap redisBootstrap = createBootstrap(handler, connection, socketAddressSupplier, withReconnect);
             ChannelFuture future = redisBootstrap.connect(redisAddress);
 
             future.await();
@@ -117,6 +114,7 @@ public abstract class AbstractRedisClient {
                 future.get();
             }
 
+            LettuceFutures.await(connection.getInitialHandshake(), timeout, unit);
             connection.registerCloseables(closeableResources, connection, handler);
 
             return connection;
@@ -130,6 +128,157 @@ public abstract class AbstractRedisClient {
         }
     }
 
+    /**
+     * Connect without blocking the calling thread. The connect is started as soon as the address is available, the returned
+     * future completes with the connection once the channel is connected and the initial handshake is done. The future fails
+     * with a {@link RedisConnectionException} if the address lookup, the connect or the handshake fails or if the handshake
+     * does not complete within the timeout. The connection is closed on failure.
+     *
+     * @param handler the command handler
+     * @param connection the connection
+     * @param socketAddressFuture future of the address for the initial connect
+     * @param socketAddressSupplier supplier for the addresses on reconnect
+     * @param withReconnect {@literal true} to reconnect on connection loss
+     * @return future of the connected connection.
+     */
+    protected <K, V, T extends RedisAsyncConnectionImpl<K, V>> RedisFuture<T> connectFutureImpl(
+            final CommandHandler<K, V> handler, final T connection, final ListenableFuture<SocketAddress> socketAddressFuture,
+            final Supplier<SocketAddress> socketAddressSupplier, final boolean withReconnect) {
+
+        final SettableRedisFuture<T> result = new SettableRedisFuture<T>();
+
+        Futures.addCallback(socketAddressFuture, new FutureCallback<SocketAddress>() {
+            @Override
+            public void onSuccess(SocketAddress redisAddress) {
+                try {
+                    logger.debug("Connecting to Redis, address: " + redisAddress);
+                    Bootstrap redisBootstrap = createBootstrap(handler, connection, socketAddressSupplier, withReconnect);
+                    redisBootstrap.connect(redisAddress).addListener(new ChannelFutureListener() {
+                        @Override
+                        public void operationComplete(ChannelFuture future) throws Exception {
+                            if (future.isSuccess()) {
+                                completeHandshake(handler, connection, result);
+                            } else {
+                                fail(connection, result, future.cause());
+                            }
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    fail(connection, result, e);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                fail(connection, result, t);
+            }
+        });
+
+        return result;
+    }
+
+    private <K, V, T extends RedisAsyncConnectionImpl<K, V>> void completeHandshake(final CommandHandler<K, V> handler,
+            final T connection, final SettableRedisFuture<T> result) {
+
+        final RedisFuture<String> handshake = connection.getInitialHandshake();
+        final Timeout handshakeTimeout = timer.newTimeout(new TimerTask() {
+            @Override
+            public void run(Timeout t) throws Exception {
+                fail(connection, result, new RedisCommandTimeoutException());
+            }
+        }, timeout, unit);
+
+        handshake.addListener(new Runnable() {
+            @Override
+            public void run() {
+                handshakeTimeout.cancel();
+                try {
+                    handshake.get();
+                } catch (ExecutionException e) {
+                    fail(connection, result, e.getCause());
+                    return;
+                } catch (Exception e) {
+                    fail(connection, result, e);
+                    return;
+                }
+
+                if (handshake.getError() != null) {
+                    fail(connection, result, new RedisCommandExecutionException(handshake.getError()));
+                    return;
+                }
+
+                connection.registerCloseables(closeableResources, connection, handler);
+                if (!result.set(connection)) {
+                    connection.close();
+                }
+            }
+        }, MoreExecutors.sameThreadExecutor());
+    }
+
+    private static <T extends RedisChannelHandler<?, ?>> void fail(T connection, SettableRedisFuture<T> result,
+            Throwable cause) {
+
+        if (result.isDone()) {
+            return;
+        }
+
+        connection.close();
+        if (cause instanceof RedisException) {
+            result.setException(cause);
+        } else {
+            result.setException(new RedisConnectionException("Unable to connect", cause));
+        }
+    }
+
+    /**
+     * Fail the future with a {@link RedisCommandTimeoutException} unless it completes within the timeout.
+     *
+     * @param future the future
+     * @param timeout the timeout
+     * @param unit the unit of the timeout
+     */
+    protected void expireAfter(final SettableRedisFuture<?> future, long timeout, TimeUnit unit) {
+
+        final Timeout expiry = timer.newTimeout(new TimerTask() {
+            @Override
+            public void run(Timeout t) throws Exception {
+                future.setException(new RedisCommandTimeoutException());
+            }
+        }, timeout, unit);
+
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                expiry.cancel();
+            }
+        }, MoreExecutors.sameThreadExecutor());
+    }
+
+    private <K, V> Bootstrap createBootstrap(final CommandHandler<K, V> handler, final RedisAsyncConnectionImpl<K, V> connection,
+            Supplier<SocketAddress> socketAddressSupplier, final boolean withReconnect) {
+
+        Bootstrap redisBootstrap = new Bootstrap().channel(NioSocketChannel.class).group(eventLoopGroup);
+        redisBootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) unit.toMillis(timeout));
+
+        final ConnectionWatchdog watchdog = new ConnectionWatchdog(redisBootstrap, timer, socketAddressSupplier);
+
+        redisBootstrap.handler(new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel ch) throws Exception {
+
+                if (withReconnect) {
+                    watchdog.setReconnect(true);
+                    ch.pipeline().addLast(watchdog);
+                }
+
+                ch.pipeline().addLast(new ChannelGroupListener(channels),
+                        new ConnectionEventTrigger(connectionEvents, connection), handler, connection);
+            }
+        });
+
+        return redisBootstrap;
+    }
+
     /**
      * Shutdown this client and close all open connections. The client should be discarded after calling shutdown. The shutdown
      * has 2 secs quiet time and a timeout of 15 secs.
@@ -181,9 +330,25 @@ public abstract class AbstractRedisClient {
             throw new RedisException(e);
         }
 
+        listenerExecutor.shutdown();
         timer.stop();
     }
 
+    /**
+     * Create the executor that notifies pub/sub listeners which are added with options but without an executor. A listener
+     * occupies at most one thread at a time, idle threads are released.
+     * 
+     * @return the executor
+     */
+    private static ExecutorService newListenerExecutor() {
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_LISTENER_THREADS, DEFAULT_LISTENER_THREADS, 60,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactoryBuilder()
+                        .setNameFormat("lettuce-pubsub-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     protected int getResourceCount() {
         return closeableResources.size();
     }
@@ -0,0 +1,85 @@
+package com.lambdaworks.redis;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options for the automatic batching of single-key commands, see
+ * {@link RedisAsyncConnectionImpl#setAutoBatching(AutoBatchOptions)}. Static import the methods from {@link Builder} and
+ * chain the method calls: <code>maxBatchSize(500).window(200, TimeUnit.MICROSECONDS)</code>.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class AutoBatchOptions {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    public static final long DEFAULT_WINDOW = 100;
+    public static final TimeUnit DEFAULT_WINDOW_UNIT = TimeUnit.MICROSECONDS;
+
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private long window = DEFAULT_WINDOW;
+    private TimeUnit windowUnit = DEFAULT_WINDOW_UNIT;
+
+    /**
+     * Static builder methods.
+     */
+    public static class Builder {
+
+        /**
+         * Utility constructor.
+         */
+        private Builder() {
+
+        }
+
+        public static AutoBatchOptions maxBatchSize(int maxBatchSize) {
+            return new AutoBatchOptions().maxBatchSize(maxBatchSize);
+        }
+
+        public static AutoBatchOptions window(long window, TimeUnit windowUnit) {
+            return new AutoBatchOptions().window(window, windowUnit);
+        }
+    }
+
+    /**
+     * Send a batch as soon as it contains {@code maxBatchSize} commands. Defaults to {@link #DEFAULT_MAX_BATCH_SIZE}.
+     *
+     * @param maxBatchSize the maximal number of commands per batch, must be greater than {@literal 0}
+     * @return this
+     */
+    public AutoBatchOptions maxBatchSize(int maxBatchSize) {
+        checkArgument(maxBatchSize > 0, "maxBatchSize must be greater than 0");
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /**
+     * Send a batch at the latest {@code window} after its first command was dispatched. A window of {@literal 0} sends the
+     * batch with the next turn of the I/O thread. Defaults to {@link #DEFAULT_WINDOW} {@link #DEFAULT_WINDOW_UNIT}.
+     *
+     * @param window the time a command waits for further commands, must not be negative
+     * @param windowUnit the unit of the window, must not be {@literal null}
+     * @return this
+     */
+    public AutoBatchOptions window(long window, TimeUnit windowUnit) {
+        checkArgument(window >= 0, "window must not be negative");
+        checkArgument(windowUnit != null, "windowUnit must not be null");
+        this.window = window;
+        this.windowUnit = windowUnit;
+        return this;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public long getWindow() {
+        return window;
+    }
+
+    public TimeUnit getWindowUnit() {
+        return windowUnit;
+    }
+}
@@ -0,0 +1,351 @@
+package com.lambdaworks.redis;
+
+import static com.lambdaworks.redis.protocol.CommandType.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+import com.lambdaworks.redis.cluster.SlotHash;
+import com.lambdaworks.redis.codec.RedisCodec;
+import com.lambdaworks.redis.output.BooleanOutput;
+import com.lambdaworks.redis.output.StatusOutput;
+import com.lambdaworks.redis.output.ValueOutput;
+import com.lambdaworks.redis.protocol.Command;
+import com.lambdaworks.redis.protocol.CommandArgs;
+import com.lambdaworks.redis.protocol.CommandHandler;
+import com.lambdaworks.redis.protocol.CommandOutput;
+import com.lambdaworks.redis.protocol.CommandType;
+import com.lambdaworks.redis.protocol.RedisCommand;
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * Collects single-key commands of a connection and sends them as multi-key commands: <code>GET</code> as <code>MGET</code>,
+ * <code>SET</code> as <code>MSET</code> and <code>HGET</code> as one <code>HMGET</code> per hash. <code>EXISTS</code> replies
+ * with the number of existing keys when called with multiple keys, so <code>EXISTS</code> commands are only pipelined. The
+ * replies are distributed to the outputs of the original commands.
+ *
+ * A batch is sent when it is full, when its window elapsed or before a command is dispatched that is not batched. A command
+ * that reads a key with a pending write in the batch (and vice versa) sends the batch first, so commands on the same key
+ * keep their order. Cluster connections collect one batch per slot.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+class AutoBatcher<K, V> {
+
+    private final RedisAsyncConnectionImpl<K, V> connection;
+    private final RedisCodec<K, V> codec;
+    private final AutoBatchOptions options;
+    private final boolean partitionBySlot;
+
+    private final Map<Integer, List<Command<K, V, ?>>> gets = new LinkedHashMap<Integer, List<Command<K, V, ?>>>();
+    private final Map<Integer, List<Command<K, V, ?>>> sets = new LinkedHashMap<Integer, List<Command<K, V, ?>>>();
+    private final Map<Object, List<Command<K, V, ?>>> hgets = new LinkedHashMap<Object, List<Command<K, V, ?>>>();
+    private final List<Command<K, V, ?>> exists = new ArrayList<Command<K, V, ?>>();
+    private final Set<Object> reads = new HashSet<Object>();
+    private final Set<Object> writes = new HashSet<Object>();
+    private int size;
+    private Future<?> scheduledFlush;
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    AutoBatcher(RedisAsyncConnectionImpl<K, V> connection, RedisCodec<K, V> codec, AutoBatchOptions options,
+            boolean partitionBySlot) {
+        this.connection = connection;
+        this.codec = codec;
+        this.options = options;
+        this.partitionBySlot = partitionBySlot;
+    }
+
+    /**
+     * 
+     * @param command the command
+     * @return true if the command is a plain <code>GET</code>, <code>SET</code>, <code>HGET</code> or <code>EXISTS</code>.
+     */
+    static boolean isBatchable(Command<?, ?, ?> command) {
+
+        CommandArgs<?, ?> args = command.getArgs();
+        CommandOutput<?, ?, ?> output = command.getOutput();
+        if (args == null || output == null) {
+            return false;
+        }
+
+        switch (command.getType()) {
+            case GET:
+                return args.count() == 1 && args.getKeys().size() == 1 && output.getClass() == ValueOutput.class;
+            case SET:
+                return args.count() == 2 && args.getKeys().size() == 1 && output.getClass() == StatusOutput.class;
+            case HGET:
+                return args.count() == 2 && args.getKeys().size() == 2 && output.getClass() == ValueOutput.class;
+            case EXISTS:
+                return args.count() == 1 && args.getKeys().size() == 1 && output.getClass() == BooleanOutput.class;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Add a command to the batch.
+     * 
+     * @param command a {@link #isBatchable(Command) batchable} command
+     */
+    synchronized void add(Command<K, V, ?> command) {
+
+        K key = command.getArgs().getKeys().get(0);
+        Object mappedKey = mapKey(key);
+        boolean write = command.getType() == SET;
+        if (write ? reads.contains(mappedKey) : writes.contains(mappedKey)) {
+            flush();
+        }
+
+        int slot = partitionBySlot ? SlotHash.getSlot(codec.encodeKey(key)) : 0;
+        switch (command.getType()) {
+            case GET:
+                bucket(gets, slot).add(command);
+                break;
+            case SET:
+                bucket(sets, slot).add(command);
+                break;
+            case HGET:
+                bucket(hgets, mappedKey).add(command);
+                break;
+            default:
+                exists.add(command);
+        }
+        (write ? writes : reads).add(mappedKey);
+
+        if (++size >= options.getMaxBatchSize()) {
+            flush();
+        } else if (size == 1) {
+            schedule();
+        }
+    }
+
+    /**
+     * Send the pending commands.
+     */
+    synchronized void flush() {
+
+        if (size == 0) {
+            return;
+        }
+
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+
+        List<RedisCommand<K, V, ?>> commands = new ArrayList<RedisCommand<K, V, ?>>();
+        for (List<Command<K, V, ?>> bucket : sets.values()) {
+            commands.add(batch(MSET, bucket));
+        }
+        for (List<Command<K, V, ?>> bucket : gets.values()) {
+            commands.add(batch(MGET, bucket));
+        }
+        for (List<Command<K, V, ?>> bucket : hgets.values()) {
+            commands.add(batch(HMGET, bucket));
+        }
+        commands.addAll(exists);
+
+        gets.clear();
+        sets.clear();
+        hgets.clear();
+        exists.clear();
+        reads.clear();
+        writes.clear();
+        size = 0;
+
+        RedisChannelWriter<K, V> writer = connection.getChannelWriter();
+        if (writer instanceof CommandHandler) {
+            ((CommandHandler<K, V>) writer).write(commands);
+            return;
+        }
+
+        for (RedisCommand<K, V, ?> command : commands) {
+            writer.write(command);
+        }
+    }
+
+    private void schedule() {
+
+        EventExecutor executor = connection.getEventExecutor();
+        if (executor == null) {
+            flush();
+            return;
+        }
+
+        scheduledFlush = executor.schedule(flushTask, options.getWindow(), options.getWindowUnit());
+    }
+
+    private RedisCommand<K, V, ?> batch(CommandType type, List<Command<K, V, ?>> bucket) {
+
+        if (bucket.size() == 1) {
+            return bucket.get(0);
+        }
+
+        CommandArgs<K, V> args = new CommandArgs<K, V>(codec);
+        if (type == HMGET) {
+            args.addKey(bucket.get(0).getArgs().getKeys().get(0));
+        }
+
+        for (Command<K, V, ?> command : bucket) {
+            CommandArgs<K, V> commandArgs = command.getArgs();
+            switch (type) {
+                case MSET:
+                    args.addKey(commandArgs.getKeys().get(0)).add(argument(commandArgs.encoded(), 1));
+                    break;
+                case HMGET:
+                    args.addKey(commandArgs.getKeys().get(1));
+                    break;
+                default:
+                    args.addKey(commandArgs.getKeys().get(0));
+            }
+        }
+
+        return new BatchCommand<K, V>(type, new FanOutOutput<K, V>(codec, bucket, type == MSET), args, bucket);
+    }
+
+    /**
+     * 
+     * @param encoded the encoded arguments
+     * @param index the index of the argument
+     * @return the bytes of an encoded argument.
+     */
+    private static byte[] argument(ByteBuffer encoded, int index) {
+
+        ByteBuffer buffer = encoded.duplicate();
+        for (int i = 0;; i++) {
+            // $<length>\r\n<bytes>\r\n
+            buffer.get();
+            int length = 0;
+            byte b;
+            while ((b = buffer.get()) != '\r') {
+                length = length * 10 + (b - '0');
+            }
+            buffer.get();
+
+            if (i == index) {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                return bytes;
+            }
+            buffer.position(buffer.position() + length + 2);
+        }
+    }
+
+    private static <B, K, V> List<Command<K, V, ?>> bucket(Map<B, List<Command<K, V, ?>>> buckets, B key) {
+        List<Command<K, V, ?>> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<Command<K, V, ?>>();
+            buckets.put(key, bucket);
+        }
+        return bucket;
+    }
+
+    private static Object mapKey(Object key) {
+        if (key instanceof byte[]) {
+            return ByteBuffer.wrap((byte[]) key);
+        }
+        return key;
+    }
+
+    /**
+     * Multi-key command that completes the original commands.
+     */
+    private static class BatchCommand<K, V> extends Command<K, V, Void> {
+
+        private final List<Command<K, V, ?>> commands;
+
+        BatchCommand(CommandType type, CommandOutput<K, V, Void> output, CommandArgs<K, V> args,
+                List<Command<K, V, ?>> commands) {
+            super(type, output, args);
+            this.commands = commands;
+        }
+
+        @Override
+        public void complete() {
+            super.complete();
+
+            String error = getOutput() != null ? getOutput().getError() : null;
+            for (Command<K, V, ?> command : commands) {
+                if (error != null && command.getOutput() != null) {
+                    command.getOutput().setError(error);
+                }
+                if (getException() != null) {
+                    command.setException(getException());
+                }
+                command.complete();
+            }
+        }
+
+        @Override
+        protected void interruptTask() {
+            super.interruptTask();
+            for (Command<K, V, ?> command : commands) {
+                command.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Output that passes the elements of a multi-key reply to the outputs of the original commands. A status reply is passed
+     * to every original command.
+     */
+    private static class FanOutOutput<K, V> extends CommandOutput<K, V, Void> {
+
+        private final List<Command<K, V, ?>> commands;
+        private final boolean broadcast;
+        private int index;
+
+        FanOutOutput(RedisCodec<K, V> codec, List<Command<K, V, ?>> commands, boolean broadcast) {
+            super(codec, null);
+            this.commands = commands;
+            this.broadcast = broadcast;
+        }
+
+        @Override
+        public void set(ByteBuffer bytes) {
+            if (broadcast) {
+                for (Command<K, V, ?> command : commands) {
+                    if (command.getOutput() != null) {
+                        command.getOutput().set(bytes != null ? bytes.duplicate() : null);
+                    }
+                }
+            } else if (index < commands.size()) {
+                CommandOutput<K, V, ?> output = commands.get(index++).getOutput();
+                if (output != null) {
+                    output.set(bytes);
+                }
+            }
+        }
+
+        @Override
+        public void set(long integer) {
+            if (broadcast) {
+                for (Command<K, V, ?> command : commands) {
+                    if (command.getOutput() != null) {
+                        command.getOutput().set(integer);
+                    }
+                }
+            } else if (index < commands.size()) {
+                CommandOutput<K, V, ?> output = commands.get(index++).getOutput();
+                if (output != null) {
+                    output.set(integer);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.lambdaworks.redis;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Set of 64-bit fingerprints stored off-heap. The fingerprints are kept in open-addressed hash tables (linear probing) in
+ * direct memory, an element takes 8 bytes plus the free space of the table. The set is split into segments which grow
+ * independently, so growing never copies more than one segment. The memory of a replaced segment is released when the segment
+ * grows, the memory of the set is released by {@link #release()} or, if the set is not released, when it is garbage
+ * collected.
+ *
+ * Two elements with the same fingerprint are treated as equal. Fingerprints are computed from the contents of
+ * {@link String strings}, byte arrays and {@link ByteBuffer byte buffers}, other elements are rejected because their
+ * {@link Object#hashCode() hash code} provides only 32 bits.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+class FingerprintSet {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int MIN_SEGMENT_CAPACITY = 1 << 6;
+    private static final int MAX_SEGMENT_CAPACITY = 1 << 27;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final ByteBuffer[] buffers = new ByteBuffer[SEGMENTS];
+    private final LongBuffer[] segments = new LongBuffer[SEGMENTS];
+    private final int[] sizes = new int[SEGMENTS];
+    private long size;
+
+    /**
+     *
+     * @param expectedElements number of elements the set is sized for initially
+     */
+    FingerprintSet(long expectedElements) {
+        long perSegment = expectedElements / SEGMENTS + 1;
+        int capacity = MIN_SEGMENT_CAPACITY;
+        while (capacity < MAX_SEGMENT_CAPACITY && capacity * 3L < perSegment * 4L) {
+            capacity <<= 1;
+        }
+
+        for (int i = 0; i < SEGMENTS; i++) {
+            allocate(i, capacity);
+        }
+    }
+
+    /**
+     * Add the fingerprint of the element.
+     *
+     * @param element the element
+     * @return true if the fingerprint was not yet contained.
+     * @throws IllegalArgumentException if the element cannot be fingerprinted by its contents
+     */
+    boolean add(Object element) {
+        return addFingerprint(fingerprint(element));
+    }
+
+    boolean addFingerprint(long fingerprint) {
+        if (segments[0] == null) {
+            throw new IllegalStateException("Fingerprint set is released");
+        }
+
+        // 0 marks a free slot
+        if (fingerprint == 0) {
+            fingerprint = 1;
+        }
+
+        int segment = (int) (fingerprint >>> (64 - SEGMENT_BITS));
+        LongBuffer table = segments[segment];
+        if ((sizes[segment] + 1L) * 4 > table.capacity() * 3L) {
+            table = grow(segment);
+        }
+
+        if (insert(table, fingerprint)) {
+            sizes[segment]++;
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     *
+     * @return the number of fingerprints.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     *
+     * @return the allocated off-heap memory in bytes.
+     */
+    long getMemoryUsage() {
+        long bytes = 0;
+        for (LongBuffer segment : segments) {
+            if (segment != null) {
+                bytes += segment.capacity() * 8L;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Release the off-heap memory. The set must not be used afterwards.
+     */
+    void release() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            if (buffers[i] != null) {
+                PlatformDependent.freeDirectBuffer(buffers[i]);
+                buffers[i] = null;
+                segments[i] = null;
+            }
+        }
+        size = 0;
+    }
+
+    private LongBuffer grow(int segment) {
+        LongBuffer table = segments[segment];
+        if (table.capacity() >= MAX_SEGMENT_CAPACITY) {
+            throw new IllegalStateException("Fingerprint set exceeds its maximal capacity");
+        }
+
+        ByteBuffer replaced = buffers[segment];
+        LongBuffer grown = allocate(segment, table.capacity() << 1);
+        for (int i = 0; i < table.capacity(); i++) {
+            long fingerprint = table.get(i);
+            if (fingerprint != 0) {
+                insert(grown, fingerprint);
+            }
+        }
+
+        PlatformDependent.freeDirectBuffer(replaced);
+        return grown;
+    }
+
+    private static boolean insert(LongBuffer table, long fingerprint) {
+        int mask = table.capacity() - 1;
+        int index = (int) fingerprint & mask;
+        for (;;) {
+            long current = table.get(index);
+            if (current == 0) {
+                table.put(index, fingerprint);
+                return true;
+            }
+
+            if (current == fingerprint) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private LongBuffer allocate(int segment, int capacity) {
+        buffers[segment] = ByteBuffer.allocateDirect(capacity * 8).order(ByteOrder.nativeOrder());
+        segments[segment] = buffers[segment].asLongBuffer();
+        return segments[segment];
+    }
+
+    /**
+     * Compute the 64-bit fingerprint of an element. The fingerprint of a {@link KeyValue} is the fingerprint of its key, the
+     * fingerprint of a {@link ScoredValue} is the fingerprint of its value.
+     *
+     * @param element the element
+     * @return the fingerprint.
+     */
+    static long fingerprint(Object element) {
+        if (element instanceof KeyValue) {
+            return fingerprint(((KeyValue<?, ?>) element).key);
+        }
+
+        if (element instanceof ScoredValue) {
+            return fingerprint(((ScoredValue<?>) element).value);
+        }
+
+        long hash = FNV_OFFSET_BASIS;
+        if (element instanceof String) {
+            String string = (String) element;
+            for (int i = 0; i < string.length(); i++) {
+                hash = (hash ^ string.charAt(i)) * FNV_PRIME;
+            }
+        } else if (element instanceof byte[]) {
+            for (byte b : (byte[]) element) {
+                hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+            }
+        } else if (element instanceof ByteBuffer) {
+            ByteBuffer buffer = (ByteBuffer) element;
+            for (int i = buffer.position(); i < buffer.limit(); i++) {
+                hash = (hash ^ (buffer.get(i) & 0xff)) * FNV_PRIME;
+            }
+        } else if (element != null) {
+            throw new IllegalArgumentException("Cannot fingerprint " + element.getClass().getName()
+                    + ", elements must be strings, byte arrays or byte buffers");
+        }
+
+        return mix(hash);
+    }
+
+    /**
+     * 64-bit finalizer of MurmurHash3 to spread the bits over the segment and index bits.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
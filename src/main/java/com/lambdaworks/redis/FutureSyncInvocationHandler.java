@@ -59,6 +59,10 @@ class FutureSyncInvocationHandler<K, V> extends AbstractInvocationHandler {
                 return LettuceFutures.await(command, timeout, unit);
             }
 
+            if (result instanceof RedisFuture) {
+                return LettuceFutures.await((RedisFuture<?>) result, timeout, unit);
+            }
+
             return result;
 
         } catch (InvocationTargetException e) {
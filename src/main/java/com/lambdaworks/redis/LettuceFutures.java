@@ -1,5 +1,6 @@
 package com.lambdaworks.redis;
 
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -73,4 +74,36 @@ public class LettuceFutures {
         }
         return output.get();
     }
+
+    /**
+     * Wait until the future is complete or the supplied timeout is reached. Errors reported through
+     * {@link RedisFuture#getError()} are rethrown as {@link RedisCommandExecutionException}.
+     * 
+     * @param future Future to wait for.
+     * @param timeout Maximum time to wait for the future to complete.
+     * @param unit Unit of time for the timeout.
+     * 
+     * @return the result of the future.
+     */
+    public static <T> T await(RedisFuture<T> future, long timeout, TimeUnit unit) {
+        T result;
+        try {
+            result = future.get(timeout, unit);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RedisCommandTimeoutException();
+        } catch (InterruptedException e) {
+            throw new RedisCommandInterruptedException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RedisException) {
+                throw (RedisException) e.getCause();
+            }
+            throw new RedisException(e.getCause());
+        }
+
+        if (future.getError() != null) {
+            throw new RedisCommandExecutionException(future.getError());
+        }
+        return result;
+    }
 }
@@ -2,21 +2,35 @@
 
 package com.lambdaworks.redis;
 
+import static com.google.common.base.Preconditions.*;
 import static com.lambdaworks.redis.protocol.CommandType.*;
 
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import com.lambdaworks.codec.Base16;
 import com.lambdaworks.redis.codec.RedisCodec;
 import com.lambdaworks.redis.output.*;
 import com.lambdaworks.redis.protocol.*;
 import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.internal.logging.InternalLogger;
+import io.netty.util.internal.logging.InternalLoggerFactory;
 
 /**
  * An asynchronous thread-safe connection to a redis server. Multiple threads may share one {@link RedisAsyncConnectionImpl}
@@ -33,9 +47,42 @@ import io.netty.channel.ChannelHandler;
 public class RedisAsyncConnectionImpl<K, V> extends RedisChannelHandler<K, V> implements RedisAsyncConnection<K, V>,
         RedisClusterAsyncConnection<K, V> {
 
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(RedisAsyncConnectionImpl.class);
+
+    /**
+     * Commands that are always dispatched with their output because the connection depends on their result.
+     */
+    private static final Set<CommandType> NOT_FIRE_AND_FORGET = EnumSet.of(AUTH, SELECT, MULTI, EXEC, DISCARD, WATCH,
+            UNWATCH);
+
+    /**
+     * Read commands that share their result with identical commands in flight.
+     */
+    private static final Set<CommandType> SINGLE_FLIGHT = EnumSet.of(BITCOUNT, BITPOS, EXISTS, GET, GETBIT, GETRANGE,
+            HEXISTS, HGET, HGETALL, HKEYS, HLEN, HMGET, HVALS, LINDEX, LLEN, LRANGE, MGET, PTTL, SCARD, SISMEMBER, SMEMBERS,
+            STRLEN, TTL, TYPE, ZCARD, ZCOUNT, ZLEXCOUNT, ZRANGE, ZRANGEBYLEX, ZRANGEBYSCORE, ZRANK, ZREVRANGE,
+            ZREVRANGEBYSCORE, ZREVRANK, ZSCORE);
+
     protected MultiOutput<K, V> multi;
+    private volatile boolean fireAndForget;
+
+    /**
+     * Completed future with the value {@literal null} that is returned for every command dispatched in fire-and-forget mode.
+     * It is never written to the channel.
+     */
+    private final Command<K, V, Void> discarded;
+    private volatile boolean singleFlight;
+    private volatile AutoBatcher<K, V> autoBatcher;
+    private volatile EventExecutor eventExecutor;
+    private final ConcurrentMap<SingleFlightKey, Command<K, V, ?>> inFlight = new ConcurrentHashMap<SingleFlightKey, Command<K, V, ?>>(
+            16, 0.75f, 1);
+    private final List<RedisCommandErrorListener> errorListeners = new CopyOnWriteArrayList<RedisCommandErrorListener>();
     private char[] password;
     private int db;
+    private String clientName;
+    private final ConcurrentMap<String, String> scripts = new ConcurrentHashMap<String, String>();
+    private final ConcurrentMap<String, String> loadedScripts = new ConcurrentHashMap<String, String>();
+    private final SettableRedisFuture<String> initialHandshake = new SettableRedisFuture<String>();
     protected RedisCommandBuilder<K, V> commandBuilder;
     protected RedisCodec<K, V> codec;
 
@@ -50,8 +97,9 @@ public class RedisAsyncConnectionImpl<K, V> extends RedisChannelHandler<K, V> im
     public RedisAsyncConnectionImpl(RedisChannelWriter<K, V> writer, RedisCodec<K, V> codec, long timeout, TimeUnit unit) {
         super(writer, timeout, unit);
         this.codec = codec;
-        commandBuilder = new RedisCommandBuilder<K, V>(codec);
-
+        commandBuilder = new FireAndForgetCommandBuilder(codec);
+        discarded = new Command<K, V, Void>(null, new DiscardingOutput<K, V>(codec), null);
+        discarded.complete();
     }
 
     @Override
@@ -266,12 +314,20 @@ public class RedisAsyncConnectionImpl<K, V> extends RedisChannelHandler<K, V> im
     @Override
     @SuppressWarnings("unchecked")
     public <T> RedisFuture<T> eval(String script, ScriptOutputType type, K... keys) {
+        String digest = loadedScripts.get(script);
+        if (digest != null && multi == null && !fireAndForget) {
+            return evalsha(digest, script, type, keys, null);
+        }
         return (RedisFuture<T>) dispatch(commandBuilder.eval(script, type, keys));
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> RedisFuture<T> eval(String script, ScriptOutputType type, K[] keys, V... values) {
+        String digest = loadedScripts.get(script);
+        if (digest != null && multi == null && !fireAndForget) {
+            return evalsha(digest, script, type, keys, values);
+        }
         return (RedisFuture<T>) dispatch(commandBuilder.eval(script, type, keys, values));
     }
 
@@ -1410,9 +1466,13 @@ public class RedisAsyncConnectionImpl<K, V> extends RedisChannelHandler<K, V> im
 
     @Override
     public String digest(V script) {
+        return sha1(codec.encodeValue(script));
+    }
+
+    private static String sha1(byte[] bytes) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA1");
-            md.update(codec.encodeValue(script));
+            md.update(bytes);
             return new String(Base16.encode(md.digest(), false));
         } catch (NoSuchAlgorithmException e) {
             throw new RedisException("JVM does not support SHA1");
@@ -1561,14 +1621,363 @@ public class RedisAsyncConnectionImpl<K, V> extends RedisChannelHandler<K, V> im
 
     @Override
     public synchronized <T> RedisCommand<K, V, T> dispatch(RedisCommand<K, V, T> cmd) {
+        if (!inFlight.isEmpty() && !(cmd instanceof Command && isSingleFlight((Command<K, V, T>) cmd))) {
+            // commands sent after e.g. a write must not share the results of reads sent before it
+            inFlight.clear();
+        }
+
         if (multi != null && cmd instanceof Command) {
             Command<K, V, T> command = (Command<K, V, T>) cmd;
             command.setMulti(true);
             multi.add(cmd);
+            return super.dispatch(cmd);
+        }
+
+        AutoBatcher<K, V> batcher = autoBatcher;
+        if (batcher != null) {
+            if (cmd instanceof Command && AutoBatcher.isBatchable((Command<K, V, T>) cmd)) {
+                batcher.add((Command<K, V, T>) cmd);
+                return cmd;
+            }
+            // commands that are not batched must not overtake the batched ones
+            batcher.flush();
+        }
+
+        if (cmd instanceof FireAndForgetCommand) {
+            super.dispatch(cmd);
+            @SuppressWarnings("unchecked")
+            RedisCommand<K, V, T> result = (RedisCommand<K, V, T>) (RedisCommand<K, V, ?>) discarded;
+            return result;
+        } else if (singleFlight && cmd instanceof Command && isSingleFlight((Command<K, V, T>) cmd)) {
+            return dispatchSingleFlight((Command<K, V, T>) cmd);
         }
         return super.dispatch(cmd);
     }
 
+    private <T> RedisCommand<K, V, T> dispatchSingleFlight(final Command<K, V, T> command) {
+
+        final SingleFlightKey key = new SingleFlightKey(command);
+
+        @SuppressWarnings("unchecked")
+        Command<K, V, T> leader = (Command<K, V, T>) inFlight.get(key);
+        if (leader == null || leader.isDone()) {
+            // the leader is not handed out to callers, only the connection cancels it
+            final Command<K, V, T> sent = new Command<K, V, T>(command.getType(), command.getOutput(), command.getArgs());
+            super.dispatch(sent);
+            inFlight.put(key, sent);
+            sent.addListener(new Runnable() {
+                @Override
+                public void run() {
+                    inFlight.remove(key, sent);
+                }
+            }, MoreExecutors.sameThreadExecutor());
+            leader = sent;
+        }
+
+        return follow(leader, command);
+    }
+
+    private <T> Command<K, V, T> follow(final Command<K, V, T> leader, Command<K, V, T> command) {
+
+        final Command<K, V, T> follower = new Command<K, V, T>(command.getType(), new SharedOutput<K, V, T>(codec,
+                leader.getOutput()), command.getArgs());
+        leader.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (leader.isCancelled()) {
+                    follower.cancel(true);
+                    return;
+                }
+                if (leader.getException() != null) {
+                    follower.setException(leader.getException());
+                }
+                follower.complete();
+            }
+        }, MoreExecutors.sameThreadExecutor());
+        return follower;
+    }
+
+    private static boolean isSingleFlight(Command<?, ?, ?> command) {
+        CommandOutput<?, ?, ?> output = command.getOutput();
+        return output != null && SINGLE_FLIGHT.contains(command.getType()) && !(output instanceof KeyStreamingOutput)
+                && !(output instanceof ValueStreamingOutput) && !(output instanceof KeyValueStreamingOutput)
+                && !(output instanceof ScoredValueStreamingOutput);
+    }
+
+    /**
+     * Send plain <code>GET</code>, <code>SET</code>, <code>HGET</code> and <code>EXISTS</code> commands in batches:
+     * <code>GET</code>s are combined into <code>MGET</code>, <code>SET</code>s into <code>MSET</code> and <code>HGET</code>s
+     * on the same hash into <code>HMGET</code>. A batch is sent when it is full or its window elapsed, the results are passed
+     * to the futures of the single commands. Any other command sends the pending batch first. Cluster connections batch
+     * commands per slot. A <code>GET</code> on a key that holds no string value completes with {@literal null} instead of an
+     * error when it is sent within a batch. The mode applies to all threads that share the connection.
+     * 
+     * @param options the batch options, {@literal null} to send the pending batch and disable batching
+     */
+    public synchronized void setAutoBatching(AutoBatchOptions options) {
+        if (autoBatcher != null) {
+            autoBatcher.flush();
+        }
+        autoBatcher = options != null ? new AutoBatcher<K, V>(this, codec, options, isPartitionedBySlot()) : null;
+    }
+
+    public boolean isAutoBatching() {
+        return autoBatcher != null;
+    }
+
+    /**
+     * 
+     * @return true if multi-key commands must not span multiple slots.
+     */
+    protected boolean isPartitionedBySlot() {
+        return false;
+    }
+
+    /**
+     * Register a script for <code>EVALSHA</code>-first execution. The SHA1 digest is computed locally and the script is
+     * loaded into the script cache of the server now and on every reconnect. Once the server confirmed the
+     * <code>SCRIPT LOAD</code>, {@link #eval(String, ScriptOutputType, Object[]) EVAL} of the script sends
+     * <code>EVALSHA</code> with the digest, until then it sends <code>EVAL</code>. If the server replies with
+     * <code>NOSCRIPT</code>, e.g. after a <code>SCRIPT FLUSH</code>, the script is sent again with <code>EVAL</code> when the
+     * reply arrives. Commands dispatched after the <code>EVAL</code> call may then be executed before the script, unlike with a
+     * plain <code>EVAL</code>. Scripts are passed as strings and therefore independent of the codec of this connection.
+     * Within a transaction and in {@link #setFireAndForget(boolean) fire-and-forget mode} registered scripts are sent with
+     * <code>EVAL</code>.
+     * 
+     * @param script the script content, must not be {@literal null}
+     * @return RedisFuture&lt;String&gt; the SHA1 digest of the script, completed once the script is loaded.
+     */
+    public RedisFuture<String> registerScript(final String script) {
+        checkArgument(script != null, "script must not be null");
+
+        final String digest = scriptDigest(script);
+        scripts.put(script, digest);
+
+        final RedisFuture<String> future = loadScript(script, digest);
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (isLoaded(future)) {
+                    loadedScripts.put(script, digest);
+                }
+            }
+        }, MoreExecutors.sameThreadExecutor());
+        return future;
+    }
+
+    private static boolean isLoaded(RedisFuture<String> future) {
+        if (future.isCancelled() || future.getError() != null) {
+            return false;
+        }
+
+        try {
+            return future.get() != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Load a registered script into the script cache. A connection that is not open loads the script with the handshake of
+     * the next connect.
+     * 
+     * @param script the script content
+     * @param digest the SHA1 digest of the script
+     * @return RedisFuture&lt;String&gt; the SHA1 digest of the script.
+     */
+    protected synchronized RedisFuture<String> loadScript(String script, String digest) {
+        if (isOpen() && multi == null) {
+            return super.dispatch(scriptLoad(script));
+        }
+
+        SettableRedisFuture<String> future = new SettableRedisFuture<String>();
+        future.set(digest);
+        return future;
+    }
+
+    /**
+     * 
+     * @param script the script content
+     * @return the SHA1 digest of the script if it is registered, otherwise {@literal null}.
+     */
+    public String getScriptDigest(String script) {
+        return scripts.get(script);
+    }
+
+    private Command<K, V, String> scriptLoad(String script) {
+        CommandArgs<K, V> args = new CommandArgs<K, V>(codec).add(CommandKeyword.LOAD).add(script);
+        return new Command<K, V, String>(SCRIPT, new StatusOutput<K, V>(codec), args);
+    }
+
+    /**
+     * SHA1 digest of a script that is passed as string. {@link CommandArgs} writes one byte per character of a string.
+     */
+    private static String scriptDigest(String script) {
+        byte[] bytes = new byte[script.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) script.charAt(i);
+        }
+        return sha1(bytes);
+    }
+
+    private <T> RedisFuture<T> evalsha(String digest, final String script, final ScriptOutputType type, final K[] keys,
+            final V[] values) {
+
+        final SettableRedisFuture<T> result = new SettableRedisFuture<T>();
+        final RedisCommand<K, V, T> evalsha = dispatch(values == null ? commandBuilder.<T> evalsha(digest, type, keys)
+                : commandBuilder.<T> evalsha(digest, type, keys, values));
+
+        evalsha.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (evalsha.isCancelled() || !isNoScript(evalsha.getOutput())) {
+                    complete(result, evalsha);
+                    return;
+                }
+
+                // EVAL loads the script into the script cache again, the following calls use EVALSHA.
+                final RedisCommand<K, V, T> eval = dispatch(values == null ? commandBuilder.<T> eval(script, type, keys)
+                        : commandBuilder.<T> eval(script, type, keys, values));
+                eval.addListener(new Runnable() {
+                    @Override
+                    public void run() {
+                        complete(result, eval);
+                    }
+                }, MoreExecutors.sameThreadExecutor());
+            }
+        }, MoreExecutors.sameThreadExecutor());
+
+        return result;
+    }
+
+    private static boolean isNoScript(CommandOutput<?, ?, ?> output) {
+
+        if (output.getError() != null) {
+            return output.getError().startsWith("NOSCRIPT");
+        }
+
+        // nested multi outputs keep the error reply as element
+        Object value = output.get();
+        if (value instanceof List && ((List<?>) value).size() == 1) {
+            Object element = ((List<?>) value).get(0);
+            return element instanceof RedisCommandExecutionException
+                    && ((RedisCommandExecutionException) element).getMessage().startsWith("NOSCRIPT");
+        }
+
+        return false;
+    }
+
+    private static <T> void complete(SettableRedisFuture<T> result, RedisCommand<?, ?, T> command) {
+
+        if (command.isCancelled()) {
+            result.cancel(true);
+            return;
+        }
+
+        if (command instanceof Command && ((Command<?, ?, T>) command).getException() != null) {
+            result.setException(((Command<?, ?, T>) command).getException());
+            return;
+        }
+
+        CommandOutput<?, ?, T> output = command.getOutput();
+        if (output.hasError()) {
+            result.setError(output.getError());
+        }
+        result.set(output.get());
+    }
+
+    /**
+     * 
+     * @return the executor of the I/O thread of the connection, {@literal null} if the connection was never connected.
+     */
+    EventExecutor getEventExecutor() {
+        return eventExecutor;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        eventExecutor = ctx.executor();
+        super.handlerAdded(ctx);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (autoBatcher != null) {
+            if (!isClosed()) {
+                autoBatcher.flush();
+            }
+            autoBatcher = null;
+        }
+        super.close();
+    }
+
+    /**
+     * Share the results of read commands (e.g. <code>GET</code>, <code>HGET</code>, <code>EXISTS</code>) with identical
+     * commands that are already in flight. A command is identical if it has the same type, the same encoded arguments and
+     * the same kind of output. Commands within a transaction and commands with streaming channels are dispatched as usual.
+     * Any other command (e.g. a write) ends the sharing of the commands in flight, identical reads that follow it are sent
+     * again. Cancelling a command does not affect the other commands that wait for the same result. Every command gets its own
+     * copy of a list, set or map result, the elements (e.g. byte arrays) are shared between the commands and must not be
+     * modified. The mode applies to all threads that share the connection.
+     * 
+     * @param singleFlight true to coalesce identical read commands
+     */
+    public void setSingleFlight(boolean singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    public boolean isSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Dispatch commands without reading their results. The replies are checked for errors but not decoded. Every command
+     * returns the same completed future, its value is always {@literal null} and does not tell whether the command succeeded.
+     * Errors are reported to the {@link #addErrorListener(RedisCommandErrorListener) error listeners}. Connection and
+     * transaction commands (e.g. <code>AUTH</code>, <code>SELECT</code>, <code>MULTI</code>), commands within a transaction
+     * and commands passed to {@link #dispatch(RedisCommand)} are dispatched as usual. The mode applies to all threads that
+     * share the connection.
+     * 
+     * @param fireAndForget true to discard the results of the following commands
+     */
+    public void setFireAndForget(boolean fireAndForget) {
+        this.fireAndForget = fireAndForget;
+    }
+
+    public boolean isFireAndForget() {
+        return fireAndForget;
+    }
+
+    /**
+     * Add a listener for errors of commands that were dispatched in fire-and-forget mode.
+     * 
+     * @param listener the listener, must not be {@literal null}
+     */
+    public void addErrorListener(RedisCommandErrorListener listener) {
+        checkArgument(listener != null, "RedisCommandErrorListener must not be null");
+        errorListeners.add(listener);
+    }
+
+    /**
+     * Remove an existing error listener.
+     * 
+     * @param listener the listener
+     */
+    public void removeErrorListener(RedisCommandErrorListener listener) {
+        errorListeners.remove(listener);
+    }
+
+    void commandFailed(CommandType type, String error) {
+        if (errorListeners.isEmpty()) {
+            logger.warn("Fire-and-forget command " + type + " failed: " + error);
+            return;
+        }
+
+        for (RedisCommandErrorListener listener : errorListeners) {
+            listener.onCommandError(this, type, error);
+        }
+    }
+
     public static String string(double n) {
         if (Double.isInfinite(n)) {
             return (n > 0) ? "+inf" : "-inf";
@@ -1580,18 +1989,207 @@ public class RedisAsyncConnectionImpl<K, V> extends RedisChannelHandler<K, V> im
         return multi != null;
     }
 
+    /**
+     * Apply the password, the database and the client name of the {@link RedisURI}. The settings are sent as pipelined
+     * handshake when the connection becomes active and are sent again on every reconnect. Call this method before the
+     * connection is connected.
+     * 
+     * @param redisURI the redis URI
+     */
+    public void setConnectionSettings(RedisURI redisURI) {
+
+        if (redisURI.getPassword() != null && redisURI.getPassword().length != 0) {
+            this.password = redisURI.getPassword();
+        }
+
+        this.db = redisURI.getDatabase();
+        this.clientName = redisURI.getClientName();
+    }
+
+    /**
+     * 
+     * @return future that is completed once the handshake of the first connect is completed. The future reports the first
+     *         error of the handshake commands.
+     */
+    public RedisFuture<String> getInitialHandshake() {
+        return initialHandshake;
+    }
+
     @Override
-    public void activated() {
+    public List<RedisCommand<K, V, ?>> handshake() {
 
-        super.activated();
-        // do not block in here, since the channel flow will be interrupted.
+        List<RedisCommand<K, V, ?>> commands = new ArrayList<RedisCommand<K, V, ?>>(3);
         if (password != null) {
-            dispatch(commandBuilder.auth(new String(password)));
+            commands.add(commandBuilder.auth(new String(password)));
         }
 
         if (db != 0) {
-            dispatch(commandBuilder.select(db));
+            commands.add(commandBuilder.select(db));
+        }
+
+        if (clientName != null) {
+            CommandArgs<K, V> args = new CommandArgs<K, V>(codec).add(CommandKeyword.SETNAME).add(clientName);
+            commands.add(new Command<K, V, String>(CLIENT, new StatusOutput<K, V>(codec), args));
+        }
+
+        for (String script : scripts.keySet()) {
+            commands.add(scriptLoad(script));
+        }
+
+        if (!initialHandshake.isDone()) {
+            completeInitialHandshake(commands);
+        }
+
+        return commands;
+    }
+
+    private void completeInitialHandshake(final List<RedisCommand<K, V, ?>> commands) {
+
+        if (commands.isEmpty()) {
+            initialHandshake.set("OK");
+            return;
+        }
+
+        // replies arrive in order, so every handshake command is completed once the last one is completed.
+        commands.get(commands.size() - 1).addListener(new Runnable() {
+            @Override
+            public void run() {
+                for (RedisCommand<K, V, ?> command : commands) {
+                    CommandOutput<K, V, ?> output = command.getOutput();
+                    if (output == null) {
+                        initialHandshake.setError("Handshake command cancelled");
+                    } else if (output.hasError()) {
+                        initialHandshake.setError(output.getError());
+                    }
+                }
+                initialHandshake.set("OK");
+            }
+        }, MoreExecutors.sameThreadExecutor());
+    }
+
+
+    /**
+     * Identity of a single-flight command.
+     */
+    private static class SingleFlightKey {
+
+        private final CommandType type;
+        private final Class<?> outputType;
+        private final ByteBuffer args;
+
+        SingleFlightKey(Command<?, ?, ?> command) {
+            this.type = command.getType();
+            this.outputType = command.getOutput().getClass();
+            this.args = command.getArgs() != null ? command.getArgs().encoded() : ByteBuffer.allocate(0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SingleFlightKey)) {
+                return false;
+            }
+
+            SingleFlightKey that = (SingleFlightKey) o;
+            return type == that.type && outputType == that.outputType && args.equals(that.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * type.hashCode() + outputType.hashCode()) + args.hashCode();
+        }
+    }
+
+    /**
+     * Output of a command that shares the result of an identical command in flight. Collection results are copied, so callers
+     * cannot modify the results of other callers.
+     */
+    private static class SharedOutput<K, V, T> extends CommandOutput<K, V, T> {
+
+        private final CommandOutput<K, V, T> shared;
+        private boolean copied;
+
+        SharedOutput(RedisCodec<K, V> codec, CommandOutput<K, V, T> shared) {
+            super(codec, null);
+            this.shared = shared;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized T get() {
+            if (!copied) {
+                T value = shared.get();
+                if (value instanceof List) {
+                    value = (T) new ArrayList<Object>((List<?>) value);
+                } else if (value instanceof Set) {
+                    value = (T) new LinkedHashSet<Object>((Set<?>) value);
+                } else if (value instanceof Map) {
+                    value = (T) new LinkedHashMap<Object, Object>((Map<?, ?>) value);
+                }
+                output = value;
+                copied = true;
+            }
+            return output;
+        }
+
+        @Override
+        public boolean hasError() {
+            return getError() != null;
+        }
+
+        @Override
+        public String getError() {
+            return error != null ? error : shared.getError();
         }
     }
 
+    /**
+     * Command builder that creates {@link FireAndForgetCommand fire-and-forget commands} while the connection is in
+     * fire-and-forget mode. The output passed by the builder methods is not referenced by the command.
+     */
+    private class FireAndForgetCommandBuilder extends RedisCommandBuilder<K, V> {
+
+        FireAndForgetCommandBuilder(RedisCodec<K, V> codec) {
+            super(codec);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <T> Command<K, V, T> createCommand(CommandType type, CommandOutput<K, V, T> output, CommandArgs<K, V> args) {
+            if (fireAndForget && multi == null && !NOT_FIRE_AND_FORGET.contains(type)) {
+                return (Command<K, V, T>) (Command<K, V, ?>) new FireAndForgetCommand<K, V>(type, codec, args,
+                        RedisAsyncConnectionImpl.this);
+            }
+            return super.createCommand(type, output, args);
+        }
+    }
+
+    /**
+     * Command that reports errors to the connection instead of completing a future.
+     */
+    private static class FireAndForgetCommand<K, V> extends Command<K, V, Void> {
+
+        private final RedisAsyncConnectionImpl<K, V> connection;
+
+        FireAndForgetCommand(CommandType type, RedisCodec<K, V> codec, CommandArgs<K, V> args,
+                RedisAsyncConnectionImpl<K, V> connection) {
+            super(type, new DiscardingOutput<K, V>(codec), args);
+            this.connection = connection;
+        }
+
+        @Override
+        public void complete() {
+            if (getOutput().hasError()) {
+                connection.commandFailed(getType(), getOutput().getError());
+            }
+        }
+
+        @Override
+        public boolean setException(Throwable throwable) {
+            getOutput().setError(throwable.toString());
+            return true;
+        }
+    }
 }
@@ -4,6 +4,8 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import com.lambdaworks.redis.protocol.RedisCommand;
@@ -55,6 +57,22 @@ public abstract class RedisChannelHandler<K, V> extends ChannelInboundHandlerAda
         this.unit = unit;
     }
 
+    /**
+     *
+     * @return the command timeout of this connection.
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     *
+     * @return the unit of the command timeout of this connection.
+     */
+    public TimeUnit getTimeoutUnit() {
+        return unit;
+    }
+
     /**
      * Close the connection.
      */
@@ -138,6 +156,16 @@ public abstract class RedisChannelHandler<K, V> extends ChannelInboundHandlerAda
         return closed;
     }
 
+    /**
+     * Commands which are written as one pipelined batch before any other command when the connection becomes active
+     * (connected or reconnected), e.g. authentication and database selection.
+     * 
+     * @return the handshake commands, empty by default.
+     */
+    public List<RedisCommand<K, V, ?>> handshake() {
+        return Collections.emptyList();
+    }
+
     /**
      * Notification when the connection becomes active (connected).
      */
@@ -6,20 +6,36 @@ import static com.google.common.base.Preconditions.*;
 
 import java.net.ConnectException;
 import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.*;
 
 import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.lambdaworks.redis.bulk.BulkLoader;
+import com.lambdaworks.redis.cache.NearCache;
+import com.lambdaworks.redis.cache.NearCacheOptions;
 import com.lambdaworks.redis.codec.RedisCodec;
 import com.lambdaworks.redis.codec.Utf8StringCodec;
 import com.lambdaworks.redis.protocol.CommandHandler;
 import com.lambdaworks.redis.protocol.ConnectionWatchdog;
 import com.lambdaworks.redis.protocol.RedisCommand;
 import com.lambdaworks.redis.pubsub.PubSubCommandHandler;
+import com.lambdaworks.redis.pubsub.RedisPubSubConnection;
 import com.lambdaworks.redis.pubsub.RedisPubSubConnectionImpl;
+import com.lambdaworks.redis.pubsub.ShardedPubSubConnection;
+import com.lambdaworks.redis.reactive.RedisReactiveConnection;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.socket.nio.NioSocketChannel;
@@ -35,6 +51,7 @@ public class RedisClient extends AbstractRedisClient {
 
     private final RedisCodec<String, String> codec = new Utf8StringCodec();
     private final RedisURI redisURI;
+    private final SentinelMasterAddressCache sentinelMasterAddressCache = new SentinelMasterAddressCache(this);
 
     /**
      * Creates a uri-less RedisClient. You can connect to different redis servers but you must supply a {@link RedisURI} on
@@ -283,6 +300,26 @@ public class RedisClient extends AbstractRedisClient {
         return connectAsyncImpl(codec, true, redisURI);
     }
 
+    /**
+     * Open a new reactive connection to the redis server that treats keys and values as UTF-8 strings.
+     *
+     * @return A new connection.
+     */
+    public RedisReactiveConnection<String, String> connectReactive() {
+        return connectReactive(codec);
+    }
+
+    /**
+     * Open a new reactive connection to the redis server. Use the supplied {@link RedisCodec codec} to encode/decode keys and
+     * values.
+     *
+     * @param codec Use this codec to encode/decode keys and values, must not be {@literal null}
+     * @return A new connection.
+     */
+    public <K, V> RedisReactiveConnection<K, V> connectReactive(RedisCodec<K, V> codec) {
+        return new RedisReactiveConnection<K, V>(connectAsync(codec));
+    }
+
     /**
      * Open a new asynchronous connection to the supplied {@link RedisURI} that treats keys and values as UTF-8 strings.
      *
@@ -309,14 +346,75 @@ public class RedisClient extends AbstractRedisClient {
     private <K, V> void connectAsyncImpl(CommandHandler<K, V> handler, RedisAsyncConnectionImpl<K, V> connection,
             boolean withReconnect, RedisURI redisURI) {
 
+        connection.setConnectionSettings(redisURI);
         connectAsyncImpl(handler, connection, getSocketAddressSupplier(redisURI), withReconnect);
-        if (redisURI.getPassword() != null && redisURI.getPassword().length != 0) {
-            connection.auth(new String(redisURI.getPassword()));
-        }
+    }
 
-        if (redisURI.getDatabase() != 0) {
-            connection.select(redisURI.getDatabase());
-        }
+    /**
+     * Open a new asynchronous connection to the redis server that treats keys and values as UTF-8 strings without blocking the
+     * calling thread. The sentinel lookup, the connect and the initial handshake run in the background.
+     *
+     * @return A future of the new connection.
+     */
+    public RedisFuture<RedisAsyncConnection<String, String>> connectFuture() {
+        return connectFuture(codec);
+    }
+
+    /**
+     * Open a new asynchronous connection to the redis server without blocking the calling thread. Use the supplied
+     * {@link RedisCodec codec} to encode/decode keys and values. The sentinel lookup, the connect and the initial handshake run
+     * in the background.
+     *
+     * @param codec Use this codec to encode/decode keys and values, must not be {@literal null}
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return A future of the new connection.
+     */
+    public <K, V> RedisFuture<RedisAsyncConnection<K, V>> connectFuture(RedisCodec<K, V> codec) {
+        checkForRedisURI();
+        checkArgument(codec != null, "RedisCodec must not be null");
+        return connectFutureImpl(codec, redisURI);
+    }
+
+    /**
+     * Open a new asynchronous connection to the supplied {@link RedisURI} that treats keys and values as UTF-8 strings without
+     * blocking the calling thread.
+     *
+     * @param redisURI the redis server to connect to, must not be {@literal null}
+     * @return A future of the new connection.
+     */
+    public RedisFuture<RedisAsyncConnection<String, String>> connectFuture(RedisURI redisURI) {
+        checkValidRedisURI(redisURI);
+        return connectFutureImpl(codec, redisURI);
+    }
+
+    /**
+     * Open a new asynchronous connection to the supplied {@link RedisURI} without blocking the calling thread. Use the supplied
+     * {@link RedisCodec codec} to encode/decode keys and values.
+     *
+     * @param codec Use this codec to encode/decode keys and values, must not be {@literal null}
+     * @param redisURI the redis server to connect to, must not be {@literal null}
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return A future of the new connection.
+     */
+    public <K, V> RedisFuture<RedisAsyncConnection<K, V>> connectFuture(RedisCodec<K, V> codec, RedisURI redisURI) {
+        checkArgument(codec != null, "RedisCodec must not be null");
+        checkValidRedisURI(redisURI);
+        return connectFutureImpl(codec, redisURI);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private <K, V> RedisFuture<RedisAsyncConnection<K, V>> connectFutureImpl(RedisCodec<K, V> codec, RedisURI redisURI) {
+
+        BlockingQueue<RedisCommand<K, V, ?>> queue = new LinkedBlockingQueue<RedisCommand<K, V, ?>>();
+
+        CommandHandler<K, V> handler = new CommandHandler<K, V>(queue);
+        RedisAsyncConnectionImpl<K, V> connection = new RedisAsyncConnectionImpl<K, V>(handler, codec, timeout, unit);
+
+        connection.setConnectionSettings(redisURI);
+        return (RedisFuture) connectFutureImpl(handler, connection, getSocketAddressFuture(redisURI),
+                getSocketAddressSupplier(redisURI), true);
     }
 
     /**
@@ -343,13 +441,188 @@ public class RedisClient extends AbstractRedisClient {
         BlockingQueue<RedisCommand<K, V, ?>> queue = new LinkedBlockingQueue<RedisCommand<K, V, ?>>();
 
         PubSubCommandHandler<K, V> handler = new PubSubCommandHandler<K, V>(queue, codec);
-        RedisPubSubConnectionImpl<K, V> connection = new RedisPubSubConnectionImpl<K, V>(handler, codec, timeout, unit);
+        RedisPubSubConnectionImpl<K, V> connection = new RedisPubSubConnectionImpl<K, V>(handler, codec, timeout, unit,
+                listenerExecutor);
 
         connectAsyncImpl(handler, connection, true, redisURI);
 
         return connection;
     }
 
+    /**
+     * Open a new pub/sub connection to the redis server that treats keys and values as UTF-8 strings without blocking the
+     * calling thread.
+     *
+     * @return A future of the new pub/sub connection.
+     */
+    public RedisFuture<RedisPubSubConnection<String, String>> connectPubSubFuture() {
+        return connectPubSubFuture(codec);
+    }
+
+    /**
+     * Open a new pub/sub connection to the redis server without blocking the calling thread. Use the supplied
+     * {@link RedisCodec codec} to encode/decode keys and values. The sentinel lookup, the connect and the initial handshake run
+     * in the background.
+     *
+     * @param codec Use this codec to encode/decode keys and values, must not be {@literal null}
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return A future of the new pub/sub connection.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public <K, V> RedisFuture<RedisPubSubConnection<K, V>> connectPubSubFuture(RedisCodec<K, V> codec) {
+
+        checkForRedisURI();
+        checkArgument(codec != null, "RedisCodec must not be null");
+        BlockingQueue<RedisCommand<K, V, ?>> queue = new LinkedBlockingQueue<RedisCommand<K, V, ?>>();
+
+        PubSubCommandHandler<K, V> handler = new PubSubCommandHandler<K, V>(queue, codec);
+        RedisPubSubConnectionImpl<K, V> connection = new RedisPubSubConnectionImpl<K, V>(handler, codec, timeout, unit,
+                listenerExecutor);
+
+        connection.setConnectionSettings(redisURI);
+        return (RedisFuture) connectFutureImpl(handler, connection, getSocketAddressFuture(redisURI),
+                getSocketAddressSupplier(redisURI), true);
+    }
+
+    /**
+     * Open a new sharded pub/sub connection to the redis server that treats keys and values as UTF-8 strings. Subscriptions are
+     * spread across the given number of pub/sub connections.
+     *
+     * @param shards number of pub/sub connections, must be greater than {@literal 0}
+     * @return A new sharded pub/sub connection.
+     */
+    public ShardedPubSubConnection<String, String> connectShardedPubSub(int shards) {
+        return connectShardedPubSub(codec, shards);
+    }
+
+    /**
+     * Open a new sharded pub/sub connection to the redis server. Use the supplied {@link RedisCodec codec} to encode/decode
+     * keys and values. Subscriptions are spread across the given number of pub/sub connections.
+     *
+     * @param codec Use this codec to encode/decode keys and values, must not be {@literal null}
+     * @param shards number of pub/sub connections, must be greater than {@literal 0}
+     * @return A new sharded pub/sub connection.
+     */
+    public <K, V> ShardedPubSubConnection<K, V> connectShardedPubSub(RedisCodec<K, V> codec, int shards) {
+
+        checkArgument(shards > 0, "shards must be greater than 0");
+
+        List<RedisPubSubConnectionImpl<K, V>> connections = new ArrayList<RedisPubSubConnectionImpl<K, V>>(shards);
+        try {
+            for (int i = 0; i < shards; i++) {
+                connections.add(connectPubSub(codec));
+            }
+        } catch (RedisException e) {
+            for (RedisPubSubConnectionImpl<K, V> connection : connections) {
+                connection.close();
+            }
+            throw e;
+        }
+
+        return new ShardedPubSubConnection<K, V>(codec, connections);
+    }
+
+    /**
+     * Open a new bulk loader that treats keys and values as UTF-8 strings. The commands are spread across the given number of
+     * connections.
+     *
+     * @param connections number of connections, must be greater than {@literal 0}
+     * @return A new bulk loader.
+     */
+    public BulkLoader<String, String> connectBulkLoader(int connections) {
+        return connectBulkLoader(codec, connections);
+    }
+
+    /**
+     * Open a new bulk loader. Use the supplied {@link RedisCodec codec} to encode/decode keys and values. The commands are
+     * spread across the given number of connections.
+     *
+     * @param codec Use this codec to encode/decode keys and values, must not be {@literal null}
+     * @param connections number of connections, must be greater than {@literal 0}
+     * @return A new bulk loader.
+     */
+    public <K, V> BulkLoader<K, V> connectBulkLoader(RedisCodec<K, V> codec, int connections) {
+
+        checkForRedisURI();
+        checkArgument(codec != null, "RedisCodec must not be null");
+        checkArgument(connections > 0, "connections must be greater than 0");
+
+        List<RedisAsyncConnectionImpl<K, V>> list = new ArrayList<RedisAsyncConnectionImpl<K, V>>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                list.add(connectAsyncImpl(codec, true, redisURI));
+            }
+        } catch (RedisException e) {
+            for (RedisAsyncConnectionImpl<K, V> connection : list) {
+                connection.close();
+            }
+            throw e;
+        }
+
+        return new BulkLoader<K, V>(codec, list);
+    }
+
+    /**
+     * Open a new near cache that treats keys and values as UTF-8 strings. The server must publish keyspace notifications.
+     *
+     * @param options the cache options, must not be {@literal null}
+     * @return A new near cache.
+     */
+    public NearCache<String, String> connectNearCache(NearCacheOptions options) {
+        return connectNearCache(codec, options);
+    }
+
+    /**
+     * Open a new near cache. Use the supplied {@link RedisCodec codec} to encode/decode keys and values. The server must
+     * publish keyspace notifications.
+     *
+     * @param codec Use this codec to encode/decode keys and values, must not be {@literal null}
+     * @param options the cache options, must not be {@literal null}
+     * @return A new near cache.
+     */
+    public <K, V> NearCache<K, V> connectNearCache(RedisCodec<K, V> codec, NearCacheOptions options) {
+
+        checkForRedisURI();
+        checkArgument(codec != null, "RedisCodec must not be null");
+        checkArgument(options != null, "NearCacheOptions must not be null");
+
+        RedisAsyncConnectionImpl<K, V> connection = connectAsyncImpl(codec, true, redisURI);
+        RedisPubSubConnectionImpl<K, V> pubSubConnection;
+        try {
+            pubSubConnection = connectPubSub(codec);
+        } catch (RedisException e) {
+            connection.close();
+            throw e;
+        }
+
+        return new NearCache<K, V>(this, codec, connection, pubSubConnection, redisURI.getDatabase(), options);
+    }
+
+    /**
+     * Open a pub/sub connection to a single sentinel.
+     * 
+     * @param sentinel the sentinel
+     * @return A new pub/sub connection.
+     */
+    RedisPubSubConnectionImpl<String, String> connectSentinelPubSub(final RedisURI sentinel) {
+
+        BlockingQueue<RedisCommand<String, String, ?>> queue = new LinkedBlockingQueue<RedisCommand<String, String, ?>>();
+
+        PubSubCommandHandler<String, String> handler = new PubSubCommandHandler<String, String>(queue, codec);
+        RedisPubSubConnectionImpl<String, String> connection = new RedisPubSubConnectionImpl<String, String>(handler, codec,
+                timeout, unit, listenerExecutor);
+
+        connectAsyncImpl(handler, connection, new Supplier<SocketAddress>() {
+            @Override
+            public SocketAddress get() {
+                return sentinel.getResolvedAddress();
+            }
+        }, true);
+
+        return connection;
+    }
+
     /**
      * Creates an asynchronous connection to Sentinel. You must supply a valid RedisURI containing one or more sentinels.
      * 
@@ -394,19 +667,7 @@ public class RedisClient extends AbstractRedisClient {
                 codec, timeout, unit);
 
         logger.debug("Trying to get a Sentinel connection for one of: " + redisURI.getSentinels());
-        final Bootstrap sentinelBootstrap = new Bootstrap().channel(NioSocketChannel.class).group(eventLoopGroup);
-        final ConnectionWatchdog watchdog = new ConnectionWatchdog(sentinelBootstrap, timer);
-        watchdog.setReconnect(true);
-
-        sentinelBootstrap.handler(new ChannelInitializer<Channel>() {
-            @Override
-            protected void initChannel(Channel ch) throws Exception {
-
-                ch.pipeline().addLast(watchdog, new ChannelGroupListener(channels), watchdog, commandHandler,
-                        new ConnectionEventTrigger(connectionEvents, connection));
-
-            }
-        });
+        final Bootstrap sentinelBootstrap = createSentinelBootstrap(commandHandler, connection);
 
         if (redisURI.getSentinels().isEmpty() && LettuceStrings.isNotEmpty(redisURI.getHost())) {
             sentinelBootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
@@ -450,12 +711,236 @@ public class RedisClient extends AbstractRedisClient {
         return connection;
     }
 
+    /**
+     * Creates an asynchronous connection to Sentinel without blocking the calling thread. You must supply a valid RedisURI
+     * containing one or more sentinels.
+     *
+     * @return A future of the new connection.
+     */
+    public RedisFuture<RedisSentinelAsyncConnection<String, String>> connectSentinelFuture() {
+        return connectSentinelFuture(codec);
+    }
+
+    /**
+     * Creates an asynchronous connection to Sentinel without blocking the calling thread. You must supply a valid RedisURI
+     * containing one or more sentinels. The sentinels are tried in order, the future completes with the connection to the
+     * first sentinel that accepts the connect.
+     *
+     * @param codec Use this codec to encode/decode keys and values, must not be {@literal null}
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return A future of the new connection.
+     */
+    public <K, V> RedisFuture<RedisSentinelAsyncConnection<K, V>> connectSentinelFuture(RedisCodec<K, V> codec) {
+
+        checkForRedisURI();
+        checkArgument(codec != null, "RedisCodec must not be null");
+        return connectSentinelFutureImpl(codec, redisURI);
+    }
+
+    /**
+     * Creates an asynchronous connection to Sentinel without blocking the calling thread. You must supply a valid RedisURI
+     * containing a redis host or one or more sentinels.
+     *
+     * @param redisURI the redis server to connect to, must not be {@literal null}
+     * @return A future of the new connection.
+     */
+    public RedisFuture<RedisSentinelAsyncConnection<String, String>> connectSentinelFuture(RedisURI redisURI) {
+        checkArgument(redisURI != null, "RedisURI must not be null");
+        return connectSentinelFutureImpl(codec, redisURI);
+    }
+
+    private <K, V> RedisFuture<RedisSentinelAsyncConnection<K, V>> connectSentinelFutureImpl(RedisCodec<K, V> codec,
+            RedisURI redisURI) {
+        BlockingQueue<RedisCommand<K, V, ?>> queue = new LinkedBlockingQueue<RedisCommand<K, V, ?>>();
+
+        CommandHandler<K, V> commandHandler = new CommandHandler<K, V>(queue);
+        RedisSentinelAsyncConnectionImpl<K, V> connection = new RedisSentinelAsyncConnectionImpl<K, V>(commandHandler, codec,
+                timeout, unit);
+
+        List<RedisURI> sentinels = redisURI.getSentinels();
+        if (sentinels.isEmpty() && LettuceStrings.isNotEmpty(redisURI.getHost())) {
+            sentinels = Collections.singletonList(redisURI);
+        }
+
+        logger.debug("Trying to get a Sentinel connection for one of: " + sentinels);
+        SettableRedisFuture<RedisSentinelAsyncConnection<K, V>> result = new SettableRedisFuture<RedisSentinelAsyncConnection<K, V>>();
+        connectSentinel(createSentinelBootstrap(commandHandler, connection), connection, sentinels, sentinels.iterator(), null,
+                result);
+
+        return result;
+    }
+
+    /**
+     * Connect to the next sentinel once the connect to the previous one failed.
+     */
+    private <K, V> void connectSentinel(final Bootstrap sentinelBootstrap,
+            final RedisSentinelAsyncConnectionImpl<K, V> connection, final List<RedisURI> sentinels,
+            final Iterator<RedisURI> remaining, Throwable cause,
+            final SettableRedisFuture<RedisSentinelAsyncConnection<K, V>> result) {
+
+        if (!remaining.hasNext()) {
+            connection.close();
+            result.setException(new RedisException("Cannot connect to a sentinel: " + sentinels, cause));
+            return;
+        }
+
+        final RedisURI uri = remaining.next();
+        final SocketAddress address;
+        try {
+            address = uri.getResolvedAddress();
+        } catch (RuntimeException e) {
+            connectSentinel(sentinelBootstrap, connection, sentinels, remaining, e, result);
+            return;
+        }
+
+        sentinelBootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) uri.getUnit().toMillis(uri.getTimeout()));
+        logger.debug("Connecting to Sentinel, address: " + address);
+        sentinelBootstrap.connect(address).addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception {
+                if (future.isSuccess()) {
+                    connection.registerCloseables(closeableResources, connection);
+                    result.set(connection);
+                    return;
+                }
+
+                logger.warn("Cannot connect sentinel at " + uri.getHost() + ":" + uri.getPort() + ": " + future.cause());
+                final Throwable cause = future.cause();
+                if (!future.channel().isRegistered()) {
+                    connectSentinel(sentinelBootstrap, connection, sentinels, remaining, cause, result);
+                    return;
+                }
+
+                // the command handler is shared with the next channel, connect once the failed channel released it
+                future.channel().pipeline().addFirst(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
+                        super.channelUnregistered(ctx);
+                        connectSentinel(sentinelBootstrap, connection, sentinels, remaining, cause, result);
+                    }
+                });
+            }
+        });
+    }
+
+    private <K, V> Bootstrap createSentinelBootstrap(final CommandHandler<K, V> commandHandler,
+            final RedisSentinelAsyncConnectionImpl<K, V> connection) {
+
+        Bootstrap sentinelBootstrap = new Bootstrap().channel(NioSocketChannel.class).group(eventLoopGroup);
+        final ConnectionWatchdog watchdog = new ConnectionWatchdog(sentinelBootstrap, timer);
+        watchdog.setReconnect(true);
+
+        sentinelBootstrap.handler(new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel ch) throws Exception {
+
+                ch.pipeline().addLast(watchdog, new ChannelGroupListener(channels), watchdog, commandHandler,
+                        new ConnectionEventTrigger(connectionEvents, connection));
+
+            }
+        });
+
+        return sentinelBootstrap;
+    }
+
+    /**
+     * Look up the master address using a single sentinel without blocking. The sentinel connection is closed once the lookup
+     * completes.
+     *
+     * @param sentinel the sentinel
+     * @param masterId the master id
+     * @return future of the master address, completes with {@literal null} if the sentinel does not know the master.
+     */
+    ListenableFuture<SocketAddress> getMasterAddressFuture(final RedisURI sentinel, final String masterId) {
+
+        BlockingQueue<RedisCommand<String, String, ?>> queue = new LinkedBlockingQueue<RedisCommand<String, String, ?>>();
+
+        final CommandHandler<String, String> commandHandler = new CommandHandler<String, String>(queue);
+        final RedisSentinelAsyncConnectionImpl<String, String> connection = new RedisSentinelAsyncConnectionImpl<String, String>(
+                commandHandler, codec, sentinel.getTimeout(), sentinel.getUnit());
+        final SettableRedisFuture<SocketAddress> result = new SettableRedisFuture<SocketAddress>();
+
+        Bootstrap sentinelBootstrap = new Bootstrap().channel(NioSocketChannel.class).group(eventLoopGroup);
+        sentinelBootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                (int) sentinel.getUnit().toMillis(sentinel.getTimeout()));
+        sentinelBootstrap.handler(new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel ch) throws Exception {
+                ch.pipeline().addLast(new ChannelGroupListener(channels), commandHandler);
+            }
+        });
+
+        logger.debug("Connecting to Sentinel, address: " + sentinel.getResolvedAddress());
+        sentinelBootstrap.connect(sentinel.getResolvedAddress()).addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception {
+
+                if (!future.isSuccess()) {
+                    result.setException(future.cause());
+                    return;
+                }
+
+                final ListenableFuture<SocketAddress> address = connection.getMasterAddrByName(masterId);
+                address.addListener(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            result.set(address.get());
+                        } catch (ExecutionException e) {
+                            result.setException(e.getCause());
+                        } catch (Exception e) {
+                            result.setException(e);
+                        }
+                    }
+                }, MoreExecutors.sameThreadExecutor());
+            }
+        });
+
+        expireAfter(result, sentinel.getTimeout(), sentinel.getUnit());
+        result.addListener(new Runnable() {
+            @Override
+            public void run() {
+                connection.close();
+            }
+        }, MoreExecutors.sameThreadExecutor());
+
+        return result;
+    }
+
+    /**
+     * Determine the address for the initial connect without blocking. Sentinel-managed masters are served from the cache or
+     * looked up asynchronously.
+     *
+     * @param redisURI the redis URI
+     * @return future of the address.
+     */
+    private ListenableFuture<SocketAddress> getSocketAddressFuture(RedisURI redisURI) {
+
+        if (redisURI.getSentinelMasterId() != null && !redisURI.getSentinels().isEmpty()) {
+            logger.debug("Connecting to Redis using Sentinels " + redisURI.getSentinels() + ", MasterId "
+                    + redisURI.getSentinelMasterId());
+            closeableResources.add(sentinelMasterAddressCache);
+            return sentinelMasterAddressCache.getMasterAddressFuture(redisURI);
+        }
+
+        try {
+            return Futures.immediateFuture(redisURI.getResolvedAddress());
+        } catch (RuntimeException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
     private Supplier<SocketAddress> getSocketAddressSupplier(final RedisURI redisURI) {
         return new Supplier<SocketAddress>() {
+
+            private volatile SocketAddress previousAddress;
+
             @Override
             public SocketAddress get() {
                 try {
-                    return getSocketAddress(redisURI);
+                    previousAddress = getSocketAddress(redisURI, previousAddress);
+                    return previousAddress;
                 } catch (InterruptedException e) {
                     throw new RedisException(e);
                 } catch (TimeoutException e) {
@@ -469,12 +954,26 @@ public class RedisClient extends AbstractRedisClient {
 
     protected SocketAddress getSocketAddress(RedisURI redisURI) throws InterruptedException, TimeoutException,
             ExecutionException {
+        return getSocketAddress(redisURI, null);
+    }
+
+    /**
+     * Determine the address to connect to. Sentinel-managed masters are served from a cache that follows master switches
+     * announced by the sentinels.
+     * 
+     * @param redisURI the redis URI
+     * @param previousAddress address of the previous connection attempt for the same connection, may be {@literal null}
+     * @return the address
+     */
+    protected SocketAddress getSocketAddress(RedisURI redisURI, SocketAddress previousAddress) throws InterruptedException,
+            TimeoutException, ExecutionException {
         SocketAddress redisAddress;
 
         if (redisURI.getSentinelMasterId() != null && !redisURI.getSentinels().isEmpty()) {
             logger.debug("Connecting to Redis using Sentinels " + redisURI.getSentinels() + ", MasterId "
                     + redisURI.getSentinelMasterId());
-            redisAddress = lookupRedis(redisURI.getSentinelMasterId());
+            closeableResources.add(sentinelMasterAddressCache);
+            redisAddress = sentinelMasterAddressCache.getMasterAddress(redisURI, previousAddress);
 
             if (redisAddress == null) {
                 throw new RedisConnectionException("Cannot provide redisAddress using sentinel for masterId "
@@ -487,14 +986,4 @@ public class RedisClient extends AbstractRedisClient {
         return redisAddress;
     }
 
-    private SocketAddress lookupRedis(String sentinelMasterId) throws InterruptedException, TimeoutException,
-            ExecutionException {
-        RedisSentinelAsyncConnection<String, String> connection = connectSentinelAsync();
-        try {
-            return connection.getMasterAddrByName(sentinelMasterId).get(timeout, unit);
-        } finally {
-            connection.close();
-        }
-    }
-
 }
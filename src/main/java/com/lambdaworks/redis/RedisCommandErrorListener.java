@@ -0,0 +1,22 @@
+package com.lambdaworks.redis;
+
+import com.lambdaworks.redis.protocol.CommandType;
+
+/**
+ * Listener for errors of commands whose results are not returned to the caller, see
+ * {@link RedisAsyncConnectionImpl#setFireAndForget(boolean)}. Listeners are notified on the I/O thread and must not block.
+ * 
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public interface RedisCommandErrorListener {
+
+    /**
+     * Event handler for a failed command.
+     * 
+     * @param connection Source connection.
+     * @param type Type of the failed command.
+     * @param error The error message of the server, or the cause if the command could not be executed.
+     */
+    void onCommandError(RedisChannelHandler<?, ?> connection, CommandType type, String error);
+}
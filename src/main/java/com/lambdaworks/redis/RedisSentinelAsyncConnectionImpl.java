@@ -6,11 +6,11 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Function;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.lambdaworks.redis.codec.RedisCodec;
 import com.lambdaworks.redis.protocol.Command;
 
@@ -30,15 +30,15 @@ class RedisSentinelAsyncConnectionImpl<K, V> extends RedisChannelHandler<K, V> i
     }
 
     @Override
-    public Future<SocketAddress> getMasterAddrByName(K key) {
+    public ListenableFuture<SocketAddress> getMasterAddrByName(K key) {
 
         Command<K, V, List<V>> cmd = commandBuilder.getMasterAddrByKey(key);
-        final Future<List<V>> future = dispatch(cmd);
+        final ListenableFuture<List<V>> future = dispatch(cmd);
 
-        Future<SocketAddress> result = Futures.lazyTransform(future, new Function<List<V>, SocketAddress>() {
+        ListenableFuture<SocketAddress> result = Futures.transform(future, new Function<List<V>, SocketAddress>() {
             @Override
             public SocketAddress apply(List<V> input) {
-                if (input.isEmpty()) {
+                if (input == null || input.isEmpty()) {
                     return null;
                 }
 
@@ -34,6 +34,7 @@ public class RedisURI implements Serializable {
     private int port;
     private int database;
     private char[] password;
+    private String clientName;
     private long timeout = 60;
     private TimeUnit unit = TimeUnit.SECONDS;
     private final List<RedisURI> sentinels = new ArrayList<RedisURI>();
@@ -92,6 +93,14 @@ public class RedisURI implements Serializable {
         this.password = password.toCharArray();
     }
 
+    public String getClientName() {
+        return clientName;
+    }
+
+    public void setClientName(String clientName) {
+        this.clientName = clientName;
+    }
+
     public long getTimeout() {
         return timeout;
     }
@@ -278,6 +287,18 @@ public class RedisURI implements Serializable {
             return this;
         }
 
+        /**
+         * Adds a client name which is set with <code>CLIENT SETNAME</code> on connect.
+         * 
+         * @param clientName
+         * @return the builder
+         */
+        public Builder withClientName(String clientName) {
+            checkNotNull(clientName, "Client name must not be null");
+            redisURI.setClientName(clientName);
+            return this;
+        }
+
         /**
          * Adds timeout.
          * 
@@ -47,6 +47,10 @@ public class ScanArgs {
         return this;
     }
 
+    String getMatch() {
+        return match;
+    }
+
     <K, V> void build(CommandArgs<K, V> args) {
 
         if (match != null) {
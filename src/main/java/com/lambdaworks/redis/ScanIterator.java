@@ -0,0 +1,434 @@
+package com.lambdaworks.redis;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.lambdaworks.redis.codec.RedisCodec;
+
+/**
+ * Iterator over the elements of a <code>SCAN</code>, <code>HSCAN</code>, <code>SSCAN</code> or <code>ZSCAN</code>. The iterator
+ * follows the cursor until the scan is finished and requests the next batch as soon as a batch is received, so the round trip
+ * of the next call overlaps with consuming the current batch. The <code>COUNT</code> of each call is adapted to the
+ * {@link ScanIteratorOptions#targetLatency(long, TimeUnit) target latency} of a call, the count of {@link ScanArgs} is not used.
+ *
+ * A scan iterator is not thread-safe. Elements may be returned more than once, see the <code>SCAN</code> guarantees, unless
+ * {@link ScanIteratorOptions#deduplicate(long) deduplication} is enabled. Deduplication keeps the fingerprints of the elements
+ * off-heap, the memory is released when the iteration is finished or, if the iterator is not iterated to the end, when the
+ * iterator is garbage collected.
+ *
+ * @param <T> Element type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public abstract class ScanIterator<T> implements Iterator<T> {
+
+    private final String match;
+    private final ScanIteratorOptions options;
+
+    private Iterator<T> batch = Collections.<T> emptyList().iterator();
+    private Call<? extends ScanCursor> pending;
+    private boolean started;
+    private long count;
+    private long calls;
+
+    private FingerprintSet seen;
+    private long duplicates;
+    private boolean hasNext;
+    private T next;
+
+    ScanIterator(ScanArgs scanArgs, ScanIteratorOptions options) {
+        checkArgument(options != null, "ScanIteratorOptions must not be null");
+        this.match = scanArgs != null ? scanArgs.getMatch() : null;
+        this.options = options;
+        this.count = Math.min(Math.max(options.getCount(), options.getMinCount()), options.getMaxCount());
+        if (options.isDeduplicate()) {
+            this.seen = new FingerprintSet(options.getExpectedElements());
+        }
+    }
+
+    /**
+     * Iterate the keys space.
+     *
+     * @param connection the connection
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return iterator of the keys.
+     */
+    public static <K, V> ScanIterator<K> scan(RedisKeysAsyncConnection<K, V> connection) {
+        return scan(connection, null, null, new ScanIteratorOptions());
+    }
+
+    /**
+     * Iterate the keys space.
+     *
+     * @param connection the connection
+     * @param codec the codec of the connection, used to fingerprint the elements if deduplication is enabled, may be
+     *        {@literal null} if deduplication is disabled
+     * @param scanArgs scan arguments, only the match pattern is used, may be {@literal null}
+     * @param options the iterator options
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return iterator of the keys.
+     */
+    public static <K, V> ScanIterator<K> scan(final RedisKeysAsyncConnection<K, V> connection,
+            final RedisCodec<K, V> codec, ScanArgs scanArgs, ScanIteratorOptions options) {
+        checkArguments(connection, codec, options);
+        return new CursorIterator<K, KeyScanCursor<K>>(scanArgs, options) {
+            @Override
+            protected RedisFuture<KeyScanCursor<K>> scan(KeyScanCursor<K> cursor, ScanArgs scanArgs) {
+                return connection.scan(cursor, scanArgs);
+            }
+
+            @Override
+            protected Collection<K> getElements(KeyScanCursor<K> cursor) {
+                return cursor.getKeys();
+            }
+
+            @Override
+            Object encode(K element) {
+                return codec.encodeKey(element);
+            }
+        };
+    }
+
+    /**
+     * Iterate the fields and values of a hash.
+     *
+     * @param connection the connection
+     * @param key the key
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return iterator of the fields and values.
+     */
+    public static <K, V> ScanIterator<KeyValue<K, V>> hscan(RedisHashesAsyncConnection<K, V> connection, K key) {
+        return hscan(connection, null, key, null, new ScanIteratorOptions());
+    }
+
+    /**
+     * Iterate the fields and values of a hash.
+     *
+     * @param connection the connection
+     * @param codec the codec of the connection, used to fingerprint the elements if deduplication is enabled, may be
+     *        {@literal null} if deduplication is disabled
+     * @param key the key
+     * @param scanArgs scan arguments, may be {@literal null}
+     * @param options the iterator options
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return iterator of the fields and values.
+     */
+    public static <K, V> ScanIterator<KeyValue<K, V>> hscan(final RedisHashesAsyncConnection<K, V> connection,
+            final RedisCodec<K, V> codec, final K key, ScanArgs scanArgs, ScanIteratorOptions options) {
+        checkArguments(connection, codec, options);
+        return new CursorIterator<KeyValue<K, V>, MapScanCursor<K, V>>(scanArgs, options) {
+            @Override
+            protected RedisFuture<MapScanCursor<K, V>> scan(MapScanCursor<K, V> cursor, ScanArgs scanArgs) {
+                return connection.hscan(key, cursor, scanArgs);
+            }
+
+            @Override
+            protected Collection<KeyValue<K, V>> getElements(MapScanCursor<K, V> cursor) {
+                List<KeyValue<K, V>> elements = new ArrayList<KeyValue<K, V>>(cursor.getMap().size());
+                for (Map.Entry<K, V> entry : cursor.getMap().entrySet()) {
+                    elements.add(new KeyValue<K, V>(entry.getKey(), entry.getValue()));
+                }
+                return elements;
+            }
+
+            @Override
+            Object encode(KeyValue<K, V> element) {
+                return codec.encodeKey(element.key);
+            }
+        };
+    }
+
+    /**
+     * Iterate the members of a set.
+     *
+     * @param connection the connection
+     * @param key the key
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return iterator of the members.
+     */
+    public static <K, V> ScanIterator<V> sscan(RedisSetsAsyncConnection<K, V> connection, K key) {
+        return sscan(connection, null, key, null, new ScanIteratorOptions());
+    }
+
+    /**
+     * Iterate the members of a set.
+     *
+     * @param connection the connection
+     * @param codec the codec of the connection, used to fingerprint the elements if deduplication is enabled, may be
+     *        {@literal null} if deduplication is disabled
+     * @param key the key
+     * @param scanArgs scan arguments, may be {@literal null}
+     * @param options the iterator options
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return iterator of the members.
+     */
+    public static <K, V> ScanIterator<V> sscan(final RedisSetsAsyncConnection<K, V> connection,
+            final RedisCodec<K, V> codec, final K key, ScanArgs scanArgs, ScanIteratorOptions options) {
+        checkArguments(connection, codec, options);
+        return new CursorIterator<V, ValueScanCursor<V>>(scanArgs, options) {
+            @Override
+            protected RedisFuture<ValueScanCursor<V>> scan(ValueScanCursor<V> cursor, ScanArgs scanArgs) {
+                return connection.sscan(key, cursor, scanArgs);
+            }
+
+            @Override
+            protected Collection<V> getElements(ValueScanCursor<V> cursor) {
+                return cursor.getValues();
+            }
+
+            @Override
+            Object encode(V element) {
+                return codec.encodeValue(element);
+            }
+        };
+    }
+
+    /**
+     * Iterate the members and scores of a sorted set.
+     *
+     * @param connection the connection
+     * @param key the key
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return iterator of the scored values.
+     */
+    public static <K, V> ScanIterator<ScoredValue<V>> zscan(RedisSortedSetsAsyncConnection<K, V> connection, K key) {
+        return zscan(connection, null, key, null, new ScanIteratorOptions());
+    }
+
+    /**
+     * Iterate the members and scores of a sorted set.
+     *
+     * @param connection the connection
+     * @param codec the codec of the connection, used to fingerprint the elements if deduplication is enabled, may be
+     *        {@literal null} if deduplication is disabled
+     * @param key the key
+     * @param scanArgs scan arguments, may be {@literal null}
+     * @param options the iterator options
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return iterator of the scored values.
+     */
+    public static <K, V> ScanIterator<ScoredValue<V>> zscan(final RedisSortedSetsAsyncConnection<K, V> connection,
+            final RedisCodec<K, V> codec, final K key, ScanArgs scanArgs, ScanIteratorOptions options) {
+        checkArguments(connection, codec, options);
+        return new CursorIterator<ScoredValue<V>, ScoredValueScanCursor<V>>(scanArgs, options) {
+            @Override
+            protected RedisFuture<ScoredValueScanCursor<V>> scan(ScoredValueScanCursor<V> cursor, ScanArgs scanArgs) {
+                return connection.zscan(key, cursor, scanArgs);
+            }
+
+            @Override
+            protected Collection<ScoredValue<V>> getElements(ScoredValueScanCursor<V> cursor) {
+                return cursor.getValues();
+            }
+
+            @Override
+            Object encode(ScoredValue<V> element) {
+                return codec.encodeValue(element.value);
+            }
+        };
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (hasNext) {
+            return true;
+        }
+
+        if (!started) {
+            started = true;
+            pending = next(null);
+        }
+
+        for (;;) {
+            while (!batch.hasNext()) {
+                if (pending == null) {
+                    if (seen != null) {
+                        seen.release();
+                        seen = null;
+                    }
+                    return false;
+                }
+
+                batch = receive(pending);
+            }
+
+            T element = batch.next();
+            if (seen == null || seen.add(encode(element))) {
+                next = element;
+                hasNext = true;
+                return true;
+            }
+            duplicates++;
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        T element = next;
+        next = null;
+        hasNext = false;
+        return element;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     *
+     * @return the <code>COUNT</code> of the next scan call.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     *
+     * @return the number of scan calls that were completed.
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     *
+     * @return the number of skipped duplicate elements.
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Issue the scan call that follows the cursor.
+     *
+     * @param cursor the cursor, {@literal null} to start the scan
+     * @return the pending call.
+     */
+    abstract Call<? extends ScanCursor> next(ScanCursor cursor);
+
+    /**
+     * Await the pending call, prefetch the next batch and return the elements of the received batch.
+     */
+    private <C extends ScanCursor> Iterator<T> receive(Call<C> call) {
+        pending = null;
+
+        C cursor = LettuceFutures.await(call.future, options.getTimeout(), options.getTimeoutUnit());
+        calls++;
+        adapt(call.getLatency());
+
+        if (!cursor.isFinished()) {
+            pending = next(cursor);
+        }
+        return call.getElements(cursor).iterator();
+    }
+
+    private void adapt(long latency) {
+        long target = options.getTargetLatencyUnit().toNanos(options.getTargetLatency());
+        if (target == 0) {
+            return;
+        }
+
+        if (latency < target / 2) {
+            count = Math.min(count * 2, options.getMaxCount());
+        } else if (latency > target) {
+            count = Math.max(count / 2, options.getMinCount());
+        }
+    }
+
+    ScanArgs getScanArgs() {
+        ScanArgs scanArgs = new ScanArgs().limit(count);
+        if (match != null) {
+            scanArgs.match(match);
+        }
+        return scanArgs;
+    }
+
+    /**
+     * A pending scan call.
+     */
+    abstract class Call<C extends ScanCursor> implements Runnable {
+
+        private final RedisFuture<C> future;
+        private final long started = System.nanoTime();
+        private volatile long completed;
+
+        Call(RedisFuture<C> future) {
+            this.future = future;
+            future.addListener(this, MoreExecutors.sameThreadExecutor());
+        }
+
+        @Override
+        public void run() {
+            completed = System.nanoTime();
+        }
+
+        long getLatency() {
+            long completed = this.completed;
+            return (completed != 0 ? completed : System.nanoTime()) - started;
+        }
+
+        abstract Collection<T> getElements(C cursor);
+    }
+
+    /**
+     * Encode an element for deduplication. Keys and members are fingerprinted by their encoded bytes, so the fingerprint does
+     * not depend on the {@link Object#hashCode() hash code} of the decoded type.
+     *
+     * @param element the element
+     * @return the encoded key or member of the element.
+     */
+    abstract Object encode(T element);
+
+    private static void checkArguments(Object connection, RedisCodec<?, ?> codec, ScanIteratorOptions options) {
+        checkArgument(connection != null, "connection must not be null");
+        checkArgument(options != null, "ScanIteratorOptions must not be null");
+        checkArgument(codec != null || !options.isDeduplicate(), "RedisCodec must not be null if deduplication is enabled");
+    }
+
+    /**
+     * Scan iterator for a specific cursor type.
+     */
+    private abstract static class CursorIterator<T, C extends ScanCursor> extends ScanIterator<T> {
+
+        CursorIterator(ScanArgs scanArgs, ScanIteratorOptions options) {
+            super(scanArgs, options);
+        }
+
+        protected abstract RedisFuture<C> scan(C cursor, ScanArgs scanArgs);
+
+        protected abstract Collection<T> getElements(C cursor);
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Call<C> next(ScanCursor cursor) {
+            return new Call<C>(scan((C) cursor, getScanArgs())) {
+                @Override
+                Collection<T> getElements(C cursor) {
+                    return CursorIterator.this.getElements(cursor);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.lambdaworks.redis;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options for {@link ScanIterator scan iterators}. Static import the methods from {@link Builder} and chain the method calls:
+ * <code>count(500).targetLatency(100, TimeUnit.MILLISECONDS)</code>.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class ScanIteratorOptions {
+
+    public static final long DEFAULT_COUNT = 100;
+    public static final long DEFAULT_MIN_COUNT = 10;
+    public static final long DEFAULT_MAX_COUNT = 10000;
+    public static final long DEFAULT_TARGET_LATENCY = 50;
+    public static final TimeUnit DEFAULT_TARGET_LATENCY_UNIT = TimeUnit.MILLISECONDS;
+    public static final long DEFAULT_TIMEOUT = 60;
+    public static final TimeUnit DEFAULT_TIMEOUT_UNIT = TimeUnit.SECONDS;
+
+    private long count = DEFAULT_COUNT;
+    private long minCount = DEFAULT_MIN_COUNT;
+    private long maxCount = DEFAULT_MAX_COUNT;
+    private long targetLatency = DEFAULT_TARGET_LATENCY;
+    private TimeUnit targetLatencyUnit = DEFAULT_TARGET_LATENCY_UNIT;
+    private long timeout = DEFAULT_TIMEOUT;
+    private TimeUnit timeoutUnit = DEFAULT_TIMEOUT_UNIT;
+    private boolean deduplicate;
+    private long expectedElements;
+
+    /**
+     * Static builder methods.
+     */
+    public static class Builder {
+
+        /**
+         * Utility constructor.
+         */
+        private Builder() {
+
+        }
+
+        public static ScanIteratorOptions count(long count) {
+            return new ScanIteratorOptions().count(count);
+        }
+
+        public static ScanIteratorOptions countRange(long minCount, long maxCount) {
+            return new ScanIteratorOptions().countRange(minCount, maxCount);
+        }
+
+        public static ScanIteratorOptions targetLatency(long targetLatency, TimeUnit targetLatencyUnit) {
+            return new ScanIteratorOptions().targetLatency(targetLatency, targetLatencyUnit);
+        }
+
+        public static ScanIteratorOptions timeout(long timeout, TimeUnit timeoutUnit) {
+            return new ScanIteratorOptions().timeout(timeout, timeoutUnit);
+        }
+
+        public static ScanIteratorOptions deduplicate(long expectedElements) {
+            return new ScanIteratorOptions().deduplicate(expectedElements);
+        }
+    }
+
+    /**
+     * The <code>COUNT</code> of the first scan call. Defaults to {@link #DEFAULT_COUNT}.
+     *
+     * @param count the initial count, must be greater than {@literal 0}
+     * @return this
+     */
+    public ScanIteratorOptions count(long count) {
+        checkArgument(count > 0, "count must be greater than 0");
+        this.count = count;
+        return this;
+    }
+
+    /**
+     * The range in which the <code>COUNT</code> is adapted. Defaults to {@link #DEFAULT_MIN_COUNT} and
+     * {@link #DEFAULT_MAX_COUNT}.
+     *
+     * @param minCount the minimal count, must be greater than {@literal 0}
+     * @param maxCount the maximal count, must not be less than {@code minCount}
+     * @return this
+     */
+    public ScanIteratorOptions countRange(long minCount, long maxCount) {
+        checkArgument(minCount > 0, "minCount must be greater than 0");
+        checkArgument(maxCount >= minCount, "maxCount must not be less than minCount");
+        this.minCount = minCount;
+        this.maxCount = maxCount;
+        return this;
+    }
+
+    /**
+     * The latency of a single scan call the <code>COUNT</code> is adapted to. The count is doubled while calls complete in
+     * less than half of the target latency and halved when calls take longer than the target latency. The target latency
+     * should be above the round-trip time, a target latency of {@literal 0} disables the adaption. Defaults to
+     * {@link #DEFAULT_TARGET_LATENCY} {@link #DEFAULT_TARGET_LATENCY_UNIT}.
+     *
+     * @param targetLatency the target latency, must not be negative
+     * @param targetLatencyUnit the unit of the target latency, must not be {@literal null}
+     * @return this
+     */
+    public ScanIteratorOptions targetLatency(long targetLatency, TimeUnit targetLatencyUnit) {
+        checkArgument(targetLatency >= 0, "targetLatency must not be negative");
+        checkArgument(targetLatencyUnit != null, "targetLatencyUnit must not be null");
+        this.targetLatency = targetLatency;
+        this.targetLatencyUnit = targetLatencyUnit;
+        return this;
+    }
+
+    /**
+     * Maximum time to wait for a scan call. Defaults to {@link #DEFAULT_TIMEOUT} {@link #DEFAULT_TIMEOUT_UNIT}.
+     *
+     * @param timeout the timeout, must be greater than {@literal 0}
+     * @param timeoutUnit the unit of the timeout, must not be {@literal null}
+     * @return this
+     */
+    public ScanIteratorOptions timeout(long timeout, TimeUnit timeoutUnit) {
+        checkArgument(timeout > 0, "timeout must be greater than 0");
+        checkArgument(timeoutUnit != null, "timeoutUnit must not be null");
+        this.timeout = timeout;
+        this.timeoutUnit = timeoutUnit;
+        return this;
+    }
+
+    /**
+     * Skip elements which were already returned by the iterator. The returned elements are remembered by the 64-bit
+     * fingerprints of their keys or members, encoded with the codec of the connection, in off-heap hash tables which take
+     * about 8 to 16 bytes per element and are released when the scan is finished. Elements with colliding fingerprints are
+     * skipped as well, the probability is about {@code n^2 / 2^65} for {@code n} elements. Disabled by default.
+     *
+     * @param expectedElements number of elements the tables are sized for initially, must not be negative
+     * @return this
+     */
+    public ScanIteratorOptions deduplicate(long expectedElements) {
+        checkArgument(expectedElements >= 0, "expectedElements must not be negative");
+        this.deduplicate = true;
+        this.expectedElements = expectedElements;
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMinCount() {
+        return minCount;
+    }
+
+    public long getMaxCount() {
+        return maxCount;
+    }
+
+    public long getTargetLatency() {
+        return targetLatency;
+    }
+
+    public TimeUnit getTargetLatencyUnit() {
+        return targetLatencyUnit;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public TimeUnit getTimeoutUnit() {
+        return timeoutUnit;
+    }
+
+    public boolean isDeduplicate() {
+        return deduplicate;
+    }
+
+    public long getExpectedElements() {
+        return expectedElements;
+    }
+}
@@ -0,0 +1,285 @@
+package com.lambdaworks.redis;
+
+import java.io.Closeable;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.lambdaworks.redis.pubsub.RedisPubSubAdapter;
+import com.lambdaworks.redis.pubsub.RedisPubSubConnectionImpl;
+
+import io.netty.util.internal.logging.InternalLogger;
+import io.netty.util.internal.logging.InternalLoggerFactory;
+
+/**
+ * Cache for master addresses that are provided by Redis Sentinel. The cache subscribes to the {@code +switch-master} channel
+ * of every sentinel once a master is looked up, so a failover updates the cached address without querying the sentinels. On
+ * a cache miss all sentinels are queried in parallel and the first answer is used.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+class SentinelMasterAddressCache implements Closeable {
+
+    /**
+     * Channel on which sentinels publish a master change.
+     */
+    public static final String SWITCH_MASTER = "+switch-master";
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(SentinelMasterAddressCache.class);
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder().setNameFormat("lettuce-sentinel-%d")
+            .setDaemon(true).build();
+
+    private final RedisClient redisClient;
+    private final ConcurrentMap<String, SocketAddress> masters = Maps.newConcurrentMap();
+    private final ConcurrentMap<String, RedisPubSubConnectionImpl<String, String>> subscriptions = Maps.newConcurrentMap();
+    private final Set<String> subscribing = Sets.newConcurrentHashSet();
+    private volatile boolean closed;
+
+    SentinelMasterAddressCache(RedisClient redisClient) {
+        this.redisClient = redisClient;
+    }
+
+    /**
+     * Retrieve the master address. A cached address is returned unless it is the address that was used for the previous
+     * connection attempt: in that case the master did not switch since the last connect, and the sentinels are asked again.
+     *
+     * @param redisURI the redis URI containing the sentinels and the master id
+     * @param previousAddress address of the previous connection attempt, may be {@literal null}
+     * @return the master address or {@literal null} if no sentinel knows the master.
+     */
+    SocketAddress getMasterAddress(RedisURI redisURI, SocketAddress previousAddress) {
+
+        String masterId = redisURI.getSentinelMasterId();
+        subscribe(redisURI);
+
+        SocketAddress cached = masters.get(masterId);
+        if (cached != null && !cached.equals(previousAddress)) {
+            return cached;
+        }
+
+        SocketAddress address = querySentinels(redisURI);
+        if (address != null) {
+            masters.put(masterId, address);
+        }
+        return address;
+    }
+
+    /**
+     * Retrieve the master address without blocking. A cached address is returned immediately, otherwise all sentinels are
+     * queried in parallel and the first answer completes the future.
+     *
+     * @param redisURI the redis URI containing the sentinels and the master id
+     * @return future of the master address, fails with a {@link RedisConnectionException} if no sentinel knows the master.
+     */
+    ListenableFuture<SocketAddress> getMasterAddressFuture(RedisURI redisURI) {
+
+        final String masterId = redisURI.getSentinelMasterId();
+        subscribe(redisURI);
+
+        SocketAddress cached = masters.get(masterId);
+        if (cached != null) {
+            return Futures.immediateFuture(cached);
+        }
+
+        final SettableRedisFuture<SocketAddress> result = new SettableRedisFuture<SocketAddress>();
+        final AtomicInteger outstanding = new AtomicInteger(redisURI.getSentinels().size());
+
+        for (final RedisURI sentinel : redisURI.getSentinels()) {
+            Futures.addCallback(redisClient.getMasterAddressFuture(sentinel, masterId), new FutureCallback<SocketAddress>() {
+                @Override
+                public void onSuccess(SocketAddress address) {
+                    if (address == null) {
+                        failed();
+                        return;
+                    }
+
+                    masters.putIfAbsent(masterId, address);
+                    result.set(address);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    logger.debug("Cannot query sentinel " + sentinel.getHost() + ":" + sentinel.getPort() + ": " + t, t);
+                    failed();
+                }
+
+                private void failed() {
+                    if (outstanding.decrementAndGet() == 0) {
+                        result.setException(new RedisConnectionException(
+                                "Cannot provide redisAddress using sentinel for masterId " + masterId));
+                    }
+                }
+            });
+        }
+
+        return result;
+    }
+
+    /**
+     * Apply a {@code +switch-master} message.
+     *
+     * @param message the message: {@code <master name> <old ip> <old port> <new ip> <new port>}
+     */
+    void onSwitchMaster(String message) {
+
+        List<String> parts = Splitter.on(' ').omitEmptyStrings().splitToList(message);
+        if (parts.size() < 5) {
+            logger.warn("Cannot parse " + SWITCH_MASTER + " message: " + message);
+            return;
+        }
+
+        try {
+            SocketAddress address = new InetSocketAddress(parts.get(3), Integer.parseInt(parts.get(4)));
+            logger.debug("Master " + parts.get(0) + " switched to " + address);
+            masters.put(parts.get(0), address);
+        } catch (NumberFormatException e) {
+            logger.warn("Cannot parse " + SWITCH_MASTER + " message: " + message);
+        }
+    }
+
+    SocketAddress getCachedMasterAddress(String masterId) {
+        return masters.get(masterId);
+    }
+
+    /**
+     *
+     * @return the sentinels ({@code host:port}) with an established {@code +switch-master} subscription.
+     */
+    Set<String> getSubscriptions() {
+        return ImmutableSet.copyOf(subscriptions.keySet());
+    }
+
+    private SocketAddress querySentinels(RedisURI redisURI) {
+
+        final String masterId = redisURI.getSentinelMasterId();
+        List<RedisURI> sentinels = redisURI.getSentinels();
+
+        ExecutorService executor = Executors.newFixedThreadPool(sentinels.size(), THREAD_FACTORY);
+        CompletionService<SocketAddress> completionService = new ExecutorCompletionService<SocketAddress>(executor);
+        List<Future<SocketAddress>> futures = Lists.newArrayList();
+
+        for (final RedisURI sentinel : sentinels) {
+            futures.add(completionService.submit(new Callable<SocketAddress>() {
+                @Override
+                public SocketAddress call() throws Exception {
+                    RedisSentinelAsyncConnection<String, String> connection = redisClient.connectSentinelAsync(sentinel);
+                    try {
+                        return connection.getMasterAddrByName(masterId).get(sentinel.getTimeout(), sentinel.getUnit());
+                    } finally {
+                        connection.close();
+                    }
+                }
+            }));
+        }
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    SocketAddress address = completionService.take().get();
+                    if (address != null) {
+                        return address;
+                    }
+                } catch (ExecutionException e) {
+                    logger.debug("Cannot query sentinel: " + e.getCause(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisCommandInterruptedException(e);
+        } finally {
+            for (Future<SocketAddress> future : futures) {
+                future.cancel(true);
+            }
+            executor.shutdownNow();
+        }
+
+        return null;
+    }
+
+    /**
+     * Subscribe to {@code +switch-master} on every sentinel that is not subscribed yet. Subscriptions are established in the
+     * background so an unreachable sentinel does not delay the connect. The subscriptions reconnect and resubscribe on
+     * connection loss.
+     */
+    private void subscribe(RedisURI redisURI) {
+
+        for (final RedisURI sentinel : redisURI.getSentinels()) {
+
+            final String key = sentinel.getHost() + ":" + sentinel.getPort();
+            if (closed || !subscribing.add(key)) {
+                continue;
+            }
+
+            THREAD_FACTORY.newThread(new Runnable() {
+                @Override
+                public void run() {
+                    subscribe(key, sentinel);
+                }
+            }).start();
+        }
+    }
+
+    private void subscribe(String key, RedisURI sentinel) {
+
+        RedisPubSubConnectionImpl<String, String> connection;
+        try {
+            connection = redisClient.connectSentinelPubSub(sentinel);
+        } catch (RedisException e) {
+            logger.warn("Cannot subscribe to " + SWITCH_MASTER + " on sentinel " + key + ": " + e.getMessage());
+            subscribing.remove(key);
+            return;
+        }
+
+        connection.addListener(new RedisPubSubAdapter<String, String>() {
+            @Override
+            public void message(String channel, String message) {
+                if (SWITCH_MASTER.equals(channel)) {
+                    onSwitchMaster(message);
+                }
+            }
+        });
+        connection.subscribe(SWITCH_MASTER);
+
+        synchronized (this) {
+            if (closed) {
+                connection.close();
+                return;
+            }
+            subscriptions.put(key, connection);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+
+        closed = true;
+        for (RedisPubSubConnectionImpl<String, String> connection : subscriptions.values()) {
+            if (!connection.isClosed()) {
+                connection.close();
+            }
+        }
+        subscriptions.clear();
+        masters.clear();
+    }
+}
@@ -0,0 +1,73 @@
+package com.lambdaworks.redis;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.common.util.concurrent.AbstractFuture;
+
+/**
+ * {@link RedisFuture} that is completed programmatically. Used for results which are composed out of one or more commands
+ * (e.g. results that are aggregated over multiple cluster nodes). An error text can be set in addition to the value, just like
+ * on a {@link com.lambdaworks.redis.protocol.Command} that received an error reply.
+ *
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class SettableRedisFuture<V> extends AbstractFuture<V> implements RedisFuture<V> {
+
+    private volatile String error;
+
+    /**
+     * Complete the future with the given value.
+     *
+     * @param value the value
+     * @return true if the state was successfully changed.
+     */
+    @Override
+    public boolean set(V value) {
+        return super.set(value);
+    }
+
+    /**
+     * Complete the future exceptionally.
+     *
+     * @param throwable the exception
+     * @return true if the state was successfully changed.
+     */
+    @Override
+    public boolean setException(Throwable throwable) {
+        return super.setException(throwable);
+    }
+
+    /**
+     * Set the error text. The first error wins, subsequent errors are ignored. Setting an error does not complete the future.
+     *
+     * @param error the error text
+     */
+    public void setError(String error) {
+        if (this.error == null) {
+            this.error = error;
+        }
+    }
+
+    @Override
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public boolean await(long timeout, TimeUnit unit) {
+        try {
+            get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (InterruptedException e) {
+            throw new RedisCommandInterruptedException(e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.lambdaworks.redis.bulk;
+
+import static com.google.common.base.Preconditions.*;
+
+import com.lambdaworks.redis.protocol.CommandArgs;
+import com.lambdaworks.redis.protocol.CommandType;
+
+/**
+ * A command for the {@link BulkLoader}. The command describes the type, the key and the arguments, the arguments are encoded
+ * when the command is written. The reply of a bulk command is discarded. Subclass {@link BulkCommand} for commands which are
+ * not covered by the static factory methods.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public abstract class BulkCommand<K, V> {
+
+    private final CommandType type;
+    private final K key;
+
+    /**
+     *
+     * @param type the command type, must not be {@literal null}
+     * @param key the key, must not be {@literal null}
+     */
+    protected BulkCommand(CommandType type, K key) {
+        checkArgument(type != null, "CommandType must not be null");
+        checkArgument(key != null, "Key must not be null");
+        this.type = type;
+        this.key = key;
+    }
+
+    public static <K, V> BulkCommand<K, V> set(K key, final V value) {
+        return new BulkCommand<K, V>(CommandType.SET, key) {
+            @Override
+            protected void build(CommandArgs<K, V> args) {
+                args.addValue(value);
+            }
+        };
+    }
+
+    public static <K, V> BulkCommand<K, V> setex(K key, final long seconds, final V value) {
+        return new BulkCommand<K, V>(CommandType.SETEX, key) {
+            @Override
+            protected void build(CommandArgs<K, V> args) {
+                args.add(seconds).addValue(value);
+            }
+        };
+    }
+
+    public static <K, V> BulkCommand<K, V> hset(K key, final K field, final V value) {
+        return new BulkCommand<K, V>(CommandType.HSET, key) {
+            @Override
+            protected void build(CommandArgs<K, V> args) {
+                args.addKey(field).addValue(value);
+            }
+        };
+    }
+
+    public static <K, V> BulkCommand<K, V> zadd(K key, final double score, final V member) {
+        return new BulkCommand<K, V>(CommandType.ZADD, key) {
+            @Override
+            protected void build(CommandArgs<K, V> args) {
+                args.add(score).addValue(member);
+            }
+        };
+    }
+
+    public static <K, V> BulkCommand<K, V> sadd(K key, final V member) {
+        return new BulkCommand<K, V>(CommandType.SADD, key) {
+            @Override
+            protected void build(CommandArgs<K, V> args) {
+                args.addValue(member);
+            }
+        };
+    }
+
+    public static <K, V> BulkCommand<K, V> rpush(K key, final V value) {
+        return new BulkCommand<K, V>(CommandType.RPUSH, key) {
+            @Override
+            protected void build(CommandArgs<K, V> args) {
+                args.addValue(value);
+            }
+        };
+    }
+
+    public static <K, V> BulkCommand<K, V> del(K key) {
+        return new BulkCommand<K, V>(CommandType.DEL, key) {
+            @Override
+            protected void build(CommandArgs<K, V> args) {
+            }
+        };
+    }
+
+    /**
+     * Add the arguments that follow the key.
+     *
+     * @param args the command arguments, the key is already added
+     */
+    protected abstract void build(CommandArgs<K, V> args);
+
+    public CommandType getType() {
+        return type;
+    }
+
+    public K getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,108 @@
+package com.lambdaworks.redis.bulk;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options for a {@link BulkLoader bulk load}. Static import the methods from {@link Builder} and chain the method calls:
+ * <code>window(50000).batchSize(1000)</code>.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class BulkLoadOptions {
+
+    public static final int DEFAULT_WINDOW = 10000;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final long DEFAULT_TIMEOUT = 60;
+    public static final TimeUnit DEFAULT_TIMEOUT_UNIT = TimeUnit.SECONDS;
+
+    private int window = DEFAULT_WINDOW;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private long timeout = DEFAULT_TIMEOUT;
+    private TimeUnit timeoutUnit = DEFAULT_TIMEOUT_UNIT;
+
+    /**
+     * Static builder methods.
+     */
+    public static class Builder {
+
+        /**
+         * Utility constructor.
+         */
+        private Builder() {
+
+        }
+
+        public static BulkLoadOptions window(int window) {
+            return new BulkLoadOptions().window(window);
+        }
+
+        public static BulkLoadOptions batchSize(int batchSize) {
+            return new BulkLoadOptions().batchSize(batchSize);
+        }
+
+        public static BulkLoadOptions timeout(long timeout, TimeUnit timeoutUnit) {
+            return new BulkLoadOptions().timeout(timeout, timeoutUnit);
+        }
+    }
+
+    /**
+     * Maximal number of commands which are written but not yet replied, across all connections of the loader. Defaults to
+     * {@link #DEFAULT_WINDOW}.
+     *
+     * @param window the window size, must be greater than {@literal 0}
+     * @return this
+     */
+    public BulkLoadOptions window(int window) {
+        checkArgument(window > 0, "window must be greater than 0");
+        this.window = window;
+        return this;
+    }
+
+    /**
+     * Number of commands which are written to a connection with a single flush. Commands are flushed earlier when the
+     * window is exhausted or the input is consumed. Defaults to {@link #DEFAULT_BATCH_SIZE}.
+     *
+     * @param batchSize the batch size, must be greater than {@literal 0}
+     * @return this
+     */
+    public BulkLoadOptions batchSize(int batchSize) {
+        checkArgument(batchSize > 0, "batchSize must be greater than 0");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Maximum time to wait for a free slot in the window and for the outstanding replies at the end of the load. Defaults to
+     * {@link #DEFAULT_TIMEOUT} {@link #DEFAULT_TIMEOUT_UNIT}.
+     *
+     * @param timeout the timeout, must be greater than {@literal 0}
+     * @param timeoutUnit the unit of the timeout, must not be {@literal null}
+     * @return this
+     */
+    public BulkLoadOptions timeout(long timeout, TimeUnit timeoutUnit) {
+        checkArgument(timeout > 0, "timeout must be greater than 0");
+        checkArgument(timeoutUnit != null, "timeoutUnit must not be null");
+        this.timeout = timeout;
+        this.timeoutUnit = timeoutUnit;
+        return this;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public TimeUnit getTimeoutUnit() {
+        return timeoutUnit;
+    }
+}
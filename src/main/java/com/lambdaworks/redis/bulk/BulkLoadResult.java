@@ -0,0 +1,69 @@
+package com.lambdaworks.redis.bulk;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a {@link BulkLoader bulk load}.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class BulkLoadResult {
+
+    private final long successes;
+    private final long errors;
+    private final String firstError;
+    private final long duration;
+
+    public BulkLoadResult(long successes, long errors, String firstError, long duration) {
+        this.successes = successes;
+        this.errors = errors;
+        this.firstError = firstError;
+        this.duration = duration;
+    }
+
+    /**
+     *
+     * @return number of commands which were replied without an error.
+     */
+    public long getSuccesses() {
+        return successes;
+    }
+
+    /**
+     *
+     * @return number of commands which were replied with an error or failed.
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     *
+     * @return the first error message, {@literal null} if no command failed.
+     */
+    public String getFirstError() {
+        return firstError;
+    }
+
+    /**
+     *
+     * @param unit the time unit
+     * @return the duration of the load.
+     */
+    public long getDuration(TimeUnit unit) {
+        return unit.convert(duration, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(getClass().getSimpleName());
+        sb.append(" [successes=").append(successes);
+        sb.append(", errors=").append(errors);
+        sb.append(", firstError='").append(firstError).append('\'');
+        sb.append(", duration=").append(TimeUnit.NANOSECONDS.toMillis(duration)).append("ms");
+        sb.append(']');
+        return sb.toString();
+    }
+}
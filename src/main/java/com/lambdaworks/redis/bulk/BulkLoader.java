@@ -0,0 +1,222 @@
+package com.lambdaworks.redis.bulk;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.collect.Lists;
+import com.lambdaworks.redis.RedisAsyncConnectionImpl;
+import com.lambdaworks.redis.RedisCommandInterruptedException;
+import com.lambdaworks.redis.RedisCommandTimeoutException;
+import com.lambdaworks.redis.cluster.SlotHash;
+import com.lambdaworks.redis.codec.RedisCodec;
+import com.lambdaworks.redis.output.DiscardingOutput;
+import com.lambdaworks.redis.protocol.Command;
+import com.lambdaworks.redis.protocol.CommandArgs;
+import com.lambdaworks.redis.protocol.CommandHandler;
+
+/**
+ * Mass insertion of commands, similar to <code>redis-cli --pipe</code>. The commands are streamed from an {@link Iterator} over
+ * one or more connections, the number of outstanding replies is bounded by the {@link BulkLoadOptions#window(int) window}.
+ * Replies are discarded without being decoded, only successes and errors are counted, so no future is kept per command.
+ *
+ * A command is written to the connection that is selected by the {@link SlotHash slot hash} of its key, commands with the same
+ * key are executed in order. Loads of one loader must not run concurrently.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class BulkLoader<K, V> implements Closeable {
+
+    private final RedisCodec<K, V> codec;
+    private final List<RedisAsyncConnectionImpl<K, V>> connections;
+    private final List<CommandHandler<K, V>> handlers;
+
+    /**
+     * Create a new bulk loader.
+     *
+     * @param codec Codec used to encode the commands.
+     * @param connections the connections, must not be empty. The channel writers of the connections must be
+     *        {@link CommandHandler command handlers}.
+     */
+    @SuppressWarnings("unchecked")
+    public BulkLoader(RedisCodec<K, V> codec, List<RedisAsyncConnectionImpl<K, V>> connections) {
+        checkArgument(codec != null, "RedisCodec must not be null");
+        checkArgument(connections != null && !connections.isEmpty(), "connections must not be empty");
+
+        List<CommandHandler<K, V>> handlers = new ArrayList<CommandHandler<K, V>>(connections.size());
+        for (RedisAsyncConnectionImpl<K, V> connection : connections) {
+            checkArgument(connection.getChannelWriter() instanceof CommandHandler,
+                    "Connection must be a standalone connection");
+            handlers.add((CommandHandler<K, V>) connection.getChannelWriter());
+        }
+
+        this.codec = codec;
+        this.connections = Collections.unmodifiableList(Lists.newArrayList(connections));
+        this.handlers = handlers;
+    }
+
+    /**
+     * Load the commands using the default {@link BulkLoadOptions}.
+     *
+     * @param commands the commands
+     * @return the result of the load.
+     */
+    public BulkLoadResult load(Iterable<? extends BulkCommand<K, V>> commands) {
+        checkArgument(commands != null, "commands must not be null");
+        return load(commands.iterator(), new BulkLoadOptions());
+    }
+
+    /**
+     * Load the commands. The method returns when all commands are replied.
+     *
+     * @param commands the commands
+     * @param options the load options
+     * @return the result of the load.
+     * @throws RedisCommandTimeoutException if no reply arrives within the {@link BulkLoadOptions#timeout(long, TimeUnit)
+     *         timeout}
+     */
+    public BulkLoadResult load(Iterator<? extends BulkCommand<K, V>> commands, BulkLoadOptions options) {
+        checkArgument(commands != null, "commands must not be null");
+        checkArgument(options != null, "BulkLoadOptions must not be null");
+
+        long start = System.nanoTime();
+        Load load = new Load(options.getWindow());
+        List<List<LoadCommand<K, V>>> batches = new ArrayList<List<LoadCommand<K, V>>>(handlers.size());
+        for (int i = 0; i < handlers.size(); i++) {
+            batches.add(new ArrayList<LoadCommand<K, V>>(options.getBatchSize()));
+        }
+
+        while (commands.hasNext()) {
+            BulkCommand<K, V> command = commands.next();
+
+            if (!load.window.tryAcquire()) {
+                // replies can only arrive for commands that are written
+                flush(batches);
+                acquire(load.window, 1, options);
+            }
+
+            int index = getIndex(command.getKey());
+            List<LoadCommand<K, V>> batch = batches.get(index);
+            batch.add(new LoadCommand<K, V>(command, codec, load));
+            if (batch.size() >= options.getBatchSize()) {
+                flush(index, batch);
+            }
+        }
+
+        flush(batches);
+        acquire(load.window, options.getWindow(), options);
+
+        return new BulkLoadResult(load.successes.get(), load.errors.get(), load.firstError.get(), System.nanoTime() - start);
+    }
+
+    /**
+     *
+     * @return the connections of this loader.
+     */
+    public List<RedisAsyncConnectionImpl<K, V>> getConnections() {
+        return connections;
+    }
+
+    /**
+     * Close the connections.
+     */
+    @Override
+    public void close() {
+        for (RedisAsyncConnectionImpl<K, V> connection : connections) {
+            connection.close();
+        }
+    }
+
+    private int getIndex(K key) {
+        if (handlers.size() == 1) {
+            return 0;
+        }
+        return SlotHash.getSlot(codec.encodeKey(key)) % handlers.size();
+    }
+
+    private void flush(List<List<LoadCommand<K, V>>> batches) {
+        for (int i = 0; i < batches.size(); i++) {
+            flush(i, batches.get(i));
+        }
+    }
+
+    private void flush(int index, List<LoadCommand<K, V>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        handlers.get(index).write(batch);
+        batch.clear();
+    }
+
+    private static void acquire(Semaphore window, int permits, BulkLoadOptions options) {
+        try {
+            if (!window.tryAcquire(permits, options.getTimeout(), options.getTimeoutUnit())) {
+                throw new RedisCommandTimeoutException();
+            }
+        } catch (InterruptedException e) {
+            throw new RedisCommandInterruptedException(e);
+        }
+    }
+
+    /**
+     * State of a single load.
+     */
+    static class Load {
+
+        final Semaphore window;
+        final AtomicLong successes = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicReference<String> firstError = new AtomicReference<String>();
+
+        Load(int window) {
+            this.window = new Semaphore(window);
+        }
+
+        void completed(String error) {
+            if (error == null) {
+                successes.incrementAndGet();
+            } else {
+                errors.incrementAndGet();
+                firstError.compareAndSet(null, error);
+            }
+            window.release();
+        }
+    }
+
+    /**
+     * Command that reports its completion to the load instead of completing a future.
+     */
+    static class LoadCommand<K, V> extends Command<K, V, Void> {
+
+        private final Load load;
+
+        LoadCommand(BulkCommand<K, V> command, RedisCodec<K, V> codec, Load load) {
+            super(command.getType(), new DiscardingOutput<K, V>(codec), new CommandArgs<K, V>(codec).addKey(command
+                    .getKey()));
+            command.build(getArgs());
+            this.load = load;
+        }
+
+        @Override
+        public void complete() {
+            load.completed(getOutput().getError());
+        }
+
+        @Override
+        public boolean setException(Throwable throwable) {
+            getOutput().setError(throwable.toString());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Bulk loading of commands with a bounded number of outstanding replies.
+ */
+package com.lambdaworks.redis.bulk;
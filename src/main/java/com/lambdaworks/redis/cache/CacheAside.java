@@ -0,0 +1,303 @@
+package com.lambdaworks.redis.cache;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.lambdaworks.redis.LettuceFutures;
+import com.lambdaworks.redis.RedisAsyncConnection;
+import com.lambdaworks.redis.RedisCommandInterruptedException;
+import com.lambdaworks.redis.RedisFuture;
+import com.lambdaworks.redis.ScriptOutputType;
+import com.lambdaworks.redis.SettableRedisFuture;
+import com.lambdaworks.redis.codec.RedisCodec;
+import com.lambdaworks.redis.protocol.LettuceCharsets;
+import com.lambdaworks.redis.protocol.SetArgs;
+
+/**
+ * Read-through access to values that are cached in redis. A read returns the cached value of a key, a miss computes the value
+ * with a {@link ValueLoader} and stores it with the time to live of the {@link CacheAsideOptions options}.
+ *
+ * Concurrent misses on the same key within the JVM are coalesced into a single load. With a
+ * {@link CacheAsideOptions#lock(long, TimeUnit) lock}, misses are coalesced across clients as well: only the client that
+ * acquires <code>&lt;key&gt;:lock</code> loads the value, the others poll the key until the value is stored or the lock
+ * expires. With {@link CacheAsideOptions#earlyRefresh(double) early refresh}, reads reload values shortly before they expire
+ * while the other reads keep returning the cached value.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class CacheAside<K, V> {
+
+    private static final String UNLOCK_SCRIPT = "if redis.call('get', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('del', KEYS[1]) else return 0 end";
+    private static final byte[] LOCK_SUFFIX = ":lock".getBytes(LettuceCharsets.ASCII);
+    private static final long MAX_POLL_INTERVAL = 50;
+
+    /**
+     * Result of a refresh that was skipped because another client holds the lock.
+     */
+    private static final Object NOT_LOADED = new Object();
+
+    private final RedisAsyncConnection<K, V> connection;
+    private final RedisCodec<K, V> codec;
+    private final CacheAsideOptions options;
+    private final ConcurrentMap<Object, SettableRedisFuture<Object>> inFlight = new ConcurrentHashMap<Object, SettableRedisFuture<Object>>(
+            16, 0.75f, 1);
+    private final Random random = new Random();
+    private volatile long loadNanos;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    /**
+     * Create a new cache-aside loader.
+     *
+     * @param connection the connection, must not be {@literal null}
+     * @param codec Codec used to encode/decode keys and values, must not be {@literal null}
+     * @param options the options, must not be {@literal null}
+     */
+    public CacheAside(RedisAsyncConnection<K, V> connection, RedisCodec<K, V> codec, CacheAsideOptions options) {
+        checkArgument(connection != null, "connection must not be null");
+        checkArgument(codec != null, "RedisCodec must not be null");
+        checkArgument(options != null, "CacheAsideOptions must not be null");
+        this.connection = connection;
+        this.codec = codec;
+        this.options = options;
+    }
+
+    /**
+     * Get the value of a key, load and store it if the key has no value.
+     *
+     * @param key the key, must not be {@literal null}
+     * @param loader computes the value on a miss, must not be {@literal null}
+     * @return the value, {@literal null} if the loader returned {@literal null}.
+     * @throws ExecutionException if the loader failed
+     */
+    public V get(K key, ValueLoader<? super K, ? extends V> loader) throws ExecutionException {
+        checkArgument(key != null, "Key must not be null");
+        checkArgument(loader != null, "ValueLoader must not be null");
+
+        RedisFuture<V> value = connection.get(key);
+        RedisFuture<Long> ttl = options.getEarlyRefresh() > 0 ? connection.pttl(key) : null;
+
+        V cached = await(value);
+        if (cached != null) {
+            hits.incrementAndGet();
+            if (ttl != null && isRefreshDue(await(ttl))) {
+                V refreshed = refresh(key, loader);
+                if (refreshed != null) {
+                    return refreshed;
+                }
+            }
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        return load(key, loader);
+    }
+
+    /**
+     * Remove the cached value of a key.
+     *
+     * @param key the key, must not be {@literal null}
+     */
+    @SuppressWarnings("unchecked")
+    public void invalidate(K key) {
+        checkArgument(key != null, "Key must not be null");
+        await(connection.del((K[]) new Object[] { key }));
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     *
+     * @return the number of values this instance computed, including early refreshes.
+     */
+    public long getLoads() {
+        return loads.get();
+    }
+
+    /**
+     *
+     * @return the number of values this instance computed before they expired.
+     */
+    public long getRefreshes() {
+        return refreshes.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V load(K key, ValueLoader<? super K, ? extends V> loader) throws ExecutionException {
+
+        Object mappedKey = mapKey(key);
+        while (true) {
+            SettableRedisFuture<Object> future = new SettableRedisFuture<Object>();
+            SettableRedisFuture<Object> leader = inFlight.putIfAbsent(mappedKey, future);
+            if (leader == null) {
+                return (V) lead(mappedKey, future, key, loader, false);
+            }
+
+            Object value = join(leader);
+            if (value != NOT_LOADED) {
+                return (V) value;
+            }
+            // joined a refresh that was skipped, the key expired meanwhile
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V refresh(K key, ValueLoader<? super K, ? extends V> loader) throws ExecutionException {
+
+        Object mappedKey = mapKey(key);
+        SettableRedisFuture<Object> future = new SettableRedisFuture<Object>();
+        if (inFlight.putIfAbsent(mappedKey, future) != null) {
+            return null;
+        }
+
+        Object value = lead(mappedKey, future, key, loader, true);
+        return value != NOT_LOADED ? (V) value : null;
+    }
+
+    private Object lead(Object mappedKey, SettableRedisFuture<Object> future, K key,
+            ValueLoader<? super K, ? extends V> loader, boolean refresh) throws ExecutionException {
+        try {
+            Object value = options.getLockTimeout() > 0 ? loadLocked(key, loader, refresh) : loadAndStore(key, loader);
+            if (refresh && value != NOT_LOADED) {
+                refreshes.incrementAndGet();
+            }
+            future.set(value);
+            return value;
+        } catch (ExecutionException e) {
+            future.setException(e.getCause());
+            throw e;
+        } catch (RuntimeException e) {
+            future.setException(e);
+            throw e;
+        } catch (Error e) {
+            // callers that joined the load must not wait forever
+            future.setException(e);
+            throw e;
+        } finally {
+            inFlight.remove(mappedKey, future);
+        }
+    }
+
+    private Object loadLocked(K key, ValueLoader<? super K, ? extends V> loader, boolean refresh) throws ExecutionException {
+
+        K lockKey = lockKey(key);
+        V token = codec.decodeValue(ByteBuffer.wrap(UUID.randomUUID().toString().getBytes(LettuceCharsets.ASCII)));
+        long lockMillis = options.getLockTimeoutUnit().toMillis(options.getLockTimeout());
+        long pollInterval = Math.max(1, Math.min(MAX_POLL_INTERVAL, lockMillis / 20));
+
+        while (true) {
+            if (await(connection.set(lockKey, token, SetArgs.Builder.nx().px(Math.max(1, lockMillis)))) != null) {
+                try {
+                    return loadAndStore(key, loader);
+                } finally {
+                    unlock(lockKey, token);
+                }
+            }
+
+            if (refresh) {
+                // another client refreshes the value
+                return NOT_LOADED;
+            }
+
+            try {
+                Thread.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                throw new RedisCommandInterruptedException(e);
+            }
+
+            V value = await(connection.get(key));
+            if (value != null) {
+                return value;
+            }
+        }
+    }
+
+    private V loadAndStore(K key, ValueLoader<? super K, ? extends V> loader) throws ExecutionException {
+
+        long start = System.nanoTime();
+        V value;
+        try {
+            value = loader.load(key);
+        } catch (Exception e) {
+            throw new ExecutionException(e);
+        }
+
+        long duration = System.nanoTime() - start;
+        loadNanos = loadNanos == 0 ? duration : (7 * loadNanos + duration) / 8;
+        loads.incrementAndGet();
+
+        if (value != null) {
+            await(connection.set(key, value, SetArgs.Builder.px(options.getTtlUnit().toMillis(options.getTtl()))));
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void unlock(K lockKey, V token) {
+        await(connection.<Long> eval(UNLOCK_SCRIPT, ScriptOutputType.INTEGER, (K[]) new Object[] { lockKey }, token));
+    }
+
+    /**
+     * Decide whether a read reloads the value (<em>XFetch</em>): the probability grows exponentially as the expiry approaches
+     * and with the average duration of the loads.
+     *
+     * @param ttl the remaining time to live in milliseconds
+     * @return true if the value should be reloaded.
+     */
+    private boolean isRefreshDue(Long ttl) {
+        if (ttl == null || ttl <= 0 || loadNanos == 0) {
+            return false;
+        }
+
+        double delta = loadNanos / 1000000.0;
+        double offset = -delta * options.getEarlyRefresh() * Math.log(random.nextDouble());
+        return offset >= ttl;
+    }
+
+    private K lockKey(K key) {
+        byte[] encoded = codec.encodeKey(key);
+        ByteBuffer buffer = ByteBuffer.allocate(encoded.length + LOCK_SUFFIX.length);
+        buffer.put(encoded).put(LOCK_SUFFIX).flip();
+        return codec.decodeKey(buffer);
+    }
+
+    private <T> T await(RedisFuture<T> future) {
+        return LettuceFutures.await(future, options.getTimeout(), options.getTimeoutUnit());
+    }
+
+    private static Object join(SettableRedisFuture<Object> future) throws ExecutionException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            throw new RedisCommandInterruptedException(e);
+        }
+    }
+
+    private static Object mapKey(Object key) {
+        if (key instanceof byte[]) {
+            return ByteBuffer.wrap((byte[]) key);
+        }
+        return key;
+    }
+}
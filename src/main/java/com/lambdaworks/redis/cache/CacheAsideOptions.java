@@ -0,0 +1,146 @@
+package com.lambdaworks.redis.cache;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options for a {@link CacheAside}. Static import the methods from {@link Builder} and chain the method calls:
+ * <code>ttl(10, TimeUnit.MINUTES).lock(5, TimeUnit.SECONDS).earlyRefresh(1.0)</code>.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class CacheAsideOptions {
+
+    public static final long DEFAULT_TTL = 60;
+    public static final TimeUnit DEFAULT_TTL_UNIT = TimeUnit.SECONDS;
+    public static final long DEFAULT_TIMEOUT = 60;
+    public static final TimeUnit DEFAULT_TIMEOUT_UNIT = TimeUnit.SECONDS;
+
+    private long ttl = DEFAULT_TTL;
+    private TimeUnit ttlUnit = DEFAULT_TTL_UNIT;
+    private long lockTimeout;
+    private TimeUnit lockTimeoutUnit = TimeUnit.MILLISECONDS;
+    private double earlyRefresh;
+    private long timeout = DEFAULT_TIMEOUT;
+    private TimeUnit timeoutUnit = DEFAULT_TIMEOUT_UNIT;
+
+    /**
+     * Static builder methods.
+     */
+    public static class Builder {
+
+        /**
+         * Utility constructor.
+         */
+        private Builder() {
+
+        }
+
+        public static CacheAsideOptions ttl(long ttl, TimeUnit ttlUnit) {
+            return new CacheAsideOptions().ttl(ttl, ttlUnit);
+        }
+
+        public static CacheAsideOptions lock(long lockTimeout, TimeUnit lockTimeoutUnit) {
+            return new CacheAsideOptions().lock(lockTimeout, lockTimeoutUnit);
+        }
+
+        public static CacheAsideOptions earlyRefresh(double beta) {
+            return new CacheAsideOptions().earlyRefresh(beta);
+        }
+
+        public static CacheAsideOptions timeout(long timeout, TimeUnit timeoutUnit) {
+            return new CacheAsideOptions().timeout(timeout, timeoutUnit);
+        }
+    }
+
+    /**
+     * Expire loaded values after {@code ttl}. Defaults to {@link #DEFAULT_TTL} {@link #DEFAULT_TTL_UNIT}.
+     *
+     * @param ttl the time to live, must be greater than {@literal 0}
+     * @param ttlUnit the unit of the time to live, must not be {@literal null}
+     * @return this
+     */
+    public CacheAsideOptions ttl(long ttl, TimeUnit ttlUnit) {
+        checkArgument(ttlUnit != null, "ttlUnit must not be null");
+        checkArgument(ttlUnit.toMillis(ttl) > 0, "ttl must be at least 1 millisecond");
+        this.ttl = ttl;
+        this.ttlUnit = ttlUnit;
+        return this;
+    }
+
+    /**
+     * Load a missing value only while holding a lock in redis (<code>SET &lt;key&gt;:lock NX PX</code>), so a single client
+     * loads the value while the other clients wait for it. A lock expires after {@code lockTimeout}, clients that wait longer
+     * load the value themselves. The lock is disabled by default.
+     *
+     * @param lockTimeout the expiry of the lock, {@literal 0} to disable the lock
+     * @param lockTimeoutUnit the unit of the lock expiry, must not be {@literal null}
+     * @return this
+     */
+    public CacheAsideOptions lock(long lockTimeout, TimeUnit lockTimeoutUnit) {
+        checkArgument(lockTimeout >= 0, "lockTimeout must not be negative");
+        checkArgument(lockTimeoutUnit != null, "lockTimeoutUnit must not be null");
+        this.lockTimeout = lockTimeout;
+        this.lockTimeoutUnit = lockTimeoutUnit;
+        return this;
+    }
+
+    /**
+     * Reload values before they expire. A read reloads the value with a probability that grows as the value approaches its
+     * expiry and with the time the loads take (<em>XFetch</em>). {@code beta} scales the probability, {@literal 1.0} is a
+     * reasonable choice, values greater than {@literal 1.0} favor earlier reloads. Disabled ({@literal 0}) by default.
+     *
+     * @param beta the scale of the reload probability, must not be negative
+     * @return this
+     */
+    public CacheAsideOptions earlyRefresh(double beta) {
+        checkArgument(beta >= 0, "beta must not be negative");
+        this.earlyRefresh = beta;
+        return this;
+    }
+
+    /**
+     * Maximum time to wait for a reply from redis. Defaults to {@link #DEFAULT_TIMEOUT} {@link #DEFAULT_TIMEOUT_UNIT}.
+     *
+     * @param timeout the timeout, must be greater than {@literal 0}
+     * @param timeoutUnit the unit of the timeout, must not be {@literal null}
+     * @return this
+     */
+    public CacheAsideOptions timeout(long timeout, TimeUnit timeoutUnit) {
+        checkArgument(timeout > 0, "timeout must be greater than 0");
+        checkArgument(timeoutUnit != null, "timeoutUnit must not be null");
+        this.timeout = timeout;
+        this.timeoutUnit = timeoutUnit;
+        return this;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public TimeUnit getTtlUnit() {
+        return ttlUnit;
+    }
+
+    public long getLockTimeout() {
+        return lockTimeout;
+    }
+
+    public TimeUnit getLockTimeoutUnit() {
+        return lockTimeoutUnit;
+    }
+
+    public double getEarlyRefresh() {
+        return earlyRefresh;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public TimeUnit getTimeoutUnit() {
+        return timeoutUnit;
+    }
+}
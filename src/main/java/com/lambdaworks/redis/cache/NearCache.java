@@ -0,0 +1,496 @@
+package com.lambdaworks.redis.cache;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.lambdaworks.redis.AbstractRedisClient;
+import com.lambdaworks.redis.RedisAsyncConnection;
+import com.lambdaworks.redis.RedisChannelHandler;
+import com.lambdaworks.redis.RedisConnectionStateListener;
+import com.lambdaworks.redis.RedisFuture;
+import com.lambdaworks.redis.SettableRedisFuture;
+import com.lambdaworks.redis.codec.RedisCodec;
+import com.lambdaworks.redis.protocol.LettuceCharsets;
+import com.lambdaworks.redis.pubsub.RedisPubSubAdapter;
+import com.lambdaworks.redis.pubsub.RedisPubSubConnection;
+import com.lambdaworks.redis.pubsub.RedisPubSubListener;
+
+/**
+ * Client-side cache in front of a connection for <code>GET</code> and <code>HGET</code>. Cache hits are answered locally,
+ * misses are read from redis together with the <code>PTTL</code> of the key and cached until the key expires. The cache is
+ * bounded by size or weight and evicts the least recently used entries, see {@link NearCacheOptions}.
+ *
+ * Entries are invalidated by keyspace notifications (<code>__keyspace@&lt;db&gt;__:&lt;key&gt;</code>) which are received on
+ * a pub/sub connection. The server must publish keyspace notifications for all events that modify cached keys (e.g.
+ * <code>notify-keyspace-events KA</code>), <code>FLUSHDB</code> and <code>FLUSHALL</code> are not announced per key. The cache
+ * is flushed when one of the connections disconnects and caches no values until the notifications are subscribed again.
+ *
+ * Cached values are shared between callers and must not be modified.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class NearCache<K, V> implements Closeable {
+
+    private final AbstractRedisClient client;
+    private final RedisCodec<K, V> codec;
+    private final RedisAsyncConnection<K, V> connection;
+    private final RedisPubSubConnection<K, V> pubSubConnection;
+    private final NearCacheOptions options;
+    private final Weigher<Object, Object> weigher;
+    private final byte[] channelPrefix;
+    private final K pattern;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<CacheKey, Entry<V>> entries = new LinkedHashMap<CacheKey, Entry<V>>(16, 0.75f, true);
+    private final Map<Object, Set<CacheKey>> fields = new HashMap<Object, Set<CacheKey>>();
+    private final Map<CacheKey, Load> loads = new HashMap<CacheKey, Load>();
+    private long weight;
+    private volatile boolean enabled;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final RedisPubSubListener<K, V> invalidationListener = new RedisPubSubAdapter<K, V>() {
+
+        @Override
+        public void message(K pattern, K channel, V message) {
+            invalidateChannel(channel);
+        }
+
+        @Override
+        public void psubscribed(K pattern, long count) {
+            // notifications may have been missed while the pattern was not subscribed
+            flush();
+            enabled = true;
+        }
+    };
+
+    private final RedisConnectionStateListener connectionStateListener = new RedisConnectionStateListener() {
+
+        @Override
+        public void onRedisConnected(RedisChannelHandler<?, ?> connection) {
+        }
+
+        @Override
+        public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+            if (connection == pubSubConnection) {
+                enabled = false;
+                flush();
+            } else if (connection == NearCache.this.connection) {
+                flush();
+            }
+        }
+
+        @Override
+        public void onRedisExceptionCaught(RedisChannelHandler<?, ?> connection, Throwable cause) {
+        }
+    };
+
+    /**
+     * Create a new near cache. The cache subscribes to the keyspace notifications of the database and starts caching once the
+     * subscription is confirmed.
+     *
+     * @param client the client that opened the connections, used to observe disconnects
+     * @param codec Codec used to encode/decode keys and values.
+     * @param connection the connection for reading, must use the database {@code database}
+     * @param pubSubConnection the connection for the keyspace notifications, used exclusively by the cache
+     * @param database the database of the connection
+     * @param options the cache options
+     */
+    @SuppressWarnings("unchecked")
+    public NearCache(AbstractRedisClient client, RedisCodec<K, V> codec, RedisAsyncConnection<K, V> connection,
+            RedisPubSubConnection<K, V> pubSubConnection, int database, NearCacheOptions options) {
+        checkArgument(client != null, "client must not be null");
+        checkArgument(codec != null, "RedisCodec must not be null");
+        checkArgument(connection != null, "connection must not be null");
+        checkArgument(pubSubConnection != null, "pubSubConnection must not be null");
+        checkArgument(options != null, "NearCacheOptions must not be null");
+
+        this.client = client;
+        this.codec = codec;
+        this.connection = connection;
+        this.pubSubConnection = pubSubConnection;
+        this.options = options;
+        this.weigher = (Weigher<Object, Object>) options.getWeigher();
+        this.channelPrefix = ("__keyspace@" + database + "__:").getBytes(LettuceCharsets.ASCII);
+        this.pattern = codec.decodeKey(ByteBuffer.wrap(("__keyspace@" + database + "__:*").getBytes(LettuceCharsets.ASCII)));
+
+        client.addListener(connectionStateListener);
+        pubSubConnection.addListener(invalidationListener);
+        pubSubConnection.psubscribe(pattern);
+    }
+
+    /**
+     * Get the value of a key.
+     *
+     * @param key the key
+     * @return V bulk-string-reply the value of {@code key}, or {@literal null} when {@code key} does not exist.
+     */
+    public RedisFuture<V> get(K key) {
+        checkArgument(key != null, "Key must not be null");
+
+        CacheKey cacheKey = new CacheKey(mapKey(key), null);
+        V value = lookup(cacheKey);
+        if (value != null) {
+            return completed(value);
+        }
+
+        // registered before the read is sent, so notifications arriving until the reply invalidate the load
+        Load load = register(cacheKey);
+        return load(cacheKey, load, key, null, connection.get(key));
+    }
+
+    /**
+     * Get the value of a hash field.
+     *
+     * @param key the key
+     * @param field the field type: key
+     * @return V bulk-string-reply the value associated with {@code field}, or {@literal null} when {@code field} is not
+     *         present in the hash or {@code key} does not exist.
+     */
+    public RedisFuture<V> hget(K key, K field) {
+        checkArgument(key != null, "Key must not be null");
+        checkArgument(field != null, "Field must not be null");
+
+        CacheKey cacheKey = new CacheKey(mapKey(key), mapKey(field));
+        V value = lookup(cacheKey);
+        if (value != null) {
+            return completed(value);
+        }
+
+        Load load = register(cacheKey);
+        return load(cacheKey, load, key, field, connection.hget(key, field));
+    }
+
+    /**
+     * Remove the cached entries of a key.
+     *
+     * @param key the key
+     */
+    public void invalidate(K key) {
+        checkArgument(key != null, "Key must not be null");
+        invalidateMapped(mapKey(key));
+    }
+
+    /**
+     * Remove all cached entries.
+     */
+    public void flush() {
+        synchronized (lock) {
+            entries.clear();
+            fields.clear();
+            weight = 0;
+            for (Load load : loads.values()) {
+                load.stale = true;
+            }
+            loads.clear();
+        }
+    }
+
+    /**
+     *
+     * @return true if the keyspace notifications are subscribed and values are cached.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     *
+     * @return the number of cached entries.
+     */
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    /**
+     *
+     * @return the total weight of the cached entries, the number of entries if the cache is bounded by size.
+     */
+    public long getWeight() {
+        synchronized (lock) {
+            return weight;
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * Close the connections of the cache.
+     */
+    @Override
+    public void close() {
+        enabled = false;
+        client.removeListener(connectionStateListener);
+        pubSubConnection.close();
+        connection.close();
+        flush();
+    }
+
+    private V lookup(CacheKey cacheKey) {
+        synchronized (lock) {
+            Entry<V> entry = entries.get(cacheKey);
+            if (entry != null) {
+                if (entry.expiresAt > System.nanoTime()) {
+                    hits.incrementAndGet();
+                    return entry.value;
+                }
+                remove(cacheKey);
+            }
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    private Load register(CacheKey cacheKey) {
+        if (!enabled) {
+            return null;
+        }
+
+        synchronized (lock) {
+            Load load = loads.get(cacheKey);
+            if (load == null) {
+                load = new Load();
+                loads.put(cacheKey, load);
+            }
+            load.pending++;
+            return load;
+        }
+    }
+
+    private RedisFuture<V> load(final CacheKey cacheKey, final Load load, final K key, final K field,
+            final RedisFuture<V> value) {
+        if (load == null) {
+            return value;
+        }
+
+        // pipelined after the read, completes after the value
+        final RedisFuture<Long> ttl = connection.pttl(key);
+        ttl.addListener(new Runnable() {
+            @Override
+            public void run() {
+                loaded(cacheKey, load, field != null ? field : key, value, ttl);
+            }
+        }, MoreExecutors.sameThreadExecutor());
+
+        return value;
+    }
+
+    private void loaded(CacheKey cacheKey, Load load, K key, RedisFuture<V> value, RedisFuture<Long> ttl) {
+        synchronized (lock) {
+            if (--load.pending == 0 && loads.get(cacheKey) == load) {
+                loads.remove(cacheKey);
+            }
+
+            if (load.stale || !enabled || !isSuccessful(value) || !isSuccessful(ttl)) {
+                return;
+            }
+
+            V result = getNow(value);
+            Long pttl = getNow(ttl);
+            if (result == null || pttl == null || pttl == -2) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            long expiresAt = pttl >= 0 ? now + TimeUnit.MILLISECONDS.toNanos(pttl) : Long.MAX_VALUE;
+            if (options.getMaximumTtl() > 0) {
+                expiresAt = Math.min(expiresAt, now + options.getMaximumTtlUnit().toNanos(options.getMaximumTtl()));
+            }
+
+            put(cacheKey, new Entry<V>(result, expiresAt, weigher != null ? weigher.weigh(key, result) : 1));
+        }
+    }
+
+    private void put(CacheKey cacheKey, Entry<V> entry) {
+        remove(cacheKey);
+
+        entries.put(cacheKey, entry);
+        weight += entry.weight;
+        if (cacheKey.field != null) {
+            Set<CacheKey> keyFields = fields.get(cacheKey.key);
+            if (keyFields == null) {
+                keyFields = new HashSet<CacheKey>();
+                fields.put(cacheKey.key, keyFields);
+            }
+            keyFields.add(cacheKey);
+        }
+
+        long maximum = options.getMaximumSize() > 0 ? options.getMaximumSize() : options.getMaximumWeight();
+        Iterator<Map.Entry<CacheKey, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (weight > maximum && iterator.hasNext()) {
+            Map.Entry<CacheKey, Entry<V>> eldest = iterator.next();
+            iterator.remove();
+            removed(eldest.getKey(), eldest.getValue());
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(CacheKey cacheKey) {
+        Entry<V> entry = entries.remove(cacheKey);
+        if (entry != null) {
+            removed(cacheKey, entry);
+        }
+    }
+
+    private void removed(CacheKey cacheKey, Entry<V> entry) {
+        weight -= entry.weight;
+        if (cacheKey.field != null) {
+            Set<CacheKey> keyFields = fields.get(cacheKey.key);
+            if (keyFields != null) {
+                keyFields.remove(cacheKey);
+                if (keyFields.isEmpty()) {
+                    fields.remove(cacheKey.key);
+                }
+            }
+        }
+    }
+
+    private void invalidateChannel(K channel) {
+        byte[] bytes = codec.encodeKey(channel);
+        if (bytes.length < channelPrefix.length
+                || !Arrays.equals(channelPrefix, Arrays.copyOfRange(bytes, 0, channelPrefix.length))) {
+            return;
+        }
+
+        K key = codec.decodeKey(ByteBuffer.wrap(bytes, channelPrefix.length, bytes.length - channelPrefix.length));
+        invalidateMapped(mapKey(key));
+    }
+
+    private void invalidateMapped(Object key) {
+        invalidations.incrementAndGet();
+        synchronized (lock) {
+            remove(new CacheKey(key, null));
+            Set<CacheKey> keyFields = fields.remove(key);
+            if (keyFields != null) {
+                for (CacheKey cacheKey : keyFields.toArray(new CacheKey[keyFields.size()])) {
+                    remove(cacheKey);
+                }
+            }
+
+            Iterator<Map.Entry<CacheKey, Load>> iterator = loads.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<CacheKey, Load> entry = iterator.next();
+                if (entry.getKey().key.equals(key)) {
+                    entry.getValue().stale = true;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static boolean isSuccessful(RedisFuture<?> future) {
+        return future.isDone() && !future.isCancelled() && future.getError() == null;
+    }
+
+    private static <T> T getNow(RedisFuture<T> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static <T> RedisFuture<T> completed(T value) {
+        SettableRedisFuture<T> future = new SettableRedisFuture<T>();
+        future.set(value);
+        return future;
+    }
+
+    private static Object mapKey(Object key) {
+        if (key instanceof byte[]) {
+            return ByteBuffer.wrap((byte[]) key);
+        }
+        return key;
+    }
+
+    /**
+     * Key of a cached value or hash field.
+     */
+    private static class CacheKey {
+
+        private final Object key;
+        private final Object field;
+
+        CacheKey(Object key, Object field) {
+            this.key = key;
+            this.field = field;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+
+            CacheKey that = (CacheKey) o;
+            return key.equals(that.key) && (field == null ? that.field == null : field.equals(that.field));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + (field != null ? field.hashCode() : 0);
+        }
+    }
+
+    /**
+     * A cached value.
+     */
+    private static class Entry<V> {
+
+        private final V value;
+        private final long expiresAt;
+        private final int weight;
+
+        Entry(V value, long expiresAt, int weight) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Pending loads of a cache key, marked stale if the key is invalidated before the values arrive.
+     */
+    private static class Load {
+        private int pending;
+        private boolean stale;
+    }
+}
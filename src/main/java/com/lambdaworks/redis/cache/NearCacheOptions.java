@@ -0,0 +1,125 @@
+package com.lambdaworks.redis.cache;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options for a {@link NearCache}. Static import the methods from {@link Builder} and chain the method calls:
+ * <code>maximumSize(10000).maximumTtl(5, TimeUnit.MINUTES)</code>.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class NearCacheOptions {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+    private long maximumWeight = -1;
+    private Weigher<?, ?> weigher;
+    private long maximumTtl;
+    private TimeUnit maximumTtlUnit = TimeUnit.MILLISECONDS;
+
+    /**
+     * Static builder methods.
+     */
+    public static class Builder {
+
+        /**
+         * Utility constructor.
+         */
+        private Builder() {
+
+        }
+
+        public static NearCacheOptions maximumSize(long maximumSize) {
+            return new NearCacheOptions().maximumSize(maximumSize);
+        }
+
+        public static NearCacheOptions maximumWeight(long maximumWeight, Weigher<?, ?> weigher) {
+            return new NearCacheOptions().maximumWeight(maximumWeight, weigher);
+        }
+
+        public static NearCacheOptions maximumTtl(long maximumTtl, TimeUnit maximumTtlUnit) {
+            return new NearCacheOptions().maximumTtl(maximumTtl, maximumTtlUnit);
+        }
+    }
+
+    /**
+     * Bound the cache by the number of entries, the least recently used entries are evicted. Defaults to
+     * {@link #DEFAULT_MAXIMUM_SIZE}. Replaces a weight bound.
+     *
+     * @param maximumSize the maximal number of entries, must be greater than {@literal 0}
+     * @return this
+     */
+    public NearCacheOptions maximumSize(long maximumSize) {
+        checkArgument(maximumSize > 0, "maximumSize must be greater than 0");
+        this.maximumSize = maximumSize;
+        this.maximumWeight = -1;
+        this.weigher = null;
+        return this;
+    }
+
+    /**
+     * Bound the cache by the total weight of the entries, the least recently used entries are evicted. Replaces a size
+     * bound.
+     *
+     * @param maximumWeight the maximal total weight, must be greater than {@literal 0}
+     * @param weigher the weigher for the entries, must not be {@literal null}
+     * @return this
+     */
+    public NearCacheOptions maximumWeight(long maximumWeight, Weigher<?, ?> weigher) {
+        checkArgument(maximumWeight > 0, "maximumWeight must be greater than 0");
+        checkArgument(weigher != null, "Weigher must not be null");
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.maximumSize = -1;
+        return this;
+    }
+
+    /**
+     * Upper bound for the time an entry is cached, regardless of the TTL of the key. Limits the staleness if invalidations are
+     * missed (e.g. keyspace notifications are not enabled for all event classes). {@literal 0} caches entries until the key
+     * expires. Defaults to {@literal 0}.
+     *
+     * @param maximumTtl the maximal time to live, must not be negative
+     * @param maximumTtlUnit the unit of the time to live, must not be {@literal null}
+     * @return this
+     */
+    public NearCacheOptions maximumTtl(long maximumTtl, TimeUnit maximumTtlUnit) {
+        checkArgument(maximumTtl >= 0, "maximumTtl must not be negative");
+        checkArgument(maximumTtlUnit != null, "maximumTtlUnit must not be null");
+        this.maximumTtl = maximumTtl;
+        this.maximumTtlUnit = maximumTtlUnit;
+        return this;
+    }
+
+    /**
+     *
+     * @return the maximal number of entries, {@literal -1} if the cache is bounded by weight.
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     *
+     * @return the maximal total weight, {@literal -1} if the cache is bounded by size.
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public Weigher<?, ?> getWeigher() {
+        return weigher;
+    }
+
+    public long getMaximumTtl() {
+        return maximumTtl;
+    }
+
+    public TimeUnit getMaximumTtlUnit() {
+        return maximumTtlUnit;
+    }
+}
@@ -0,0 +1,21 @@
+package com.lambdaworks.redis.cache;
+
+/**
+ * Computes the value of a key on a cache miss, see {@link CacheAside}.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public interface ValueLoader<K, V> {
+
+    /**
+     * Compute the value of a key.
+     *
+     * @param key the key
+     * @return the value, {@literal null} if the key has no value. {@literal null} values are not cached.
+     * @throws Exception if the value cannot be computed
+     */
+    V load(K key) throws Exception;
+}
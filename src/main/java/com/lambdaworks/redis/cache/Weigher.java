@@ -0,0 +1,20 @@
+package com.lambdaworks.redis.cache;
+
+/**
+ * Calculates the weight of a cache entry for weight-bounded caches.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public interface Weigher<K, V> {
+
+    /**
+     *
+     * @param key the key
+     * @param value the value
+     * @return the weight of the entry, must not be negative.
+     */
+    int weigh(K key, V value);
+}
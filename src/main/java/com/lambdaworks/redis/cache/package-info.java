@@ -0,0 +1,4 @@
+/**
+ * Client-side caches in front of redis connections.
+ */
+package com.lambdaworks.redis.cache;
@@ -0,0 +1,72 @@
+package com.lambdaworks.redis.cluster;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Options for cluster connections. Static import the methods from {@link Builder} and chain the method calls:
+ * <code>warmUpConnections().preloadScripts("return 1")</code>.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class ClusterConnectionOptions {
+
+    private boolean warmUpConnections;
+    private final List<String> preloadScripts = Lists.newArrayList();
+
+    /**
+     * Static builder methods.
+     */
+    public static class Builder {
+
+        /**
+         * Utility constructor.
+         */
+        private Builder() {
+
+        }
+
+        public static ClusterConnectionOptions warmUpConnections() {
+            return new ClusterConnectionOptions().warmUpConnections(true);
+        }
+
+        public static ClusterConnectionOptions preloadScripts(String... scripts) {
+            return new ClusterConnectionOptions().preloadScripts(scripts);
+        }
+    }
+
+    /**
+     * Open the connections to all master nodes in parallel before the cluster connection is returned. Otherwise node
+     * connections are opened with the first command for a node.
+     *
+     * @param warmUpConnections {@literal true} to open the node connections eagerly
+     * @return this
+     */
+    public ClusterConnectionOptions warmUpConnections(boolean warmUpConnections) {
+        this.warmUpConnections = warmUpConnections;
+        return this;
+    }
+
+    /**
+     * Load the Lua scripts into the script cache of all master nodes when the cluster connection is created. Implies
+     * {@link #warmUpConnections(boolean)}.
+     *
+     * @param scripts the script contents
+     * @return this
+     */
+    public ClusterConnectionOptions preloadScripts(String... scripts) {
+        Collections.addAll(preloadScripts, scripts);
+        return this;
+    }
+
+    public boolean isWarmUpConnections() {
+        return warmUpConnections || !preloadScripts.isEmpty();
+    }
+
+    public List<String> getPreloadScripts() {
+        return Collections.unmodifiableList(preloadScripts);
+    }
+}
@@ -0,0 +1,162 @@
+package com.lambdaworks.redis.cluster;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.lambdaworks.redis.RedisException;
+import com.lambdaworks.redis.RedisFuture;
+import com.lambdaworks.redis.SettableRedisFuture;
+import com.lambdaworks.redis.cluster.models.partitions.RedisClusterNode;
+
+/**
+ * Utility to combine the results of commands which were executed on multiple cluster nodes.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+class ClusterFutures {
+
+    private ClusterFutures() {
+        // unused
+    }
+
+    /**
+     * Aggregate the results of the node futures. The resulting future is completed once all node futures are completed. The
+     * first error reply of a node is reported as error of the resulting future, the first exception completes the resulting
+     * future exceptionally. The aggregation function receives a map of all node results in the order of the given futures.
+     *
+     * @param futures futures by node
+     * @param aggregation function to aggregate the node results
+     * @param <N> node type, usually {@link RedisClusterNode}
+     * @param <T> node result type
+     * @param <R> aggregated result type
+     * @return RedisFuture with the aggregated result.
+     */
+    static <N, T, R> RedisFuture<R> aggregate(final Map<N, ? extends RedisFuture<T>> futures,
+            final Function<Map<N, T>, R> aggregation) {
+
+        final SettableRedisFuture<R> result = new SettableRedisFuture<R>();
+        if (futures.isEmpty()) {
+            result.set(aggregation.apply(Collections.<N, T> emptyMap()));
+            return result;
+        }
+
+        final AtomicInteger remaining = new AtomicInteger(futures.size());
+        for (final Map.Entry<N, ? extends RedisFuture<T>> entry : futures.entrySet()) {
+            entry.getValue().addListener(new Runnable() {
+                @Override
+                public void run() {
+
+                    RedisFuture<T> future = entry.getValue();
+                    if (future.getError() != null) {
+                        result.setError(future.getError());
+                    }
+
+                    try {
+                        future.get();
+                    } catch (InterruptedException e) {
+                        result.setException(e);
+                    } catch (ExecutionException e) {
+                        result.setException(e.getCause());
+                    } catch (RuntimeException e) {
+                        result.setException(e);
+                    }
+
+                    if (remaining.decrementAndGet() == 0 && !result.isDone()) {
+                        complete(futures, aggregation, result);
+                    }
+                }
+            }, MoreExecutors.sameThreadExecutor());
+        }
+
+        return result;
+    }
+
+    /**
+     * Create a future that is completed exceptionally.
+     *
+     * @param cause the cause
+     * @param <T> result type
+     * @return RedisFuture
+     */
+    static <T> RedisFuture<T> failed(Throwable cause) {
+        SettableRedisFuture<T> future = new SettableRedisFuture<T>();
+        future.setException(cause);
+        return future;
+    }
+
+    /**
+     *
+     * @param <N> node type
+     * @param <T> value type
+     * @return aggregation function that returns the first non-null node result.
+     */
+    static <N, T> Function<Map<N, T>, T> firstValue() {
+        return new Function<Map<N, T>, T>() {
+            @Override
+            public T apply(Map<N, T> input) {
+                for (T value : input.values()) {
+                    if (value != null) {
+                        return value;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     *
+     * @param <N> node type
+     * @param <T> value type
+     * @return aggregation function that returns the node results as map.
+     */
+    static <N, T> Function<Map<N, T>, Map<N, T>> perNode() {
+        return new Function<Map<N, T>, Map<N, T>>() {
+            @Override
+            public Map<N, T> apply(Map<N, T> input) {
+                return Maps.newLinkedHashMap(input);
+            }
+        };
+    }
+
+    /**
+     *
+     * @param <N> node type
+     * @param <T> value type
+     * @return aggregation function that returns the node results as list in the order of the futures.
+     */
+    static <N, T> Function<Map<N, T>, List<T>> values() {
+        return new Function<Map<N, T>, List<T>>() {
+            @Override
+            public List<T> apply(Map<N, T> input) {
+                return Lists.newArrayList(input.values());
+            }
+        };
+    }
+
+    private static <N, T, R> void complete(Map<N, ? extends RedisFuture<T>> futures, Function<Map<N, T>, R> aggregation,
+            SettableRedisFuture<R> result) {
+
+        Map<N, T> values = Maps.newLinkedHashMap();
+        try {
+            for (Map.Entry<N, ? extends RedisFuture<T>> entry : futures.entrySet()) {
+                values.put(entry.getKey(), entry.getValue().get());
+            }
+            result.set(aggregation.apply(values));
+        } catch (InterruptedException e) {
+            result.setException(e);
+        } catch (ExecutionException e) {
+            result.setException(e.getCause());
+        } catch (RuntimeException e) {
+            result.setException(new RedisException(e));
+        }
+    }
+}
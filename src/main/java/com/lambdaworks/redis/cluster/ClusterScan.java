@@ -0,0 +1,180 @@
+package com.lambdaworks.redis.cluster;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.lambdaworks.redis.RedisAsyncConnectionImpl;
+import com.lambdaworks.redis.RedisException;
+import com.lambdaworks.redis.RedisFuture;
+import com.lambdaworks.redis.ScanArgs;
+import com.lambdaworks.redis.ScanCursor;
+import com.lambdaworks.redis.SettableRedisFuture;
+import com.lambdaworks.redis.StreamScanCursor;
+import com.lambdaworks.redis.output.KeyStreamingChannel;
+
+import io.netty.util.internal.logging.InternalLogger;
+import io.netty.util.internal.logging.InternalLoggerFactory;
+
+/**
+ * Scan over multiple cluster nodes. Every node is scanned until its cursor is finished, at most {@code parallelism} nodes are
+ * scanned at the same time. The next node scan is triggered from the completion of the previous scan command, so no thread is
+ * blocked while the scan is in progress.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+class ClusterScan<K, V> {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(ClusterScan.class);
+
+    private final KeyStreamingChannel<K> channel;
+    private final ClusterScanCursor scanCursor;
+    private final ScanArgs scanArgs;
+    private final Map<String, RedisAsyncConnectionImpl<K, V>> connections;
+    private final Queue<String> pendingNodes;
+    private final AtomicInteger active = new AtomicInteger();
+    private final SettableRedisFuture<ClusterScanCursor> future = new SettableRedisFuture<ClusterScanCursor>();
+    private volatile Throwable failure;
+    private volatile boolean failed;
+
+    /**
+     *
+     * @param channel the streaming channel
+     * @param scanCursor the started cluster cursor
+     * @param scanArgs scan arguments, may be {@literal null}
+     * @param connections connections by node id for every node contained in the cursor.
+     */
+    ClusterScan(KeyStreamingChannel<K> channel, ClusterScanCursor scanCursor, ScanArgs scanArgs,
+            Map<String, RedisAsyncConnectionImpl<K, V>> connections) {
+        this.channel = channel;
+        this.scanCursor = scanCursor;
+        this.scanArgs = scanArgs;
+        this.connections = connections;
+        this.pendingNodes = new ConcurrentLinkedQueue<String>(connections.keySet());
+    }
+
+    /**
+     * Start the scan.
+     *
+     * @param parallelism maximal count of nodes that are scanned concurrently.
+     * @return future that is completed once all nodes are scanned or the scan failed.
+     */
+    RedisFuture<ClusterScanCursor> start(int parallelism) {
+
+        // the starter itself counts as active so the scan cannot complete before all initial node scans are started.
+        active.incrementAndGet();
+        int nodes = Math.min(parallelism, pendingNodes.size());
+        for (int i = 0; i < nodes; i++) {
+            scanNextNode();
+        }
+
+        if (active.decrementAndGet() == 0) {
+            complete();
+        }
+
+        return future;
+    }
+
+    private void scanNextNode() {
+
+        if (failed || future.isDone()) {
+            return;
+        }
+
+        active.incrementAndGet();
+        String nodeId = pendingNodes.poll();
+        if (nodeId == null) {
+            if (active.decrementAndGet() == 0) {
+                complete();
+            }
+            return;
+        }
+
+        scanNode(nodeId);
+    }
+
+    private void scanNode(final String nodeId) {
+
+        final RedisFuture<StreamScanCursor> nodeFuture;
+        try {
+            ScanCursor nodeCursor = ScanCursor.of(scanCursor.getNodeCursor(nodeId));
+            nodeFuture = connections.get(nodeId).scan(channel, nodeCursor, scanArgs);
+        } catch (RuntimeException e) {
+            nodeFailed(nodeId, e);
+            return;
+        }
+
+        nodeFuture.addListener(new Runnable() {
+            @Override
+            public void run() {
+                onNodeCompleted(nodeId, nodeFuture);
+            }
+        }, MoreExecutors.sameThreadExecutor());
+    }
+
+    private void onNodeCompleted(String nodeId, RedisFuture<StreamScanCursor> nodeFuture) {
+
+        if (nodeFuture.getError() != null) {
+            future.setError(nodeFuture.getError());
+            nodeFailed(nodeId, null);
+            return;
+        }
+
+        StreamScanCursor result;
+        try {
+            result = nodeFuture.get();
+        } catch (InterruptedException e) {
+            nodeFailed(nodeId, e);
+            return;
+        } catch (ExecutionException e) {
+            nodeFailed(nodeId, e.getCause());
+            return;
+        }
+
+        if (result == null) {
+            nodeFailed(nodeId, new RedisException("Scan of node " + nodeId + " did not return a cursor"));
+            return;
+        }
+
+        scanCursor.update(nodeId, result);
+
+        if (!result.isFinished() && !failed && !future.isDone()) {
+            scanNode(nodeId);
+            return;
+        }
+
+        scanNextNode();
+        if (active.decrementAndGet() == 0) {
+            complete();
+        }
+    }
+
+    private void nodeFailed(String nodeId, Throwable cause) {
+
+        logger.debug("Scan of node " + nodeId + " failed", cause);
+        if (cause != null && failure == null) {
+            failure = cause;
+        }
+        failed = true;
+
+        if (active.decrementAndGet() == 0) {
+            complete();
+        }
+    }
+
+    private void complete() {
+
+        if (failure != null) {
+            future.setException(failure);
+            return;
+        }
+
+        future.set(scanCursor);
+    }
+}
@@ -0,0 +1,136 @@
+package com.lambdaworks.redis.cluster;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Maps;
+import com.lambdaworks.redis.LettuceStrings;
+import com.lambdaworks.redis.StreamScanCursor;
+
+/**
+ * Composite cursor for a cluster-wide scan. The cursor keeps a node cursor for every master node which is not yet completely
+ * scanned. Nodes are removed from the cursor once their scan is finished. The textual cursor representation is
+ * <code>nodeId:cursor[,nodeId:cursor]</code>, the initial and the final cursor is <code>0</code>, as for a regular SCAN.
+ *
+ * A {@link ClusterScanCursor} is updated while the scan is in progress. If a scan fails, the cursor can be passed again to
+ * resume the scan without scanning already finished nodes twice.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class ClusterScanCursor extends StreamScanCursor {
+
+    private static final String INITIAL_CURSOR = "0";
+    private static final char NODE_SEPARATOR = ',';
+    private static final char CURSOR_SEPARATOR = ':';
+
+    private final Map<String, String> nodeCursors = Maps.newLinkedHashMap();
+    private boolean started;
+
+    /**
+     * Create a new cursor which starts a scan from the beginning.
+     */
+    public ClusterScanCursor() {
+    }
+
+    /**
+     * Creates a cluster scan cursor from its textual representation.
+     *
+     * @param cursor the cursor, <code>0</code> to start a new scan.
+     * @return ClusterScanCursor
+     */
+    public static ClusterScanCursor of(String cursor) {
+        ClusterScanCursor scanCursor = new ClusterScanCursor();
+        scanCursor.setCursor(cursor);
+        return scanCursor;
+    }
+
+    /**
+     *
+     * @return the textual representation of the composite cursor.
+     */
+    @Override
+    public synchronized String getCursor() {
+        if (nodeCursors.isEmpty()) {
+            return INITIAL_CURSOR;
+        }
+        return Joiner.on(NODE_SEPARATOR).withKeyValueSeparator(Character.toString(CURSOR_SEPARATOR)).join(nodeCursors);
+    }
+
+    /**
+     * Set the cursor from its textual representation.
+     *
+     * @param cursor the cursor
+     */
+    @Override
+    public synchronized void setCursor(String cursor) {
+        nodeCursors.clear();
+        started = false;
+        setFinished(false);
+
+        if (LettuceStrings.isEmpty(cursor) || INITIAL_CURSOR.equals(cursor)) {
+            return;
+        }
+
+        for (String nodeCursor : Splitter.on(NODE_SEPARATOR).omitEmptyStrings().trimResults().split(cursor)) {
+            List<String> parts = Splitter.on(CURSOR_SEPARATOR).splitToList(nodeCursor);
+            if (parts.size() != 2) {
+                throw new IllegalArgumentException("Invalid cluster scan cursor " + cursor);
+            }
+            nodeCursors.put(parts.get(0), parts.get(1));
+        }
+        started = true;
+    }
+
+    /**
+     *
+     * @return a copy of the node cursors (nodeId to cursor) for all nodes that are not finished yet.
+     */
+    public synchronized Map<String, String> getNodeCursors() {
+        return Maps.newLinkedHashMap(nodeCursors);
+    }
+
+    /**
+     * Initialize the cursor with the nodes to scan if the cursor was not started yet.
+     *
+     * @param nodeIds node id's of all nodes to scan
+     */
+    synchronized void start(Collection<String> nodeIds) {
+
+        if (started) {
+            return;
+        }
+
+        for (String nodeId : nodeIds) {
+            nodeCursors.put(nodeId, INITIAL_CURSOR);
+        }
+        started = true;
+        setFinished(nodeCursors.isEmpty());
+    }
+
+    /**
+     * Apply the result of a node scan.
+     *
+     * @param nodeId the node id
+     * @param nodeCursor the cursor returned by the node
+     */
+    synchronized void update(String nodeId, StreamScanCursor nodeCursor) {
+
+        setCount(getCount() + nodeCursor.getCount());
+
+        if (nodeCursor.isFinished()) {
+            nodeCursors.remove(nodeId);
+        } else {
+            nodeCursors.put(nodeId, nodeCursor.getCursor());
+        }
+
+        setFinished(nodeCursors.isEmpty());
+    }
+
+    synchronized String getNodeCursor(String nodeId) {
+        return nodeCursors.get(nodeId);
+    }
+}
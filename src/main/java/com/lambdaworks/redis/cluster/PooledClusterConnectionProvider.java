@@ -2,6 +2,7 @@ package com.lambdaworks.redis.cluster;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
 import org.apache.commons.pool2.KeyedObjectPool;
@@ -10,6 +11,7 @@ import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
 import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
 
+import com.google.common.collect.Maps;
 import com.lambdaworks.redis.*;
 import com.lambdaworks.redis.cluster.models.partitions.Partitions;
 import com.lambdaworks.redis.cluster.models.partitions.RedisClusterNode;
@@ -30,6 +32,7 @@ class PooledClusterConnectionProvider<K, V> implements ClusterConnectionProvider
     private static final InternalLogger logger = InternalLoggerFactory.getInstance(PooledClusterConnectionProvider.class);
     private KeyedObjectPool<PoolKey, RedisAsyncConnection<K, V>> partitionPool;
     private final Partitions partitions;
+    private final ConcurrentMap<PoolKey, RedisAsyncConnection<K, V>> connected = Maps.newConcurrentMap();
 
     public PooledClusterConnectionProvider(RedisClusterClient redisClusterClient, Partitions partitions,
             RedisCodec<K, V> redisCodec) {
@@ -41,7 +44,7 @@ class PooledClusterConnectionProvider<K, V> implements ClusterConnectionProvider
         config.setTestOnBorrow(true);
 
         partitionPool = new GenericKeyedObjectPool<PoolKey, RedisAsyncConnection<K, V>>(new KeyedConnectionFactory<K, V>(
-                redisClusterClient, redisCodec), config);
+                redisClusterClient, redisCodec, connected), config);
 
     }
 
@@ -78,18 +81,57 @@ class PooledClusterConnectionProvider<K, V> implements ClusterConnectionProvider
         }
     }
 
+    /**
+     * Add a node connection that was connected beforehand. The pool hands out the connection instead of connecting to the node
+     * on first use. The connection is closed if the pool holds a connection for the node already.
+     * 
+     * @param intent the connection intent
+     * @param uri the node URI
+     * @param connection the connected node connection
+     */
+    void addConnection(Intent intent, RedisURI uri, RedisAsyncConnection<K, V> connection) {
+
+        PoolKey key = new PoolKey(intent, uri);
+        connected.put(key, connection);
+        try {
+            partitionPool.addObject(key);
+        } catch (Exception e) {
+            throw new RedisException(e);
+        } finally {
+            if (connected.remove(key, connection)) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * 
+     * @return the count of pooled node connections.
+     */
+    int getConnectionCount() {
+        return partitionPool.getNumIdle() + partitionPool.getNumActive();
+    }
+
     private static class KeyedConnectionFactory<K, V> extends BaseKeyedPooledObjectFactory<PoolKey, RedisAsyncConnection<K, V>> {
         private final RedisClusterClient redisClusterClient;
         private final RedisCodec<K, V> redisCodec;
+        private final ConcurrentMap<PoolKey, RedisAsyncConnection<K, V>> connected;
 
-        private KeyedConnectionFactory(RedisClusterClient redisClusterClient, RedisCodec<K, V> redisCodec) {
+        private KeyedConnectionFactory(RedisClusterClient redisClusterClient, RedisCodec<K, V> redisCodec,
+                ConcurrentMap<PoolKey, RedisAsyncConnection<K, V>> connected) {
             this.redisClusterClient = redisClusterClient;
             this.redisCodec = redisCodec;
+            this.connected = connected;
         }
 
         @Override
         public RedisAsyncConnection<K, V> create(final PoolKey key) throws Exception {
 
+            RedisAsyncConnection<K, V> connection = connected.remove(key);
+            if (connection != null) {
+                return connection;
+            }
+
             logger.debug("createConnection(" + key.getIntent() + ", " + key.getSocketAddress() + ")");
             return redisClusterClient.connectAsyncImpl(redisCodec, key.getSocketAddress());
         }
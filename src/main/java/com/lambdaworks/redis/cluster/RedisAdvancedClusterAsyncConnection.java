@@ -0,0 +1,142 @@
+package com.lambdaworks.redis.cluster;
+
+import java.util.List;
+import java.util.Map;
+
+import com.lambdaworks.redis.RedisClusterAsyncConnection;
+import com.lambdaworks.redis.RedisFuture;
+import com.lambdaworks.redis.ScanArgs;
+import com.lambdaworks.redis.cluster.models.partitions.RedisClusterNode;
+import com.lambdaworks.redis.output.KeyStreamingChannel;
+
+/**
+ * Asynchronous cluster connection with operations that span multiple cluster nodes. Commands without a key are still sent to
+ * the default node, the methods declared here are executed on all relevant cluster nodes.
+ * 
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public interface RedisAdvancedClusterAsyncConnection<K, V> extends RedisClusterAsyncConnection<K, V> {
+
+    /**
+     * Maximal count of nodes that are scanned concurrently by a cluster scan without explicit parallelism.
+     */
+    int DEFAULT_SCAN_PARALLELISM = 4;
+
+    /**
+     * Iterate the keys space of all master nodes. Keys are streamed into the channel as they arrive. The channel is called
+     * concurrently from the I/O threads of the node connections and must be thread-safe. At most
+     * {@link #DEFAULT_SCAN_PARALLELISM} nodes are scanned concurrently.
+     * 
+     * @param channel streaming channel that receives a call for every key
+     * @return RedisFuture&lt;ClusterScanCursor&gt; the finished cursor, containing the count of all streamed keys.
+     */
+    RedisFuture<ClusterScanCursor> clusterScan(KeyStreamingChannel<K> channel);
+
+    /**
+     * Iterate the keys space of all master nodes. Keys are streamed into the channel as they arrive. The channel is called
+     * concurrently from the I/O threads of the node connections and must be thread-safe. At most
+     * {@link #DEFAULT_SCAN_PARALLELISM} nodes are scanned concurrently.
+     * 
+     * @param channel streaming channel that receives a call for every key
+     * @param scanArgs scan arguments, applied to every node scan
+     * @return RedisFuture&lt;ClusterScanCursor&gt; the finished cursor, containing the count of all streamed keys.
+     */
+    RedisFuture<ClusterScanCursor> clusterScan(KeyStreamingChannel<K> channel, ScanArgs scanArgs);
+
+    /**
+     * Iterate the keys space of all master nodes. Keys are streamed into the channel as they arrive. The channel is called
+     * concurrently from the I/O threads of the node connections and must be thread-safe. At most
+     * {@link #DEFAULT_SCAN_PARALLELISM} nodes are scanned concurrently. The scan cursor is updated while the scan is in
+     * progress and can be used to resume a failed scan.
+     * 
+     * @param channel streaming channel that receives a call for every key
+     * @param scanCursor the cluster scan cursor
+     * @param scanArgs scan arguments, applied to every node scan, may be {@literal null}
+     * @return RedisFuture&lt;ClusterScanCursor&gt; the cursor, finished when all nodes were scanned.
+     */
+    RedisFuture<ClusterScanCursor> clusterScan(KeyStreamingChannel<K> channel, ClusterScanCursor scanCursor, ScanArgs scanArgs);
+
+    /**
+     * Iterate the keys space of all master nodes. Keys are streamed into the channel as they arrive. The channel is called
+     * concurrently from the I/O threads of the node connections and must be thread-safe. At most
+     * {@code parallelism} nodes are scanned concurrently. The scan cursor is updated while the scan is in progress and can be
+     * used to resume a failed scan.
+     * 
+     * @param channel streaming channel that receives a call for every key
+     * @param scanCursor the cluster scan cursor
+     * @param scanArgs scan arguments, applied to every node scan, may be {@literal null}
+     * @param parallelism maximal count of nodes that are scanned concurrently
+     * @return RedisFuture&lt;ClusterScanCursor&gt; the cursor, finished when all nodes were scanned.
+     */
+    RedisFuture<ClusterScanCursor> clusterScan(KeyStreamingChannel<K> channel, ClusterScanCursor scanCursor,
+            ScanArgs scanArgs, int parallelism);
+
+    /**
+     * Return the number of keys of all master nodes. The commands are executed on all masters in parallel.
+     * 
+     * @return RedisFuture&lt;Long&gt; sum of the key counts of all master nodes.
+     */
+    RedisFuture<Long> dbsizeOnMasters();
+
+    /**
+     * Remove all keys from the current database of all master nodes. The commands are executed on all masters in parallel.
+     * 
+     * @return RedisFuture&lt;String&gt; simple-string-reply
+     */
+    RedisFuture<String> flushdbOnMasters();
+
+    /**
+     * Find all keys matching the given pattern on all master nodes. The commands are executed on all masters in parallel.
+     * 
+     * @param pattern the pattern type: patternkey (pattern)
+     * @return RedisFuture&lt;List&lt;K&gt;&gt; merged list of the keys of all master nodes.
+     */
+    RedisFuture<List<K>> keysOnMasters(K pattern);
+
+    /**
+     * Load the specified Lua script into the script cache of all cluster nodes (masters and slaves). The commands are executed
+     * on all nodes in parallel.
+     * 
+     * @param script script content
+     * @return RedisFuture&lt;String&gt; the SHA1 digest of the script.
+     */
+    RedisFuture<String> scriptLoadOnAllNodes(V script);
+
+    /**
+     * Remove all the scripts from the script cache of all cluster nodes (masters and slaves). The commands are executed on all
+     * nodes in parallel.
+     * 
+     * @return RedisFuture&lt;String&gt; simple-string-reply
+     */
+    RedisFuture<String> scriptFlushOnAllNodes();
+
+    /**
+     * Get information and statistics about all cluster nodes (masters and slaves). The commands are executed on all nodes in
+     * parallel.
+     * 
+     * @return RedisFuture&lt;Map&lt;RedisClusterNode, String&gt;&gt; the info of every node.
+     */
+    RedisFuture<Map<RedisClusterNode, String>> infoOnAllNodes();
+
+    /**
+     * Get information and statistics about all cluster nodes (masters and slaves). The commands are executed on all nodes in
+     * parallel.
+     * 
+     * @param section the section type: string
+     * @return RedisFuture&lt;Map&lt;RedisClusterNode, String&gt;&gt; the info section of every node.
+     */
+    RedisFuture<Map<RedisClusterNode, String>> infoOnAllNodes(String section);
+
+    /**
+     * Set a configuration parameter on all cluster nodes (masters and slaves). The commands are executed on all nodes in
+     * parallel.
+     * 
+     * @param parameter the parameter name
+     * @param value the parameter value
+     * @return RedisFuture&lt;Map&lt;RedisClusterNode, String&gt;&gt; the reply of every node.
+     */
+    RedisFuture<Map<RedisClusterNode, String>> configSetOnAllNodes(String parameter, String value);
+}
@@ -0,0 +1,360 @@
+package com.lambdaworks.redis.cluster;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.lambdaworks.redis.RedisAsyncConnectionImpl;
+import com.lambdaworks.redis.RedisChannelWriter;
+import com.lambdaworks.redis.RedisException;
+import com.lambdaworks.redis.RedisFuture;
+import com.lambdaworks.redis.ScanArgs;
+import com.lambdaworks.redis.cluster.models.partitions.Partitions;
+import com.lambdaworks.redis.cluster.models.partitions.RedisClusterNode;
+import com.lambdaworks.redis.codec.RedisCodec;
+import com.lambdaworks.redis.output.KeyStreamingChannel;
+
+import io.netty.channel.ChannelHandler;
+
+/**
+ * An advanced asynchronous and thread-safe cluster connection. Commands with a key are routed by the
+ * {@link ClusterDistributionChannelWriter}, multi-node operations use the node connections of the
+ * {@link ClusterConnectionProvider}.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+@ChannelHandler.Sharable
+public class RedisAdvancedClusterAsyncConnectionImpl<K, V> extends RedisAsyncConnectionImpl<K, V> implements
+        RedisAdvancedClusterAsyncConnection<K, V> {
+
+    private static final Set<RedisClusterNode.NodeFlag> UNAVAILABLE_FLAGS = Sets.immutableEnumSet(
+            RedisClusterNode.NodeFlag.FAIL, RedisClusterNode.NodeFlag.NOADDR, RedisClusterNode.NodeFlag.HANDSHAKE);
+
+    private final ClusterConnectionProvider clusterConnectionProvider;
+    private final Partitions partitions;
+
+    /**
+     * Initialize a new connection.
+     *
+     * @param writer the channel writer
+     * @param clusterConnectionProvider provider for node connections
+     * @param partitions the cluster partitions
+     * @param codec Codec used to encode/decode keys and values.
+     * @param timeout Maximum time to wait for a response.
+     * @param unit Unit of time for the timeout.
+     */
+    RedisAdvancedClusterAsyncConnectionImpl(RedisChannelWriter<K, V> writer,
+            ClusterConnectionProvider clusterConnectionProvider, Partitions partitions, RedisCodec<K, V> codec, long timeout,
+            TimeUnit unit) {
+        super(writer, codec, timeout, unit);
+        this.clusterConnectionProvider = clusterConnectionProvider;
+        this.partitions = partitions;
+    }
+
+    @Override
+    protected boolean isPartitionedBySlot() {
+        return true;
+    }
+
+    @Override
+    public RedisFuture<ClusterScanCursor> clusterScan(KeyStreamingChannel<K> channel) {
+        return clusterScan(channel, new ClusterScanCursor(), null);
+    }
+
+    @Override
+    public RedisFuture<ClusterScanCursor> clusterScan(KeyStreamingChannel<K> channel, ScanArgs scanArgs) {
+        return clusterScan(channel, new ClusterScanCursor(), scanArgs);
+    }
+
+    @Override
+    public RedisFuture<ClusterScanCursor> clusterScan(KeyStreamingChannel<K> channel, ClusterScanCursor scanCursor,
+            ScanArgs scanArgs) {
+        return clusterScan(channel, scanCursor, scanArgs, DEFAULT_SCAN_PARALLELISM);
+    }
+
+    @Override
+    public RedisFuture<ClusterScanCursor> clusterScan(KeyStreamingChannel<K> channel, ClusterScanCursor scanCursor,
+            ScanArgs scanArgs, int parallelism) {
+
+        checkArgument(channel != null, "KeyStreamingChannel must not be null");
+        checkArgument(scanCursor != null, "ClusterScanCursor must not be null");
+        checkArgument(parallelism > 0, "parallelism must be greater than 0");
+
+        List<String> masterNodeIds = Lists.newArrayList();
+        for (RedisClusterNode master : partitions.getMasters()) {
+            masterNodeIds.add(master.getNodeId());
+        }
+        scanCursor.start(masterNodeIds);
+
+        Map<String, RedisAsyncConnectionImpl<K, V>> connections;
+        try {
+            connections = getNodeConnections(scanCursor.getNodeCursors().keySet());
+        } catch (RedisException e) {
+            return ClusterFutures.failed(e);
+        }
+
+        return new ClusterScan<K, V>(channel, scanCursor, scanArgs, connections).start(parallelism);
+    }
+
+    @Override
+    public RedisFuture<Long> dbsizeOnMasters() {
+
+        Map<RedisClusterNode, RedisFuture<Long>> futures = executeOnNodes(
+                new Function<RedisAsyncConnectionImpl<K, V>, RedisFuture<Long>>() {
+                    @Override
+                    public RedisFuture<Long> apply(RedisAsyncConnectionImpl<K, V> connection) {
+                        return connection.dbsize();
+                    }
+                }, partitions.getMasters());
+
+        return ClusterFutures.aggregate(futures, new Function<Map<RedisClusterNode, Long>, Long>() {
+            @Override
+            public Long apply(Map<RedisClusterNode, Long> input) {
+                long sum = 0;
+                for (Long count : input.values()) {
+                    if (count != null) {
+                        sum += count;
+                    }
+                }
+                return sum;
+            }
+        });
+    }
+
+    @Override
+    public RedisFuture<String> flushdbOnMasters() {
+
+        Map<RedisClusterNode, RedisFuture<String>> futures = executeOnNodes(
+                new Function<RedisAsyncConnectionImpl<K, V>, RedisFuture<String>>() {
+                    @Override
+                    public RedisFuture<String> apply(RedisAsyncConnectionImpl<K, V> connection) {
+                        return connection.flushdb();
+                    }
+                }, partitions.getMasters());
+
+        return ClusterFutures.aggregate(futures, ClusterFutures.<RedisClusterNode, String> firstValue());
+    }
+
+    @Override
+    public RedisFuture<List<K>> keysOnMasters(final K pattern) {
+
+        Map<RedisClusterNode, RedisFuture<List<K>>> futures = executeOnNodes(
+                new Function<RedisAsyncConnectionImpl<K, V>, RedisFuture<List<K>>>() {
+                    @Override
+                    public RedisFuture<List<K>> apply(RedisAsyncConnectionImpl<K, V> connection) {
+                        return connection.keys(pattern);
+                    }
+                }, partitions.getMasters());
+
+        return ClusterFutures.aggregate(futures, new Function<Map<RedisClusterNode, List<K>>, List<K>>() {
+            @Override
+            public List<K> apply(Map<RedisClusterNode, List<K>> input) {
+                List<K> result = Lists.newArrayList();
+                for (List<K> keys : input.values()) {
+                    if (keys != null) {
+                        result.addAll(keys);
+                    }
+                }
+                return result;
+            }
+        });
+    }
+
+    @Override
+    public RedisFuture<String> scriptLoadOnAllNodes(final V script) {
+
+        Map<RedisClusterNode, RedisFuture<String>> futures = executeOnNodes(
+                new Function<RedisAsyncConnectionImpl<K, V>, RedisFuture<String>>() {
+                    @Override
+                    public RedisFuture<String> apply(RedisAsyncConnectionImpl<K, V> connection) {
+                        return connection.scriptLoad(script);
+                    }
+                }, getAvailableNodes());
+
+        return ClusterFutures.aggregate(futures, ClusterFutures.<RedisClusterNode, String> firstValue());
+    }
+
+    @Override
+    public RedisFuture<String> scriptFlushOnAllNodes() {
+
+        Map<RedisClusterNode, RedisFuture<String>> futures = executeOnNodes(
+                new Function<RedisAsyncConnectionImpl<K, V>, RedisFuture<String>>() {
+                    @Override
+                    public RedisFuture<String> apply(RedisAsyncConnectionImpl<K, V> connection) {
+                        return connection.scriptFlush();
+                    }
+                }, getAvailableNodes());
+
+        return ClusterFutures.aggregate(futures, ClusterFutures.<RedisClusterNode, String> firstValue());
+    }
+
+    @Override
+    public RedisFuture<Map<RedisClusterNode, String>> infoOnAllNodes() {
+
+        Map<RedisClusterNode, RedisFuture<String>> futures = executeOnNodes(
+                new Function<RedisAsyncConnectionImpl<K, V>, RedisFuture<String>>() {
+                    @Override
+                    public RedisFuture<String> apply(RedisAsyncConnectionImpl<K, V> connection) {
+                        return connection.info();
+                    }
+                }, getAvailableNodes());
+
+        return ClusterFutures.aggregate(futures, ClusterFutures.<RedisClusterNode, String> perNode());
+    }
+
+    @Override
+    public RedisFuture<Map<RedisClusterNode, String>> infoOnAllNodes(final String section) {
+
+        Map<RedisClusterNode, RedisFuture<String>> futures = executeOnNodes(
+                new Function<RedisAsyncConnectionImpl<K, V>, RedisFuture<String>>() {
+                    @Override
+                    public RedisFuture<String> apply(RedisAsyncConnectionImpl<K, V> connection) {
+                        return connection.info(section);
+                    }
+                }, getAvailableNodes());
+
+        return ClusterFutures.aggregate(futures, ClusterFutures.<RedisClusterNode, String> perNode());
+    }
+
+    @Override
+    public RedisFuture<Map<RedisClusterNode, String>> configSetOnAllNodes(final String parameter, final String value) {
+
+        Map<RedisClusterNode, RedisFuture<String>> futures = executeOnNodes(
+                new Function<RedisAsyncConnectionImpl<K, V>, RedisFuture<String>>() {
+                    @Override
+                    public RedisFuture<String> apply(RedisAsyncConnectionImpl<K, V> connection) {
+                        return connection.configSet(parameter, value);
+                    }
+                }, getAvailableNodes());
+
+        return ClusterFutures.aggregate(futures, ClusterFutures.<RedisClusterNode, String> perNode());
+    }
+
+    /**
+     * Register the scripts for <code>EVALSHA</code>-first execution and load them into the script cache of all master nodes.
+     * The scripts are passed as strings and therefore independent of the codec of this connection.
+     *
+     * @param scripts the script contents
+     * @return RedisFuture&lt;List&lt;String&gt;&gt; the SHA1 digests of the scripts.
+     */
+    RedisFuture<List<String>> preloadScripts(final List<String> scripts) {
+
+        Map<String, RedisFuture<String>> futures = Maps.newLinkedHashMap();
+        for (String script : scripts) {
+            futures.put(script, registerScript(script));
+        }
+
+        return ClusterFutures.aggregate(futures, ClusterFutures.<String, String> values());
+    }
+
+    /**
+     * Load a registered script into the script cache of all master nodes. The script is registered on the node connections,
+     * so the nodes load the script again when they reconnect. Nodes that join the cluster later load the script with the
+     * <code>EVAL</code> fallback.
+     *
+     * @param script the script content
+     * @param digest the SHA1 digest of the script
+     * @return RedisFuture&lt;String&gt; the SHA1 digest of the script.
+     */
+    @Override
+    protected RedisFuture<String> loadScript(final String script, String digest) {
+
+        Map<RedisClusterNode, RedisFuture<String>> futures = executeOnNodes(
+                new Function<RedisAsyncConnectionImpl<K, V>, RedisFuture<String>>() {
+                    @Override
+                    public RedisFuture<String> apply(RedisAsyncConnectionImpl<K, V> connection) {
+                        return connection.registerScript(script);
+                    }
+                }, partitions.getMasters());
+
+        return ClusterFutures.aggregate(futures, ClusterFutures.<RedisClusterNode, String> firstValue());
+    }
+
+    /**
+     * Execute a command on every given node. The commands are dispatched without waiting for the previous command, so they are
+     * executed in parallel. A node without a connection results in an exceptionally completed future for that node.
+     *
+     * @param function function that issues the command on a node connection
+     * @param nodes the nodes
+     * @param <T> result type
+     * @return map of node to the command future
+     */
+    protected <T> Map<RedisClusterNode, RedisFuture<T>> executeOnNodes(
+            Function<RedisAsyncConnectionImpl<K, V>, RedisFuture<T>> function, Iterable<RedisClusterNode> nodes) {
+
+        Map<RedisClusterNode, RedisFuture<T>> futures = Maps.newLinkedHashMap();
+        for (RedisClusterNode node : nodes) {
+            try {
+                futures.put(node, function.apply(getNodeConnection(node)));
+            } catch (RedisException e) {
+                futures.put(node, ClusterFutures.<T> failed(e));
+            }
+        }
+        return futures;
+    }
+
+    /**
+     *
+     * @return all nodes (masters and slaves) that have an address and are not marked as failed.
+     */
+    protected List<RedisClusterNode> getAvailableNodes() {
+
+        List<RedisClusterNode> result = Lists.newArrayList();
+        for (RedisClusterNode node : partitions) {
+            if (node.getUri() != null && Sets.intersection(node.getFlags(), UNAVAILABLE_FLAGS).isEmpty()) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtain the connections to the given nodes. Connections are obtained on the calling thread before any command is issued
+     * because creating a new node connection blocks until the connection is established.
+     *
+     * @param nodeIds the node id's
+     * @return map of node id to connection
+     */
+    protected Map<String, RedisAsyncConnectionImpl<K, V>> getNodeConnections(Iterable<String> nodeIds) {
+
+        Map<String, RedisAsyncConnectionImpl<K, V>> connections = Maps.newLinkedHashMap();
+        for (String nodeId : nodeIds) {
+            RedisClusterNode partition = partitions.getPartitionByNodeId(nodeId);
+            if (partition == null) {
+                throw new RedisException("Cannot determine a partition for node " + nodeId + " (Partitions: " + partitions
+                        + ")");
+            }
+
+            connections.put(nodeId, getNodeConnection(partition));
+        }
+        return connections;
+    }
+
+    RedisAsyncConnectionImpl<K, V> getNodeConnection(RedisClusterNode node) {
+
+        if (node.getUri() == null) {
+            throw new RedisException("Node " + node.getNodeId() + " has no address");
+        }
+
+        return clusterConnectionProvider.<K, V> getConnection(ClusterConnectionProvider.Intent.WRITE, node.getUri().getHost(),
+                node.getUri().getPort());
+    }
+
+    Partitions getPartitions() {
+        return partitions;
+    }
+
+    ClusterConnectionProvider getClusterConnectionProvider() {
+        return clusterConnectionProvider;
+    }
+}
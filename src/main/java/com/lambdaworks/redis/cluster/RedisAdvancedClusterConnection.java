@@ -0,0 +1,124 @@
+package com.lambdaworks.redis.cluster;
+
+import java.util.List;
+import java.util.Map;
+
+import com.lambdaworks.redis.RedisClusterConnection;
+import com.lambdaworks.redis.ScanArgs;
+import com.lambdaworks.redis.cluster.models.partitions.RedisClusterNode;
+import com.lambdaworks.redis.output.KeyStreamingChannel;
+
+/**
+ * Synchronous cluster connection with operations that span multiple cluster nodes.
+ * 
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public interface RedisAdvancedClusterConnection<K, V> extends RedisClusterConnection<K, V> {
+
+    /**
+     * Iterate the keys space of all master nodes. The channel is called concurrently from the I/O threads of the node
+     * connections and must be thread-safe.
+     * 
+     * @param channel streaming channel that receives a call for every key
+     * @return ClusterScanCursor the finished cursor, containing the count of all streamed keys.
+     */
+    ClusterScanCursor clusterScan(KeyStreamingChannel<K> channel);
+
+    /**
+     * Iterate the keys space of all master nodes. The channel is called concurrently from the I/O threads of the node
+     * connections and must be thread-safe.
+     * 
+     * @param channel streaming channel that receives a call for every key
+     * @param scanArgs scan arguments, applied to every node scan
+     * @return ClusterScanCursor the finished cursor, containing the count of all streamed keys.
+     */
+    ClusterScanCursor clusterScan(KeyStreamingChannel<K> channel, ScanArgs scanArgs);
+
+    /**
+     * Iterate the keys space of all master nodes. The channel is called concurrently from the I/O threads of the node
+     * connections and must be thread-safe.
+     * 
+     * @param channel streaming channel that receives a call for every key
+     * @param scanCursor the cluster scan cursor
+     * @param scanArgs scan arguments, applied to every node scan, may be {@literal null}
+     * @return ClusterScanCursor the cursor, finished when all nodes were scanned.
+     */
+    ClusterScanCursor clusterScan(KeyStreamingChannel<K> channel, ClusterScanCursor scanCursor, ScanArgs scanArgs);
+
+    /**
+     * Iterate the keys space of all master nodes. The channel is called concurrently from the I/O threads of the node
+     * connections and must be thread-safe. At most {@code parallelism} nodes are scanned concurrently.
+     * 
+     * @param channel streaming channel that receives a call for every key
+     * @param scanCursor the cluster scan cursor
+     * @param scanArgs scan arguments, applied to every node scan, may be {@literal null}
+     * @param parallelism maximal count of nodes that are scanned concurrently
+     * @return ClusterScanCursor the cursor, finished when all nodes were scanned.
+     */
+    ClusterScanCursor clusterScan(KeyStreamingChannel<K> channel, ClusterScanCursor scanCursor, ScanArgs scanArgs,
+            int parallelism);
+
+    /**
+     * Return the number of keys of all master nodes.
+     * 
+     * @return Long sum of the key counts of all master nodes.
+     */
+    Long dbsizeOnMasters();
+
+    /**
+     * Remove all keys from the current database of all master nodes.
+     * 
+     * @return String simple-string-reply
+     */
+    String flushdbOnMasters();
+
+    /**
+     * Find all keys matching the given pattern on all master nodes.
+     * 
+     * @param pattern the pattern type: patternkey (pattern)
+     * @return List&lt;K&gt; merged list of the keys of all master nodes.
+     */
+    List<K> keysOnMasters(K pattern);
+
+    /**
+     * Load the specified Lua script into the script cache of all cluster nodes (masters and slaves).
+     * 
+     * @param script script content
+     * @return String the SHA1 digest of the script.
+     */
+    String scriptLoadOnAllNodes(V script);
+
+    /**
+     * Remove all the scripts from the script cache of all cluster nodes (masters and slaves).
+     * 
+     * @return String simple-string-reply
+     */
+    String scriptFlushOnAllNodes();
+
+    /**
+     * Get information and statistics about all cluster nodes (masters and slaves).
+     * 
+     * @return Map&lt;RedisClusterNode, String&gt; the info of every node.
+     */
+    Map<RedisClusterNode, String> infoOnAllNodes();
+
+    /**
+     * Get information and statistics about all cluster nodes (masters and slaves).
+     * 
+     * @param section the section type: string
+     * @return Map&lt;RedisClusterNode, String&gt; the info section of every node.
+     */
+    Map<RedisClusterNode, String> infoOnAllNodes(String section);
+
+    /**
+     * Set a configuration parameter on all cluster nodes (masters and slaves).
+     * 
+     * @param parameter the parameter name
+     * @param value the parameter value
+     * @return Map&lt;RedisClusterNode, String&gt; the reply of every node.
+     */
+    Map<RedisClusterNode, String> configSetOnAllNodes(String parameter, String value);
+}
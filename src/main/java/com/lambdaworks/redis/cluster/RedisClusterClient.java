@@ -2,14 +2,35 @@ package com.lambdaworks.redis.cluster;
 
 import static com.google.common.base.Preconditions.*;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.SocketAddress;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.base.Supplier;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.lambdaworks.redis.*;
 import com.lambdaworks.redis.cluster.models.partitions.ClusterPartitionParser;
 import com.lambdaworks.redis.cluster.models.partitions.Partitions;
@@ -32,8 +53,15 @@ import io.netty.util.internal.logging.InternalLoggerFactory;
 public class RedisClusterClient extends AbstractRedisClient {
 
     private static final InternalLogger logger = InternalLoggerFactory.getInstance(RedisClusterClient.class);
+    private static final ThreadFactory DISCOVERY_THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("lettuce-cluster-discovery-%d").setDaemon(true).build();
+    private static final int DISCOVERY_THREADS = 2;
+
     private final RedisCodec<String, String> codec = new Utf8StringCodec();
-    private Partitions partitions;
+    private final ListeningExecutorService discoveryExecutor = newDiscoveryExecutor();
+    private volatile Partitions partitions;
+    private volatile RedisURI discoveryUri;
+    private volatile File topologySnapshotFile;
 
     private List<RedisURI> initialUris = Lists.newArrayList();
 
@@ -50,9 +78,9 @@ public class RedisClusterClient extends AbstractRedisClient {
     }
 
     /**
-     * Initialize the client with a list of cluster URI's. All uris are tried in sequence for connecting initially to the
-     * cluster. If any uri is sucessful for connection, the others are not tried anymore. The initial uri is needed to discover
-     * the cluster structure for distributing the requests.
+     * Initialize the client with a list of cluster URI's. All uris are queried in parallel for connecting initially to the
+     * cluster. The first uri that responds with the cluster structure is used, the remaining queries are cancelled. The
+     * initial uri is needed to discover the cluster structure for distributing the requests.
      * 
      * @param initialUris
      */
@@ -69,7 +97,7 @@ public class RedisClusterClient extends AbstractRedisClient {
      * 
      * @return A new connection.
      */
-    public RedisClusterConnection<String, String> connectCluster() {
+    public RedisAdvancedClusterConnection<String, String> connectCluster() {
 
         return connectCluster(codec);
     }
@@ -82,9 +110,37 @@ public class RedisClusterClient extends AbstractRedisClient {
      * @return A new connection.
      */
     @SuppressWarnings("unchecked")
-    public <K, V> RedisClusterConnection<K, V> connectCluster(RedisCodec<K, V> codec) {
+    public <K, V> RedisAdvancedClusterConnection<K, V> connectCluster(RedisCodec<K, V> codec) {
+
+        return (RedisAdvancedClusterConnection<K, V>) syncHandler(connectClusterAsyncImpl(codec),
+                RedisAdvancedClusterConnection.class);
+    }
+
+    /**
+     * Open a new synchronous connection to the redis cluster that treats keys and values as UTF-8 strings.
+     * 
+     * @param options the connection options
+     * @return A new connection.
+     */
+    public RedisAdvancedClusterConnection<String, String> connectCluster(ClusterConnectionOptions options) {
+
+        return connectCluster(codec, options);
+    }
+
+    /**
+     * Open a new synchronous connection to the redis server. Use the supplied {@link RedisCodec codec} to encode/decode keys
+     * and values.
+     * 
+     * @param codec Use this codec to encode/decode keys and values.
+     * @param options the connection options
+     * @return A new connection.
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> RedisAdvancedClusterConnection<K, V> connectCluster(RedisCodec<K, V> codec,
+            ClusterConnectionOptions options) {
 
-        return (RedisClusterConnection<K, V>) syncHandler(connectClusterAsyncImpl(codec), RedisClusterConnection.class);
+        return (RedisAdvancedClusterConnection<K, V>) syncHandler(connectClusterAsyncImpl(codec, options),
+                RedisAdvancedClusterConnection.class);
     }
 
     /**
@@ -92,7 +148,7 @@ public class RedisClusterClient extends AbstractRedisClient {
      * 
      * @return A new connection.
      */
-    public RedisClusterAsyncConnection<String, String> connectClusterAsync() {
+    public RedisAdvancedClusterAsyncConnection<String, String> connectClusterAsync() {
         return connectClusterAsyncImpl(codec, getSocketAddressSupplier());
     }
 
@@ -102,10 +158,246 @@ public class RedisClusterClient extends AbstractRedisClient {
      * @param codec Use this codec to encode/decode keys and values.
      * @return A new connection.
      */
-    public <K, V> RedisClusterAsyncConnection<K, V> connectClusterAsync(RedisCodec<K, V> codec) {
+    public <K, V> RedisAdvancedClusterAsyncConnection<K, V> connectClusterAsync(RedisCodec<K, V> codec) {
         return connectClusterAsyncImpl(codec, getSocketAddressSupplier());
     }
 
+    /**
+     * Creates a connection to the redis cluster.
+     * 
+     * @param options the connection options
+     * @return A new connection.
+     */
+    public RedisAdvancedClusterAsyncConnection<String, String> connectClusterAsync(ClusterConnectionOptions options) {
+        return connectClusterAsync(codec, options);
+    }
+
+    /**
+     * Creates a connection to the redis cluster. If {@link ClusterConnectionOptions#isWarmUpConnections() warm-up} is
+     * enabled, the connections to all master nodes are opened in parallel and the preload scripts are loaded before the
+     * connection is returned. A failing node does not fail the connection, its connection is opened again on demand.
+     * 
+     * @param codec Use this codec to encode/decode keys and values.
+     * @param options the connection options
+     * @return A new connection.
+     */
+    public <K, V> RedisAdvancedClusterAsyncConnection<K, V> connectClusterAsync(RedisCodec<K, V> codec,
+            ClusterConnectionOptions options) {
+        return connectClusterAsyncImpl(codec, options);
+    }
+
+    /**
+     * Creates a connection to the redis cluster without blocking the calling thread. The cluster discovery, the connect and
+     * the initial handshake run in the background.
+     * 
+     * @return A future of the new connection.
+     */
+    public RedisFuture<RedisAdvancedClusterAsyncConnection<String, String>> connectClusterFuture() {
+        return connectClusterFuture(codec);
+    }
+
+    /**
+     * Creates a connection to the redis cluster without blocking the calling thread.
+     * 
+     * @param options the connection options
+     * @return A future of the new connection.
+     */
+    public RedisFuture<RedisAdvancedClusterAsyncConnection<String, String>> connectClusterFuture(
+            ClusterConnectionOptions options) {
+        return connectClusterFuture(codec, options);
+    }
+
+    /**
+     * Creates a connection to the redis cluster without blocking the calling thread. The cluster discovery, the connect and
+     * the initial handshake run in the background. All initial URI's are queried concurrently, the first valid answer is used.
+     * The future completes once the connections to all known master nodes are connected as well. Connections to nodes that
+     * were unreachable during the connect or that join the cluster later (e.g. <code>MOVED</code> targets) are still opened
+     * on first use and block the thread that issues the command until they are connected.
+     * 
+     * @param codec Use this codec to encode/decode keys and values.
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return A future of the new connection.
+     */
+    public <K, V> RedisFuture<RedisAdvancedClusterAsyncConnection<K, V>> connectClusterFuture(final RedisCodec<K, V> codec) {
+        return connectClusterFuture(codec, new ClusterConnectionOptions());
+    }
+
+    /**
+     * Creates a connection to the redis cluster without blocking the calling thread, see
+     * {@link #connectClusterFuture(RedisCodec)}. The connections to the master nodes are always opened before the future
+     * completes, the preload scripts are loaded as well. A failing node or script does not fail the connection.
+     * 
+     * @param codec Use this codec to encode/decode keys and values.
+     * @param options the connection options
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return A future of the new connection.
+     */
+    public <K, V> RedisFuture<RedisAdvancedClusterAsyncConnection<K, V>> connectClusterFuture(final RedisCodec<K, V> codec,
+            final ClusterConnectionOptions options) {
+
+        checkArgument(codec != null, "RedisCodec must not be null");
+        checkArgument(options != null, "ClusterConnectionOptions must not be null");
+
+        final SettableRedisFuture<RedisAdvancedClusterAsyncConnection<K, V>> result = new SettableRedisFuture<RedisAdvancedClusterAsyncConnection<K, V>>();
+        ListenableFuture<Partitions> partitionsFuture = partitions != null ? Futures.immediateFuture(partitions)
+                : initializePartitionsFuture();
+
+        Futures.addCallback(partitionsFuture, new FutureCallback<Partitions>() {
+            @Override
+            public void onSuccess(Partitions loaded) {
+
+                BlockingQueue<RedisCommand<K, V, ?>> queue = new LinkedBlockingQueue<RedisCommand<K, V, ?>>();
+                CommandHandler<K, V> handler = new CommandHandler<K, V>(queue);
+                RedisAdvancedClusterAsyncConnectionImpl<K, V> connection = newClusterConnection(codec, handler);
+
+                Supplier<SocketAddress> socketAddressSupplier = getSocketAddressSupplier();
+                Futures.addCallback(
+                        connectFutureImpl(handler, connection, Futures.immediateFuture(socketAddressSupplier.get()),
+                                socketAddressSupplier, true),
+                        new FutureCallback<RedisAdvancedClusterAsyncConnectionImpl<K, V>>() {
+                            @Override
+                            public void onSuccess(final RedisAdvancedClusterAsyncConnectionImpl<K, V> connection) {
+                                connectMasters(codec, connection).addListener(new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        preloadScripts(connection, options).addListener(new Runnable() {
+                                            @Override
+                                            public void run() {
+                                                result.set(connection);
+                                            }
+                                        }, MoreExecutors.sameThreadExecutor());
+                                    }
+                                }, MoreExecutors.sameThreadExecutor());
+                            }
+
+                            @Override
+                            public void onFailure(Throwable t) {
+                                result.setException(t);
+                            }
+                        });
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.setException(t);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Connect to all master nodes without blocking and hand the node connections to the connection provider of the cluster
+     * connection, so commands do not open node connections on the calling thread. A master that cannot be connected is
+     * connected on first use.
+     * 
+     * @param codec the codec
+     * @param connection the cluster connection
+     * @return future that is completed once all master connections are connected or failed.
+     */
+    @SuppressWarnings("unchecked")
+    private <K, V> ListenableFuture<?> connectMasters(RedisCodec<K, V> codec,
+            RedisAdvancedClusterAsyncConnectionImpl<K, V> connection) {
+
+        final PooledClusterConnectionProvider<K, V> connectionProvider = (PooledClusterConnectionProvider<K, V>) connection
+                .getClusterConnectionProvider();
+        List<ListenableFuture<Object>> futures = Lists.newArrayList();
+
+        for (RedisClusterNode master : connection.getPartitions().getMasters()) {
+
+            final RedisURI uri = master.getUri();
+            if (uri == null) {
+                continue;
+            }
+
+            final SettableRedisFuture<Object> future = new SettableRedisFuture<Object>();
+            futures.add(future);
+
+            Futures.addCallback(connectNodeFuture(codec, uri.getResolvedAddress()),
+                    new FutureCallback<RedisAsyncConnectionImpl<K, V>>() {
+                        @Override
+                        public void onSuccess(RedisAsyncConnectionImpl<K, V> nodeConnection) {
+                            try {
+                                connectionProvider.addConnection(ClusterConnectionProvider.Intent.WRITE, uri, nodeConnection);
+                            } catch (RedisException e) {
+                                logger.warn("Cannot add connection to cluster node " + uri + ": " + e.getMessage(), e);
+                            } finally {
+                                future.set(null);
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Throwable t) {
+                            logger.warn("Cannot connect to cluster node " + uri + ": " + t.getMessage());
+                            future.set(null);
+                        }
+                    });
+        }
+
+        return Futures.successfulAsList(futures);
+    }
+
+    /**
+     * Load the preload scripts without blocking. A failing script is logged and does not fail the returned future.
+     * 
+     * @param connection the cluster connection
+     * @param options the connection options
+     * @return future that is completed once the scripts are loaded or failed.
+     */
+    private <K, V> ListenableFuture<?> preloadScripts(RedisAdvancedClusterAsyncConnectionImpl<K, V> connection,
+            ClusterConnectionOptions options) {
+
+        if (options.getPreloadScripts().isEmpty()) {
+            return Futures.immediateFuture(null);
+        }
+
+        final SettableRedisFuture<Object> future = new SettableRedisFuture<Object>();
+        Futures.addCallback(connection.preloadScripts(options.getPreloadScripts()), new FutureCallback<List<String>>() {
+            @Override
+            public void onSuccess(List<String> digests) {
+                future.set(null);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                logger.warn("Cannot preload scripts: " + t.getMessage(), t);
+                future.set(null);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Create a connection to a redis socket address without blocking the calling thread.
+     * 
+     * @param codec the codec
+     * @param socketAddress the node address
+     * @return future of the connected node connection.
+     */
+    <K, V> RedisFuture<RedisAsyncConnectionImpl<K, V>> connectNodeFuture(RedisCodec<K, V> codec,
+            final SocketAddress socketAddress) {
+
+        logger.debug("connectNodeFuture(" + socketAddress + ")");
+        BlockingQueue<RedisCommand<K, V, ?>> queue = new LinkedBlockingQueue<RedisCommand<K, V, ?>>();
+
+        CommandHandler<K, V> handler = new CommandHandler<K, V>(queue);
+        RedisAsyncConnectionImpl<K, V> connection = new RedisAsyncConnectionImpl<K, V>(handler, codec, timeout, unit);
+
+        RedisFuture<RedisAsyncConnectionImpl<K, V>> future = connectFutureImpl(handler, connection,
+                Futures.immediateFuture(socketAddress), new Supplier<SocketAddress>() {
+                    @Override
+                    public SocketAddress get() {
+                        return socketAddress;
+                    }
+                }, true);
+
+        connection.registerCloseables(closeableResources, connection);
+
+        return future;
+    }
+
     protected RedisAsyncConnectionImpl<String, String> connectAsyncImpl(SocketAddress socketAddress) {
         return connectAsyncImpl(codec, socketAddress);
     }
@@ -136,10 +428,23 @@ public class RedisClusterClient extends AbstractRedisClient {
         return connection;
     }
 
-    <K, V> RedisAsyncConnectionImpl<K, V> connectClusterAsyncImpl(RedisCodec<K, V> codec) {
+    <K, V> RedisAdvancedClusterAsyncConnectionImpl<K, V> connectClusterAsyncImpl(RedisCodec<K, V> codec) {
         return connectClusterAsyncImpl(codec, getSocketAddressSupplier());
     }
 
+    <K, V> RedisAdvancedClusterAsyncConnectionImpl<K, V> connectClusterAsyncImpl(RedisCodec<K, V> codec,
+            ClusterConnectionOptions options) {
+
+        checkArgument(options != null, "ClusterConnectionOptions must not be null");
+
+        RedisAdvancedClusterAsyncConnectionImpl<K, V> connection = connectClusterAsyncImpl(codec, getSocketAddressSupplier());
+        if (options.isWarmUpConnections()) {
+            warmUp(codec, connection, options);
+        }
+
+        return connection;
+    }
+
     /**
      * Create a clustered connection with command distributor.
      * 
@@ -149,7 +454,7 @@ public class RedisClusterClient extends AbstractRedisClient {
      * @param <V>
      * @return
      */
-    <K, V> RedisAsyncConnectionImpl<K, V> connectClusterAsyncImpl(RedisCodec<K, V> codec,
+    <K, V> RedisAdvancedClusterAsyncConnectionImpl<K, V> connectClusterAsyncImpl(RedisCodec<K, V> codec,
             final Supplier<SocketAddress> socketAddressSupplier) {
 
         if (partitions == null) {
@@ -160,24 +465,70 @@ public class RedisClusterClient extends AbstractRedisClient {
         BlockingQueue<RedisCommand<K, V, ?>> queue = new LinkedBlockingQueue<RedisCommand<K, V, ?>>();
 
         CommandHandler<K, V> handler = new CommandHandler<K, V>(queue);
+        RedisAdvancedClusterAsyncConnectionImpl<K, V> connection = newClusterConnection(codec, handler);
+
+        connectAsyncImpl(handler, connection, socketAddressSupplier, true);
+
+        return connection;
+
+    }
+
+    /**
+     * Create a clustered connection with command distributor. The connection is not connected yet, its resources are
+     * registered with this client.
+     * 
+     * @param codec
+     * @param handler
+     * @return RedisAdvancedClusterAsyncConnectionImpl
+     */
+    private <K, V> RedisAdvancedClusterAsyncConnectionImpl<K, V> newClusterConnection(RedisCodec<K, V> codec,
+            CommandHandler<K, V> handler) {
 
         final PooledClusterConnectionProvider<K, V> pooledClusterConnectionProvider = new PooledClusterConnectionProvider<K, V>(
                 this, partitions, codec);
 
         final ClusterDistributionChannelWriter<K, V> clusterWriter = new ClusterDistributionChannelWriter<K, V>(handler,
                 pooledClusterConnectionProvider);
-        RedisAsyncConnectionImpl<K, V> connection = new RedisAsyncConnectionImpl<K, V>(clusterWriter, codec, timeout, unit);
-
-        connectAsyncImpl(handler, connection, socketAddressSupplier, true);
+        RedisAdvancedClusterAsyncConnectionImpl<K, V> connection = new RedisAdvancedClusterAsyncConnectionImpl<K, V>(
+                clusterWriter, pooledClusterConnectionProvider, partitions, codec, timeout, unit);
 
+        connection.setConnectionSettings(getFirstUri());
         connection.registerCloseables(closeableResources, connection, clusterWriter, pooledClusterConnectionProvider);
 
-        if (getFirstUri().getPassword() != null) {
-            connection.auth(new String(getFirstUri().getPassword()));
-        }
-
         return connection;
+    }
+
+    /**
+     * Open the connections to all master nodes in parallel and load the preload scripts. Waits up to the default timeout for
+     * the node connections. Connections that complete later are still handed to the connection provider of the cluster
+     * connection or closed if the provider does not take them.
+     * 
+     * @param codec the codec
+     * @param connection the cluster connection
+     * @param options the connection options
+     */
+    private <K, V> void warmUp(RedisCodec<K, V> codec, RedisAdvancedClusterAsyncConnectionImpl<K, V> connection,
+            ClusterConnectionOptions options) {
+
+        try {
+            connectMasters(codec, connection).get(timeout, unit);
+        } catch (TimeoutException e) {
+            logger.warn("Cannot warm up all cluster node connections within " + timeout + " " + unit
+                    + ", the remaining nodes are connected on first use");
+        } catch (ExecutionException e) {
+            logger.warn("Cannot warm up cluster node connections: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisCommandInterruptedException(e);
+        }
 
+        if (!options.getPreloadScripts().isEmpty()) {
+            try {
+                LettuceFutures.await(connection.preloadScripts(options.getPreloadScripts()), timeout, unit);
+            } catch (RedisException e) {
+                logger.warn("Cannot preload scripts: " + e.getMessage(), e);
+            }
+        }
     }
 
     /**
@@ -188,51 +539,286 @@ public class RedisClusterClient extends AbstractRedisClient {
             initializePartitions();
         } else {
             Partitions loadedPartitions = loadPartitions();
-            this.partitions.getPartitions().clear();
-            this.partitions.getPartitions().addAll(loadedPartitions.getPartitions());
+            this.partitions.reload(loadedPartitions.getPartitions());
         }
     }
 
+    /**
+     * Set a file to persist the cluster topology. The topology is written to the file whenever it is loaded from the cluster.
+     * If the file exists when the first connection is created, routing starts with the topology from the file and the
+     * topology is verified against the cluster in the background. Commands to outdated nodes are redirected by the cluster
+     * until the verification completes.
+     * 
+     * @param topologySnapshotFile the snapshot file, {@literal null} to disable snapshots.
+     */
+    public void setTopologySnapshotFile(File topologySnapshotFile) {
+        this.topologySnapshotFile = topologySnapshotFile;
+    }
+
     protected void initializePartitions() {
 
+        Partitions snapshot = readTopologySnapshot();
+        if (snapshot != null) {
+            this.partitions = snapshot;
+            verifyTopologyAsync();
+            return;
+        }
+
         Partitions partitions = loadPartitions();
         this.partitions = partitions;
     }
 
+    /**
+     * Initialize the partitions without blocking. The topology snapshot is read on a discovery thread. Without a snapshot, all
+     * initial URI's are queried concurrently, the first valid answer completes the future.
+     * 
+     * @return future of the partitions.
+     */
+    private ListenableFuture<Partitions> initializePartitionsFuture() {
+
+        if (topologySnapshotFile == null) {
+            return discoverPartitionsFuture();
+        }
+
+        ListenableFuture<Partitions> snapshotFuture = discoveryExecutor.submit(new Callable<Partitions>() {
+            @Override
+            public Partitions call() throws Exception {
+                return readTopologySnapshot();
+            }
+        });
+
+        return Futures.transform(snapshotFuture, new AsyncFunction<Partitions, Partitions>() {
+            @Override
+            public ListenableFuture<Partitions> apply(Partitions snapshot) throws Exception {
+                if (snapshot == null) {
+                    return discoverPartitionsFuture();
+                }
+
+                partitions = snapshot;
+                verifyTopologyAsync();
+                return Futures.immediateFuture(snapshot);
+            }
+        });
+    }
+
+    /**
+     * Query all initial URI's concurrently without blocking, the first valid answer completes the future. The topology
+     * snapshot is written on a discovery thread.
+     * 
+     * @return future of the partitions.
+     */
+    private ListenableFuture<Partitions> discoverPartitionsFuture() {
+
+        final SettableRedisFuture<Partitions> result = new SettableRedisFuture<Partitions>();
+        final AtomicInteger outstanding = new AtomicInteger(initialUris.size());
+
+        for (RedisURI initialUri : initialUris) {
+            Futures.addCallback(loadPartitionsFuture(initialUri), new FutureCallback<Partitions>() {
+                @Override
+                public void onSuccess(Partitions loaded) {
+                    boolean first = false;
+                    synchronized (RedisClusterClient.this) {
+                        if (partitions == null) {
+                            rememberDiscoveryUri(loaded);
+                            partitions = loaded;
+                            first = true;
+                        }
+                    }
+                    if (first) {
+                        writeTopologySnapshotAsync(loaded);
+                    }
+                    result.set(partitions);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    if (outstanding.decrementAndGet() == 0) {
+                        result.setException(new RedisException("Cannot retrieve initial cluster partitions from initial URIs "
+                                + initialUris, t));
+                    }
+                }
+            });
+        }
+
+        return result;
+    }
+
+    private Partitions readTopologySnapshot() {
+
+        if (topologySnapshotFile == null) {
+            return null;
+        }
+
+        try {
+            Partitions snapshot = TopologySnapshot.read(topologySnapshotFile);
+            if (snapshot == null || snapshot.getMasters().isEmpty()) {
+                return null;
+            }
+
+            for (RedisClusterNode partition : snapshot) {
+                if (partition.getUri() != null && getFirstUri().getPassword() != null) {
+                    partition.getUri().setPassword(new String(getFirstUri().getPassword()));
+                }
+            }
+
+            rememberDiscoveryUri(snapshot);
+            return snapshot;
+        } catch (Exception e) {
+            logger.warn("Cannot read topology snapshot " + topologySnapshotFile + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private void verifyTopologyAsync() {
+
+        discoveryExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    reloadPartitions();
+                } catch (RedisException e) {
+                    logger.warn("Cannot verify topology snapshot " + topologySnapshotFile + ": " + e.getMessage(), e);
+                }
+            }
+        });
+    }
+
     protected Partitions getPartitions() {
         return partitions;
     }
 
     /**
-     * Retrieve partitions.
+     * Retrieve partitions. All initial URI's are queried concurrently, the first valid answer wins and the outstanding queries
+     * are cancelled. This way an unreachable seed node does not delay the startup until its connect timeout expires.
      * 
      * @return Partitions
      */
     protected Partitions loadPartitions() {
-        String clusterNodes = null;
-        RedisURI nodeUri = null;
-        Exception lastException = null;
-        for (RedisURI initialUri : initialUris) {
 
+        if (initialUris.size() == 1) {
             try {
-                RedisAsyncConnectionImpl<String, String> connection = connectAsyncImpl(initialUri.getResolvedAddress());
-                nodeUri = initialUri;
-                clusterNodes = connection.clusterNodes().get();
-                connection.close();
-                break;
+                return discovered(loadPartitions(getFirstUri()));
             } catch (Exception e) {
-                lastException = e;
+                throw new RedisException("Cannot retrieve initial cluster partitions from initial URIs " + initialUris, e);
             }
+        }
 
+        ExecutorService executor = Executors.newFixedThreadPool(initialUris.size(), DISCOVERY_THREAD_FACTORY);
+        CompletionService<Partitions> completionService = new ExecutorCompletionService<Partitions>(executor);
+        List<Future<Partitions>> futures = Lists.newArrayList();
+
+        for (final RedisURI initialUri : initialUris) {
+            futures.add(completionService.submit(new Callable<Partitions>() {
+                @Override
+                public Partitions call() throws Exception {
+                    return loadPartitions(initialUri);
+                }
+            }));
         }
 
-        if (clusterNodes == null) {
-            if (lastException == null) {
-                throw new RedisException("Cannot retrieve initial cluster partitions from initial URIs " + initialUris);
+        Throwable lastException = null;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    return discovered(completionService.take().get());
+                } catch (ExecutionException e) {
+                    lastException = e.getCause();
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisCommandInterruptedException(e);
+        } finally {
+            for (Future<Partitions> future : futures) {
+                future.cancel(true);
+            }
+            executor.shutdownNow();
+        }
 
-            throw new RedisException("Cannot retrieve initial cluster partitions from initial URIs " + initialUris,
-                    lastException);
+        if (lastException == null) {
+            throw new RedisException("Cannot retrieve initial cluster partitions from initial URIs " + initialUris);
+        }
+
+        throw new RedisException("Cannot retrieve initial cluster partitions from initial URIs " + initialUris,
+                lastException);
+    }
+
+    /**
+     * Retrieve partitions from a single node.
+     * 
+     * @param nodeUri the node to query
+     * @return Partitions
+     * @throws Exception if the node cannot be connected or the query fails
+     */
+    private Partitions loadPartitions(RedisURI nodeUri) throws Exception {
+
+        RedisAsyncConnectionImpl<String, String> connection = connectAsyncImpl(nodeUri.getResolvedAddress());
+        String clusterNodes;
+        try {
+            clusterNodes = connection.clusterNodes().get(timeout, unit);
+        } finally {
+            connection.close();
+        }
+
+        return toPartitions(nodeUri, clusterNodes);
+    }
+
+    /**
+     * Retrieve partitions from a single node without blocking.
+     * 
+     * @param nodeUri the node to query
+     * @return future of the partitions.
+     */
+    private ListenableFuture<Partitions> loadPartitionsFuture(final RedisURI nodeUri) {
+
+        BlockingQueue<RedisCommand<String, String, ?>> queue = new LinkedBlockingQueue<RedisCommand<String, String, ?>>();
+        CommandHandler<String, String> handler = new CommandHandler<String, String>(queue);
+        RedisAsyncConnectionImpl<String, String> connection = new RedisAsyncConnectionImpl<String, String>(handler, codec,
+                timeout, unit);
+
+        final SocketAddress socketAddress = nodeUri.getResolvedAddress();
+        final SettableRedisFuture<Partitions> result = new SettableRedisFuture<Partitions>();
+
+        Futures.addCallback(connectFutureImpl(handler, connection, Futures.immediateFuture(socketAddress),
+                new Supplier<SocketAddress>() {
+                    @Override
+                    public SocketAddress get() {
+                        return socketAddress;
+                    }
+                }, false), new FutureCallback<RedisAsyncConnectionImpl<String, String>>() {
+            @Override
+            public void onSuccess(final RedisAsyncConnectionImpl<String, String> connection) {
+
+                final RedisFuture<String> clusterNodes = connection.clusterNodes();
+                clusterNodes.addListener(new Runnable() {
+                    @Override
+                    public void run() {
+                        connection.close();
+                        try {
+                            result.set(toPartitions(nodeUri, clusterNodes.get()));
+                        } catch (ExecutionException e) {
+                            result.setException(e.getCause());
+                        } catch (Exception e) {
+                            result.setException(e);
+                        }
+                    }
+                }, MoreExecutors.sameThreadExecutor());
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.setException(t);
+            }
+        });
+
+        expireAfter(result, timeout, unit);
+        return result;
+    }
+
+    private Partitions toPartitions(RedisURI nodeUri, String clusterNodes) {
+
+        if (clusterNodes == null) {
+            throw new RedisException("Cannot retrieve cluster partitions from " + nodeUri);
         }
 
         Partitions partitions = ClusterPartitionParser.parse(clusterNodes);
@@ -242,13 +828,94 @@ public class RedisClusterClient extends AbstractRedisClient {
                 partition.setUri(nodeUri);
             }
 
-            if (nodeUri != null && nodeUri.getPassword() != null) {
+            if (nodeUri.getPassword() != null) {
                 partition.getUri().setPassword(new String(nodeUri.getPassword()));
             }
         }
+
         return partitions;
     }
 
+    /**
+     * Remember the node that provided the partitions and write the topology snapshot. The default connection is opened to this
+     * node.
+     * 
+     * @param partitions the loaded partitions
+     * @return the partitions
+     */
+    private Partitions discovered(Partitions partitions) {
+
+        rememberDiscoveryUri(partitions);
+        writeTopologySnapshot(partitions);
+        return partitions;
+    }
+
+    private void writeTopologySnapshot(Partitions partitions) {
+
+        File snapshotFile = topologySnapshotFile;
+        if (snapshotFile != null) {
+            try {
+                TopologySnapshot.write(snapshotFile, partitions);
+            } catch (IOException e) {
+                logger.warn("Cannot write topology snapshot " + snapshotFile + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Write the topology snapshot on a discovery thread, so the file I/O does not run on an event loop thread.
+     * 
+     * @param partitions the loaded partitions
+     */
+    private void writeTopologySnapshotAsync(final Partitions partitions) {
+
+        if (topologySnapshotFile == null) {
+            return;
+        }
+
+        discoveryExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                writeTopologySnapshot(partitions);
+            }
+        });
+    }
+
+    /**
+     * Shutdown this client, close all open connections and stop the discovery threads.
+     * 
+     * @param quietPeriod the quiet period as described in the documentation
+     * @param timeout the maximum amount of time to wait until the executor is shutdown regardless if a task was submitted
+     *        during the quiet period
+     * @param timeUnit the unit of {@code quietPeriod} and {@code timeout}
+     */
+    @Override
+    public void shutdown(long quietPeriod, long timeout, TimeUnit timeUnit) {
+        discoveryExecutor.shutdownNow();
+        super.shutdown(quietPeriod, timeout, timeUnit);
+    }
+
+    /**
+     * Executor for blocking discovery work (topology snapshot I/O and verification). The threads are started on demand and
+     * stop when idle.
+     */
+    private static ListeningExecutorService newDiscoveryExecutor() {
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(DISCOVERY_THREADS, DISCOVERY_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), DISCOVERY_THREAD_FACTORY);
+        executor.allowCoreThreadTimeOut(true);
+        return MoreExecutors.listeningDecorator(executor);
+    }
+
+    private void rememberDiscoveryUri(Partitions partitions) {
+
+        for (RedisClusterNode partition : partitions) {
+            if (partition.getFlags().contains(RedisClusterNode.NodeFlag.MYSELF) && partition.getUri() != null) {
+                discoveryUri = partition.getUri();
+            }
+        }
+    }
+
     protected RedisURI getFirstUri() {
         checkState(!initialUris.isEmpty(), "initialUris must not be empty");
         return initialUris.get(0);
@@ -258,7 +925,11 @@ public class RedisClusterClient extends AbstractRedisClient {
         return new Supplier<SocketAddress>() {
             @Override
             public SocketAddress get() {
-                return getFirstUri().getResolvedAddress();
+                RedisURI uri = discoveryUri;
+                if (uri == null) {
+                    uri = getFirstUri();
+                }
+                return uri.getResolvedAddress();
             }
         };
     }
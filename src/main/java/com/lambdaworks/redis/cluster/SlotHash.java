@@ -1,7 +1,17 @@
 package com.lambdaworks.redis.cluster;
 
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Bytes;
 import com.google.common.primitives.Chars;
 import com.lambdaworks.codec.CRC16;
+import com.lambdaworks.redis.RedisException;
+import com.lambdaworks.redis.cluster.models.partitions.Partitions;
+import com.lambdaworks.redis.cluster.models.partitions.RedisClusterNode;
+import com.lambdaworks.redis.codec.RedisCodec;
 
 /**
  * Utility to calculate the slot from a key.
@@ -21,6 +31,11 @@ public class SlotHash {
      */
     public static final byte SUBKEY_END = Chars.toByteArray('}')[1];
 
+    /**
+     * Number of redis cluster slots.
+     */
+    public static final int SLOT_COUNT = 16384;
+
     private SlotHash() {
 
     }
@@ -42,23 +57,186 @@ public class SlotHash {
      * @return slot
      */
     public static final int getSlot(byte[] key) {
-        byte[] finalKey = key;
-        int start = indexOf(key, SUBKEY_START);
+        int start = Bytes.indexOf(key, SUBKEY_START);
         if (start != -1) {
             int end = indexOf(key, start + 1, SUBKEY_END);
             if (end != -1 && end != start + 1) {
+                return CRC16.crc16(key, start + 1, end - (start + 1)) % SLOT_COUNT;
+            }
+        }
+        return CRC16.crc16(key) % SLOT_COUNT;
+    }
+
+    /**
+     * Group the keys by their slot. Every key is encoded once. The keys of a slot keep their iteration order, the slots are
+     * ordered ascending.
+     * 
+     * @param codec codec to encode the keys
+     * @param keys the keys
+     * @param <K> Key type.
+     * @return map of slot to keys
+     */
+    public static <K> Map<Integer, List<K>> partition(RedisCodec<K, ?> codec, Iterable<K> keys) {
+
+        Object[] buckets = new Object[SLOT_COUNT];
+        for (K key : keys) {
+            addToBucket(buckets, getSlot(codec.encodeKey(key)), key);
+        }
+
+        Map<Integer, List<K>> result = Maps.newLinkedHashMap();
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if (buckets[slot] != null) {
+                result.put(slot, SlotHash.<K> bucket(buckets, slot));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Group the key/value pairs by the slot of their key. Every key is encoded once. The pairs of a slot keep their iteration
+     * order, the slots are ordered ascending.
+     * 
+     * @param codec codec to encode the keys
+     * @param keyValues the key/value pairs
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return map of slot to key/value pairs
+     */
+    public static <K, V> Map<Integer, Map<K, V>> partition(RedisCodec<K, V> codec, Map<K, V> keyValues) {
+
+        Object[] buckets = new Object[SLOT_COUNT];
+        for (Map.Entry<K, V> entry : keyValues.entrySet()) {
+            addToBucket(buckets, getSlot(codec.encodeKey(entry.getKey())), entry);
+        }
+
+        Map<Integer, Map<K, V>> result = Maps.newLinkedHashMap();
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if (buckets[slot] != null) {
+                result.put(slot, toMap(SlotHash.<Map.Entry<K, V>> bucket(buckets, slot)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Group the keys by the node that serves their slot. Every key is encoded once, the slot table of the partitions is
+     * resolved once per call.
+     * 
+     * @param partitions the cluster partitions
+     * @param codec codec to encode the keys
+     * @param keys the keys
+     * @param <K> Key type.
+     * @return map of node to keys
+     * @throws RedisException if a slot is not served by any node
+     */
+    public static <K> Map<RedisClusterNode, List<K>> partitionByNode(Partitions partitions, RedisCodec<K, ?> codec,
+            Iterable<K> keys) {
+
+        RedisClusterNode[] slotTable = getSlotTable(partitions);
+        Map<RedisClusterNode, List<K>> result = Maps.newLinkedHashMap();
 
-                finalKey = new byte[end - (start + 1)];
-                System.arraycopy(key, start + 1, finalKey, 0, finalKey.length);
+        for (K key : keys) {
+            RedisClusterNode node = getNode(slotTable, getSlot(codec.encodeKey(key)), partitions);
+            List<K> nodeKeys = result.get(node);
+            if (nodeKeys == null) {
+                nodeKeys = Lists.newArrayList();
+                result.put(node, nodeKeys);
             }
+            nodeKeys.add(key);
         }
-        return CRC16.crc16(finalKey) % 16384;
+        return result;
     }
 
-    private static int indexOf(byte[] haystack, byte needle) {
-        return indexOf(haystack, 0, needle);
+    /**
+     * Group the key/value pairs by the node that serves the slot of their key. Every key is encoded once, the slot table of
+     * the partitions is resolved once per call.
+     * 
+     * @param partitions the cluster partitions
+     * @param codec codec to encode the keys
+     * @param keyValues the key/value pairs
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return map of node to key/value pairs
+     * @throws RedisException if a slot is not served by any node
+     */
+    public static <K, V> Map<RedisClusterNode, Map<K, V>> partitionByNode(Partitions partitions, RedisCodec<K, V> codec,
+            Map<K, V> keyValues) {
+
+        RedisClusterNode[] slotTable = getSlotTable(partitions);
+        Map<RedisClusterNode, Map<K, V>> result = Maps.newLinkedHashMap();
+
+        for (Map.Entry<K, V> entry : keyValues.entrySet()) {
+            RedisClusterNode node = getNode(slotTable, getSlot(codec.encodeKey(entry.getKey())), partitions);
+            Map<K, V> nodeKeyValues = result.get(node);
+            if (nodeKeyValues == null) {
+                nodeKeyValues = Maps.newLinkedHashMap();
+                result.put(node, nodeKeyValues);
+            }
+            nodeKeyValues.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Create a table of the slot owners, indexed by slot.
+     * 
+     * @param partitions the cluster partitions
+     * @return array of length {@link #SLOT_COUNT} containing the node for every slot or {@literal null}.
+     */
+    static RedisClusterNode[] getSlotTable(Partitions partitions) {
+
+        RedisClusterNode[] slotTable = new RedisClusterNode[SLOT_COUNT];
+        for (RedisClusterNode partition : partitions) {
+            if (partition.getSlots() == null) {
+                continue;
+            }
+            for (Integer slot : partition.getSlots()) {
+                if (slotTable[slot] == null) {
+                    slotTable[slot] = partition;
+                }
+            }
+        }
+        return slotTable;
     }
 
+    private static RedisClusterNode getNode(RedisClusterNode[] slotTable, int slot, Partitions partitions) {
+
+        RedisClusterNode node = slotTable[slot];
+        if (node == null) {
+            throw new RedisException("Cannot determine a partition for slot " + slot + " (Partitions: " + partitions + ")");
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void addToBucket(Object[] buckets, int slot, T element) {
+
+        List<T> bucket = (List<T>) buckets[slot];
+        if (bucket == null) {
+            bucket = Lists.newArrayListWithCapacity(4);
+            buckets[slot] = bucket;
+        }
+        bucket.add(element);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> bucket(Object[] buckets, int slot) {
+        return (List<T>) buckets[slot];
+    }
+
+    private static <K, V> Map<K, V> toMap(List<Map.Entry<K, V>> entries) {
+
+        Map<K, V> map = Maps.newLinkedHashMap();
+        for (Map.Entry<K, V> entry : entries) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    /**
+     * Like {@link Bytes#indexOf(byte[], byte)} but starting at the given index, Guava does not expose a variant with a start
+     * index.
+     */
     private static int indexOf(byte[] haystack, int start, byte needle) {
 
         for (int i = start; i < haystack.length; i++) {
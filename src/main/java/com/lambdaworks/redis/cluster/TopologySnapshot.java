@@ -0,0 +1,153 @@
+package com.lambdaworks.redis.cluster;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import com.lambdaworks.redis.LettuceStrings;
+import com.lambdaworks.redis.cluster.models.partitions.ClusterPartitionParser;
+import com.lambdaworks.redis.cluster.models.partitions.Partitions;
+import com.lambdaworks.redis.cluster.models.partitions.RedisClusterNode;
+
+/**
+ * Reads and writes a snapshot of the cluster topology. The snapshot uses the format of the <code>CLUSTER NODES</code> output
+ * so it is parsed by {@link ClusterPartitionParser}. Passwords are not written to the snapshot.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+class TopologySnapshot {
+
+    /**
+     * Utility constructor.
+     */
+    private TopologySnapshot() {
+
+    }
+
+    /**
+     * Read partitions from a snapshot file.
+     *
+     * @param file the snapshot file
+     * @return Partitions or {@literal null} if the file does not exist or is empty.
+     * @throws IOException if the file cannot be read
+     */
+    static Partitions read(File file) throws IOException {
+
+        if (!file.isFile()) {
+            return null;
+        }
+
+        String nodes = Files.toString(file, Charsets.UTF_8);
+        if (LettuceStrings.isEmpty(nodes.trim())) {
+            return null;
+        }
+
+        return ClusterPartitionParser.parse(nodes);
+    }
+
+    /**
+     * Write the partitions to a snapshot file. The snapshot is written to a unique temporary file first which replaces the
+     * snapshot file afterwards, so readers never see a partially written snapshot and concurrent writers do not interfere.
+     *
+     * @param file the snapshot file
+     * @param partitions the partitions
+     * @throws IOException if the file cannot be written
+     */
+    static void write(File file, Partitions partitions) throws IOException {
+
+        StringBuilder sb = new StringBuilder();
+        for (RedisClusterNode node : partitions) {
+            sb.append(format(node)).append('\n');
+        }
+
+        // every writer uses its own temporary file within the directory of the snapshot, so the rename stays atomic
+        File tempFile = File.createTempFile("." + file.getName() + ".", ".tmp", file.getAbsoluteFile().getParentFile());
+        try {
+            Files.write(sb, tempFile, Charsets.UTF_8);
+            Files.move(tempFile, file);
+        } finally {
+            if (tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    static String format(RedisClusterNode node) {
+
+        List<String> tokens = Lists.newArrayList();
+        tokens.add(node.getNodeId());
+        tokens.add(node.getUri() != null ? node.getUri().getHost() + ":" + node.getUri().getPort() : ":0");
+        tokens.add(formatFlags(node));
+        tokens.add(node.getSlaveOf() != null ? node.getSlaveOf() : "-");
+        tokens.add(Long.toString(node.getPingSentTimestamp()));
+        tokens.add(Long.toString(node.getPongReceivedTimestamp()));
+        tokens.add(Long.toString(node.getConfigEpoch()));
+        tokens.add(node.isConnected() ? ClusterPartitionParser.CONNECTED : "disconnected");
+        tokens.addAll(formatSlots(node.getSlots()));
+
+        return Joiner.on(' ').join(tokens);
+    }
+
+    private static String formatFlags(RedisClusterNode node) {
+
+        List<String> flags = Lists.newArrayList();
+        if (node.getFlags() != null) {
+            for (RedisClusterNode.NodeFlag flag : node.getFlags()) {
+                switch (flag) {
+                    case EVENTUAL_FAIL:
+                        flags.add("fail?");
+                        break;
+                    default:
+                        flags.add(flag.name().toLowerCase());
+                }
+            }
+        }
+
+        if (flags.isEmpty()) {
+            return "noflags";
+        }
+
+        Collections.sort(flags);
+        return Joiner.on(',').join(flags);
+    }
+
+    private static List<String> formatSlots(List<Integer> slots) {
+
+        List<String> result = Lists.newArrayList();
+        if (slots == null || slots.isEmpty()) {
+            return result;
+        }
+
+        List<Integer> sorted = Lists.newArrayList(slots);
+        Collections.sort(sorted);
+
+        int from = sorted.get(0);
+        int to = from;
+        for (int i = 1; i < sorted.size(); i++) {
+            int slot = sorted.get(i);
+            if (slot == to + 1) {
+                to = slot;
+                continue;
+            }
+            result.add(formatRange(from, to));
+            from = slot;
+            to = slot;
+        }
+        result.add(formatRange(from, to));
+
+        return result;
+    }
+
+    private static String formatRange(int from, int to) {
+        if (from == to) {
+            return Integer.toString(from);
+        }
+        return from + "-" + to;
+    }
+}
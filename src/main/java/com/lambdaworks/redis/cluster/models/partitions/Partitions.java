@@ -10,7 +10,7 @@ import com.google.common.collect.Lists;
  * @since 3.0
  */
 public class Partitions implements Iterable<RedisClusterNode> {
-    private List<RedisClusterNode> partitions = Lists.newArrayList();
+    private volatile List<RedisClusterNode> partitions = Lists.newArrayList();
 
     /**
      * Retrieve a {@link RedisClusterNode} by it's slot number. This method does not distinguish between masters and slaves.
@@ -28,6 +28,39 @@ public class Partitions implements Iterable<RedisClusterNode> {
         return null;
     }
 
+    /**
+     * Retrieve a {@link RedisClusterNode} by its node id.
+     * 
+     * @param nodeId the node id
+     * @return RedisClusterNode or {@literal null}
+     */
+    public RedisClusterNode getPartitionByNodeId(String nodeId) {
+
+        for (RedisClusterNode partition : partitions) {
+            if (partition.getNodeId().equals(nodeId)) {
+                return partition;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieve all master nodes which serve at least one slot.
+     * 
+     * @return List of master nodes.
+     */
+    public List<RedisClusterNode> getMasters() {
+
+        List<RedisClusterNode> result = Lists.newArrayList();
+        for (RedisClusterNode partition : partitions) {
+            if (partition.getFlags().contains(RedisClusterNode.NodeFlag.MASTER) && partition.getSlots() != null
+                    && !partition.getSlots().isEmpty()) {
+                result.add(partition);
+            }
+        }
+        return result;
+    }
+
     @Override
     public Iterator<RedisClusterNode> iterator() {
         return Lists.newArrayList(partitions).iterator();
@@ -41,6 +74,16 @@ public class Partitions implements Iterable<RedisClusterNode> {
         partitions.add(partition);
     }
 
+    /**
+     * Replace all partitions at once. Readers see either the previous or the new partitions, never an empty or partially
+     * updated partition list.
+     * 
+     * @param partitions the new partitions
+     */
+    public void reload(List<RedisClusterNode> partitions) {
+        this.partitions = Lists.newArrayList(partitions);
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
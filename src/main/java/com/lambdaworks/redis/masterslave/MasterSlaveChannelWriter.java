@@ -0,0 +1,71 @@
+package com.lambdaworks.redis.masterslave;
+
+import com.lambdaworks.redis.RedisAsyncConnectionImpl;
+import com.lambdaworks.redis.RedisChannelHandler;
+import com.lambdaworks.redis.RedisChannelWriter;
+import com.lambdaworks.redis.protocol.RedisCommand;
+
+/**
+ * Channel writer for master/slave operation. Read-only commands are written to a slave which is selected by the
+ * {@link MasterSlaveConnectionProvider}, all other commands are written to the master. Reads on a slave might not see the
+ * latest writes.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+class MasterSlaveChannelWriter<K, V> implements RedisChannelWriter<K, V> {
+
+    private RedisChannelWriter<K, V> defaultWriter;
+    private MasterSlaveConnectionProvider<K, V> masterSlaveConnectionProvider;
+    private boolean closed = false;
+
+    public MasterSlaveChannelWriter(RedisChannelWriter<K, V> defaultWriter,
+            MasterSlaveConnectionProvider<K, V> masterSlaveConnectionProvider) {
+        this.defaultWriter = defaultWriter;
+        this.masterSlaveConnectionProvider = masterSlaveConnectionProvider;
+    }
+
+    @Override
+    public <T> RedisCommand<K, V, T> write(RedisCommand<K, V, T> command) {
+
+        if (ReadOnlyCommands.isReadOnlyCommand(command)) {
+            RedisAsyncConnectionImpl<K, V> connection = masterSlaveConnectionProvider.getReadConnection();
+            if (connection != null) {
+                return connection.getChannelWriter().write(command);
+            }
+        }
+
+        return defaultWriter.write(command);
+    }
+
+    @Override
+    public void close() {
+
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        if (defaultWriter != null) {
+            defaultWriter.close();
+            defaultWriter = null;
+        }
+
+        if (masterSlaveConnectionProvider != null) {
+            masterSlaveConnectionProvider.close();
+            masterSlaveConnectionProvider = null;
+        }
+    }
+
+    @Override
+    public void setRedisChannelHandler(RedisChannelHandler<K, V> redisChannelHandler) {
+        defaultWriter.setRedisChannelHandler(redisChannelHandler);
+    }
+
+    public MasterSlaveConnectionProvider<K, V> getMasterSlaveConnectionProvider() {
+        return masterSlaveConnectionProvider;
+    }
+}
@@ -0,0 +1,85 @@
+package com.lambdaworks.redis.masterslave;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options for master/slave connections. Static import the methods from {@link Builder} and chain the method calls:
+ * <code>maxReplicationLag(1024).refreshPeriod(5, TimeUnit.SECONDS)</code>.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class MasterSlaveConnectionOptions {
+
+    public static final long DEFAULT_MAX_REPLICATION_LAG = 1024 * 1024;
+    public static final long DEFAULT_REFRESH_PERIOD = 10;
+    public static final TimeUnit DEFAULT_REFRESH_PERIOD_UNIT = TimeUnit.SECONDS;
+
+    private long maxReplicationLag = DEFAULT_MAX_REPLICATION_LAG;
+    private long refreshPeriod = DEFAULT_REFRESH_PERIOD;
+    private TimeUnit refreshPeriodUnit = DEFAULT_REFRESH_PERIOD_UNIT;
+
+    /**
+     * Static builder methods.
+     */
+    public static class Builder {
+
+        /**
+         * Utility constructor.
+         */
+        private Builder() {
+
+        }
+
+        public static MasterSlaveConnectionOptions maxReplicationLag(long maxReplicationLag) {
+            return new MasterSlaveConnectionOptions().maxReplicationLag(maxReplicationLag);
+        }
+
+        public static MasterSlaveConnectionOptions refreshPeriod(long refreshPeriod, TimeUnit refreshPeriodUnit) {
+            return new MasterSlaveConnectionOptions().refreshPeriod(refreshPeriod, refreshPeriodUnit);
+        }
+    }
+
+    /**
+     * Exclude slaves from reading whose acknowledged replication offset is more than {@code maxReplicationLag} bytes behind
+     * the replication offset of the master. Defaults to {@link #DEFAULT_MAX_REPLICATION_LAG}.
+     *
+     * @param maxReplicationLag the maximal replication lag in bytes, must not be negative
+     * @return this
+     */
+    public MasterSlaveConnectionOptions maxReplicationLag(long maxReplicationLag) {
+        checkArgument(maxReplicationLag >= 0, "maxReplicationLag must not be negative");
+        this.maxReplicationLag = maxReplicationLag;
+        return this;
+    }
+
+    /**
+     * Refresh the topology, the replication offsets and the latencies periodically. A period of {@literal 0} disables the
+     * periodic refresh. Defaults to {@link #DEFAULT_REFRESH_PERIOD} {@link #DEFAULT_REFRESH_PERIOD_UNIT}.
+     *
+     * @param refreshPeriod the refresh period, must not be negative
+     * @param refreshPeriodUnit the unit of the refresh period, must not be {@literal null}
+     * @return this
+     */
+    public MasterSlaveConnectionOptions refreshPeriod(long refreshPeriod, TimeUnit refreshPeriodUnit) {
+        checkArgument(refreshPeriod >= 0, "refreshPeriod must not be negative");
+        checkArgument(refreshPeriodUnit != null, "refreshPeriodUnit must not be null");
+        this.refreshPeriod = refreshPeriod;
+        this.refreshPeriodUnit = refreshPeriodUnit;
+        return this;
+    }
+
+    public long getMaxReplicationLag() {
+        return maxReplicationLag;
+    }
+
+    public long getRefreshPeriod() {
+        return refreshPeriod;
+    }
+
+    public TimeUnit getRefreshPeriodUnit() {
+        return refreshPeriodUnit;
+    }
+}
@@ -0,0 +1,358 @@
+package com.lambdaworks.redis.masterslave;
+
+import java.io.Closeable;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.net.HostAndPort;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.lambdaworks.redis.LettuceFutures;
+import com.lambdaworks.redis.RedisAsyncConnectionImpl;
+import com.lambdaworks.redis.RedisCommandInterruptedException;
+import com.lambdaworks.redis.RedisException;
+import com.lambdaworks.redis.RedisFuture;
+import com.lambdaworks.redis.RedisURI;
+import com.lambdaworks.redis.codec.RedisCodec;
+import com.lambdaworks.redis.models.role.RedisInstance;
+import com.lambdaworks.redis.models.role.RedisMasterInstance;
+import com.lambdaworks.redis.models.role.ReplicationPartner;
+import com.lambdaworks.redis.models.role.RoleParser;
+
+import io.netty.util.internal.logging.InternalLogger;
+import io.netty.util.internal.logging.InternalLoggerFactory;
+
+/**
+ * Connection provider for master/slave setups. The provider discovers the slaves using the <code>ROLE</code> command on the
+ * master, keeps a connection to every slave and measures the latency of each node. Reads are distributed over the slaves
+ * which are not lagging behind the master by more than the configured replication lag and whose latency is close to the
+ * latency of the fastest slave. Reads are executed on the master if no slave qualifies.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+class MasterSlaveConnectionProvider<K, V> implements Closeable {
+
+    /**
+     * Slaves with a latency up to this factor of the best latency are used for reading.
+     */
+    static final int LATENCY_TOLERANCE = 2;
+
+    /**
+     * Latency differences below this value (in nanoseconds) are considered as noise.
+     */
+    static final long MIN_LATENCY_SPREAD = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(MasterSlaveConnectionProvider.class);
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder().setNameFormat("lettuce-masterslave-%d")
+            .setDaemon(true).build();
+
+    private final RedisMasterSlaveClient redisClient;
+    private final RedisCodec<K, V> codec;
+    private final MasterSlaveConnectionOptions options;
+    private final RedisAsyncConnectionImpl<String, String> controlConnection;
+    private final Supplier<SocketAddress> masterAddressSupplier;
+    private final ConcurrentMap<HostAndPort, RedisAsyncConnectionImpl<K, V>> slaveConnections = Maps.newConcurrentMap();
+    private final Map<HostAndPort, Long> latencies = Maps.newHashMap();
+    private final AtomicInteger counter = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+
+    private volatile List<MasterSlaveNode> nodes = Collections.emptyList();
+    private volatile List<RedisAsyncConnectionImpl<K, V>> readConnections = Collections.emptyList();
+    private boolean closed;
+
+    /**
+     * Constructs a {@link MasterSlaveConnectionProvider}.
+     *
+     * @param redisClient the client to connect the slaves
+     * @param codec the codec for the slave connections
+     * @param options the connection options
+     * @param controlConnection connection to the master which is used to retrieve the topology
+     * @param masterAddressSupplier supplier for the current master address
+     */
+    MasterSlaveConnectionProvider(RedisMasterSlaveClient redisClient, RedisCodec<K, V> codec,
+            MasterSlaveConnectionOptions options, RedisAsyncConnectionImpl<String, String> controlConnection,
+            Supplier<SocketAddress> masterAddressSupplier) {
+        this.redisClient = redisClient;
+        this.codec = codec;
+        this.options = options;
+        this.controlConnection = controlConnection;
+        this.masterAddressSupplier = masterAddressSupplier;
+
+        if (options.getRefreshPeriod() > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(THREAD_FACTORY);
+            scheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        refresh();
+                    } catch (RuntimeException e) {
+                        logger.warn("Cannot refresh master/slave topology: " + e.getMessage(), e);
+                    }
+                }
+            }, options.getRefreshPeriod(), options.getRefreshPeriod(), options.getRefreshPeriodUnit());
+        } else {
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Select a slave connection for a read-only command.
+     *
+     * @return the slave connection or {@literal null} if the command should be executed on the master.
+     */
+    RedisAsyncConnectionImpl<K, V> getReadConnection() {
+
+        List<RedisAsyncConnectionImpl<K, V>> connections = readConnections;
+        int size = connections.size();
+        if (size == 0) {
+            return null;
+        }
+
+        int offset = counter.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            RedisAsyncConnectionImpl<K, V> connection = connections.get((offset + i) % size);
+            if (connection.isOpen()) {
+                return connection;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     *
+     * @return the master and slave nodes of the last topology refresh. The master is the first node.
+     */
+    List<MasterSlaveNode> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Retrieve the topology from the master, connect new slaves, close connections to slaves which were removed and measure
+     * the latency of all nodes.
+     */
+    synchronized void refresh() {
+
+        if (closed) {
+            return;
+        }
+
+        long timeout = redisClient.getTimeout();
+        TimeUnit unit = redisClient.getUnit();
+
+        RedisInstance instance = RoleParser.parse(LettuceFutures.await(controlConnection.role(), timeout, unit));
+        if (!(instance instanceof RedisMasterInstance)) {
+            logger.warn("Node " + masterAddressSupplier.get() + " is not a master (" + instance.getRole()
+                    + "), reading from master");
+            readConnections = Collections.emptyList();
+            return;
+        }
+
+        RedisMasterInstance master = (RedisMasterInstance) instance;
+        Map<HostAndPort, ReplicationPartner> slaves = Maps.newLinkedHashMap();
+        for (ReplicationPartner partner : master.getSlaves()) {
+            slaves.put(partner.getHost(), partner);
+        }
+
+        updateSlaveConnections(slaves.keySet());
+
+        Map<HostAndPort, Future<Long>> pings = Maps.newLinkedHashMap();
+        HostAndPort masterHost = toHostAndPort(masterAddressSupplier.get());
+        pings.put(masterHost, measureLatency(controlConnection));
+        for (Map.Entry<HostAndPort, RedisAsyncConnectionImpl<K, V>> entry : slaveConnections.entrySet()) {
+            pings.put(entry.getKey(), measureLatency(entry.getValue()));
+        }
+
+        Map<HostAndPort, Long> samples = Maps.newHashMap();
+        for (Map.Entry<HostAndPort, Future<Long>> entry : pings.entrySet()) {
+            try {
+                samples.put(entry.getKey(), entry.getValue().get(timeout, unit));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RedisCommandInterruptedException(e);
+            } catch (ExecutionException e) {
+                logger.debug("Cannot measure latency of " + entry.getKey() + ": " + e.getCause().getMessage());
+            } catch (TimeoutException e) {
+                logger.debug("Cannot measure latency of " + entry.getKey() + ": timeout");
+            }
+        }
+
+        List<MasterSlaveNode> result = Lists.newArrayList();
+        result.add(new MasterSlaveNode(toRedisURI(masterHost), RedisInstance.Role.MASTER, master.getReplicationOffset(),
+                updateLatency(masterHost, samples.get(masterHost))));
+
+        List<MasterSlaveNode> slaveNodes = Lists.newArrayList();
+        for (ReplicationPartner partner : slaves.values()) {
+            if (!slaveConnections.containsKey(partner.getHost())) {
+                continue;
+            }
+            slaveNodes.add(new MasterSlaveNode(toRedisURI(partner.getHost()), RedisInstance.Role.SLAVE, partner
+                    .getReplicationOffset(), updateLatency(partner.getHost(), samples.get(partner.getHost()))));
+        }
+        result.addAll(slaveNodes);
+        latencies.keySet().retainAll(pings.keySet());
+
+        List<RedisAsyncConnectionImpl<K, V>> connections = Lists.newArrayList();
+        for (MasterSlaveNode node : selectReadNodes(slaveNodes, master.getReplicationOffset(), options.getMaxReplicationLag())) {
+            connections.add(slaveConnections.get(HostAndPort.fromParts(node.getUri().getHost(), node.getUri().getPort())));
+        }
+
+        nodes = Collections.unmodifiableList(result);
+        readConnections = Collections.unmodifiableList(connections);
+
+        logger.debug("Master/slave topology " + nodes + ", reading from " + connections.size() + " slave(s)");
+    }
+
+    /**
+     * Select the slaves for reading. Slaves with an unknown latency or a replication lag above {@code maxReplicationLag} are
+     * excluded. Of the remaining slaves only the ones with a latency close to the best latency are selected.
+     *
+     * @param slaves the slave nodes
+     * @param masterReplicationOffset the replication offset of the master
+     * @param maxReplicationLag the maximal replication lag
+     * @return the slaves for reading, ordered by latency.
+     */
+    static List<MasterSlaveNode> selectReadNodes(List<MasterSlaveNode> slaves, long masterReplicationOffset,
+            long maxReplicationLag) {
+
+        List<MasterSlaveNode> candidates = Lists.newArrayList();
+        for (MasterSlaveNode slave : slaves) {
+            if (slave.getLatency() < 0) {
+                continue;
+            }
+
+            if (masterReplicationOffset - slave.getReplicationOffset() > maxReplicationLag) {
+                continue;
+            }
+            candidates.add(slave);
+        }
+
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        Collections.sort(candidates, new Comparator<MasterSlaveNode>() {
+            @Override
+            public int compare(MasterSlaveNode o1, MasterSlaveNode o2) {
+                return o1.getLatency() < o2.getLatency() ? -1 : (o1.getLatency() == o2.getLatency() ? 0 : 1);
+            }
+        });
+
+        long best = candidates.get(0).getLatency();
+        long limit = Math.max(best * LATENCY_TOLERANCE, best + MIN_LATENCY_SPREAD);
+
+        List<MasterSlaveNode> result = Lists.newArrayList();
+        for (MasterSlaveNode candidate : candidates) {
+            if (candidate.getLatency() <= limit) {
+                result.add(candidate);
+            }
+        }
+
+        return result;
+    }
+
+    private void updateSlaveConnections(Set<HostAndPort> slaves) {
+
+        for (HostAndPort slave : slaves) {
+            if (slaveConnections.containsKey(slave)) {
+                continue;
+            }
+
+            try {
+                slaveConnections.put(slave,
+                        redisClient.connectNode(codec, new InetSocketAddress(slave.getHostText(), slave.getPort())));
+            } catch (RedisException e) {
+                logger.warn("Cannot connect to slave " + slave + ": " + e.getMessage());
+            }
+        }
+
+        for (HostAndPort slave : Sets.newHashSet(slaveConnections.keySet())) {
+            if (!slaves.contains(slave)) {
+                logger.debug("Slave " + slave + " was removed");
+                slaveConnections.remove(slave).close();
+            }
+        }
+    }
+
+    private Future<Long> measureLatency(RedisAsyncConnectionImpl<?, ?> connection) {
+
+        final SettableFuture<Long> latency = SettableFuture.create();
+        final long start = System.nanoTime();
+        final RedisFuture<String> ping = connection.ping();
+        ping.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (ping.getError() == null) {
+                    latency.set(System.nanoTime() - start);
+                } else {
+                    latency.setException(new RedisException(ping.getError()));
+                }
+            }
+        }, MoreExecutors.sameThreadExecutor());
+        return latency;
+    }
+
+    /**
+     * Smooth the latency with the previously measured latency.
+     */
+    private long updateLatency(HostAndPort host, Long sample) {
+
+        if (sample == null) {
+            latencies.remove(host);
+            return -1;
+        }
+
+        Long previous = latencies.get(host);
+        long latency = previous == null ? sample : (previous * 3 + sample) / 4;
+        latencies.put(host, latency);
+        return latency;
+    }
+
+    private static HostAndPort toHostAndPort(SocketAddress socketAddress) {
+        InetSocketAddress address = (InetSocketAddress) socketAddress;
+        String host = address.isUnresolved() ? address.getHostName() : address.getAddress().getHostAddress();
+        return HostAndPort.fromParts(host, address.getPort());
+    }
+
+    private static RedisURI toRedisURI(HostAndPort host) {
+        return RedisURI.Builder.redis(host.getHostText(), host.getPort()).build();
+    }
+
+    @Override
+    public synchronized void close() {
+
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+
+        readConnections = Collections.emptyList();
+        for (RedisAsyncConnectionImpl<K, V> connection : slaveConnections.values()) {
+            connection.close();
+        }
+        slaveConnections.clear();
+        controlConnection.close();
+    }
+}
@@ -0,0 +1,102 @@
+package com.lambdaworks.redis.masterslave;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.io.Serializable;
+
+import com.lambdaworks.redis.RedisURI;
+import com.lambdaworks.redis.models.role.RedisInstance;
+
+/**
+ * Representation of a node within a master/slave setup. The replication offset and the latency are the values of the last
+ * topology refresh.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+@SuppressWarnings("serial")
+public class MasterSlaveNode implements Serializable {
+
+    private RedisURI uri;
+    private RedisInstance.Role role;
+    private long replicationOffset;
+    private long latency = -1;
+
+    public MasterSlaveNode() {
+    }
+
+    /**
+     * Constructs a {@link MasterSlaveNode}.
+     *
+     * @param uri the node URI, must not be {@literal null}
+     * @param role the node role, must not be {@literal null}
+     * @param replicationOffset the replication offset
+     * @param latency the measured latency in nanoseconds, {@literal -1} if unknown
+     */
+    public MasterSlaveNode(RedisURI uri, RedisInstance.Role role, long replicationOffset, long latency) {
+        checkArgument(uri != null, "uri must not be null");
+        checkArgument(role != null, "role must not be null");
+        this.uri = uri;
+        this.role = role;
+        this.replicationOffset = replicationOffset;
+        this.latency = latency;
+    }
+
+    public RedisURI getUri() {
+        return uri;
+    }
+
+    public void setUri(RedisURI uri) {
+        checkArgument(uri != null, "uri must not be null");
+        this.uri = uri;
+    }
+
+    public RedisInstance.Role getRole() {
+        return role;
+    }
+
+    public void setRole(RedisInstance.Role role) {
+        checkArgument(role != null, "role must not be null");
+        this.role = role;
+    }
+
+    /**
+     *
+     * @return the replication offset. Slaves report the offset which was acknowledged to the master.
+     */
+    public long getReplicationOffset() {
+        return replicationOffset;
+    }
+
+    public void setReplicationOffset(long replicationOffset) {
+        this.replicationOffset = replicationOffset;
+    }
+
+    /**
+     *
+     * @return the round-trip latency of a <code>PING</code> in nanoseconds, {@literal -1} if the latency is unknown.
+     */
+    public long getLatency() {
+        return latency;
+    }
+
+    public void setLatency(long latency) {
+        this.latency = latency;
+    }
+
+    public boolean is(RedisInstance.Role role) {
+        return this.role == role;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuffer sb = new StringBuffer();
+        sb.append(getClass().getSimpleName());
+        sb.append(" [uri=").append(uri);
+        sb.append(", role=").append(role);
+        sb.append(", replicationOffset=").append(replicationOffset);
+        sb.append(", latency=").append(latency);
+        sb.append(']');
+        return sb.toString();
+    }
+}
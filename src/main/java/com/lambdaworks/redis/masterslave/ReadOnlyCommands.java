@@ -0,0 +1,48 @@
+package com.lambdaworks.redis.masterslave;
+
+import static com.lambdaworks.redis.protocol.CommandType.*;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.lambdaworks.redis.protocol.Command;
+import com.lambdaworks.redis.protocol.CommandType;
+import com.lambdaworks.redis.protocol.RedisCommand;
+
+/**
+ * Commands which can be executed on a slave. The <code>SCAN</code> commands are not part of the read-only commands because a
+ * cursor is only valid for the node which returned it.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+class ReadOnlyCommands {
+
+    static final Set<CommandType> READ_ONLY_COMMANDS = EnumSet.of(BITCOUNT, BITPOS, DUMP, EXISTS, GET, GETBIT, GETRANGE,
+            HEXISTS, HGET, HGETALL, HKEYS, HLEN, HMGET, HVALS, KEYS, LINDEX, LLEN, LRANGE, MGET, PTTL, RANDOMKEY, SCARD, SDIFF,
+            SINTER, SISMEMBER, SMEMBERS, SRANDMEMBER, STRLEN, SUNION, TTL, TYPE, ZCARD, ZCOUNT, ZLEXCOUNT, ZRANGE, ZRANGEBYLEX,
+            ZRANGEBYSCORE, ZRANK, ZREVRANGE, ZREVRANGEBYSCORE, ZREVRANK, ZSCORE);
+
+    /**
+     * Utility constructor.
+     */
+    private ReadOnlyCommands() {
+
+    }
+
+    /**
+     * Check whether the command can be executed on a slave. Commands within a transaction are never read-only commands.
+     *
+     * @param command the command
+     * @return {@literal true} if the command is a read-only command.
+     */
+    static boolean isReadOnlyCommand(RedisCommand<?, ?, ?> command) {
+
+        if (!(command instanceof Command)) {
+            return false;
+        }
+
+        Command<?, ?, ?> singleCommand = (Command<?, ?, ?>) command;
+        return !singleCommand.isMulti() && READ_ONLY_COMMANDS.contains(singleCommand.getType());
+    }
+}
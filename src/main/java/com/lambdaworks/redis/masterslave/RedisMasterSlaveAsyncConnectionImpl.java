@@ -0,0 +1,57 @@
+package com.lambdaworks.redis.masterslave;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.lambdaworks.redis.RedisAsyncConnectionImpl;
+import com.lambdaworks.redis.RedisChannelWriter;
+import com.lambdaworks.redis.codec.RedisCodec;
+
+import io.netty.channel.ChannelHandler;
+
+/**
+ * An asynchronous and thread-safe master/slave connection. Commands are routed by the {@link MasterSlaveChannelWriter}.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+@ChannelHandler.Sharable
+public class RedisMasterSlaveAsyncConnectionImpl<K, V> extends RedisAsyncConnectionImpl<K, V> implements
+        RedisMasterSlaveAsyncConnection<K, V> {
+
+    private final MasterSlaveConnectionProvider<K, V> masterSlaveConnectionProvider;
+
+    /**
+     * Initialize a new connection.
+     *
+     * @param writer the channel writer
+     * @param masterSlaveConnectionProvider provider for the slave connections
+     * @param codec Codec used to encode/decode keys and values.
+     * @param timeout Maximum time to wait for a response.
+     * @param unit Unit of time for the timeout.
+     */
+    public RedisMasterSlaveAsyncConnectionImpl(RedisChannelWriter<K, V> writer,
+            MasterSlaveConnectionProvider<K, V> masterSlaveConnectionProvider, RedisCodec<K, V> codec, long timeout,
+            TimeUnit unit) {
+        super(writer, codec, timeout, unit);
+        this.masterSlaveConnectionProvider = masterSlaveConnectionProvider;
+    }
+
+    @Override
+    public List<MasterSlaveNode> getNodes() {
+        return masterSlaveConnectionProvider.getNodes();
+    }
+
+    /**
+     * Refresh the topology and the latencies immediately.
+     */
+    void refreshTopology() {
+        masterSlaveConnectionProvider.refresh();
+    }
+
+    MasterSlaveConnectionProvider<K, V> getMasterSlaveConnectionProvider() {
+        return masterSlaveConnectionProvider;
+    }
+}
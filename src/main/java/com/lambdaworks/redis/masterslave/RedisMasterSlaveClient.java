@@ -0,0 +1,285 @@
+package com.lambdaworks.redis.masterslave;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.common.base.Supplier;
+import com.google.common.net.HostAndPort;
+import com.lambdaworks.redis.LettuceFutures;
+import com.lambdaworks.redis.RedisAsyncConnectionImpl;
+import com.lambdaworks.redis.RedisClient;
+import com.lambdaworks.redis.RedisClusterConnection;
+import com.lambdaworks.redis.RedisException;
+import com.lambdaworks.redis.RedisURI;
+import com.lambdaworks.redis.codec.RedisCodec;
+import com.lambdaworks.redis.codec.Utf8StringCodec;
+import com.lambdaworks.redis.models.role.RedisInstance;
+import com.lambdaworks.redis.models.role.RedisSlaveInstance;
+import com.lambdaworks.redis.models.role.RoleParser;
+import com.lambdaworks.redis.protocol.CommandHandler;
+import com.lambdaworks.redis.protocol.RedisCommand;
+
+/**
+ * A client for redis master/slave setups. Master/slave connections execute read-only commands on a slave and all other
+ * commands on the master. The master is looked up using Redis Sentinel if the {@link RedisURI} contains sentinels, otherwise
+ * the {@link RedisURI} points to the master or to one of its slaves. The slaves are discovered with the <code>ROLE</code>
+ * command on the master. Slaves are selected by their latency, slaves which lag behind the master are not used for reading.
+ * See {@link MasterSlaveConnectionOptions}.
+ *
+ * Reads from a slave might not see the latest writes. The database of the {@link RedisURI} is selected on every node, a
+ * <code>SELECT</code> on a master/slave connection affects only the master.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class RedisMasterSlaveClient extends RedisClient {
+
+    private final RedisCodec<String, String> codec = new Utf8StringCodec();
+    private final RedisURI redisURI;
+
+    /**
+     * Create a new client that connects to the master/slave setup of the supplied {@link RedisURI}.
+     *
+     * @param redisURI Redis URI of the master, a slave or the sentinels, must not be {@literal null}
+     */
+    public RedisMasterSlaveClient(RedisURI redisURI) {
+        super(redisURI);
+        checkArgument(redisURI != null, "RedisURI must not be null");
+        this.redisURI = redisURI;
+    }
+
+    /**
+     * Open a new synchronous master/slave connection that treats keys and values as UTF-8 strings.
+     *
+     * @return A new connection.
+     */
+    public RedisMasterSlaveConnection<String, String> connectMasterSlave() {
+        return connectMasterSlave(codec, new MasterSlaveConnectionOptions());
+    }
+
+    /**
+     * Open a new synchronous master/slave connection that treats keys and values as UTF-8 strings.
+     *
+     * @param options the connection options, must not be {@literal null}
+     * @return A new connection.
+     */
+    public RedisMasterSlaveConnection<String, String> connectMasterSlave(MasterSlaveConnectionOptions options) {
+        return connectMasterSlave(codec, options);
+    }
+
+    /**
+     * Open a new synchronous master/slave connection. Use the supplied {@link RedisCodec codec} to encode/decode keys and
+     * values.
+     *
+     * @param codec Use this codec to encode/decode keys and values, must not be {@literal null}
+     * @param options the connection options, must not be {@literal null}
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return A new connection.
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> RedisMasterSlaveConnection<K, V> connectMasterSlave(RedisCodec<K, V> codec,
+            MasterSlaveConnectionOptions options) {
+        return (RedisMasterSlaveConnection<K, V>) syncHandler(connectMasterSlaveAsyncImpl(codec, options),
+                RedisMasterSlaveConnection.class, RedisClusterConnection.class);
+    }
+
+    /**
+     * Open a new asynchronous master/slave connection that treats keys and values as UTF-8 strings.
+     *
+     * @return A new connection.
+     */
+    public RedisMasterSlaveAsyncConnection<String, String> connectMasterSlaveAsync() {
+        return connectMasterSlaveAsync(codec, new MasterSlaveConnectionOptions());
+    }
+
+    /**
+     * Open a new asynchronous master/slave connection that treats keys and values as UTF-8 strings.
+     *
+     * @param options the connection options, must not be {@literal null}
+     * @return A new connection.
+     */
+    public RedisMasterSlaveAsyncConnection<String, String> connectMasterSlaveAsync(MasterSlaveConnectionOptions options) {
+        return connectMasterSlaveAsync(codec, options);
+    }
+
+    /**
+     * Open a new asynchronous master/slave connection. Use the supplied {@link RedisCodec codec} to encode/decode keys and
+     * values.
+     *
+     * @param codec Use this codec to encode/decode keys and values, must not be {@literal null}
+     * @param options the connection options, must not be {@literal null}
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return A new connection.
+     */
+    public <K, V> RedisMasterSlaveAsyncConnection<K, V> connectMasterSlaveAsync(RedisCodec<K, V> codec,
+            MasterSlaveConnectionOptions options) {
+        return connectMasterSlaveAsyncImpl(codec, options);
+    }
+
+    <K, V> RedisMasterSlaveAsyncConnectionImpl<K, V> connectMasterSlaveAsyncImpl(RedisCodec<K, V> codec,
+            MasterSlaveConnectionOptions options) {
+
+        checkArgument(codec != null, "RedisCodec must not be null");
+        checkArgument(options != null, "MasterSlaveConnectionOptions must not be null");
+
+        Supplier<SocketAddress> masterAddressSupplier = getMasterAddressSupplier();
+        RedisAsyncConnectionImpl<String, String> controlConnection = connectNode(this.codec,
+                getReconnectAddressSupplier(masterAddressSupplier), true);
+
+        BlockingQueue<RedisCommand<K, V, ?>> queue = new LinkedBlockingQueue<RedisCommand<K, V, ?>>();
+        CommandHandler<K, V> handler = new CommandHandler<K, V>(queue);
+
+        MasterSlaveConnectionProvider<K, V> masterSlaveConnectionProvider = new MasterSlaveConnectionProvider<K, V>(this,
+                codec, options, controlConnection, masterAddressSupplier);
+        MasterSlaveChannelWriter<K, V> masterSlaveWriter = new MasterSlaveChannelWriter<K, V>(handler,
+                masterSlaveConnectionProvider);
+        RedisMasterSlaveAsyncConnectionImpl<K, V> connection = new RedisMasterSlaveAsyncConnectionImpl<K, V>(
+                masterSlaveWriter, masterSlaveConnectionProvider, codec, timeout, unit);
+
+        connection.setConnectionSettings(redisURI);
+        connectAsyncImpl(handler, connection, getReconnectAddressSupplier(masterAddressSupplier), true);
+        connection.registerCloseables(closeableResources, connection, masterSlaveWriter, masterSlaveConnectionProvider);
+
+        try {
+            masterSlaveConnectionProvider.refresh();
+        } catch (RedisException e) {
+            logger.warn("Cannot retrieve master/slave topology, reading from master: " + e.getMessage(), e);
+        }
+
+        return connection;
+    }
+
+    /**
+     * Create a connection to a single node. The connection is authenticated and selects the database of the {@link RedisURI}.
+     *
+     * @param codec the codec
+     * @param socketAddress the node address
+     * @return RedisAsyncConnectionImpl
+     */
+    <K, V> RedisAsyncConnectionImpl<K, V> connectNode(RedisCodec<K, V> codec, final SocketAddress socketAddress) {
+        return connectNode(codec, new Supplier<SocketAddress>() {
+            @Override
+            public SocketAddress get() {
+                return socketAddress;
+            }
+        }, true);
+    }
+
+    private <K, V> RedisAsyncConnectionImpl<K, V> connectNode(RedisCodec<K, V> codec,
+            Supplier<SocketAddress> socketAddressSupplier, boolean withReconnect) {
+
+        BlockingQueue<RedisCommand<K, V, ?>> queue = new LinkedBlockingQueue<RedisCommand<K, V, ?>>();
+
+        CommandHandler<K, V> handler = new CommandHandler<K, V>(queue);
+        RedisAsyncConnectionImpl<K, V> connection = new RedisAsyncConnectionImpl<K, V>(handler, codec, timeout, unit);
+
+        connection.setConnectionSettings(redisURI);
+        connectAsyncImpl(handler, connection, socketAddressSupplier, withReconnect);
+
+        return connection;
+    }
+
+    /**
+     *
+     * @return supplier for the current master address. Sentinel-managed masters follow the master switches announced by the
+     *         sentinels, otherwise the master is looked up once.
+     */
+    private Supplier<SocketAddress> getMasterAddressSupplier() {
+
+        if (redisURI.getSentinelMasterId() != null && !redisURI.getSentinels().isEmpty()) {
+            return new Supplier<SocketAddress>() {
+                @Override
+                public SocketAddress get() {
+                    return getMasterAddress(null);
+                }
+            };
+        }
+
+        final SocketAddress masterAddress = discoverMaster();
+        return new Supplier<SocketAddress>() {
+            @Override
+            public SocketAddress get() {
+                return masterAddress;
+            }
+        };
+    }
+
+    private Supplier<SocketAddress> getReconnectAddressSupplier(final Supplier<SocketAddress> masterAddressSupplier) {
+
+        if (redisURI.getSentinelMasterId() == null || redisURI.getSentinels().isEmpty()) {
+            return masterAddressSupplier;
+        }
+
+        return new Supplier<SocketAddress>() {
+
+            private volatile SocketAddress previousAddress;
+
+            @Override
+            public SocketAddress get() {
+                previousAddress = getMasterAddress(previousAddress);
+                return previousAddress;
+            }
+        };
+    }
+
+    private SocketAddress getMasterAddress(SocketAddress previousAddress) {
+        try {
+            return getSocketAddress(redisURI, previousAddress);
+        } catch (InterruptedException e) {
+            throw new RedisException(e);
+        } catch (TimeoutException e) {
+            throw new RedisException(e);
+        } catch (ExecutionException e) {
+            throw new RedisException(e);
+        }
+    }
+
+    /**
+     * Determine the master using the <code>ROLE</code> command of the node of the {@link RedisURI}.
+     *
+     * @return the master address.
+     */
+    private SocketAddress discoverMaster() {
+
+        RedisAsyncConnectionImpl<String, String> connection = connectNode(codec, new Supplier<SocketAddress>() {
+            @Override
+            public SocketAddress get() {
+                return redisURI.getResolvedAddress();
+            }
+        }, false);
+
+        try {
+            RedisInstance instance = RoleParser.parse(LettuceFutures.await(connection.role(), timeout, unit));
+            switch (instance.getRole()) {
+                case MASTER:
+                    return redisURI.getResolvedAddress();
+                case SLAVE:
+                    HostAndPort master = ((RedisSlaveInstance) instance).getMaster().getHost();
+                    logger.debug("Node " + redisURI.getHost() + ":" + redisURI.getPort() + " is a slave of " + master);
+                    return new InetSocketAddress(master.getHostText(), master.getPort());
+                default:
+                    throw new RedisException("Node " + redisURI.getHost() + ":" + redisURI.getPort() + " is a "
+                            + instance.getRole() + ", expected a master or a slave");
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    long getTimeout() {
+        return timeout;
+    }
+
+    TimeUnit getUnit() {
+        return unit;
+    }
+}
@@ -0,0 +1,22 @@
+package com.lambdaworks.redis.masterslave;
+
+import java.util.List;
+
+import com.lambdaworks.redis.RedisConnection;
+
+/**
+ * Synchronous master/slave connection. Read-only commands are executed on a slave, all other commands on the master.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public interface RedisMasterSlaveConnection<K, V> extends RedisConnection<K, V> {
+
+    /**
+     * 
+     * @return the master and slave nodes of the last topology refresh. The master is the first node.
+     */
+    List<MasterSlaveNode> getNodes();
+}
@@ -0,0 +1,4 @@
+/**
+ * Client for redis master/slave setups {@link com.lambdaworks.redis.masterslave.RedisMasterSlaveClient}
+ */
+package com.lambdaworks.redis.masterslave;
@@ -0,0 +1,31 @@
+package com.lambdaworks.redis.output;
+
+import java.nio.ByteBuffer;
+
+import com.lambdaworks.redis.codec.RedisCodec;
+import com.lambdaworks.redis.protocol.CommandOutput;
+
+/**
+ * Output that discards the reply of a command without decoding it. Only errors are decoded.
+ * 
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class DiscardingOutput<K, V> extends CommandOutput<K, V, Void> {
+
+    public DiscardingOutput(RedisCodec<K, V> codec) {
+        super(codec, null);
+    }
+
+    @Override
+    public void set(ByteBuffer bytes) {
+        // discard
+    }
+
+    @Override
+    public void set(long integer) {
+        // discard
+    }
+}
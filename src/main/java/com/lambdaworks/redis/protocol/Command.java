@@ -67,6 +67,14 @@ public class Command<K, V, T> extends AbstractFuture<T> implements RedisCommand<
         return multi;
     }
 
+    /**
+     *
+     * @return the command type.
+     */
+    public CommandType getType() {
+        return type;
+    }
+
     @Override
     protected void interruptTask() {
         cancelled = true;
@@ -38,6 +38,17 @@ public class CommandArgs<K, V> {
         return buffer;
     }
 
+    /**
+     * 
+     * @return a read-only view of the arguments encoded so far. Unlike {@link #buffer()}, the arguments can still be
+     *         written afterwards.
+     */
+    public ByteBuffer encoded() {
+        ByteBuffer encoded = buffer.asReadOnlyBuffer();
+        encoded.flip();
+        return encoded;
+    }
+
     public int count() {
         return count;
     }
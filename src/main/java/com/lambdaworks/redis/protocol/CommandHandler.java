@@ -3,13 +3,19 @@
 package com.lambdaworks.redis.protocol;
 
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 
+import com.google.common.collect.Maps;
 import com.lambdaworks.redis.RedisChannelHandler;
 import com.lambdaworks.redis.RedisChannelWriter;
 import com.lambdaworks.redis.RedisCommandInterruptedException;
@@ -35,15 +41,23 @@ import io.netty.util.internal.logging.InternalLoggerFactory;
 public class CommandHandler<K, V> extends ChannelDuplexHandler implements RedisChannelWriter<K, V> {
 
     private static final InternalLogger logger = InternalLoggerFactory.getInstance(CommandHandler.class);
+
+    /**
+     * Number of commands that are written with one flush when commands are replayed after a reconnect.
+     */
+    public static final int REPLAY_CHUNK_SIZE = 1024;
+
     protected BlockingQueue<RedisCommand<K, V, ?>> queue;
     protected BlockingQueue<RedisCommand<K, V, ?>> commandBuffer = new LinkedBlockingQueue<RedisCommand<K, V, ?>>();
     protected ByteBuf buffer;
     protected RedisStateMachine<K, V> rsm;
     private AtomicReference<Channel> channel = new AtomicReference<Channel>();
-    private boolean closed;
+    private volatile boolean closed;
     private RedisChannelHandler<K, V> redisChannelHandler;
     private final ReentrantLock writeLock = new ReentrantLock();
     private final ReentrantLock readLock = new ReentrantLock();
+    private final Map<RedisCommand<K, V, ?>, Long> bufferedSince = Maps.newIdentityHashMap();
+    private Deque<RedisCommand<K, V, ?>> replayQueue;
 
     /**
      * Initialize a new instance that handles commands from the supplied queue.
@@ -148,6 +162,7 @@ public class CommandHandler<K, V> extends ChannelDuplexHandler implements RedisC
                         logger.debug("[" + this + "] write() buffering Command " + command);
                     }
                     commandBuffer.put(command);
+                    bufferedSince.put(command, System.nanoTime());
                 }
             } finally {
                 writeLock.unlock();
@@ -160,6 +175,48 @@ public class CommandHandler<K, V> extends ChannelDuplexHandler implements RedisC
         return command;
     }
 
+    /**
+     * Write multiple commands on the channel with a single flush.
+     * 
+     * @param commands the commands
+     */
+    public void write(Collection<? extends RedisCommand<K, V, ?>> commands) {
+        try {
+
+            if (closed) {
+                throw new RedisException("Connection is closed");
+            }
+
+            try {
+                writeLock.lock();
+                Channel channel = this.channel.get();
+                if (channel != null) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("[" + this + "] write() writeAndFlush " + commands.size() + " Commands");
+                    }
+                    for (RedisCommand<K, V, ?> command : commands) {
+                        channel.write(command);
+                    }
+                    channel.flush();
+                } else {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("[" + this + "] write() buffering " + commands.size() + " Commands");
+                    }
+                    long now = System.nanoTime();
+                    for (RedisCommand<K, V, ?> command : commands) {
+                        commandBuffer.put(command);
+                        bufferedSince.put(command, now);
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+
+        } catch (InterruptedException e) {
+            throw new RedisCommandInterruptedException(e);
+        }
+    }
+
     /**
      * 
      * @see io.netty.channel.ChannelDuplexHandler#write(io.netty.channel.ChannelHandlerContext, java.lang.Object,
@@ -188,47 +245,162 @@ public class CommandHandler<K, V> extends ChannelDuplexHandler implements RedisC
     }
 
     /**
+     * Write the handshake of the connection followed by the unacknowledged and the buffered commands. The commands are
+     * replayed in chunks of {@link #REPLAY_CHUNK_SIZE} commands with one flush per chunk, the event loop processes other tasks
+     * (e.g. the responses to the replayed commands) between the chunks. Commands written during the replay are buffered and
+     * replayed in order. Commands that were buffered for longer than the command timeout of the connection are dropped.
+     * 
      * @see io.netty.channel.ChannelInboundHandlerAdapter#channelActive(io.netty.channel.ChannelHandlerContext)
      */
     @Override
     public void channelActive(final ChannelHandlerContext ctx) throws Exception {
 
         logger.debug("[" + this + "] channelActive()");
-        List<RedisCommand<K, V, ?>> tmp = new ArrayList<RedisCommand<K, V, ?>>(queue.size() + commandBuffer.size());
+
+        if (closed) {
+            closeChannel(ctx);
+            return;
+        }
+
+        final Deque<RedisCommand<K, V, ?>> pending = new ArrayDeque<RedisCommand<K, V, ?>>();
 
         try {
             writeLock.lock();
 
-            tmp.addAll(commandBuffer);
-            tmp.addAll(queue);
+            // an empty handshake completes right away and its listeners may write commands, collect them as buffered commands
+            List<RedisCommand<K, V, ?>> handshake = Collections.emptyList();
+            if (redisChannelHandler != null) {
+                handshake = redisChannelHandler.handshake();
+            }
+
+            pending.addAll(queue);
+            if (replayQueue != null) {
+                pending.addAll(replayQueue);
+            }
+            pending.addAll(commandBuffer);
 
             queue.clear();
             commandBuffer.clear();
+            replayQueue = pending;
 
-            this.channel.set(ctx.channel());
-
-            if (redisChannelHandler != null) {
-                redisChannelHandler.activated();
+            for (RedisCommand<K, V, ?> cmd : handshake) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("[" + this + "] channelActive() handshake command " + cmd);
+                }
+                ctx.channel().write(cmd);
             }
-
         } finally {
             writeLock.unlock();
         }
 
-        for (RedisCommand<K, V, ?> cmd : tmp) {
-            if (!cmd.isCancelled()) {
+        replay(ctx, pending);
+    }
+
+    /**
+     * Write the next chunk of the replay. The channel is handed out to {@link #write(RedisCommand)} once the replay is done,
+     * until then new commands are buffered to keep the order.
+     * 
+     * @param ctx the channel handler context
+     * @param pending the commands to replay
+     */
+    private void replay(final ChannelHandlerContext ctx, final Deque<RedisCommand<K, V, ?>> pending) {
+
+        boolean done = false;
+        try {
+            writeLock.lock();
+
+            if (replayQueue != pending) {
+                return;
+            }
+
+            if (closed) {
+                closeChannel(ctx);
+                return;
+            }
+
+            if (!ctx.channel().isActive()) {
+                // the remaining commands are replayed on the next channelActive
+                return;
+            }
+
+            long now = System.nanoTime();
+            int written = 0;
+            while (written < REPLAY_CHUNK_SIZE && !pending.isEmpty()) {
+
+                RedisCommand<K, V, ?> cmd = pending.poll();
+                Long bufferedAt = bufferedSince.remove(cmd);
+
+                if (cmd.isCancelled()) {
+                    continue;
+                }
+
+                if (bufferedAt != null && isExpired(now - bufferedAt)) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("[" + this + "] channelActive() dropping expired command " + cmd);
+                    }
+                    if (cmd.getOutput() != null) {
+                        cmd.getOutput().setError("Command timed out while buffered");
+                    }
+                    cmd.complete();
+                    continue;
+                }
 
                 if (logger.isDebugEnabled()) {
                     logger.debug("[" + this + "] channelActive() triggering command " + cmd);
                 }
-                ctx.channel().writeAndFlush(cmd);
+                ctx.channel().write(cmd);
+                written++;
+            }
+
+            if (pending.isEmpty()) {
+                pending.addAll(commandBuffer);
+                commandBuffer.clear();
+            }
+
+            if (pending.isEmpty()) {
+                replayQueue = null;
+                this.channel.set(ctx.channel());
+
+                if (redisChannelHandler != null) {
+                    redisChannelHandler.activated();
+                }
+                done = true;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        ctx.channel().flush();
+
+        if (done) {
+            logger.debug("[" + this + "] channelActive() done");
+            return;
+        }
+
+        ctx.channel().eventLoop().execute(new Runnable() {
+            @Override
+            public void run() {
+                replay(ctx, pending);
             }
+        });
+    }
+
+    private boolean isExpired(long bufferedNanos) {
+
+        if (redisChannelHandler == null || redisChannelHandler.getTimeout() <= 0) {
+            return false;
         }
 
-        tmp.clear();
+        return bufferedNanos > redisChannelHandler.getTimeoutUnit().toNanos(redisChannelHandler.getTimeout());
+    }
 
-        logger.debug("[" + this + "] channelActive() done");
+    private void closeChannel(ChannelHandlerContext ctx) {
 
+        ConnectionWatchdog watchdog = ctx.pipeline().get(ConnectionWatchdog.class);
+        if (watchdog != null) {
+            watchdog.setReconnect(false);
+        }
+        ctx.close();
     }
 
     /**
@@ -240,6 +412,21 @@ public class CommandHandler<K, V> extends ChannelDuplexHandler implements RedisC
         logger.debug("[" + this + "] channelInactive()");
         this.channel.set(null);
 
+        if (!closed && queue != null) {
+            try {
+                writeLock.lock();
+                // unacknowledged commands are replayed, their replay deadline starts now
+                long now = System.nanoTime();
+                for (RedisCommand<K, V, ?> cmd : queue) {
+                    if (!bufferedSince.containsKey(cmd)) {
+                        bufferedSince.put(cmd, now);
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
         if (closed) {
 
             int size = 0;
@@ -265,6 +452,17 @@ public class CommandHandler<K, V> extends ChannelDuplexHandler implements RedisC
                 commandBuffer = null;
             }
 
+            try {
+                writeLock.lock();
+                if (replayQueue != null) {
+                    toCancel.addAll(replayQueue);
+                    replayQueue = null;
+                }
+                bufferedSince.clear();
+            } finally {
+                writeLock.unlock();
+            }
+
             for (RedisCommand<K, V, ?> cmd : toCancel) {
                 if (cmd.getOutput() != null) {
                     cmd.getOutput().setError("Connection closed");
@@ -294,18 +492,30 @@ public class CommandHandler<K, V> extends ChannelDuplexHandler implements RedisC
 
         releaseBuffer();
 
-        closed = true;
+        Channel currentChannel;
+        try {
+            writeLock.lock();
+            // a replay in progress sees the flag before it hands out the channel
+            closed = true;
+            currentChannel = channel.get();
+        } finally {
+            writeLock.unlock();
+        }
 
-        if (channel.get() != null) {
-            ConnectionWatchdog watchdog = channel.get().pipeline().get(ConnectionWatchdog.class);
+        if (currentChannel != null) {
+            ConnectionWatchdog watchdog = currentChannel.pipeline().get(ConnectionWatchdog.class);
             if (watchdog != null) {
                 watchdog.setReconnect(false);
             }
 
-            try {
-                channel.get().close().sync();
-            } catch (InterruptedException e) {
-                throw new RedisException(e);
+            if (currentChannel.eventLoop().inEventLoop()) {
+                currentChannel.close();
+            } else {
+                try {
+                    currentChannel.close().sync();
+                } catch (InterruptedException e) {
+                    throw new RedisException(e);
+                }
             }
 
             channel.set(null);
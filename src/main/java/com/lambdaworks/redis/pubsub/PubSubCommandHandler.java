@@ -15,7 +15,8 @@ import io.netty.channel.ChannelHandlerContext;
 
 /**
  * A netty {@link ChannelHandler} responsible for writing redis pub/sub commands and reading the response stream from the
- * server.
+ * server. Messages are decoded into a single {@link PubSubOutput} which is reset after each element, listeners must not retain
+ * the output beyond {@code channelRead}.
  * 
  * @param <K> Key type.
  * @param <V> Value type.
@@ -54,7 +55,7 @@ public class PubSubCommandHandler<K, V> extends CommandHandler<K, V> {
 
         while (rsm.decode(buffer, output)) {
             ctx.fireChannelRead(output);
-            output = new PubSubOutput<K, V>(codec);
+            output.reset();
             buffer.discardReadBytes();
         }
     }
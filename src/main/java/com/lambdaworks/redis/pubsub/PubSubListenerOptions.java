@@ -0,0 +1,118 @@
+package com.lambdaworks.redis.pubsub;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Options for pub/sub listeners which are notified off the I/O thread, see
+ * {@link RedisPubSubConnection#addListener(RedisPubSubListener, PubSubListenerOptions)}. Static import the methods from
+ * {@link Builder} and chain the method calls: <code>queueCapacity(10000).overflowPolicy(OverflowPolicy.BLOCK)</code>.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class PubSubListenerOptions {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.DROP_OLDEST;
+
+    private Executor executor;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private OverflowPolicy overflowPolicy = DEFAULT_OVERFLOW_POLICY;
+
+    /**
+     * Behavior when the queue of a listener is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Drop the oldest queued notification to make room for the new one.
+         */
+        DROP_OLDEST,
+
+        /**
+         * Drop the new notification.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Block the I/O thread until the listener catches up. Slows down reading from the connection for all listeners.
+         */
+        BLOCK
+    }
+
+    /**
+     * Static builder methods.
+     */
+    public static class Builder {
+
+        /**
+         * Utility constructor.
+         */
+        private Builder() {
+
+        }
+
+        public static PubSubListenerOptions executor(Executor executor) {
+            return new PubSubListenerOptions().executor(executor);
+        }
+
+        public static PubSubListenerOptions queueCapacity(int queueCapacity) {
+            return new PubSubListenerOptions().queueCapacity(queueCapacity);
+        }
+
+        public static PubSubListenerOptions overflowPolicy(OverflowPolicy overflowPolicy) {
+            return new PubSubListenerOptions().overflowPolicy(overflowPolicy);
+        }
+    }
+
+    /**
+     * Notify the listener using the given executor. Notifications of one listener are delivered in order and never
+     * concurrently. Defaults to the listener pool of the client that created the connection. The pool is shut down with the
+     * client, an executor passed here is not.
+     *
+     * @param executor the executor, {@literal null} to use the pool of the client
+     * @return this
+     */
+    public PubSubListenerOptions executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Limit the number of notifications that are queued for the listener. Defaults to {@link #DEFAULT_QUEUE_CAPACITY}.
+     *
+     * @param queueCapacity the queue capacity, must be greater than {@literal 0}
+     * @return this
+     */
+    public PubSubListenerOptions queueCapacity(int queueCapacity) {
+        checkArgument(queueCapacity > 0, "queueCapacity must be greater than 0");
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * Set the behavior when the queue of the listener is full. Defaults to {@link #DEFAULT_OVERFLOW_POLICY}.
+     *
+     * @param overflowPolicy the overflow policy, must not be {@literal null}
+     * @return this
+     */
+    public PubSubListenerOptions overflowPolicy(OverflowPolicy overflowPolicy) {
+        checkArgument(overflowPolicy != null, "overflowPolicy must not be null");
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+}
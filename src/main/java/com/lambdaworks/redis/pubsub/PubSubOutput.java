@@ -3,12 +3,17 @@
 package com.lambdaworks.redis.pubsub;
 
 import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.lambdaworks.redis.codec.RedisCodec;
 import com.lambdaworks.redis.protocol.CommandOutput;
+import com.lambdaworks.redis.protocol.LettuceCharsets;
 
 /**
- * One element of the redis pub/sub stream. May be a message or notification of subscription details.
+ * One element of the redis pub/sub stream. May be a message or notification of subscription details. A streaming output can
+ * be {@link #reset() reset} and reused for the next element, channel and pattern names are decoded once and cached when the
+ * codec decodes keys to {@link String strings}.
  * 
  * @param <K> Key type.
  * @param <V> Value type. *
@@ -19,10 +24,19 @@ public class PubSubOutput<K, V> extends CommandOutput<K, V, V> {
         message, pmessage, psubscribe, punsubscribe, subscribe, unsubscribe
     }
 
+    /**
+     * Maximal number of cached channel and pattern names.
+     */
+    static final int MAX_CACHED_NAMES = 1024;
+
+    private static final byte[] MESSAGE = "message".getBytes(LettuceCharsets.ASCII);
+    private static final byte[] PMESSAGE = "pmessage".getBytes(LettuceCharsets.ASCII);
+
     private Type type;
     private K channel;
     private K pattern;
     private long count;
+    private Map<ByteBuffer, K> names;
 
     public PubSubOutput(RedisCodec<K, V> codec) {
         super(codec, null);
@@ -44,23 +58,35 @@ public class PubSubOutput<K, V> extends CommandOutput<K, V, V> {
         return count;
     }
 
+    /**
+     * Reset this output to decode the next element of the pub/sub stream. Cached channel and pattern names are retained.
+     */
+    public void reset() {
+        type = null;
+        channel = null;
+        pattern = null;
+        count = 0;
+        output = null;
+        error = null;
+    }
+
     @Override
     @SuppressWarnings("fallthrough")
     public void set(ByteBuffer bytes) {
         if (type == null) {
-            type = Type.valueOf(decodeAscii(bytes));
+            type = decodeType(bytes);
             return;
         }
 
         switch (type) {
             case pmessage:
                 if (pattern == null) {
-                    pattern = codec.decodeKey(bytes);
+                    pattern = decodeName(bytes);
                     break;
                 }
             case message:
                 if (channel == null) {
-                    channel = codec.decodeKey(bytes);
+                    channel = decodeName(bytes);
                     break;
                 }
                 output = codec.decodeValue(bytes);
@@ -82,4 +108,60 @@ public class PubSubOutput<K, V> extends CommandOutput<K, V, V> {
     public void set(long integer) {
         count = integer;
     }
+
+    private Type decodeType(ByteBuffer bytes) {
+        if (matches(bytes, MESSAGE)) {
+            return Type.message;
+        }
+
+        if (matches(bytes, PMESSAGE)) {
+            return Type.pmessage;
+        }
+
+        return Type.valueOf(decodeAscii(bytes));
+    }
+
+    private K decodeName(ByteBuffer bytes) {
+        if (bytes == null) {
+            return codec.decodeKey(bytes);
+        }
+
+        if (names != null) {
+            K name = names.get(bytes);
+            if (name != null) {
+                return name;
+            }
+        }
+
+        ByteBuffer key = null;
+        if (names == null || names.size() < MAX_CACHED_NAMES) {
+            key = ByteBuffer.allocate(bytes.remaining());
+            key.put(bytes.duplicate()).flip();
+        }
+
+        K name = codec.decodeKey(bytes);
+
+        // only immutable names may be shared between messages
+        if (key != null && name instanceof String) {
+            if (names == null) {
+                names = new HashMap<ByteBuffer, K>();
+            }
+            names.put(key, name);
+        }
+        return name;
+    }
+
+    private static boolean matches(ByteBuffer bytes, byte[] expected) {
+        if (bytes == null || bytes.remaining() != expected.length) {
+            return false;
+        }
+
+        int position = bytes.position();
+        for (int i = 0; i < expected.length; i++) {
+            if (bytes.get(position + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,271 @@
+package com.lambdaworks.redis.pubsub;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.lambdaworks.redis.RedisCommandInterruptedException;
+
+import io.netty.util.internal.logging.InternalLogger;
+import io.netty.util.internal.logging.InternalLoggerFactory;
+
+/**
+ * Listener that queues the notifications and delivers them to the target listener using an {@link Executor}. The I/O thread
+ * only enqueues, so a slow listener does not stall reading from the connection. Notifications are delivered in order and
+ * never concurrently. The queue is bounded, a full queue is handled according to the
+ * {@link PubSubListenerOptions.OverflowPolicy}.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class QueuedPubSubListener<K, V> implements RedisPubSubListener<K, V> {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(QueuedPubSubListener.class);
+
+    private final RedisPubSubListener<K, V> listener;
+    private final Executor executor;
+    private final PubSubListenerOptions.OverflowPolicy overflowPolicy;
+    private final BlockingQueue<Notification<K, V>> queue;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed;
+
+    private final Runnable drain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    /**
+     * Create a new queued listener.
+     *
+     * @param listener the target listener, must not be {@literal null}
+     * @param options the options, must not be {@literal null} and must specify an executor
+     */
+    public QueuedPubSubListener(RedisPubSubListener<K, V> listener, PubSubListenerOptions options) {
+        this(listener, options, null);
+    }
+
+    /**
+     * Create a new queued listener.
+     *
+     * @param listener the target listener, must not be {@literal null}
+     * @param options the options, must not be {@literal null}
+     * @param defaultExecutor the executor to use if the options do not specify one, may be {@literal null} if the options
+     *        specify an executor
+     */
+    public QueuedPubSubListener(RedisPubSubListener<K, V> listener, PubSubListenerOptions options,
+            Executor defaultExecutor) {
+        checkArgument(listener != null, "RedisPubSubListener must not be null");
+        checkArgument(options != null, "PubSubListenerOptions must not be null");
+        checkArgument(options.getExecutor() != null || defaultExecutor != null,
+                "PubSubListenerOptions must specify an executor");
+
+        this.listener = listener;
+        this.executor = options.getExecutor() != null ? options.getExecutor() : defaultExecutor;
+        this.overflowPolicy = options.getOverflowPolicy();
+        this.queue = new ArrayBlockingQueue<Notification<K, V>>(options.getQueueCapacity());
+    }
+
+    @Override
+    public void message(final K channel, final V message) {
+        enqueue(new Notification<K, V>() {
+            @Override
+            void deliver(RedisPubSubListener<K, V> listener) {
+                listener.message(channel, message);
+            }
+        });
+    }
+
+    @Override
+    public void message(final K pattern, final K channel, final V message) {
+        enqueue(new Notification<K, V>() {
+            @Override
+            void deliver(RedisPubSubListener<K, V> listener) {
+                listener.message(pattern, channel, message);
+            }
+        });
+    }
+
+    @Override
+    public void subscribed(final K channel, final long count) {
+        enqueue(new Notification<K, V>() {
+            @Override
+            void deliver(RedisPubSubListener<K, V> listener) {
+                listener.subscribed(channel, count);
+            }
+        });
+    }
+
+    @Override
+    public void psubscribed(final K pattern, final long count) {
+        enqueue(new Notification<K, V>() {
+            @Override
+            void deliver(RedisPubSubListener<K, V> listener) {
+                listener.psubscribed(pattern, count);
+            }
+        });
+    }
+
+    @Override
+    public void unsubscribed(final K channel, final long count) {
+        enqueue(new Notification<K, V>() {
+            @Override
+            void deliver(RedisPubSubListener<K, V> listener) {
+                listener.unsubscribed(channel, count);
+            }
+        });
+    }
+
+    @Override
+    public void punsubscribed(final K pattern, final long count) {
+        enqueue(new Notification<K, V>() {
+            @Override
+            void deliver(RedisPubSubListener<K, V> listener) {
+                listener.punsubscribed(pattern, count);
+            }
+        });
+    }
+
+    /**
+     * Stop the delivery. Queued notifications are discarded.
+     */
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    /**
+     *
+     * @return the target listener.
+     */
+    public RedisPubSubListener<K, V> getListener() {
+        return listener;
+    }
+
+    /**
+     *
+     * @return number of queued notifications.
+     */
+    public int getPending() {
+        return queue.size();
+    }
+
+    /**
+     *
+     * @return number of delivered notifications.
+     */
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    /**
+     *
+     * @return number of notifications that were dropped because the queue was full.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Retrieve the lag of the listener: the time the oldest queued notification is waiting for delivery.
+     *
+     * @param unit the unit of the result
+     * @return the lag, {@literal 0} if no notification is queued.
+     */
+    public long getLag(TimeUnit unit) {
+        Notification<K, V> oldest = queue.peek();
+        if (oldest == null) {
+            return 0;
+        }
+        return unit.convert(System.nanoTime() - oldest.enqueuedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private void enqueue(Notification<K, V> notification) {
+
+        if (closed) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case DROP_NEWEST:
+                if (!queue.offer(notification)) {
+                    dropped.incrementAndGet();
+                }
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(notification)) {
+                    if (queue.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                }
+                break;
+            case BLOCK:
+                try {
+                    queue.put(notification);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RedisCommandInterruptedException(e);
+                }
+                break;
+        }
+
+        schedule();
+    }
+
+    private void schedule() {
+
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(drain);
+        } catch (RejectedExecutionException e) {
+            scheduled.set(false);
+            logger.warn("Cannot deliver pub/sub notifications: " + e.getMessage(), e);
+        }
+    }
+
+    private void drain() {
+
+        while (true) {
+            Notification<K, V> notification;
+            while (!closed && (notification = queue.poll()) != null) {
+                try {
+                    notification.deliver(listener);
+                } catch (RuntimeException e) {
+                    logger.warn("Pub/sub listener " + listener + " failed: " + e.getMessage(), e);
+                }
+                delivered.incrementAndGet();
+            }
+
+            scheduled.set(false);
+
+            // a notification enqueued after the poll above but before resetting the flag was not scheduled
+            if (closed || queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A queued notification.
+     */
+    abstract static class Notification<K, V> {
+
+        final long enqueuedAt = System.nanoTime();
+
+        abstract void deliver(RedisPubSubListener<K, V> listener);
+    }
+}
@@ -17,6 +17,16 @@ public interface RedisPubSubConnection<K, V> extends RedisAsyncConnection<K, V>
      */
     void addListener(RedisPubSubListener<K, V> listener);
 
+    /**
+     * Add a new listener which is notified off the I/O thread. The notifications are queued per listener and delivered using
+     * the executor of the {@link PubSubListenerOptions options}, a slow listener does not stall reading from the connection.
+     * 
+     * @param listener Listener.
+     * @param options Delivery options.
+     * @return the queued listener that exposes the delivery metrics.
+     */
+    QueuedPubSubListener<K, V> addListener(RedisPubSubListener<K, V> listener, PubSubListenerOptions options);
+
     /**
      * Remove an existing listener.
      * 
@@ -24,6 +34,40 @@ public interface RedisPubSubConnection<K, V> extends RedisAsyncConnection<K, V>
      */
     void removeListener(RedisPubSubListener<K, V> listener);
 
+    /**
+     * Add a new listener for a single channel. The listener is notified only about messages and subscription changes of the
+     * channel. The listener does not subscribe the channel.
+     * 
+     * @param channel Channel.
+     * @param listener Listener.
+     */
+    void addChannelListener(K channel, RedisPubSubListener<K, V> listener);
+
+    /**
+     * Remove a listener for a single channel.
+     * 
+     * @param channel Channel.
+     * @param listener Listener.
+     */
+    void removeChannelListener(K channel, RedisPubSubListener<K, V> listener);
+
+    /**
+     * Add a new listener for a single pattern. The listener is notified only about messages that match the pattern
+     * subscription and about subscription changes of the pattern. The listener does not subscribe the pattern.
+     * 
+     * @param pattern Pattern.
+     * @param listener Listener.
+     */
+    void addPatternListener(K pattern, RedisPubSubListener<K, V> listener);
+
+    /**
+     * Remove a listener for a single pattern.
+     * 
+     * @param pattern Pattern.
+     * @param listener Listener.
+     */
+    void removePatternListener(K pattern, RedisPubSubListener<K, V> listener);
+
     /**
      * Listen for messages published to channels matching the given patterns.
      * 
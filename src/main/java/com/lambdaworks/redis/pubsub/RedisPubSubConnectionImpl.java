@@ -7,14 +7,20 @@ import static com.lambdaworks.redis.protocol.CommandType.PUNSUBSCRIBE;
 import static com.lambdaworks.redis.protocol.CommandType.SUBSCRIBE;
 import static com.lambdaworks.redis.protocol.CommandType.UNSUBSCRIBE;
 
+import static com.google.common.base.Preconditions.*;
+
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
+import com.google.common.collect.Maps;
 import com.lambdaworks.redis.RedisAsyncConnectionImpl;
 import com.lambdaworks.redis.RedisChannelWriter;
 import com.lambdaworks.redis.codec.RedisCodec;
@@ -25,7 +31,9 @@ import com.lambdaworks.redis.protocol.CommandArgs;
  * related commands or {@link #quit} may be called.
  * 
  * Incoming messages and results of the {@link #subscribe}/{@link #unsubscribe} calls will be passed to all registered
- * {@link RedisPubSubListener}s.
+ * {@link RedisPubSubListener}s. Listeners are notified on the I/O thread unless they are added with
+ * {@link PubSubListenerOptions}. Listeners that are added for a single channel or pattern are looked up by the channel or
+ * pattern of the incoming message and receive only the messages of their channel or pattern.
  * 
  * A {@link com.lambdaworks.redis.protocol.ConnectionWatchdog} monitors each connection and reconnects automatically until
  * {@link #close} is called. Channel and pattern subscriptions are renewed after reconnecting.
@@ -38,6 +46,9 @@ public class RedisPubSubConnectionImpl<K, V> extends RedisAsyncConnectionImpl<K,
     private final List<RedisPubSubListener<K, V>> listeners;
     private final Set<K> channels;
     private final Set<K> patterns;
+    private final ConcurrentMap<Object, List<RedisPubSubListener<K, V>>> channelListeners = Maps.newConcurrentMap();
+    private final ConcurrentMap<Object, List<RedisPubSubListener<K, V>>> patternListeners = Maps.newConcurrentMap();
+    private final Executor listenerExecutor;
 
     /**
      * Initialize a new connection.
@@ -48,7 +59,23 @@ public class RedisPubSubConnectionImpl<K, V> extends RedisAsyncConnectionImpl<K,
      * @param unit Unit of time for the timeout.
      */
     public RedisPubSubConnectionImpl(RedisChannelWriter<K, V> writer, RedisCodec<K, V> codec, long timeout, TimeUnit unit) {
+        this(writer, codec, timeout, unit, null);
+    }
+
+    /**
+     * Initialize a new connection.
+     * 
+     * @param writer
+     * @param codec Codec used to encode/decode keys and values.
+     * @param timeout Maximum time to wait for a responses.
+     * @param unit Unit of time for the timeout.
+     * @param listenerExecutor Executor for listeners which are added with {@link PubSubListenerOptions options} that do not
+     *        specify an executor, may be {@literal null}.
+     */
+    public RedisPubSubConnectionImpl(RedisChannelWriter<K, V> writer, RedisCodec<K, V> codec, long timeout, TimeUnit unit,
+            Executor listenerExecutor) {
         super(writer, codec, timeout, unit);
+        this.listenerExecutor = listenerExecutor;
         listeners = new CopyOnWriteArrayList<RedisPubSubListener<K, V>>();
         channels = new HashSet<K>();
         patterns = new HashSet<K>();
@@ -64,11 +91,93 @@ public class RedisPubSubConnectionImpl<K, V> extends RedisAsyncConnectionImpl<K,
     }
 
     /**
-     * Remove an existing listener.
+     * Add a new listener which is notified off the I/O thread. The notifications are queued per listener and delivered using
+     * the executor of the {@link PubSubListenerOptions options} or, if the options do not specify one, the listener executor
+     * of the client that created the connection.
+     * 
+     * @param listener Listener.
+     * @param options Delivery options.
+     * @return the queued listener that exposes the delivery metrics.
+     */
+    @Override
+    public QueuedPubSubListener<K, V> addListener(RedisPubSubListener<K, V> listener, PubSubListenerOptions options) {
+        QueuedPubSubListener<K, V> queuedListener = new QueuedPubSubListener<K, V>(listener, options, listenerExecutor);
+        listeners.add(queuedListener);
+        return queuedListener;
+    }
+
+    /**
+     * 
+     * @return the executor for listeners which are added with options that do not specify an executor, may be
+     *         {@literal null}.
+     */
+    Executor getListenerExecutor() {
+        return listenerExecutor;
+    }
+
+    /**
+     * Add a new listener for a single channel. The listener is notified only about messages and subscription changes of the
+     * channel. The listener does not subscribe the channel.
+     * 
+     * @param channel Channel.
+     * @param listener Listener.
+     */
+    @Override
+    public void addChannelListener(K channel, RedisPubSubListener<K, V> listener) {
+        addScopedListener(channelListeners, channel, listener);
+    }
+
+    /**
+     * Remove a listener for a single channel.
+     * 
+     * @param channel Channel.
+     * @param listener Listener.
+     */
+    @Override
+    public void removeChannelListener(K channel, RedisPubSubListener<K, V> listener) {
+        removeScopedListener(channelListeners, channel, listener);
+    }
+
+    /**
+     * Add a new listener for a single pattern. The listener is notified only about messages that match the pattern
+     * subscription and about subscription changes of the pattern. The listener does not subscribe the pattern.
+     * 
+     * @param pattern Pattern.
+     * @param listener Listener.
+     */
+    @Override
+    public void addPatternListener(K pattern, RedisPubSubListener<K, V> listener) {
+        addScopedListener(patternListeners, pattern, listener);
+    }
+
+    /**
+     * Remove a listener for a single pattern.
+     * 
+     * @param pattern Pattern.
+     * @param listener Listener.
+     */
+    @Override
+    public void removePatternListener(K pattern, RedisPubSubListener<K, V> listener) {
+        removeScopedListener(patternListeners, pattern, listener);
+    }
+
+    /**
+     * Remove an existing listener. A listener that was added with {@link PubSubListenerOptions options} stops receiving
+     * notifications, its queued notifications are discarded.
      * 
      * @param listener Listener.
      */
+    @SuppressWarnings("unchecked")
     public void removeListener(RedisPubSubListener<K, V> listener) {
+        for (RedisPubSubListener<K, V> registered : listeners) {
+            if (registered instanceof QueuedPubSubListener) {
+                QueuedPubSubListener<K, V> queuedListener = (QueuedPubSubListener<K, V>) registered;
+                if (queuedListener.getListener() == listener) {
+                    queuedListener.close();
+                    listeners.remove(queuedListener);
+                }
+            }
+        }
         listeners.remove(listener);
     }
 
@@ -108,6 +217,11 @@ public class RedisPubSubConnectionImpl<K, V> extends RedisAsyncConnectionImpl<K,
     @SuppressWarnings("unchecked")
     public void channelRead(Object msg) {
         PubSubOutput<K, V> output = (PubSubOutput<K, V>) msg;
+        if (output.type() == PubSubOutput.Type.message || output.type() == PubSubOutput.Type.pmessage) {
+            deliver(output);
+            return;
+        }
+
         // update internal state
         switch (output.type()) {
 	        case psubscribe:
@@ -127,31 +241,139 @@ public class RedisPubSubConnectionImpl<K, V> extends RedisAsyncConnectionImpl<K,
         }
         // update listeners
         for (RedisPubSubListener<K, V> listener : listeners) {
-            switch (output.type()) {
-                case message:
-                    listener.message(output.channel(), output.get());
-                    break;
-                case pmessage:
-                    listener.message(output.pattern(), output.channel(), output.get());
-                    break;
-                case psubscribe:
-                    listener.psubscribed(output.pattern(), output.count());
-                    break;
-                case punsubscribe:
-                    listener.punsubscribed(output.pattern(), output.count());
-                    break;
-                case subscribe:
-                    listener.subscribed(output.channel(), output.count());
-                    break;
-                case unsubscribe:
-                    listener.unsubscribed(output.channel(), output.count());
-                    break;
-                default:
-                    throw new UnsupportedOperationException("Operation " + output.type() + " not supported");
+            notify(listener, output);
+        }
+
+        List<RedisPubSubListener<K, V>> interested;
+        switch (output.type()) {
+            case subscribe:
+            case unsubscribe:
+                interested = getScopedListeners(channelListeners, output.channel());
+                break;
+            case psubscribe:
+            case punsubscribe:
+                interested = getScopedListeners(patternListeners, output.pattern());
+                break;
+            default:
+                interested = null;
+                break;
+        }
+
+        if (interested != null) {
+            for (RedisPubSubListener<K, V> listener : interested) {
+                notify(listener, output);
+            }
+        }
+    }
+
+    /**
+     * Deliver a message to the listeners. The channel, pattern and value are passed directly to the listeners, messages do
+     * not change the subscription state.
+     */
+    private void deliver(PubSubOutput<K, V> output) {
+        K channel = output.channel();
+        V message = output.get();
+
+        if (output.type() == PubSubOutput.Type.message) {
+            for (RedisPubSubListener<K, V> listener : listeners) {
+                listener.message(channel, message);
+            }
+
+            List<RedisPubSubListener<K, V>> interested = getScopedListeners(channelListeners, channel);
+            if (interested != null) {
+                for (RedisPubSubListener<K, V> listener : interested) {
+                    listener.message(channel, message);
+                }
+            }
+            return;
+        }
+
+        K pattern = output.pattern();
+        for (RedisPubSubListener<K, V> listener : listeners) {
+            listener.message(pattern, channel, message);
+        }
+
+        List<RedisPubSubListener<K, V>> interested = getScopedListeners(patternListeners, pattern);
+        if (interested != null) {
+            for (RedisPubSubListener<K, V> listener : interested) {
+                listener.message(pattern, channel, message);
             }
         }
     }
 
+    private List<RedisPubSubListener<K, V>> getScopedListeners(
+            ConcurrentMap<Object, List<RedisPubSubListener<K, V>>> scoped, K key) {
+        if (key == null || scoped.isEmpty()) {
+            return null;
+        }
+        return scoped.get(mapKey(key));
+    }
+
+    /**
+     * Notify a listener about a subscription change. Messages are delivered by {@link #deliver(PubSubOutput)}.
+     */
+    private void notify(RedisPubSubListener<K, V> listener, PubSubOutput<K, V> output) {
+        switch (output.type()) {
+            case psubscribe:
+                listener.psubscribed(output.pattern(), output.count());
+                break;
+            case punsubscribe:
+                listener.punsubscribed(output.pattern(), output.count());
+                break;
+            case subscribe:
+                listener.subscribed(output.channel(), output.count());
+                break;
+            case unsubscribe:
+                listener.unsubscribed(output.channel(), output.count());
+                break;
+            default:
+                throw new UnsupportedOperationException("Operation " + output.type() + " not supported");
+        }
+    }
+
+    private void addScopedListener(ConcurrentMap<Object, List<RedisPubSubListener<K, V>>> scoped, K key,
+            RedisPubSubListener<K, V> listener) {
+
+        checkArgument(key != null, "Channel/pattern must not be null");
+        checkArgument(listener != null, "RedisPubSubListener must not be null");
+
+        Object mapKey = mapKey(key);
+        // guarded against a concurrent remove that drops the list after it was looked up
+        synchronized (scoped) {
+            List<RedisPubSubListener<K, V>> interested = scoped.get(mapKey);
+            if (interested == null) {
+                interested = new CopyOnWriteArrayList<RedisPubSubListener<K, V>>();
+                scoped.put(mapKey, interested);
+            }
+            interested.add(listener);
+        }
+    }
+
+    private void removeScopedListener(ConcurrentMap<Object, List<RedisPubSubListener<K, V>>> scoped, K key,
+            RedisPubSubListener<K, V> listener) {
+
+        Object mapKey = mapKey(key);
+        synchronized (scoped) {
+            List<RedisPubSubListener<K, V>> interested = scoped.get(mapKey);
+            if (interested != null) {
+                interested.remove(listener);
+                if (interested.isEmpty()) {
+                    scoped.remove(mapKey);
+                }
+            }
+        }
+    }
+
+    /**
+     * Binary keys do not implement {@link Object#equals(Object)}, they are compared by content.
+     */
+    private Object mapKey(K key) {
+        if (key instanceof byte[]) {
+            return ByteBuffer.wrap((byte[]) key);
+        }
+        return key;
+    }
+
     private CommandArgs<K, V> args(K... keys) {
         CommandArgs<K, V> args = new CommandArgs<K, V>(codec);
         args.addKeys(keys);
@@ -0,0 +1,237 @@
+package com.lambdaworks.redis.pubsub;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.lambdaworks.redis.cluster.SlotHash;
+import com.lambdaworks.redis.codec.RedisCodec;
+
+/**
+ * Pub/sub facade that spreads subscriptions across multiple pub/sub connections. Every connection has its own socket and is
+ * decoded independently, so the inbound message throughput scales with the number of connections. A channel is subscribed
+ * on the connection that is selected by the hash of the channel name (the {@link SlotHash slot hash}, hash tags can be used
+ * to place channels on the same connection). A pattern is subscribed on the connection selected by the hash of the pattern,
+ * so every matching message is received exactly once.
+ *
+ * Every connection renews its subscriptions after a reconnect. Listeners that are added for all channels are registered on
+ * every connection, the subscription counts that are passed to them are the counts of the individual connection.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class ShardedPubSubConnection<K, V> implements Closeable {
+
+    private final RedisCodec<K, V> codec;
+    private final List<RedisPubSubConnectionImpl<K, V>> shards;
+
+    /**
+     * Create a new sharded pub/sub connection.
+     *
+     * @param codec Codec used to encode the channels and patterns for sharding.
+     * @param shards the pub/sub connections, must not be empty
+     */
+    public ShardedPubSubConnection(RedisCodec<K, V> codec, List<RedisPubSubConnectionImpl<K, V>> shards) {
+        checkArgument(codec != null, "RedisCodec must not be null");
+        checkArgument(shards != null && !shards.isEmpty(), "shards must not be empty");
+        this.codec = codec;
+        this.shards = Collections.unmodifiableList(Lists.newArrayList(shards));
+    }
+
+    /**
+     * Add a new listener for all channels and patterns.
+     *
+     * @param listener Listener.
+     */
+    public void addListener(RedisPubSubListener<K, V> listener) {
+        for (RedisPubSubConnectionImpl<K, V> shard : shards) {
+            shard.addListener(listener);
+        }
+    }
+
+    /**
+     * Add a new listener for all channels and patterns which is notified off the I/O threads. The notifications of all
+     * connections are queued in one queue.
+     *
+     * @param listener Listener.
+     * @param options Delivery options.
+     * @return the queued listener that exposes the delivery metrics.
+     */
+    public QueuedPubSubListener<K, V> addListener(RedisPubSubListener<K, V> listener, PubSubListenerOptions options) {
+        QueuedPubSubListener<K, V> queuedListener = new QueuedPubSubListener<K, V>(listener, options, shards.get(0)
+                .getListenerExecutor());
+        addListener(queuedListener);
+        return queuedListener;
+    }
+
+    /**
+     * Remove an existing listener.
+     *
+     * @param listener Listener.
+     */
+    public void removeListener(RedisPubSubListener<K, V> listener) {
+        for (RedisPubSubConnectionImpl<K, V> shard : shards) {
+            shard.removeListener(listener);
+        }
+    }
+
+    /**
+     * Add a new listener for a single channel.
+     *
+     * @param channel Channel.
+     * @param listener Listener.
+     * @see RedisPubSubConnection#addChannelListener(Object, RedisPubSubListener)
+     */
+    public void addChannelListener(K channel, RedisPubSubListener<K, V> listener) {
+        getShard(channel).addChannelListener(channel, listener);
+    }
+
+    /**
+     * Remove a listener for a single channel.
+     *
+     * @param channel Channel.
+     * @param listener Listener.
+     */
+    public void removeChannelListener(K channel, RedisPubSubListener<K, V> listener) {
+        getShard(channel).removeChannelListener(channel, listener);
+    }
+
+    /**
+     * Add a new listener for a single pattern.
+     *
+     * @param pattern Pattern.
+     * @param listener Listener.
+     * @see RedisPubSubConnection#addPatternListener(Object, RedisPubSubListener)
+     */
+    public void addPatternListener(K pattern, RedisPubSubListener<K, V> listener) {
+        getShard(pattern).addPatternListener(pattern, listener);
+    }
+
+    /**
+     * Remove a listener for a single pattern.
+     *
+     * @param pattern Pattern.
+     * @param listener Listener.
+     */
+    public void removePatternListener(K pattern, RedisPubSubListener<K, V> listener) {
+        getShard(pattern).removePatternListener(pattern, listener);
+    }
+
+    /**
+     * Listen for messages published to the given channels.
+     *
+     * @param channels the channels
+     */
+    public void subscribe(K... channels) {
+        for (Map.Entry<RedisPubSubConnectionImpl<K, V>, List<K>> entry : partition(channels).entrySet()) {
+            entry.getKey().subscribe(toArray(entry.getValue()));
+        }
+    }
+
+    /**
+     * Stop listening for messages posted to the given channels. Without channels, all shards unsubscribe from all channels.
+     *
+     * @param channels the channels
+     */
+    public void unsubscribe(K... channels) {
+        if (channels.length == 0) {
+            for (RedisPubSubConnectionImpl<K, V> shard : shards) {
+                shard.unsubscribe(channels);
+            }
+            return;
+        }
+
+        for (Map.Entry<RedisPubSubConnectionImpl<K, V>, List<K>> entry : partition(channels).entrySet()) {
+            entry.getKey().unsubscribe(toArray(entry.getValue()));
+        }
+    }
+
+    /**
+     * Listen for messages published to channels matching the given patterns.
+     *
+     * @param patterns the patterns
+     */
+    public void psubscribe(K... patterns) {
+        for (Map.Entry<RedisPubSubConnectionImpl<K, V>, List<K>> entry : partition(patterns).entrySet()) {
+            entry.getKey().psubscribe(toArray(entry.getValue()));
+        }
+    }
+
+    /**
+     * Stop listening for messages posted to channels matching the given patterns. Without patterns, all shards unsubscribe
+     * from all patterns.
+     *
+     * @param patterns the patterns
+     */
+    public void punsubscribe(K... patterns) {
+        if (patterns.length == 0) {
+            for (RedisPubSubConnectionImpl<K, V> shard : shards) {
+                shard.punsubscribe(patterns);
+            }
+            return;
+        }
+
+        for (Map.Entry<RedisPubSubConnectionImpl<K, V>, List<K>> entry : partition(patterns).entrySet()) {
+            entry.getKey().punsubscribe(toArray(entry.getValue()));
+        }
+    }
+
+    /**
+     * Retrieve the connection that is responsible for a channel or a pattern.
+     *
+     * @param channelOrPattern the channel or the pattern
+     * @return the pub/sub connection.
+     */
+    public RedisPubSubConnectionImpl<K, V> getShard(K channelOrPattern) {
+        checkArgument(channelOrPattern != null, "Channel/pattern must not be null");
+        return shards.get(SlotHash.getSlot(codec.encodeKey(channelOrPattern)) % shards.size());
+    }
+
+    /**
+     *
+     * @return the pub/sub connections.
+     */
+    public List<RedisPubSubConnectionImpl<K, V>> getShards() {
+        return shards;
+    }
+
+    /**
+     * Close all pub/sub connections.
+     */
+    @Override
+    public void close() {
+        for (RedisPubSubConnectionImpl<K, V> shard : shards) {
+            if (!shard.isClosed()) {
+                shard.close();
+            }
+        }
+    }
+
+    private Map<RedisPubSubConnectionImpl<K, V>, List<K>> partition(K... keys) {
+
+        Map<RedisPubSubConnectionImpl<K, V>, List<K>> partitioned = Maps.newLinkedHashMap();
+        for (K key : keys) {
+            RedisPubSubConnectionImpl<K, V> shard = getShard(key);
+            List<K> shardKeys = partitioned.get(shard);
+            if (shardKeys == null) {
+                shardKeys = Lists.newArrayList();
+                partitioned.put(shard, shardKeys);
+            }
+            shardKeys.add(key);
+        }
+        return partitioned;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K[] toArray(List<K> keys) {
+        // the element type is erased, the runtime type of the keys may differ
+        return (K[]) keys.toArray();
+    }
+}
@@ -0,0 +1,195 @@
+package com.lambdaworks.redis.reactive;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.lambdaworks.redis.RedisCommandExecutionException;
+import com.lambdaworks.redis.RedisFuture;
+
+/**
+ * Subscription that fetches its elements page by page. A page is fetched only if all elements of the previous page are
+ * published and the subscriber has outstanding demand, so at most one page is held in memory and no command is sent while the
+ * subscriber does not request elements. Signals are serialized, {@link Subscriber#onNext(Object)} is called either on the
+ * thread that requested elements or on the I/O thread that completed the page.
+ *
+ * @param <T> Element type.
+ * @param <P> Page type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+abstract class PagingSubscription<T, P> implements Subscription {
+
+    private final Subscriber<? super T> subscriber;
+    private final Queue<T> buffer = new ConcurrentLinkedQueue<T>();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private volatile boolean terminated;
+    private volatile boolean fetching;
+    private volatile boolean lastPage;
+    private volatile Throwable error;
+    private volatile P page;
+
+    protected PagingSubscription(Subscriber<? super T> subscriber) {
+        this.subscriber = subscriber;
+    }
+
+    /**
+     * Fetch the next page.
+     *
+     * @param previous the previous page, {@literal null} to fetch the first page
+     * @return the future page.
+     */
+    protected abstract RedisFuture<P> fetch(P previous);
+
+    /**
+     *
+     * @param page the page
+     * @return the elements of the page, may be empty.
+     */
+    protected abstract Collection<T> getElements(P page);
+
+    /**
+     *
+     * @param page the page
+     * @return true if no further page is available.
+     */
+    protected abstract boolean isLast(P page);
+
+    /**
+     * Hand this subscription to the subscriber.
+     */
+    void start() {
+        subscriber.onSubscribe(this);
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            error = new IllegalArgumentException("Requested elements must be greater than 0");
+            buffer.clear();
+            drain();
+            return;
+        }
+
+        for (;;) {
+            long current = demand.get();
+            long next = current + n;
+            if (next < 0) {
+                next = Long.MAX_VALUE;
+            }
+            if (demand.compareAndSet(current, next)) {
+                break;
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        terminated = true;
+        drain();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        do {
+            emit();
+        } while (wip.decrementAndGet() != 0);
+    }
+
+    private void emit() {
+        while (!terminated) {
+            if (!buffer.isEmpty()) {
+                if (demand.get() == 0) {
+                    return;
+                }
+
+                T element = buffer.poll();
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+
+                try {
+                    subscriber.onNext(element);
+                } catch (RuntimeException e) {
+                    terminated = true;
+                    subscriber.onError(e);
+                }
+                continue;
+            }
+
+            if (error != null) {
+                terminated = true;
+                subscriber.onError(error);
+                return;
+            }
+
+            if (lastPage) {
+                terminated = true;
+                subscriber.onComplete();
+                return;
+            }
+
+            if (demand.get() == 0 || fetching) {
+                return;
+            }
+
+            fetching = true;
+            try {
+                fetchPage();
+            } catch (RuntimeException e) {
+                error = e;
+                fetching = false;
+                continue;
+            }
+            return;
+        }
+
+        buffer.clear();
+    }
+
+    private void fetchPage() {
+        final RedisFuture<P> future = fetch(page);
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                onPage(future);
+            }
+        }, MoreExecutors.sameThreadExecutor());
+    }
+
+    private void onPage(RedisFuture<P> future) {
+        try {
+            P result = future.get();
+            if (future.getError() != null) {
+                error = new RedisCommandExecutionException(future.getError());
+            } else {
+                page = result;
+                buffer.addAll(getElements(result));
+                lastPage = isLast(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = e;
+        } catch (ExecutionException e) {
+            error = e.getCause();
+        } catch (CancellationException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            error = e;
+        }
+
+        fetching = false;
+        drain();
+    }
+}
@@ -0,0 +1,21 @@
+package com.lambdaworks.redis.reactive;
+
+/**
+ * A provider of a potentially unbounded number of elements. The elements are published according to the demand which is
+ * signalled by the {@link Subscriber} using its {@link Subscription}. The contract follows the
+ * <a href="http://www.reactive-streams.org">Reactive Streams</a> specification.
+ *
+ * @param <T> Element type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public interface Publisher<T> {
+
+    /**
+     * Request the {@link Publisher} to start streaming elements. Every call starts a new {@link Subscription}, nothing is
+     * published before the {@link Subscriber} requests elements.
+     *
+     * @param subscriber the subscriber, must not be {@literal null}
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+}
@@ -0,0 +1,301 @@
+package com.lambdaworks.redis.reactive;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.lambdaworks.redis.KeyScanCursor;
+import com.lambdaworks.redis.KeyValue;
+import com.lambdaworks.redis.MapScanCursor;
+import com.lambdaworks.redis.RedisAsyncConnection;
+import com.lambdaworks.redis.RedisFuture;
+import com.lambdaworks.redis.ScanArgs;
+import com.lambdaworks.redis.ScoredValue;
+import com.lambdaworks.redis.ScoredValueScanCursor;
+import com.lambdaworks.redis.ValueScanCursor;
+
+/**
+ * Reactive facade for a {@link RedisAsyncConnection}. The publishers read large results in pages and fetch the next page only
+ * when the subscriber has requested more elements, a slow subscriber stops the commands instead of buffering the whole
+ * result. The <code>SCAN</code> family is published as one continuous sequence across all cursor iterations.
+ *
+ * The connection is shared with other commands and is never suspended, backpressure is applied by not issuing the next page
+ * command. Every subscription runs its own iteration, the publishers are cold.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class RedisReactiveConnection<K, V> implements Closeable {
+
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    private final RedisAsyncConnection<K, V> connection;
+
+    /**
+     * Create a new reactive connection.
+     *
+     * @param connection the underlying connection, must not be {@literal null}
+     */
+    public RedisReactiveConnection(RedisAsyncConnection<K, V> connection) {
+        checkArgument(connection != null, "RedisAsyncConnection must not be null");
+        this.connection = connection;
+    }
+
+    /**
+     * Incrementally iterate the keys space.
+     *
+     * @return publisher of the keys.
+     */
+    public Publisher<K> scan() {
+        return scan(null);
+    }
+
+    /**
+     * Incrementally iterate the keys space.
+     *
+     * @param scanArgs scan arguments, may be {@literal null}
+     * @return publisher of the keys.
+     */
+    public Publisher<K> scan(final ScanArgs scanArgs) {
+        return new Publisher<K>() {
+            @Override
+            public void subscribe(Subscriber<? super K> subscriber) {
+                checkSubscriber(subscriber);
+                new PagingSubscription<K, KeyScanCursor<K>>(subscriber) {
+                    @Override
+                    protected RedisFuture<KeyScanCursor<K>> fetch(KeyScanCursor<K> previous) {
+                        return connection.scan(previous, scanArgs);
+                    }
+
+                    @Override
+                    protected Collection<K> getElements(KeyScanCursor<K> page) {
+                        return page.getKeys();
+                    }
+
+                    @Override
+                    protected boolean isLast(KeyScanCursor<K> page) {
+                        return page.isFinished();
+                    }
+                }.start();
+            }
+        };
+    }
+
+    /**
+     * Incrementally iterate hash fields and associated values.
+     *
+     * @param key the key
+     * @return publisher of the fields and values.
+     */
+    public Publisher<KeyValue<K, V>> hscan(K key) {
+        return hscan(key, null);
+    }
+
+    /**
+     * Incrementally iterate hash fields and associated values.
+     *
+     * @param key the key
+     * @param scanArgs scan arguments, may be {@literal null}
+     * @return publisher of the fields and values.
+     */
+    public Publisher<KeyValue<K, V>> hscan(final K key, final ScanArgs scanArgs) {
+        return new Publisher<KeyValue<K, V>>() {
+            @Override
+            public void subscribe(Subscriber<? super KeyValue<K, V>> subscriber) {
+                checkSubscriber(subscriber);
+                new PagingSubscription<KeyValue<K, V>, MapScanCursor<K, V>>(subscriber) {
+                    @Override
+                    protected RedisFuture<MapScanCursor<K, V>> fetch(MapScanCursor<K, V> previous) {
+                        return connection.hscan(key, previous, scanArgs);
+                    }
+
+                    @Override
+                    protected Collection<KeyValue<K, V>> getElements(MapScanCursor<K, V> page) {
+                        List<KeyValue<K, V>> elements = new ArrayList<KeyValue<K, V>>(page.getMap().size());
+                        for (Map.Entry<K, V> entry : page.getMap().entrySet()) {
+                            elements.add(new KeyValue<K, V>(entry.getKey(), entry.getValue()));
+                        }
+                        return elements;
+                    }
+
+                    @Override
+                    protected boolean isLast(MapScanCursor<K, V> page) {
+                        return page.isFinished();
+                    }
+                }.start();
+            }
+        };
+    }
+
+    /**
+     * Incrementally iterate set elements.
+     *
+     * @param key the key
+     * @return publisher of the members.
+     */
+    public Publisher<V> sscan(K key) {
+        return sscan(key, null);
+    }
+
+    /**
+     * Incrementally iterate set elements.
+     *
+     * @param key the key
+     * @param scanArgs scan arguments, may be {@literal null}
+     * @return publisher of the members.
+     */
+    public Publisher<V> sscan(final K key, final ScanArgs scanArgs) {
+        return new Publisher<V>() {
+            @Override
+            public void subscribe(Subscriber<? super V> subscriber) {
+                checkSubscriber(subscriber);
+                new PagingSubscription<V, ValueScanCursor<V>>(subscriber) {
+                    @Override
+                    protected RedisFuture<ValueScanCursor<V>> fetch(ValueScanCursor<V> previous) {
+                        return connection.sscan(key, previous, scanArgs);
+                    }
+
+                    @Override
+                    protected Collection<V> getElements(ValueScanCursor<V> page) {
+                        return page.getValues();
+                    }
+
+                    @Override
+                    protected boolean isLast(ValueScanCursor<V> page) {
+                        return page.isFinished();
+                    }
+                }.start();
+            }
+        };
+    }
+
+    /**
+     * Incrementally iterate sorted sets elements and associated scores.
+     *
+     * @param key the key
+     * @return publisher of the scored values.
+     */
+    public Publisher<ScoredValue<V>> zscan(K key) {
+        return zscan(key, null);
+    }
+
+    /**
+     * Incrementally iterate sorted sets elements and associated scores.
+     *
+     * @param key the key
+     * @param scanArgs scan arguments, may be {@literal null}
+     * @return publisher of the scored values.
+     */
+    public Publisher<ScoredValue<V>> zscan(final K key, final ScanArgs scanArgs) {
+        return new Publisher<ScoredValue<V>>() {
+            @Override
+            public void subscribe(Subscriber<? super ScoredValue<V>> subscriber) {
+                checkSubscriber(subscriber);
+                new PagingSubscription<ScoredValue<V>, ScoredValueScanCursor<V>>(subscriber) {
+                    @Override
+                    protected RedisFuture<ScoredValueScanCursor<V>> fetch(ScoredValueScanCursor<V> previous) {
+                        return connection.zscan(key, previous, scanArgs);
+                    }
+
+                    @Override
+                    protected Collection<ScoredValue<V>> getElements(ScoredValueScanCursor<V> page) {
+                        return page.getValues();
+                    }
+
+                    @Override
+                    protected boolean isLast(ScoredValueScanCursor<V> page) {
+                        return page.isFinished();
+                    }
+                }.start();
+            }
+        };
+    }
+
+    /**
+     * Get a range of elements from a list. The range is read in pages of {@link #DEFAULT_PAGE_SIZE} elements.
+     *
+     * @param key the key
+     * @param start the start offset, must not be negative
+     * @param stop the stop offset (inclusive), {@literal -1} to read to the end of the list
+     * @return publisher of the elements.
+     */
+    public Publisher<V> lrange(K key, long start, long stop) {
+        return lrange(key, start, stop, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Get a range of elements from a list. The range is read in pages of {@code pageSize} elements, every page is a separate
+     * <code>LRANGE</code> so concurrent modifications of the list may shift the elements between pages.
+     *
+     * @param key the key
+     * @param start the start offset, must not be negative
+     * @param stop the stop offset (inclusive), {@literal -1} to read to the end of the list
+     * @param pageSize number of elements per page, must be greater than {@literal 0}
+     * @return publisher of the elements.
+     */
+    public Publisher<V> lrange(final K key, final long start, final long stop, final int pageSize) {
+        checkArgument(start >= 0, "start must not be negative");
+        checkArgument(stop == -1 || stop >= start, "stop must be -1 or greater than or equal to start");
+        checkArgument(pageSize > 0, "pageSize must be greater than 0");
+
+        return new Publisher<V>() {
+            @Override
+            public void subscribe(Subscriber<? super V> subscriber) {
+                checkSubscriber(subscriber);
+                new PagingSubscription<V, List<V>>(subscriber) {
+
+                    private long offset = start;
+                    private boolean last;
+
+                    @Override
+                    protected RedisFuture<List<V>> fetch(List<V> previous) {
+                        long to = offset + pageSize - 1;
+                        if (stop != -1 && to >= stop) {
+                            to = stop;
+                            last = true;
+                        }
+                        RedisFuture<List<V>> future = connection.lrange(key, offset, to);
+                        offset = to + 1;
+                        return future;
+                    }
+
+                    @Override
+                    protected Collection<V> getElements(List<V> page) {
+                        return page;
+                    }
+
+                    @Override
+                    protected boolean isLast(List<V> page) {
+                        return last || page.size() < pageSize;
+                    }
+                }.start();
+            }
+        };
+    }
+
+    /**
+     *
+     * @return the underlying connection.
+     */
+    public RedisAsyncConnection<K, V> getAsyncConnection() {
+        return connection;
+    }
+
+    /**
+     * Close the underlying connection.
+     */
+    @Override
+    public void close() {
+        connection.close();
+    }
+
+    private static void checkSubscriber(Subscriber<?> subscriber) {
+        checkArgument(subscriber != null, "Subscriber must not be null");
+    }
+}
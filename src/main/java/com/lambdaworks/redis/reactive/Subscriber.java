@@ -0,0 +1,40 @@
+package com.lambdaworks.redis.reactive;
+
+/**
+ * Receiver of the elements of a {@link Publisher}. The signals are sent serially, {@link #onNext(Object)} is called at most as
+ * often as elements were requested using {@link Subscription#request(long)}. The stream ends with either
+ * {@link #onComplete()} or {@link #onError(Throwable)} unless the subscription is cancelled.
+ *
+ * @param <T> Element type.
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public interface Subscriber<T> {
+
+    /**
+     * Invoked after {@link Publisher#subscribe(Subscriber)}. No elements are published until demand is signalled using
+     * {@link Subscription#request(long)}.
+     *
+     * @param subscription the subscription
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * Invoked for every published element.
+     *
+     * @param element the element
+     */
+    void onNext(T element);
+
+    /**
+     * Invoked when the stream failed. No further signals are sent.
+     *
+     * @param throwable the cause
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * Invoked when all elements were published. No further signals are sent.
+     */
+    void onComplete();
+}
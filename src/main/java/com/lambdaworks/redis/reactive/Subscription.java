@@ -0,0 +1,23 @@
+package com.lambdaworks.redis.reactive;
+
+/**
+ * The lifecycle of one {@link Subscriber} subscribing to a {@link Publisher}. A subscription is used to signal demand and to
+ * cancel the stream.
+ *
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public interface Subscription {
+
+    /**
+     * Request {@code n} more elements. Demand is cumulative, a demand of {@link Long#MAX_VALUE} is treated as unbounded.
+     *
+     * @param n number of elements, must be greater than {@literal 0}
+     */
+    void request(long n);
+
+    /**
+     * Stop publishing elements. Elements which are already fetched are discarded.
+     */
+    void cancel();
+}
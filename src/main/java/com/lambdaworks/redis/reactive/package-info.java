@@ -0,0 +1,4 @@
+/**
+ * Reactive API with demand-driven backpressure.
+ */
+package com.lambdaworks.redis.reactive;
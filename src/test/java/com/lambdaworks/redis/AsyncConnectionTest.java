@@ -2,11 +2,17 @@
 
 package com.lambdaworks.redis;
 
+import static com.google.code.tempusfugit.temporal.Duration.*;
+import static com.google.code.tempusfugit.temporal.Timeout.*;
+import static com.google.code.tempusfugit.temporal.WaitFor.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.After;
@@ -15,8 +21,10 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import com.google.code.tempusfugit.temporal.Condition;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.lambdaworks.redis.protocol.CommandType;
 
 public class AsyncConnectionTest extends AbstractCommandTest {
     private RedisAsyncConnection<String, String> async;
@@ -49,6 +57,318 @@ public class AsyncConnectionTest extends AbstractCommandTest {
         assertThat(lrange.get()).isEqualTo(list("1", "2"));
     }
 
+    @Test(timeout = 10000)
+    public void fireAndForget() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        connection.setFireAndForget(true);
+
+        RedisFuture<String> set = connection.set(key, value);
+        RedisFuture<Long> rpush = connection.rpush("list", "1", "2");
+        assertThat(set.isDone()).isTrue();
+        assertThat(set.get()).isNull();
+        assertThat(rpush).isSameAs((Object) set);
+
+        connection.setFireAndForget(false);
+        assertThat(connection.get(key).get()).isEqualTo(value);
+        assertThat(connection.lrange("list", 0, -1).get()).isEqualTo(list("1", "2"));
+    }
+
+    @Test(timeout = 10000)
+    public void fireAndForgetSyncReturnsNull() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        RedisConnection<String, String> sync = (RedisConnection<String, String>) AbstractRedisClient.syncHandler(connection,
+                RedisConnection.class);
+        connection.setFireAndForget(true);
+
+        assertThat(sync.set(key, value)).isNull();
+        assertThat(sync.get(key)).isNull();
+        assertThat(sync.ping()).isNull();
+
+        connection.setFireAndForget(false);
+        assertThat(sync.get(key)).isEqualTo(value);
+    }
+
+    @Test(timeout = 10000)
+    public void fireAndForgetErrors() throws Exception {
+        final BlockingQueue<String> errors = new LinkedBlockingQueue<String>();
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        connection.addErrorListener(new RedisCommandErrorListener() {
+            @Override
+            public void onCommandError(RedisChannelHandler<?, ?> connection, CommandType type, String error) {
+                errors.add(type + " " + error);
+            }
+        });
+
+        redis.set(key, value);
+        connection.setFireAndForget(true);
+        connection.hset(key, "field", value);
+        connection.set("other", value);
+
+        assertThat(errors.take()).startsWith("HSET WRONGTYPE");
+        connection.setFireAndForget(false);
+        assertThat(connection.get("other").get()).isEqualTo(value);
+        assertThat(errors).isEmpty();
+    }
+
+    @Test(timeout = 10000)
+    public void fireAndForgetExcludesTransactions() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        connection.setFireAndForget(true);
+
+        assertThat(connection.multi().get()).isEqualTo("OK");
+        Future<String> set = connection.set(key, value);
+        assertThat(set.isDone()).isFalse();
+        assertThat(connection.exec().get()).isEqualTo(list("OK"));
+        assertThat(set.get()).isEqualTo("OK");
+    }
+
+    @Test(timeout = 10000)
+    public void singleFlight() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        connection.setSingleFlight(true);
+        redis.set(key, value);
+        redis.configResetstat();
+
+        // keeps the following commands in flight
+        RedisFuture<KeyValue<String, String>> blpop = connection.blpop(1, "list");
+        List<RedisFuture<String>> gets = new ArrayList<RedisFuture<String>>();
+        for (int i = 0; i < 10; i++) {
+            gets.add(connection.get(key));
+        }
+        RedisFuture<String> other = connection.get("other");
+
+        assertThat(blpop.get()).isNull();
+        for (RedisFuture<String> get : gets) {
+            assertThat(get.get()).isEqualTo(value);
+        }
+        assertThat(other.get()).isNull();
+        assertThat(redis.info("commandstats")).contains("cmdstat_get:calls=2,");
+    }
+
+    @Test(timeout = 10000)
+    public void singleFlightErrors() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        connection.setSingleFlight(true);
+        redis.hset(key, "field", value);
+
+        RedisFuture<KeyValue<String, String>> blpop = connection.blpop(1, "list");
+        RedisFuture<String> first = connection.get(key);
+        RedisFuture<String> second = connection.get(key);
+
+        assertThat(blpop.get()).isNull();
+        assertThat(first.get()).isNull();
+        assertThat(second.get()).isNull();
+        assertThat(first.getError()).startsWith("WRONGTYPE");
+        assertThat(second.getError()).startsWith("WRONGTYPE");
+    }
+
+    @Test(timeout = 10000)
+    public void singleFlightReadsAfterWrite() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        connection.setSingleFlight(true);
+        redis.set(key, value);
+        redis.configResetstat();
+
+        RedisFuture<KeyValue<String, String>> blpop = connection.blpop(1, "list");
+        RedisFuture<String> before = connection.get(key);
+        connection.set(key, "changed");
+        RedisFuture<String> after = connection.get(key);
+
+        assertThat(blpop.get()).isNull();
+        assertThat(before.get()).isEqualTo(value);
+        assertThat(after.get()).isEqualTo("changed");
+        assertThat(redis.info("commandstats")).contains("cmdstat_get:calls=2,");
+    }
+
+    @Test(timeout = 10000)
+    public void singleFlightCopiesCollections() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        connection.setSingleFlight(true);
+        redis.rpush(key, "a", "b");
+        redis.hset("hash", "field", value);
+        redis.configResetstat();
+
+        RedisFuture<KeyValue<String, String>> blpop = connection.blpop(1, "list");
+        RedisFuture<List<String>> first = connection.lrange(key, 0, -1);
+        RedisFuture<List<String>> second = connection.lrange(key, 0, -1);
+        RedisFuture<Map<String, String>> firstHash = connection.hgetall("hash");
+        RedisFuture<Map<String, String>> secondHash = connection.hgetall("hash");
+
+        assertThat(blpop.get()).isNull();
+        first.get().clear();
+        firstHash.get().clear();
+        assertThat(second.get()).containsExactly("a", "b");
+        assertThat(secondHash.get()).containsEntry("field", value);
+        assertThat(redis.info("commandstats")).contains("cmdstat_lrange:calls=1,").contains("cmdstat_hgetall:calls=1,");
+    }
+
+    @Test(timeout = 10000)
+    public void singleFlightCancelFirstCaller() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        connection.setSingleFlight(true);
+        redis.set(key, value);
+
+        RedisFuture<KeyValue<String, String>> blpop = connection.blpop(1, "list");
+        RedisFuture<String> first = connection.get(key);
+        RedisFuture<String> second = connection.get(key);
+        first.cancel(true);
+
+        assertThat(blpop.get()).isNull();
+        assertThat(second.get()).isEqualTo(value);
+        assertThat(second.isCancelled()).isFalse();
+        assertThat(first.isCancelled()).isTrue();
+    }
+
+    @Test(timeout = 10000)
+    public void autoBatching() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        redis.set("a", "1");
+        redis.set("b", "2");
+        redis.hset("hash", "f1", "v1");
+        redis.hset("hash", "f2", "v2");
+        redis.configResetstat();
+        connection.setAutoBatching(AutoBatchOptions.Builder.window(1, TimeUnit.SECONDS));
+
+        RedisFuture<String> a = connection.get("a");
+        RedisFuture<String> b = connection.get("b");
+        RedisFuture<String> missing = connection.get("missing");
+        RedisFuture<String> f1 = connection.hget("hash", "f1");
+        RedisFuture<String> f2 = connection.hget("hash", "f2");
+        RedisFuture<Boolean> exists = connection.exists("a");
+        RedisFuture<String> setC = connection.set("c", "3");
+        RedisFuture<String> setD = connection.set("d", "4");
+        assertThat(a.isDone()).isFalse();
+
+        connection.setAutoBatching(null);
+
+        assertThat(a.get()).isEqualTo("1");
+        assertThat(b.get()).isEqualTo("2");
+        assertThat(missing.get()).isNull();
+        assertThat(f1.get()).isEqualTo("v1");
+        assertThat(f2.get()).isEqualTo("v2");
+        assertThat(exists.get()).isTrue();
+        assertThat(setC.get()).isEqualTo("OK");
+        assertThat(setD.get()).isEqualTo("OK");
+
+        String commandstats = redis.info("commandstats");
+        assertThat(commandstats).contains("cmdstat_mget:calls=1,").contains("cmdstat_mset:calls=1,")
+                .contains("cmdstat_hmget:calls=1,").doesNotContain("cmdstat_get:").doesNotContain("cmdstat_hget:");
+        assertThat(redis.get("d")).isEqualTo("4");
+    }
+
+    @Test(timeout = 10000)
+    public void autoBatchingWindow() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        redis.set(key, value);
+        connection.setAutoBatching(AutoBatchOptions.Builder.window(10, TimeUnit.MILLISECONDS));
+
+        assertThat(connection.get(key).get()).isEqualTo(value);
+        assertThat(connection.get("missing").get()).isNull();
+    }
+
+    @Test(timeout = 10000)
+    public void autoBatchingMaxBatchSize() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        redis.set(key, value);
+        connection.setAutoBatching(AutoBatchOptions.Builder.maxBatchSize(2).window(1, TimeUnit.MINUTES));
+
+        RedisFuture<String> first = connection.get(key);
+        RedisFuture<String> second = connection.get(key);
+
+        assertThat(first.get()).isEqualTo(value);
+        assertThat(second.get()).isEqualTo(value);
+    }
+
+    @Test(timeout = 10000)
+    public void autoBatchingKeepsOrder() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        redis.set(key, value);
+        connection.setAutoBatching(AutoBatchOptions.Builder.window(1, TimeUnit.MINUTES));
+
+        RedisFuture<String> before = connection.get(key);
+        connection.set(key, "changed");
+        RedisFuture<String> after = connection.get(key);
+        RedisFuture<Long> append = connection.append(key, "!");
+
+        assertThat(append.get()).isEqualTo(8);
+        assertThat(before.get()).isEqualTo(value);
+        assertThat(after.get()).isEqualTo("changed");
+    }
+
+    @Test(timeout = 10000)
+    public void registeredScript() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        String script = "return {KEYS[1], ARGV[1]}";
+        String digest = redis.digest(script);
+
+        assertThat(connection.registerScript(script).get()).isEqualTo(digest);
+        assertThat(connection.getScriptDigest(script)).isEqualTo(digest);
+        assertThat(redis.scriptExists(digest)).containsExactly(true);
+
+        redis.scriptFlush();
+        redis.configResetstat();
+
+        String[] keys = { key };
+        assertThat(connection.<List<Object>> eval(script, ScriptOutputType.MULTI, keys, value).get()).isEqualTo(
+                list(key, value));
+        assertThat(connection.<List<Object>> eval(script, ScriptOutputType.MULTI, keys, value).get()).isEqualTo(
+                list(key, value));
+
+        String commandstats = redis.info("commandstats");
+        assertThat(commandstats).contains("cmdstat_evalsha:calls=2,").contains("cmdstat_eval:calls=1,");
+    }
+
+    @Test(timeout = 10000)
+    public void registeredScriptUsesEvalUntilLoaded() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        String script = "return redis.call('set', KEYS[1], ARGV[1])";
+        redis.configResetstat();
+
+        // keeps the SCRIPT LOAD reply back until the following commands are dispatched
+        RedisFuture<KeyValue<String, String>> blpop = connection.blpop(1, "list");
+        RedisFuture<String> digest = connection.registerScript(script);
+        RedisFuture<String> eval = connection.eval(script, ScriptOutputType.STATUS, new String[] { key }, value);
+        RedisFuture<String> get = connection.get(key);
+
+        assertThat(blpop.get()).isNull();
+        assertThat(digest.get()).isEqualTo(redis.digest(script));
+        assertThat(eval.get()).isEqualTo("OK");
+        assertThat(get.get()).isEqualTo(value);
+        assertThat(redis.info("commandstats")).contains("cmdstat_eval:calls=1,").doesNotContain("cmdstat_evalsha");
+
+        connection.eval(script, ScriptOutputType.STATUS, new String[] { key }, value).get();
+        assertThat(redis.info("commandstats")).contains("cmdstat_evalsha:calls=1,");
+    }
+
+    @Test(timeout = 10000)
+    public void registeredScriptErrors() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        String script = "return {err='Oops!'}";
+        connection.registerScript(script).get();
+        redis.scriptFlush();
+
+        RedisFuture<String> result = connection.eval(script, ScriptOutputType.STATUS);
+        result.await(1, TimeUnit.SECONDS);
+        assertThat(result.getError()).isEqualTo("Oops!");
+    }
+
+    @Test(timeout = 10000)
+    public void registeredScriptLoadedOnReconnect() throws Exception {
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) async;
+        final String digest = connection.registerScript("return 'reconnect'").get();
+        redis.scriptFlush();
+
+        connection.quit();
+        waitOrTimeout(new Condition() {
+            @Override
+            public boolean isSatisfied() {
+                return redis.scriptExists(digest).get(0);
+            }
+        }, timeout(seconds(5)));
+
+        assertThat(connection.<String> evalsha(digest, ScriptOutputType.VALUE).get()).isEqualTo("reconnect");
+    }
+
     @Test(timeout = 10000)
     public void watch() throws Exception {
         assertThat(async.watch(key).get()).isEqualTo("OK");
@@ -6,6 +6,8 @@ import static com.google.code.tempusfugit.temporal.Duration.*;
 import static com.google.code.tempusfugit.temporal.WaitFor.*;
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Level;
@@ -17,7 +19,12 @@ import org.junit.rules.ExpectedException;
 
 import com.google.code.tempusfugit.temporal.Condition;
 import com.google.code.tempusfugit.temporal.Timeout;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.lambdaworks.redis.codec.Utf8StringCodec;
 import com.lambdaworks.redis.protocol.CommandHandler;
+import com.lambdaworks.redis.pubsub.RedisPubSubAdapter;
+import com.lambdaworks.redis.pubsub.RedisPubSubConnection;
 
 public class ClientTest extends AbstractCommandTest {
     @Rule
@@ -153,6 +160,91 @@ public class ClientTest extends AbstractCommandTest {
         client.connectPubSub();
     }
 
+    @Test
+    public void connectFuture() throws Exception {
+        RedisFuture<RedisAsyncConnection<String, String>> future = client.connectFuture();
+
+        RedisAsyncConnection<String, String> connection = future.get(10, TimeUnit.SECONDS);
+        assertThat(connection.ping().get()).isEqualTo("PONG");
+        connection.close();
+    }
+
+    @Test
+    public void connectFutureFailure() throws Exception {
+        RedisClient client = new RedisClient("invalid");
+        RedisFuture<RedisAsyncConnection<String, String>> future = client.connectFuture();
+
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("Missing ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(RedisConnectionException.class).hasMessageContaining("Unable to connect");
+        }
+        client.shutdown(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void connectFutureWithCodec() throws Exception {
+        RedisURI redisURI = RedisURI.Builder.redis(host, port).build();
+        RedisAsyncConnection<String, String> connection = client.connectFuture(new Utf8StringCodec(), redisURI).get(10,
+                TimeUnit.SECONDS);
+
+        assertThat(connection.ping().get()).isEqualTo("PONG");
+        connection.close();
+    }
+
+    @Test
+    public void connectPubSubFuture() throws Exception {
+        RedisPubSubConnection<String, String> connection = client.connectPubSubFuture().get(10, TimeUnit.SECONDS);
+        final CountDownLatch subscribed = new CountDownLatch(1);
+        connection.addListener(new RedisPubSubAdapter<String, String>() {
+            @Override
+            public void subscribed(String channel, long count) {
+                subscribed.countDown();
+            }
+        });
+
+        connection.subscribe("channel");
+        assertThat(subscribed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(redis.publish("channel", "message")).isEqualTo(1);
+        connection.close();
+    }
+
+    @Test
+    public void connectFutureFromEventLoop() throws Exception {
+        final SettableFuture<String> result = SettableFuture.create();
+        RedisAsyncConnection<String, String> async = client.connectAsync();
+
+        final RedisFuture<String> ping = async.ping();
+        ping.addListener(new Runnable() {
+            @Override
+            public void run() {
+                final RedisFuture<RedisAsyncConnection<String, String>> future = client.connectFuture();
+                future.addListener(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            final RedisAsyncConnection<String, String> connection = future.get();
+                            final RedisFuture<String> pong = connection.ping();
+                            pong.addListener(new Runnable() {
+                                @Override
+                                public void run() {
+                                    result.set(pong.getError() == null ? "PONG" : pong.getError());
+                                    connection.close();
+                                }
+                            }, MoreExecutors.sameThreadExecutor());
+                        } catch (Exception e) {
+                            result.setException(e);
+                        }
+                    }
+                }, MoreExecutors.sameThreadExecutor());
+            }
+        }, MoreExecutors.sameThreadExecutor());
+
+        assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("PONG");
+        async.close();
+    }
+
     private class TestConnectionListener implements RedisConnectionStateListener {
 
         public RedisChannelHandler<?, ?> onConnected;
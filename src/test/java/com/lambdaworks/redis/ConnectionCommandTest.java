@@ -173,6 +173,32 @@ public class ConnectionCommandTest extends AbstractCommandTest {
         }
     }
 
+    @Test
+    public void handshakeReconnect() throws Exception {
+        RedisURI redisURI = RedisURI.Builder.redis(host, port).withDatabase(2).withClientName("handshake").build();
+        RedisConnection<String, String> connection = client.connect(redisURI);
+
+        assertThat(connection.clientGetname()).isEqualTo("handshake");
+        connection.set(key, value);
+        connection.quit();
+
+        assertThat(connection.clientGetname()).isEqualTo("handshake");
+        assertThat(connection.get(key)).isEqualTo(value);
+        assertThat(redis.get(key)).isNull();
+        connection.close();
+    }
+
+    @Test
+    public void handshakeInvalid() throws Exception {
+        RedisURI redisURI = RedisURI.Builder.redis(host, port).withDatabase(1024).build();
+        try {
+            client.connect(redisURI);
+            fail("Connected with invalid db index");
+        } catch (RedisCommandExecutionException e) {
+            assertThat(e.getMessage()).startsWith("ERR");
+        }
+    }
+
     @Test
     public void string() throws Exception {
 
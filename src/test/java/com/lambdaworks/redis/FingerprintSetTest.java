@@ -0,0 +1,90 @@
+package com.lambdaworks.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class FingerprintSetTest {
+
+    @Test
+    public void add() throws Exception {
+        FingerprintSet set = new FingerprintSet(0);
+
+        assertThat(set.add("key")).isTrue();
+        assertThat(set.add("key")).isFalse();
+        assertThat(set.add("other")).isTrue();
+        assertThat(set.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void grow() throws Exception {
+        FingerprintSet set = new FingerprintSet(0);
+        long initialMemory = set.getMemoryUsage();
+
+        for (int i = 0; i < 100000; i++) {
+            assertThat(set.add("key-" + i)).isTrue();
+        }
+
+        for (int i = 0; i < 100000; i++) {
+            assertThat(set.add("key-" + i)).isFalse();
+        }
+
+        assertThat(set.size()).isEqualTo(100000);
+        assertThat(set.getMemoryUsage()).isGreaterThan(initialMemory).isLessThanOrEqualTo(100000 * 8 * 3);
+    }
+
+    @Test
+    public void presized() throws Exception {
+        FingerprintSet set = new FingerprintSet(100000);
+        long memory = set.getMemoryUsage();
+
+        for (int i = 0; i < 100000; i++) {
+            set.add("key-" + i);
+        }
+
+        assertThat(set.getMemoryUsage()).isEqualTo(memory);
+    }
+
+    @Test
+    public void fingerprintByContent() throws Exception {
+        assertThat(FingerprintSet.fingerprint(new byte[] { 1, 2, 3 })).isEqualTo(
+                FingerprintSet.fingerprint(new byte[] { 1, 2, 3 }));
+        assertThat(FingerprintSet.fingerprint(ByteBuffer.wrap(new byte[] { 1, 2, 3 }))).isEqualTo(
+                FingerprintSet.fingerprint(new byte[] { 1, 2, 3 }));
+        assertThat(FingerprintSet.fingerprint(new KeyValue<String, String>("key", "a"))).isEqualTo(
+                FingerprintSet.fingerprint(new KeyValue<String, String>("key", "b")));
+        assertThat(FingerprintSet.fingerprint("key")).isNotEqualTo(FingerprintSet.fingerprint("kez"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectElementsWithoutContent() throws Exception {
+        new FingerprintSet(0).add(42L);
+    }
+
+    @Test
+    public void zeroFingerprint() throws Exception {
+        FingerprintSet set = new FingerprintSet(0);
+
+        assertThat(set.addFingerprint(0)).isTrue();
+        assertThat(set.addFingerprint(0)).isFalse();
+    }
+
+    @Test
+    public void release() throws Exception {
+        FingerprintSet set = new FingerprintSet(0);
+        set.add("a");
+
+        set.release();
+        assertThat(set.getMemoryUsage()).isEqualTo(0);
+        assertThat(set.size()).isEqualTo(0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addAfterRelease() throws Exception {
+        FingerprintSet set = new FingerprintSet(0);
+        set.release();
+        set.add("a");
+    }
+}
@@ -2,13 +2,16 @@
 
 package com.lambdaworks.redis;
 
+import static com.lambdaworks.redis.pubsub.PubSubListenerOptions.Builder.queueCapacity;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.junit.Assert.assertThat;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
@@ -16,10 +19,16 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.lambdaworks.redis.pubsub.PubSubListenerOptions;
+import com.lambdaworks.redis.pubsub.PubSubListenerOptions.OverflowPolicy;
+import com.lambdaworks.redis.pubsub.QueuedPubSubListener;
 import com.lambdaworks.redis.pubsub.RedisPubSubAdapter;
 import com.lambdaworks.redis.pubsub.RedisPubSubConnection;
 import com.lambdaworks.redis.pubsub.RedisPubSubConnectionImpl;
 import com.lambdaworks.redis.pubsub.RedisPubSubListener;
+import com.lambdaworks.redis.pubsub.ShardedPubSubConnection;
 
 public class PubSubCommandTest extends AbstractCommandTest implements RedisPubSubListener<String, String> {
     private RedisPubSubConnection<String, String> pubsub;
@@ -89,6 +98,32 @@ public class PubSubCommandTest extends AbstractCommandTest implements RedisPubSu
         assertThat(messages.take()).isEqualTo("msg 2!");
     }
 
+    @Test(timeout = 2000)
+    public void messageStream() throws Exception {
+        pubsub.subscribe(channel, "channel1");
+        assertThat(channels.take()).isEqualTo(channel);
+        assertThat(channels.take()).isEqualTo("channel1");
+        assertThat((long) counts.take()).isEqualTo(1);
+        assertThat((long) counts.take()).isEqualTo(2);
+
+        for (int i = 0; i < 100; i++) {
+            redis.publish(i % 2 == 0 ? channel : "channel1", "msg " + i);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(channels.take()).isEqualTo(i % 2 == 0 ? channel : "channel1");
+            assertThat(messages.take()).isEqualTo("msg " + i);
+        }
+
+        pubsub.unsubscribe("channel1");
+        assertThat(channels.take()).isEqualTo("channel1");
+        assertThat((long) counts.take()).isEqualTo(1);
+
+        redis.publish(channel, message);
+        assertThat(channels.take()).isEqualTo(channel);
+        assertThat(messages.take()).isEqualTo(message);
+    }
+
     @Test(timeout = 200)
     public void psubscribe() throws Exception {
         pubsub.psubscribe(pattern);
@@ -245,6 +280,279 @@ public class PubSubCommandTest extends AbstractCommandTest implements RedisPubSu
         assertThat(messages.poll(10, TimeUnit.MILLISECONDS)).isNull();
     }
 
+    @Test(timeout = 5000)
+    public void queuedListener() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final BlockingQueue<String> slowMessages = new LinkedBlockingQueue<String>();
+
+        QueuedPubSubListener<String, String> queued = pubsub.addListener(new RedisPubSubAdapter<String, String>() {
+            @Override
+            public void message(String channel, String message) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RedisCommandInterruptedException(e);
+                }
+                slowMessages.add(message);
+            }
+        }, queueCapacity(2).overflowPolicy(OverflowPolicy.DROP_OLDEST));
+
+        pubsub.subscribe(channel);
+        assertThat(channels.take()).isEqualTo(channel);
+
+        for (int i = 0; i < 5; i++) {
+            redis.publish(channel, "msg" + i);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(messages.take()).isEqualTo("msg" + i);
+        }
+
+        while (queued.getPending() != 2 || queued.getDropped() == 0) {
+            Thread.sleep(10);
+        }
+        assertThat(queued.getLag(TimeUnit.NANOSECONDS)).isGreaterThan(0);
+
+        release.countDown();
+        String last = null;
+        while (!"msg4".equals(last)) {
+            last = slowMessages.take();
+        }
+
+        while (queued.getDelivered() + queued.getDropped() != 6) {
+            Thread.sleep(10);
+        }
+        assertThat(queued.getPending()).isEqualTo(0);
+    }
+
+    @Test(timeout = 5000)
+    public void queuedListenerUsesClientExecutor() throws Exception {
+        final BlockingQueue<String> threads = new LinkedBlockingQueue<String>();
+        RedisClient client = getRedisClient();
+        RedisPubSubConnectionImpl<String, String> connection = client.connectPubSub();
+        connection.addListener(new RedisPubSubAdapter<String, String>() {
+            @Override
+            public void subscribed(String channel, long count) {
+                threads.add(Thread.currentThread().getName());
+            }
+        }, new PubSubListenerOptions());
+
+        connection.subscribe(channel);
+        assertThat(threads.take()).startsWith("lettuce-pubsub-");
+
+        client.shutdown(0, 0, TimeUnit.MILLISECONDS);
+        assertThat(client.listenerExecutor.isShutdown()).isTrue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void queuedListenerRequiresExecutor() throws Exception {
+        new QueuedPubSubListener<String, String>(this, new PubSubListenerOptions());
+    }
+
+    @Test(timeout = 2000)
+    public void removeQueuedListener() throws Exception {
+        final BlockingQueue<String> queuedChannels = new LinkedBlockingQueue<String>();
+        RedisPubSubListener<String, String> listener = new RedisPubSubAdapter<String, String>() {
+            @Override
+            public void subscribed(String channel, long count) {
+                queuedChannels.add(channel);
+            }
+        };
+
+        pubsub.addListener(listener, new PubSubListenerOptions());
+        pubsub.subscribe(channel);
+        assertThat(queuedChannels.take()).isEqualTo(channel);
+
+        pubsub.removeListener(listener);
+        pubsub.subscribe("channel1");
+        assertThat(channels.take()).isEqualTo(channel);
+        assertThat(channels.take()).isEqualTo("channel1");
+        assertThat(queuedChannels.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test(timeout = 2000)
+    public void channelListener() throws Exception {
+        final BlockingQueue<String> channel0Messages = new LinkedBlockingQueue<String>();
+        final BlockingQueue<String> channel1Messages = new LinkedBlockingQueue<String>();
+
+        pubsub.addChannelListener(channel, new RedisPubSubAdapter<String, String>() {
+            @Override
+            public void message(String channel, String message) {
+                channel0Messages.add(channel + ":" + message);
+            }
+        });
+        RedisPubSubListener<String, String> channel1Listener = new RedisPubSubAdapter<String, String>() {
+            @Override
+            public void message(String channel, String message) {
+                channel1Messages.add(channel + ":" + message);
+            }
+        };
+        pubsub.addChannelListener("channel1", channel1Listener);
+
+        pubsub.subscribe(channel, "channel1");
+        channels.take();
+        channels.take();
+
+        redis.publish(channel, "a");
+        redis.publish("channel1", "b");
+        assertThat(channel0Messages.take()).isEqualTo(channel + ":a");
+        assertThat(channel1Messages.take()).isEqualTo("channel1:b");
+
+        pubsub.removeChannelListener("channel1", channel1Listener);
+        redis.publish("channel1", "c");
+        redis.publish(channel, "d");
+        assertThat(channel0Messages.take()).isEqualTo(channel + ":d");
+        assertThat(channel0Messages).isEmpty();
+        assertThat(channel1Messages).isEmpty();
+    }
+
+    @Test(timeout = 10000)
+    public void channelListenerConcurrentAddRemove() throws Exception {
+        final int count = 500;
+        final String[] churned = new String[count];
+        for (int i = 0; i < count; i++) {
+            churned[i] = "churn-" + i;
+        }
+
+        final Set<String> received = Sets.newConcurrentHashSet();
+        final RedisPubSubListener<String, String> kept = new RedisPubSubAdapter<String, String>() {
+            @Override
+            public void message(String channel, String message) {
+                received.add(channel);
+            }
+        };
+        final RedisPubSubListener<String, String> removed = new RedisPubSubAdapter<String, String>();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        Thread churn = new Thread() {
+            @Override
+            public void run() {
+                Uninterruptibles.awaitUninterruptibly(start);
+                for (String channel : churned) {
+                    pubsub.addChannelListener(channel, removed);
+                    pubsub.removeChannelListener(channel, removed);
+                }
+            }
+        };
+        Thread add = new Thread() {
+            @Override
+            public void run() {
+                Uninterruptibles.awaitUninterruptibly(start);
+                for (String channel : churned) {
+                    pubsub.addChannelListener(channel, kept);
+                }
+            }
+        };
+        churn.start();
+        add.start();
+        start.countDown();
+        churn.join();
+        add.join();
+
+        pubsub.subscribe(churned);
+        for (int i = 0; i < count; i++) {
+            channels.take();
+        }
+        for (String channel : churned) {
+            redis.publish(channel, message);
+        }
+        for (int i = 0; i < count; i++) {
+            messages.take();
+        }
+
+        assertThat(received).hasSize(count);
+    }
+
+    @Test(timeout = 2000)
+    public void patternListener() throws Exception {
+        final BlockingQueue<String> patternMessages = new LinkedBlockingQueue<String>();
+
+        pubsub.addPatternListener(pattern, new RedisPubSubAdapter<String, String>() {
+            @Override
+            public void message(String pattern, String channel, String message) {
+                patternMessages.add(pattern + ":" + channel + ":" + message);
+            }
+        });
+
+        pubsub.psubscribe(pattern, "other*");
+        patterns.take();
+        patterns.take();
+
+        redis.publish("other", "a");
+        redis.publish(channel, "b");
+        assertThat(patternMessages.take()).isEqualTo(pattern + ":" + channel + ":b");
+        assertThat(patternMessages).isEmpty();
+    }
+
+    @Test(timeout = 2000)
+    public void shardedPubSub() throws Exception {
+        ShardedPubSubConnection<String, String> sharded = client.connectShardedPubSub(4);
+        sharded.addListener(this);
+
+        String[] shardedChannels = new String[20];
+        for (int i = 0; i < shardedChannels.length; i++) {
+            shardedChannels[i] = "channel" + i;
+        }
+
+        sharded.subscribe(shardedChannels);
+        for (int i = 0; i < shardedChannels.length; i++) {
+            channels.take();
+        }
+
+        Set<RedisPubSubConnectionImpl<String, String>> used = Sets.newHashSet();
+        for (String shardedChannel : shardedChannels) {
+            used.add(sharded.getShard(shardedChannel));
+            redis.publish(shardedChannel, message);
+        }
+        assertThat(used.size()).isGreaterThan(1);
+
+        Set<String> received = Sets.newHashSet();
+        for (int i = 0; i < shardedChannels.length; i++) {
+            received.add(channels.take());
+            assertThat(messages.take()).isEqualTo(message);
+        }
+        assertThat(received).containsOnly(shardedChannels);
+
+        sharded.close();
+    }
+
+    @Test(timeout = 2000)
+    public void shardedUnsubscribeAll() throws Exception {
+        ShardedPubSubConnection<String, String> sharded = client.connectShardedPubSub(4);
+        sharded.addListener(this);
+
+        String[] shardedChannels = new String[20];
+        for (int i = 0; i < shardedChannels.length; i++) {
+            shardedChannels[i] = "channel" + i;
+        }
+
+        sharded.subscribe(shardedChannels);
+        sharded.psubscribe("pattern-a*", "pattern-b*", "pattern-c*");
+        for (int i = 0; i < shardedChannels.length; i++) {
+            channels.take();
+        }
+        for (int i = 0; i < 3; i++) {
+            patterns.take();
+        }
+
+        sharded.unsubscribe();
+        sharded.punsubscribe();
+        Set<String> unsubscribed = Sets.newHashSet();
+        for (int i = 0; i < shardedChannels.length; i++) {
+            unsubscribed.add(channels.take());
+        }
+        Set<String> punsubscribed = Sets.newHashSet();
+        for (int i = 0; i < 3; i++) {
+            punsubscribed.add(patterns.take());
+        }
+
+        assertThat(unsubscribed).containsOnly(shardedChannels);
+        assertThat(punsubscribed).containsOnly("pattern-a*", "pattern-b*", "pattern-c*");
+        assertThat(redis.publish(shardedChannels[0], message)).isEqualTo(0);
+
+        sharded.close();
+    }
+
     // RedisPubSubListener implementation
 
     @Override
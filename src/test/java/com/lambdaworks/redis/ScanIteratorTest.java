@@ -0,0 +1,246 @@
+package com.lambdaworks.redis;
+
+import static com.lambdaworks.redis.ScanIteratorOptions.Builder.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+import com.lambdaworks.redis.codec.RedisCodec;
+import com.lambdaworks.redis.codec.Utf8StringCodec;
+
+public class ScanIteratorTest extends AbstractCommandTest {
+
+    private RedisAsyncConnection<String, String> async;
+    private RedisCodec<String, String> codec = new Utf8StringCodec();
+
+    @Before
+    public void openAsyncConnection() throws Exception {
+        async = client.connectAsync();
+    }
+
+    @After
+    public void closeAsyncConnection() throws Exception {
+        async.close();
+    }
+
+    @Test
+    public void scan() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            redis.set("key-" + i, value);
+        }
+        redis.set("other", value);
+
+        ScanIterator<String> iterator = ScanIterator.scan(async, codec, ScanArgs.Builder.matches("key-*"), count(10));
+
+        Set<String> keys = Sets.newHashSet();
+        while (iterator.hasNext()) {
+            keys.add(iterator.next());
+        }
+
+        assertThat(keys).hasSize(1000).doesNotContain("other");
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    public void countGrowsBelowTargetLatency() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            redis.set("key-" + i, value);
+        }
+
+        ScanIterator<String> iterator = ScanIterator.scan(async, codec, null,
+                count(10).countRange(10, 80).targetLatency(1, TimeUnit.MINUTES));
+
+        int elements = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            elements++;
+        }
+
+        assertThat(elements).isGreaterThanOrEqualTo(1000);
+        assertThat(iterator.getCount()).isEqualTo(80);
+        assertThat(iterator.getCalls()).isLessThan(100);
+    }
+
+    @Test
+    public void countShrinksAboveTargetLatency() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            redis.set("key-" + i, value);
+        }
+
+        ScanIterator<String> iterator = ScanIterator.scan(async, codec, null,
+                count(40).countRange(5, 100).targetLatency(1, TimeUnit.NANOSECONDS));
+
+        iterator.next();
+        iterator.next();
+        assertThat(iterator.getCount()).isLessThan(40);
+    }
+
+    @Test
+    public void fixedCount() throws Exception {
+        redis.set(key, value);
+
+        ScanIterator<String> iterator = ScanIterator.scan(async, codec, null,
+                count(25).targetLatency(0, TimeUnit.MILLISECONDS));
+
+        assertThat(iterator.next()).isEqualTo(key);
+        assertThat(iterator.getCount()).isEqualTo(25);
+    }
+
+    @Test
+    public void deduplicate() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            redis.set("key-" + i, value);
+        }
+
+        ScanIterator<String> iterator = ScanIterator.scan(async, codec, null, count(10).deduplicate(100));
+
+        Set<String> keys = Sets.newHashSet();
+        int elements = 0;
+        while (iterator.hasNext()) {
+            keys.add(iterator.next());
+            elements++;
+        }
+
+        assertThat(keys).hasSize(1000);
+        assertThat(elements).isEqualTo(1000);
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void deduplicateRequiresCodec() throws Exception {
+        ScanIterator.scan(async, null, null, count(10).deduplicate(100));
+    }
+
+    @Test
+    public void deduplicateByEncodedKeys() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            redis.set("key-" + i, value);
+        }
+
+        RedisAsyncConnection<ConstantHashKey, String> connection = client.connectAsync(new ConstantHashKeyCodec());
+        ScanIterator<ConstantHashKey> iterator = ScanIterator.scan(connection, new ConstantHashKeyCodec(), null,
+                count(10).deduplicate(100));
+
+        Set<String> keys = Sets.newHashSet();
+        while (iterator.hasNext()) {
+            keys.add(iterator.next().name);
+        }
+
+        assertThat(keys).hasSize(100);
+        assertThat(iterator.getDuplicates()).isEqualTo(0);
+        connection.close();
+    }
+
+    @Test
+    public void hscan() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            redis.hset(key, "field-" + i, "value-" + i);
+        }
+
+        ScanIterator<KeyValue<String, String>> iterator = ScanIterator.hscan(async, key);
+
+        Set<KeyValue<String, String>> entries = Sets.newHashSet();
+        while (iterator.hasNext()) {
+            entries.add(iterator.next());
+        }
+
+        assertThat(entries).hasSize(500).contains(new KeyValue<String, String>("field-42", "value-42"));
+    }
+
+    @Test
+    public void sscan() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            redis.sadd(key, "member-" + i);
+        }
+
+        ScanIterator<String> iterator = ScanIterator.sscan(async, codec, key, ScanArgs.Builder.matches("member-1*"),
+                new ScanIteratorOptions());
+
+        Set<String> members = Sets.newHashSet();
+        while (iterator.hasNext()) {
+            members.add(iterator.next());
+        }
+
+        assertThat(members).hasSize(111).contains("member-1", "member-199");
+    }
+
+    @Test
+    public void zscan() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            redis.zadd(key, i, "member-" + i);
+        }
+
+        ScanIterator<ScoredValue<String>> iterator = ScanIterator.zscan(async, key);
+
+        Set<ScoredValue<String>> values = Sets.newHashSet();
+        while (iterator.hasNext()) {
+            values.add(iterator.next());
+        }
+
+        assertThat(values).hasSize(500).contains(new ScoredValue<String>(7, "member-7"));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void empty() throws Exception {
+        ScanIterator<String> iterator = ScanIterator.sscan(async, key);
+
+        assertThat(iterator.hasNext()).isFalse();
+        iterator.next();
+    }
+
+    @Test(expected = RedisCommandExecutionException.class)
+    public void wrongType() throws Exception {
+        redis.set(key, value);
+        ScanIterator.sscan(async, key).hasNext();
+    }
+
+    /**
+     * Key type whose hash codes collide.
+     */
+    private static class ConstantHashKey {
+
+        private final String name;
+
+        private ConstantHashKey(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+
+    private static class ConstantHashKeyCodec extends RedisCodec<ConstantHashKey, String> {
+
+        private final Utf8StringCodec codec = new Utf8StringCodec();
+
+        @Override
+        public ConstantHashKey decodeKey(ByteBuffer bytes) {
+            return new ConstantHashKey(codec.decodeKey(bytes));
+        }
+
+        @Override
+        public String decodeValue(ByteBuffer bytes) {
+            return codec.decodeValue(bytes);
+        }
+
+        @Override
+        public byte[] encodeKey(ConstantHashKey key) {
+            return codec.encodeKey(key.name);
+        }
+
+        @Override
+        public byte[] encodeValue(String value) {
+            return codec.encodeValue(value);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -120,6 +121,72 @@ public class SentinelCommandTest extends AbstractCommandTest {
         client.shutdown();
     }
 
+    @Test
+    public void sentinelConnectFuture() throws Exception {
+
+        RedisClient client = new RedisClient(RedisURI.Builder.sentinel(TestSettings.host(), 1234, MASTER_ID)
+                .withSentinel(TestSettings.host()).build());
+
+        RedisAsyncConnection<String, String> connection = client.connectFuture().get(10, TimeUnit.SECONDS);
+        assertThat(connection.ping().get()).isEqualTo("PONG");
+        connection.close();
+
+        RedisAsyncConnection<String, String> cached = client.connectFuture().get(10, TimeUnit.SECONDS);
+        assertThat(cached.ping().get()).isEqualTo("PONG");
+        cached.close();
+        client.shutdown();
+    }
+
+    @Test
+    public void connectSentinelFuture() throws Exception {
+
+        RedisSentinelAsyncConnection<String, String> connection = sentinelClient.connectSentinelFuture().get(10,
+                TimeUnit.SECONDS);
+        assertThat(connection.ping().get()).isEqualTo("PONG");
+        assertThat(connection.getMasterAddrByName(MASTER_ID).get()).isNotNull();
+        connection.close();
+    }
+
+    @Test
+    public void connectSentinelFutureSkipsUnreachableSentinel() throws Exception {
+
+        RedisClient client = new RedisClient(RedisURI.Builder.sentinel(TestSettings.host(), 1234, MASTER_ID)
+                .withSentinel(TestSettings.host(), 26379).build());
+
+        RedisSentinelAsyncConnection<String, String> connection = client.connectSentinelFuture().get(10, TimeUnit.SECONDS);
+        assertThat(connection.ping().get(5, TimeUnit.SECONDS)).isEqualTo("PONG");
+        connection.close();
+        client.shutdown(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void connectSentinelFutureFailure() throws Exception {
+
+        RedisClient client = new RedisClient(RedisURI.Builder.sentinel(TestSettings.host(), 1234, MASTER_ID).build());
+        try {
+            client.connectSentinelFuture().get(10, TimeUnit.SECONDS);
+            fail("missing RedisException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(RedisException.class).hasMessageContaining("Cannot connect to a sentinel");
+        }
+        client.shutdown(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void sentinelConnectFutureWrongMaster() throws Exception {
+
+        RedisClient client = new RedisClient(RedisURI.Builder.sentinel(TestSettings.host(), 1234, "nonexistent")
+                .withSentinel(TestSettings.host()).build());
+        try {
+            client.connectFuture().get(10, TimeUnit.SECONDS);
+            fail("missing RedisConnectionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(RedisConnectionException.class);
+        }
+
+        client.shutdown();
+    }
+
     @Test
     public void sentinelConnectWrongMaster() throws Exception {
 
@@ -0,0 +1,152 @@
+package com.lambdaworks.redis;
+
+import static com.google.code.tempusfugit.temporal.Duration.*;
+import static com.google.code.tempusfugit.temporal.Timeout.*;
+import static com.lambdaworks.redis.TestSettings.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.SocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.code.tempusfugit.temporal.Condition;
+import com.google.code.tempusfugit.temporal.WaitFor;
+
+public class SentinelMasterAddressCacheTest {
+
+    public static final String MASTER_ID = "mymaster";
+    public static final String MASTER_WITH_SLAVE_ID = "master_with_slave";
+
+    private static RedisClient sentinelClient;
+
+    @Rule
+    public SentinelRule sentinelRule = new SentinelRule(sentinelClient, 26379, 26380);
+
+    private SentinelMasterAddressCache sut = new SentinelMasterAddressCache(sentinelClient);
+
+    @BeforeClass
+    public static void setupClient() {
+        sentinelClient = new RedisClient(RedisURI.Builder.sentinel(host(), 26379, MASTER_ID).build());
+    }
+
+    @AfterClass
+    public static void shutdownClient() {
+        sentinelClient.shutdown(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @After
+    public void closeCache() throws Exception {
+        sut.close();
+    }
+
+    @Test
+    public void switchMaster() throws Exception {
+
+        sut.onSwitchMaster("mymaster 127.0.0.1 6482 127.0.0.1 6483");
+
+        assertThat(sut.getCachedMasterAddress("mymaster")).isEqualTo(new InetSocketAddress("127.0.0.1", 6483));
+        assertThat(sut.getCachedMasterAddress("other")).isNull();
+    }
+
+    @Test
+    public void switchMasterWithInvalidMessage() throws Exception {
+
+        sut.onSwitchMaster("mymaster 127.0.0.1 6482");
+        sut.onSwitchMaster("mymaster 127.0.0.1 6482 127.0.0.1 port");
+
+        assertThat(sut.getCachedMasterAddress("mymaster")).isNull();
+    }
+
+    @Test
+    public void cachedMasterAddress() throws Exception {
+
+        sentinelRule.monitor(MASTER_ID, hostAddr(), port(), 1);
+        RedisURI redisURI = RedisURI.Builder.sentinel(host(), 26379, MASTER_ID).withSentinel(host(), 26380).build();
+
+        SocketAddress address = sut.getMasterAddress(redisURI, null);
+        assertThat(address).isEqualTo(new InetSocketAddress(hostAddr(), port()));
+
+        sentinelRule.flush();
+
+        assertThat(sut.getMasterAddress(redisURI, null)).isEqualTo(address);
+        assertThat(sut.getMasterAddress(redisURI, address)).isNull();
+    }
+
+    @Test(timeout = 10000)
+    public void querySentinelsInParallel() throws Exception {
+
+        sentinelRule.monitor(MASTER_ID, hostAddr(), port(), 1);
+
+        // accepts connections but never replies
+        ServerSocket silentSentinel = new ServerSocket(0);
+        try {
+            RedisURI redisURI = RedisURI.Builder.sentinel(host(), silentSentinel.getLocalPort(), MASTER_ID)
+                    .withSentinel(host(), 26379).build();
+            redisURI.getSentinels().get(0).setTimeout(1);
+            redisURI.getSentinels().get(0).setUnit(TimeUnit.MINUTES);
+
+            long start = System.currentTimeMillis();
+            assertThat(sut.getMasterAddress(redisURI, null)).isEqualTo(new InetSocketAddress(hostAddr(), port()));
+            assertThat(System.currentTimeMillis() - start).isLessThan(5000);
+        } finally {
+            silentSentinel.close();
+        }
+    }
+
+    @Test(timeout = 90000)
+    public void followSwitchMaster() throws Exception {
+
+        int masterPort = sentinelRule.findMaster(port(5), port(6));
+        sentinelRule.monitor(MASTER_WITH_SLAVE_ID, hostAddr(), masterPort, 1);
+        WaitFor.waitOrTimeout(new Condition() {
+            @Override
+            public boolean isSatisfied() {
+                return sentinelRule.hasConnectedSlaves(MASTER_WITH_SLAVE_ID);
+            }
+        }, timeout(seconds(20)));
+
+        RedisURI redisURI = RedisURI.Builder.sentinel(host(), 26379, MASTER_WITH_SLAVE_ID).withSentinel(host(), 26380)
+                .build();
+        final InetSocketAddress master = (InetSocketAddress) sut.getMasterAddress(redisURI, null);
+        assertThat(master.getPort()).isEqualTo(masterPort);
+
+        WaitFor.waitOrTimeout(new Condition() {
+            @Override
+            public boolean isSatisfied() {
+                return sut.getSubscriptions().size() == 2;
+            }
+        }, timeout(seconds(5)));
+
+        RedisSentinelAsyncConnection<String, String> sentinel = sentinelClient.connectSentinelAsync();
+        try {
+            sentinel.failover(MASTER_WITH_SLAVE_ID).get();
+        } finally {
+            sentinel.close();
+        }
+
+        WaitFor.waitOrTimeout(new Condition() {
+            @Override
+            public boolean isSatisfied() {
+                return !master.equals(sut.getCachedMasterAddress(MASTER_WITH_SLAVE_ID));
+            }
+        }, timeout(seconds(30)));
+
+        InetSocketAddress newMaster = (InetSocketAddress) sut.getMasterAddress(redisURI, null);
+        assertThat(newMaster.getPort()).isNotEqualTo(masterPort).isIn(port(5), port(6));
+
+        // the former master is reconfigured as slave, leave a complete setup for the following tests
+        WaitFor.waitOrTimeout(new Condition() {
+            @Override
+            public boolean isSatisfied() {
+                return sentinelRule.hasConnectedSlaves(MASTER_WITH_SLAVE_ID);
+            }
+        }, timeout(seconds(30)));
+    }
+}
@@ -0,0 +1,104 @@
+package com.lambdaworks.redis.bulk;
+
+import static com.lambdaworks.redis.bulk.BulkLoadOptions.Builder.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Lists;
+import com.lambdaworks.redis.AbstractCommandTest;
+
+public class BulkLoaderTest extends AbstractCommandTest {
+
+    private BulkLoader<String, String> loader;
+
+    @Before
+    public void openLoader() throws Exception {
+        loader = client.connectBulkLoader(2);
+    }
+
+    @After
+    public void closeLoader() throws Exception {
+        loader.close();
+    }
+
+    @Test
+    public void load() throws Exception {
+        BulkLoadResult result = loader.load(sets(100000), window(1000));
+
+        assertThat(result.getSuccesses()).isEqualTo(100000);
+        assertThat(result.getErrors()).isEqualTo(0);
+        assertThat(result.getFirstError()).isNull();
+        assertThat(redis.dbsize()).isEqualTo(100000);
+        assertThat(redis.get("key-4711")).isEqualTo("value-4711");
+    }
+
+    @Test
+    public void windowSmallerThanBatch() throws Exception {
+        BulkLoadResult result = loader.load(sets(1000), window(10).batchSize(100));
+
+        assertThat(result.getSuccesses()).isEqualTo(1000);
+        assertThat(redis.dbsize()).isEqualTo(1000);
+    }
+
+    @Test
+    public void commandTypes() throws Exception {
+        List<BulkCommand<String, String>> commands = Lists.newArrayList();
+        commands.add(BulkCommand.<String, String> set("string", value));
+        commands.add(BulkCommand.<String, String> setex("expiring", 100, value));
+        commands.add(BulkCommand.<String, String> hset("hash", "field", value));
+        commands.add(BulkCommand.<String, String> zadd("zset", 1.5, "member"));
+        commands.add(BulkCommand.<String, String> sadd("set", "member"));
+        commands.add(BulkCommand.<String, String> rpush("list", "a"));
+        commands.add(BulkCommand.<String, String> rpush("list", "b"));
+        commands.add(BulkCommand.<String, String> del("string"));
+
+        BulkLoadResult result = loader.load(commands);
+
+        assertThat(result.getSuccesses()).isEqualTo(8);
+        assertThat(redis.exists("string")).isFalse();
+        assertThat(redis.ttl("expiring")).isGreaterThan(0);
+        assertThat(redis.hget("hash", "field")).isEqualTo(value);
+        assertThat(redis.zscore("zset", "member")).isEqualTo(1.5);
+        assertThat(redis.sismember("set", "member")).isTrue();
+        assertThat(redis.lrange("list", 0, -1)).isEqualTo(list("a", "b"));
+    }
+
+    @Test
+    public void errors() throws Exception {
+        List<BulkCommand<String, String>> commands = Lists.newArrayList();
+        commands.add(BulkCommand.<String, String> set(key, value));
+        commands.add(BulkCommand.<String, String> hset(key, "field", value));
+        commands.add(BulkCommand.<String, String> sadd(key, value));
+        commands.add(BulkCommand.<String, String> set("other", value));
+
+        BulkLoadResult result = loader.load(commands);
+
+        assertThat(result.getSuccesses()).isEqualTo(2);
+        assertThat(result.getErrors()).isEqualTo(2);
+        assertThat(result.getFirstError()).startsWith("WRONGTYPE");
+    }
+
+    private Iterator<BulkCommand<String, String>> sets(final int count) {
+        return new AbstractIterator<BulkCommand<String, String>>() {
+
+            private int i;
+
+            @Override
+            protected BulkCommand<String, String> computeNext() {
+                if (i == count) {
+                    return endOfData();
+                }
+                BulkCommand<String, String> command = BulkCommand.set("key-" + i, "value-" + i);
+                i++;
+                return command;
+            }
+        };
+    }
+}
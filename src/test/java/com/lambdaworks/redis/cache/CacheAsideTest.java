@@ -0,0 +1,215 @@
+package com.lambdaworks.redis.cache;
+
+import static com.lambdaworks.redis.cache.CacheAsideOptions.Builder.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.lambdaworks.redis.AbstractCommandTest;
+import com.lambdaworks.redis.RedisAsyncConnection;
+import com.lambdaworks.redis.codec.Utf8StringCodec;
+
+public class CacheAsideTest extends AbstractCommandTest {
+
+    private RedisAsyncConnection<String, String> connection;
+    private RedisAsyncConnection<String, String> otherConnection;
+    private ExecutorService executor;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Before
+    public void openConnections() throws Exception {
+        connection = client.connectAsync();
+        otherConnection = client.connectAsync();
+        executor = Executors.newFixedThreadPool(10);
+    }
+
+    @After
+    public void closeConnections() throws Exception {
+        executor.shutdownNow();
+        connection.close();
+        otherConnection.close();
+    }
+
+    @Test
+    public void loadOnMiss() throws Exception {
+        CacheAside<String, String> cache = new CacheAside<String, String>(connection, new Utf8StringCodec(), ttl(10,
+                TimeUnit.SECONDS));
+
+        assertThat(cache.get(key, loader(0))).isEqualTo("loaded-1");
+        assertThat(cache.get(key, loader(0))).isEqualTo("loaded-1");
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(redis.pttl(key)).isGreaterThan(0).isLessThanOrEqualTo(10000);
+    }
+
+    @Test
+    public void nullIsNotCached() throws Exception {
+        CacheAside<String, String> cache = new CacheAside<String, String>(connection, new Utf8StringCodec(),
+                new CacheAsideOptions());
+        ValueLoader<String, String> loader = new ValueLoader<String, String>() {
+            @Override
+            public String load(String key) throws Exception {
+                loads.incrementAndGet();
+                return null;
+            }
+        };
+
+        assertThat(cache.get(key, loader)).isNull();
+        assertThat(cache.get(key, loader)).isNull();
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(redis.exists(key)).isFalse();
+    }
+
+    @Test
+    public void loaderFailure() throws Exception {
+        CacheAside<String, String> cache = new CacheAside<String, String>(connection, new Utf8StringCodec(),
+                new CacheAsideOptions());
+
+        try {
+            cache.get(key, new ValueLoader<String, String>() {
+                @Override
+                public String load(String key) throws Exception {
+                    throw new IllegalStateException("database down");
+                }
+            });
+            fail("Missing ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(redis.exists(key)).isFalse();
+    }
+
+    @Test(timeout = 10000)
+    public void loaderErrorCompletesJoinedLoads() throws Exception {
+        final CacheAside<String, String> cache = new CacheAside<String, String>(connection, new Utf8StringCodec(),
+                new CacheAsideOptions());
+        final ValueLoader<String, String> loader = new ValueLoader<String, String>() {
+            @Override
+            public String load(String key) throws Exception {
+                Thread.sleep(200);
+                throw new AssertionError("loader bug");
+            }
+        };
+
+        List<Future<String>> futures = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return cache.get(key, loader);
+                }
+            }));
+        }
+
+        for (Future<String> future : futures) {
+            try {
+                future.get();
+                fail("Missing ExecutionException");
+            } catch (ExecutionException e) {
+                assertThat(Throwables.getRootCause(e)).isInstanceOf(AssertionError.class);
+            }
+        }
+        assertThat(redis.exists(key)).isFalse();
+    }
+
+    @Test
+    public void coalesceMisses() throws Exception {
+        CacheAside<String, String> cache = new CacheAside<String, String>(connection, new Utf8StringCodec(),
+                new CacheAsideOptions());
+
+        for (String value : getConcurrently(cache, cache, loader(200))) {
+            assertThat(value).isEqualTo("loaded-1");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void lockCoalescesMissesOfClients() throws Exception {
+        CacheAside<String, String> cache = new CacheAside<String, String>(connection, new Utf8StringCodec(), lock(5,
+                TimeUnit.SECONDS));
+        CacheAside<String, String> other = new CacheAside<String, String>(otherConnection, new Utf8StringCodec(), lock(5,
+                TimeUnit.SECONDS));
+
+        for (String value : getConcurrently(cache, other, loader(200))) {
+            assertThat(value).isEqualTo("loaded-1");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(redis.exists(key + ":lock")).isFalse();
+    }
+
+    @Test
+    public void earlyRefresh() throws Exception {
+        CacheAside<String, String> cache = new CacheAside<String, String>(connection, new Utf8StringCodec(), ttl(10,
+                TimeUnit.SECONDS).earlyRefresh(10000));
+
+        assertThat(cache.get(key, loader(10))).isEqualTo("loaded-1");
+        for (int i = 0; i < 100 && cache.getRefreshes() == 0; i++) {
+            cache.get(key, loader(10));
+        }
+
+        assertThat(cache.getRefreshes()).isEqualTo(1);
+        assertThat(redis.get(key)).isEqualTo("loaded-2");
+    }
+
+    @Test
+    public void noEarlyRefresh() throws Exception {
+        CacheAside<String, String> cache = new CacheAside<String, String>(connection, new Utf8StringCodec(), ttl(10,
+                TimeUnit.SECONDS));
+
+        cache.get(key, loader(10));
+        for (int i = 0; i < 100; i++) {
+            cache.get(key, loader(10));
+        }
+
+        assertThat(cache.getRefreshes()).isEqualTo(0);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    private List<String> getConcurrently(final CacheAside<String, String> cache, final CacheAside<String, String> other,
+            final ValueLoader<String, String> loader) throws Exception {
+
+        List<Future<String>> futures = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            final CacheAside<String, String> instance = i % 2 == 0 ? cache : other;
+            futures.add(executor.submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return instance.get(key, loader);
+                }
+            }));
+        }
+
+        List<String> values = Lists.newArrayList();
+        for (Future<String> future : futures) {
+            values.add(future.get());
+        }
+        return values;
+    }
+
+    private ValueLoader<String, String> loader(final long millis) {
+        return new ValueLoader<String, String>() {
+            @Override
+            public String load(String key) throws Exception {
+                Thread.sleep(millis);
+                return "loaded-" + loads.incrementAndGet();
+            }
+        };
+    }
+}
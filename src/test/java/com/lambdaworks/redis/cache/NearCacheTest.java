@@ -0,0 +1,275 @@
+package com.lambdaworks.redis.cache;
+
+import static com.google.code.tempusfugit.temporal.Duration.seconds;
+import static com.google.code.tempusfugit.temporal.Timeout.timeout;
+import static com.lambdaworks.redis.cache.NearCacheOptions.Builder.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.code.tempusfugit.temporal.Condition;
+import com.google.code.tempusfugit.temporal.WaitFor;
+import com.lambdaworks.redis.AbstractCommandTest;
+import com.lambdaworks.redis.RedisAsyncConnection;
+import com.lambdaworks.redis.codec.Utf8StringCodec;
+
+public class NearCacheTest extends AbstractCommandTest {
+
+    private String notifyKeyspaceEvents;
+    private NearCache<String, String> cache;
+
+    @Before
+    public void openCache() throws Exception {
+        notifyKeyspaceEvents = redis.configGet("notify-keyspace-events").get(1);
+        redis.configSet("notify-keyspace-events", "KA");
+    }
+
+    @After
+    public void closeCache() throws Exception {
+        if (cache != null) {
+            cache.close();
+        }
+        redis.configSet("notify-keyspace-events", notifyKeyspaceEvents);
+    }
+
+    @Test
+    public void hit() throws Exception {
+        open(maximumSize(100));
+        redis.set(key, value);
+        awaitInvalidations(1);
+
+        assertThat(cache.get(key).get()).isEqualTo(value);
+        waitForSize(1);
+
+        assertThat(cache.get(key).get()).isEqualTo(value);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void missingKeyIsNotCached() throws Exception {
+        open(maximumSize(100));
+
+        assertThat(cache.get(key).get()).isNull();
+        assertThat(cache.get(key).get()).isNull();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    public void invalidateOnSet() throws Exception {
+        open(maximumSize(100));
+        redis.set(key, value);
+        awaitInvalidations(1);
+        cache.get(key).get();
+        waitForSize(1);
+
+        redis.set(key, "changed");
+        waitForSize(0);
+
+        assertThat(cache.get(key).get()).isEqualTo("changed");
+        assertThat(cache.getInvalidations()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void invalidateOnDel() throws Exception {
+        open(maximumSize(100));
+        redis.set(key, value);
+        awaitInvalidations(1);
+        cache.get(key).get();
+        waitForSize(1);
+
+        redis.del(key);
+        waitForSize(0);
+
+        assertThat(cache.get(key).get()).isNull();
+    }
+
+    @Test
+    public void hget() throws Exception {
+        open(maximumSize(100));
+        redis.hset(key, "a", "1");
+        redis.hset(key, "b", "2");
+        awaitInvalidations(2);
+
+        assertThat(cache.hget(key, "a").get()).isEqualTo("1");
+        assertThat(cache.hget(key, "b").get()).isEqualTo("2");
+        waitForSize(2);
+
+        assertThat(cache.hget(key, "a").get()).isEqualTo("1");
+        assertThat(cache.getHits()).isEqualTo(1);
+
+        redis.hset(key, "b", "3");
+        waitForSize(0);
+
+        assertThat(cache.hget(key, "b").get()).isEqualTo("3");
+    }
+
+    @Test
+    public void expiry() throws Exception {
+        open(maximumSize(100));
+        redis.psetex(key, 200, value);
+        awaitInvalidations(2);
+        cache.get(key).get();
+        waitForSize(1);
+
+        Thread.sleep(300);
+
+        assertThat(cache.get(key).get()).isNull();
+        assertThat(cache.getHits()).isEqualTo(0);
+    }
+
+    @Test
+    public void maximumTtl() throws Exception {
+        open(maximumSize(100).maximumTtl(100, TimeUnit.MILLISECONDS));
+        redis.set(key, value);
+        awaitInvalidations(1);
+        cache.get(key).get();
+        waitForSize(1);
+
+        Thread.sleep(200);
+
+        assertThat(cache.get(key).get()).isEqualTo(value);
+        assertThat(cache.getHits()).isEqualTo(0);
+    }
+
+    @Test
+    public void evictBySize() throws Exception {
+        open(maximumSize(2));
+        redis.set("a", value);
+        redis.set("b", value);
+        redis.set("c", value);
+        awaitInvalidations(3);
+
+        cache.get("a").get();
+        cache.get("b").get();
+        waitForSize(2);
+        cache.get("a").get();
+        cache.get("c").get();
+
+        WaitFor.waitOrTimeout(new Condition() {
+            @Override
+            public boolean isSatisfied() {
+                return cache.getEvictions() == 1;
+            }
+        }, timeout(seconds(5)));
+
+        assertThat(cache.size()).isEqualTo(2);
+        cache.get("a").get();
+        assertThat(cache.getHits()).isEqualTo(2);
+    }
+
+    @Test
+    public void evictByWeight() throws Exception {
+        open(maximumWeight(10, new Weigher<String, String>() {
+            @Override
+            public int weigh(String key, String value) {
+                return value.length();
+            }
+        }));
+        redis.set("a", "123456");
+        redis.set("b", "1234");
+        redis.set("c", "12");
+        awaitInvalidations(3);
+
+        cache.get("a").get();
+        cache.get("b").get();
+        waitForSize(2);
+        assertThat(cache.getWeight()).isEqualTo(10);
+
+        cache.get("c").get();
+        WaitFor.waitOrTimeout(new Condition() {
+            @Override
+            public boolean isSatisfied() {
+                return cache.getEvictions() == 1;
+            }
+        }, timeout(seconds(5)));
+
+        assertThat(cache.getWeight()).isEqualTo(6);
+    }
+
+    @Test
+    public void flushOnClose() throws Exception {
+        open(maximumSize(100));
+        redis.set(key, value);
+        awaitInvalidations(1);
+        cache.get(key).get();
+        waitForSize(1);
+
+        cache.close();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.isEnabled()).isFalse();
+        cache = null;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void invalidateWhileReadInFlight() throws Exception {
+        redis.set(key, value);
+
+        final RedisAsyncConnection<String, String> connection = client.connectAsync();
+        RedisAsyncConnection<String, String> invalidating = (RedisAsyncConnection<String, String>) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] { RedisAsyncConnection.class }, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        Object result = method.invoke(connection, args);
+                        if (method.getName().equals("get")) {
+                            // notification delivered after the read was sent but before the reply is processed
+                            cache.invalidate((String) args[0]);
+                        }
+                        return result;
+                    }
+                });
+
+        cache = new NearCache<String, String>(client, new Utf8StringCodec(), invalidating, client.connectPubSub(), 0,
+                maximumSize(100));
+        waitForEnabled();
+
+        assertThat(cache.get(key).get()).isEqualTo(value);
+        connection.ping().get();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.getInvalidations()).isEqualTo(1);
+    }
+
+    private void open(NearCacheOptions options) throws Exception {
+        cache = client.connectNearCache(options);
+        waitForEnabled();
+    }
+
+    private void waitForEnabled() throws Exception {
+        WaitFor.waitOrTimeout(new Condition() {
+            @Override
+            public boolean isSatisfied() {
+                return cache.isEnabled();
+            }
+        }, timeout(seconds(5)));
+    }
+
+    /**
+     * Notifications of writes that precede a read would invalidate the pending load.
+     */
+    private void awaitInvalidations(final long invalidations) throws Exception {
+        WaitFor.waitOrTimeout(new Condition() {
+            @Override
+            public boolean isSatisfied() {
+                return cache.getInvalidations() == invalidations;
+            }
+        }, timeout(seconds(5)));
+    }
+
+    private void waitForSize(final int size) throws Exception {
+        WaitFor.waitOrTimeout(new Condition() {
+            @Override
+            public boolean isSatisfied() {
+                return cache.size() == size;
+            }
+        }, timeout(seconds(5)));
+    }
+}
@@ -0,0 +1,64 @@
+package com.lambdaworks.redis.cluster;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.lambdaworks.redis.StreamScanCursor;
+
+/**
+ * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
+ * @since 3.0
+ */
+public class ClusterScanCursorTest {
+
+    @Test
+    public void initialCursor() throws Exception {
+        ClusterScanCursor sut = ClusterScanCursor.of("0");
+
+        assertThat(sut.getCursor()).isEqualTo("0");
+        assertThat(sut.isFinished()).isFalse();
+        assertThat(sut.getNodeCursors()).isEmpty();
+    }
+
+    @Test
+    public void startAndUpdate() throws Exception {
+        ClusterScanCursor sut = new ClusterScanCursor();
+        sut.start(ImmutableList.of("node1", "node2"));
+
+        assertThat(sut.getCursor()).isEqualTo("node1:0,node2:0");
+
+        sut.update("node1", streamScanCursor("42", false, 10));
+        assertThat(sut.getCursor()).isEqualTo("node1:42,node2:0");
+        assertThat(sut.getCount()).isEqualTo(10);
+
+        sut.update("node2", streamScanCursor("0", true, 5));
+        sut.update("node1", streamScanCursor("0", true, 5));
+
+        assertThat(sut.isFinished()).isTrue();
+        assertThat(sut.getCount()).isEqualTo(20);
+        assertThat(sut.getCursor()).isEqualTo("0");
+    }
+
+    @Test
+    public void startedCursorIsNotReinitialized() throws Exception {
+        ClusterScanCursor sut = ClusterScanCursor.of("node2:17");
+        sut.start(ImmutableList.of("node1", "node2"));
+
+        assertThat(sut.getNodeCursors()).hasSize(1).containsEntry("node2", "17");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCursor() throws Exception {
+        ClusterScanCursor.of("node1");
+    }
+
+    private StreamScanCursor streamScanCursor(String cursor, boolean finished, long count) {
+        StreamScanCursor result = new StreamScanCursor();
+        result.setCursor(cursor);
+        result.setFinished(finished);
+        result.setCount(count);
+        return result;
+    }
+}
@@ -7,9 +7,17 @@ import static com.lambdaworks.redis.cluster.ClusterTestUtil.getOwnPartition;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.net.ConnectException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.log4j.Layout;
 import org.apache.log4j.Logger;
@@ -30,7 +38,10 @@ import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.lambdaworks.redis.AutoBatchOptions;
 import com.lambdaworks.redis.RedisAsyncConnectionImpl;
 import com.lambdaworks.redis.RedisClient;
 import com.lambdaworks.redis.RedisClusterAsyncConnection;
@@ -38,12 +49,15 @@ import com.lambdaworks.redis.RedisClusterConnection;
 import com.lambdaworks.redis.RedisException;
 import com.lambdaworks.redis.RedisFuture;
 import com.lambdaworks.redis.RedisURI;
+import com.lambdaworks.redis.ScanArgs;
+import com.lambdaworks.redis.ScriptOutputType;
 import com.lambdaworks.redis.TestSettings;
 import com.lambdaworks.redis.cluster.models.partitions.ClusterPartitionParser;
 import com.lambdaworks.redis.cluster.models.partitions.Partitions;
 import com.lambdaworks.redis.cluster.models.partitions.RedisClusterNode;
 import com.lambdaworks.redis.cluster.models.slots.ClusterSlotRange;
 import com.lambdaworks.redis.cluster.models.slots.ClusterSlotsParser;
+import com.lambdaworks.redis.output.KeyStreamingChannel;
 
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
 @SuppressWarnings("unchecked")
@@ -461,6 +475,37 @@ public class RedisClusterClientTest {
         connection.close();
     }
 
+    @Test(timeout = 20000)
+    public void distributedClusteredAccessAutoBatching() throws Exception {
+
+        RedisAsyncConnectionImpl<String, String> connection = (RedisAsyncConnectionImpl<String, String>) clusterClient
+                .connectClusterAsync();
+        connection.setAutoBatching(new AutoBatchOptions());
+
+        List<RedisFuture<String>> sets = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            sets.add(connection.set("a" + i, "myValue1" + i));
+            sets.add(connection.set("{user}" + i, "myValue2" + i));
+        }
+
+        for (RedisFuture<String> set : sets) {
+            assertThat(set.get()).isEqualTo("OK");
+        }
+
+        List<RedisFuture<String>> gets = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            gets.add(connection.get("a" + i));
+            gets.add(connection.get("{user}" + i));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(gets.get(2 * i).get()).isEqualTo("myValue1" + i);
+            assertThat(gets.get(2 * i + 1).get()).isEqualTo("myValue2" + i);
+        }
+
+        connection.close();
+    }
+
     @Test(timeout = 20000)
     public void distributedClusteredAccessSync() throws Exception {
 
@@ -482,6 +527,289 @@ public class RedisClusterClientTest {
         connection.close();
     }
 
+    @Test(timeout = 20000)
+    public void testClusterScan() throws Exception {
+
+        clusterClient.reloadPartitions();
+
+        RedisAdvancedClusterAsyncConnection<String, String> connection = clusterClient.connectClusterAsync();
+
+        List<RedisFuture<?>> futures = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            futures.add(connection.set("scan" + i, "value" + i));
+        }
+
+        for (RedisFuture<?> future : futures) {
+            future.get();
+        }
+
+        final Set<String> keys = Sets.newConcurrentHashSet();
+        ClusterScanCursor cursor = connection.clusterScan(new KeyStreamingChannel<String>() {
+            @Override
+            public void onKey(String key) {
+                keys.add(key);
+            }
+        }, ScanArgs.Builder.matches("scan*")).get();
+
+        assertThat(cursor.isFinished()).isTrue();
+        assertThat(cursor.getCursor()).isEqualTo("0");
+        assertThat(keys).hasSize(100).contains("scan0", "scan99");
+
+        connection.close();
+    }
+
+    @Test(timeout = 20000)
+    public void testClusterScanWithParallelism() throws Exception {
+
+        clusterClient.reloadPartitions();
+
+        RedisAdvancedClusterConnection<String, String> connection = clusterClient.connectCluster();
+
+        for (int i = 0; i < 100; i++) {
+            connection.set("scan" + i, "value" + i);
+        }
+
+        final AtomicInteger count = new AtomicInteger();
+        ClusterScanCursor cursor = connection.clusterScan(new KeyStreamingChannel<String>() {
+            @Override
+            public void onKey(String key) {
+                count.incrementAndGet();
+            }
+        }, new ClusterScanCursor(), ScanArgs.Builder.matches("scan*").limit(5), 1);
+
+        assertThat(cursor.isFinished()).isTrue();
+        assertThat(cursor.getCount()).isGreaterThanOrEqualTo(100);
+        assertThat(count.get()).isEqualTo((int) cursor.getCount());
+
+        connection.close();
+    }
+
+    @Test
+    public void testKeysAndDbsizeOnMasters() throws Exception {
+
+        clusterClient.reloadPartitions();
+        RedisAdvancedClusterAsyncConnection<String, String> connection = clusterClient.connectClusterAsync();
+
+        assertThat(connection.flushdbOnMasters().get()).isEqualTo("OK");
+
+        List<RedisFuture<?>> futures = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            futures.add(connection.set("broadcast" + i, "value" + i));
+        }
+
+        for (RedisFuture<?> future : futures) {
+            future.get();
+        }
+
+        assertThat(connection.dbsizeOnMasters().get()).isEqualTo(100L);
+
+        List<String> keys = connection.keysOnMasters("broadcast*").get();
+        assertThat(keys).hasSize(100).contains("broadcast0", "broadcast99");
+
+        connection.close();
+    }
+
+    @Test
+    public void testScriptLoadAndInfoOnAllNodes() throws Exception {
+
+        clusterClient.reloadPartitions();
+        RedisAdvancedClusterConnection<String, String> connection = clusterClient.connectCluster();
+
+        String digest = connection.scriptLoadOnAllNodes("return 1");
+        assertThat(digest).isEqualTo("e0e1f9fabfc9d4800c877a703b823ac0578ff8db");
+        assertThat(redissync2.scriptExists(digest)).containsExactly(true);
+        assertThat(redissync3.scriptExists(digest)).containsExactly(true);
+
+        Map<RedisClusterNode, String> info = connection.infoOnAllNodes("server");
+        assertThat(info).hasSize(clusterClient.getPartitions().getPartitions().size());
+        for (String nodeInfo : info.values()) {
+            assertThat(nodeInfo).contains("redis_version");
+        }
+
+        assertThat(connection.scriptFlushOnAllNodes()).isEqualTo("OK");
+        assertThat(redissync2.scriptExists(digest)).containsExactly(false);
+
+        connection.close();
+    }
+
+    @Test
+    public void testWarmUpAndPreloadScripts() throws Exception {
+
+        clusterClient.reloadPartitions();
+        redissync1.scriptFlush();
+        redissync2.scriptFlush();
+        redissync3.scriptFlush();
+
+        RedisAdvancedClusterAsyncConnection<String, String> connection = clusterClient
+                .connectClusterAsync(ClusterConnectionOptions.Builder.warmUpConnections().preloadScripts("return 'warm'"));
+
+        RedisAdvancedClusterAsyncConnectionImpl<String, String> connectionImpl = (RedisAdvancedClusterAsyncConnectionImpl<String, String>) connection;
+        PooledClusterConnectionProvider<?, ?> connectionProvider = (PooledClusterConnectionProvider<?, ?>) connectionImpl
+                .getClusterConnectionProvider();
+        assertThat(connectionProvider.getConnectionCount()).isEqualTo(connectionImpl.getPartitions().getMasters().size());
+
+        String digest = "42c4d17c62aa251fe7e6fd799e4b0510c4668d3a";
+        assertThat(redissync1.scriptExists(digest)).containsExactly(true);
+        assertThat(redissync2.scriptExists(digest)).containsExactly(true);
+        assertThat(redissync3.scriptExists(digest)).containsExactly(true);
+        assertThat(connection.evalsha(digest, ScriptOutputType.VALUE).get()).isEqualTo("warm");
+
+        connection.close();
+    }
+
+    @Test
+    public void testPreloadedScriptsUseEvalsha() throws Exception {
+
+        RedisAdvancedClusterAsyncConnection<String, String> connection = clusterClient
+                .connectClusterAsync(ClusterConnectionOptions.Builder.preloadScripts("return KEYS[1]"));
+
+        String digest = "4a2267357833227dd98abdedb8cf24b15a986445";
+        assertThat(redissync1.scriptExists(digest)).containsExactly(true);
+        assertThat(redissync2.scriptExists(digest)).containsExactly(true);
+        assertThat(redissync3.scriptExists(digest)).containsExactly(true);
+
+        redissync1.scriptFlush();
+        redissync2.scriptFlush();
+        redissync3.scriptFlush();
+        redissync1.configResetstat();
+        redissync2.configResetstat();
+        redissync3.configResetstat();
+
+        assertThat(connection.<String> eval("return KEYS[1]", ScriptOutputType.VALUE, "a").get()).isEqualTo("a");
+        assertThat(connection.<String> eval("return KEYS[1]", ScriptOutputType.VALUE, "b").get()).isEqualTo("b");
+
+        assertThat(evalshaCalls(redissync1) + evalshaCalls(redissync2) + evalshaCalls(redissync3)).isEqualTo(2);
+
+        connection.close();
+    }
+
+    private static int evalshaCalls(RedisClusterConnection<String, String> connection) {
+        Matcher matcher = Pattern.compile("cmdstat_evalsha:calls=(\\d+),").matcher(connection.info("commandstats"));
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    @Test(timeout = 20000)
+    public void testDiscoveryWithUnreachableSeed() throws Exception {
+
+        RedisURI unreachable = RedisURI.Builder.redis("10.255.255.1", port1).withTimeout(60, TimeUnit.SECONDS).build();
+        RedisClusterClient clusterClient = new RedisClusterClient(ImmutableList.of(unreachable, RedisURI.Builder.redis(host,
+                port2).build()));
+
+        RedisAdvancedClusterConnection<String, String> connection = clusterClient.connectCluster();
+        assertThat(connection.set("discovery", "value")).isEqualTo("OK");
+        assertThat(clusterClient.getPartitions()).isNotEmpty();
+
+        connection.close();
+        clusterClient.shutdown(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test(timeout = 20000)
+    public void testConnectClusterFuture() throws Exception {
+
+        RedisURI unreachable = RedisURI.Builder.redis("10.255.255.1", port1).withTimeout(60, TimeUnit.SECONDS).build();
+        RedisClusterClient clusterClient = new RedisClusterClient(ImmutableList.of(unreachable, RedisURI.Builder.redis(host,
+                port2).build()));
+
+        RedisAdvancedClusterAsyncConnection<String, String> connection = clusterClient.connectClusterFuture().get();
+        assertThat(connection.set("future", "value").get()).isEqualTo("OK");
+        assertThat(connection.get("future").get()).isEqualTo("value");
+        assertThat(clusterClient.getPartitions()).isNotEmpty();
+
+        connection.close();
+        clusterClient.shutdown(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test(timeout = 20000)
+    public void testConnectClusterFutureConnectsMasters() throws Exception {
+
+        final RedisFuture<RedisAdvancedClusterAsyncConnection<String, String>> future = clusterClient.connectClusterFuture();
+        final BlockingQueue<RedisFuture<String>> results = new LinkedBlockingQueue<RedisFuture<String>>();
+
+        // the listener runs on an I/O thread, keyed commands must not connect to the nodes there
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    RedisAdvancedClusterAsyncConnection<String, String> connection = future.get();
+                    for (String key : new String[] { "a", "b", "c", "d", "e" }) {
+                        results.add(connection.set(key, "value"));
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }, MoreExecutors.sameThreadExecutor());
+
+        RedisAdvancedClusterAsyncConnectionImpl<String, String> connection = (RedisAdvancedClusterAsyncConnectionImpl<String, String>) future
+                .get();
+        PooledClusterConnectionProvider<?, ?> connectionProvider = (PooledClusterConnectionProvider<?, ?>) connection
+                .getClusterConnectionProvider();
+        assertThat(connectionProvider.getConnectionCount()).isEqualTo(connection.getPartitions().getMasters().size());
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(results.take().get()).isEqualTo("OK");
+        }
+
+        connection.close();
+    }
+
+    @Test
+    public void testTopologySnapshot() throws Exception {
+
+        File file = File.createTempFile("lettuce-topology", ".nodes");
+        file.delete();
+
+        RedisClusterClient clusterClient = new RedisClusterClient(RedisURI.Builder.redis(host, port1).build());
+        clusterClient.setTopologySnapshotFile(file);
+        clusterClient.connectClusterAsync().close();
+        clusterClient.shutdown(0, 0, TimeUnit.MILLISECONDS);
+
+        assertThat(file).exists();
+
+        RedisClusterClient snapshotClient = new RedisClusterClient(RedisURI.Builder.redis(host, port1).build());
+        snapshotClient.setTopologySnapshotFile(file);
+
+        RedisAdvancedClusterConnection<String, String> connection = snapshotClient.connectCluster();
+        assertThat(snapshotClient.getPartitions().getMasters()).isNotEmpty();
+        assertThat(connection.set("snapshot", "value")).isEqualTo("OK");
+        assertThat(connection.get("snapshot")).isEqualTo("value");
+
+        connection.close();
+        snapshotClient.shutdown(0, 0, TimeUnit.MILLISECONDS);
+        file.delete();
+    }
+
+    @Test(timeout = 20000)
+    public void testTopologySnapshotFuture() throws Exception {
+
+        final File file = File.createTempFile("lettuce-topology", ".nodes");
+        file.delete();
+
+        RedisClusterClient clusterClient = new RedisClusterClient(RedisURI.Builder.redis(host, port1).build());
+        clusterClient.setTopologySnapshotFile(file);
+        clusterClient.connectClusterFuture().get().close();
+        WaitFor.waitOrTimeout(new Condition() {
+            @Override
+            public boolean isSatisfied() {
+                return file.exists();
+            }
+        }, timeout(seconds(5)));
+        clusterClient.shutdown(0, 0, TimeUnit.MILLISECONDS);
+
+        RedisClusterClient snapshotClient = new RedisClusterClient(RedisURI.Builder.redis(host, port1).build());
+        snapshotClient.setTopologySnapshotFile(file);
+
+        RedisAdvancedClusterAsyncConnection<String, String> connection = snapshotClient.connectClusterFuture(
+                ClusterConnectionOptions.Builder.preloadScripts("return 'future'")).get();
+        assertThat(snapshotClient.getPartitions().getMasters()).isNotEmpty();
+        assertThat(connection.set("snapshot", "value").get()).isEqualTo("OK");
+        assertThat(redissync1.scriptExists(connection.digest("return 'future'"))).containsExactly(true);
+
+        connection.close();
+        snapshotClient.shutdown(0, 0, TimeUnit.MILLISECONDS);
+        file.delete();
+    }
+
     @Test
     public void testNoClusterNodeAvailable() throws Exception {
 
@@ -2,8 +2,19 @@ package com.lambdaworks.redis.cluster;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.lambdaworks.redis.RedisException;
+import com.lambdaworks.redis.cluster.models.partitions.ClusterPartitionParser;
+import com.lambdaworks.redis.cluster.models.partitions.Partitions;
+import com.lambdaworks.redis.cluster.models.partitions.RedisClusterNode;
+import com.lambdaworks.redis.codec.Utf8StringCodec;
+
 /**
  * @author <a href="mailto:mpaluch@paluch.biz">Mark Paluch</a>
  * @since 3.0
@@ -23,4 +34,65 @@ public class SlotHashTest {
         assertThat(result).isEqualTo(0x31C3);
 
     }
+
+    @Test
+    public void testHashWithEmptyHash() throws Exception {
+        assertThat(SlotHash.getSlot("key{}a")).isEqualTo(SlotHash.getSlot("key{}a".getBytes()));
+        assertThat(SlotHash.getSlot("{}123456789")).isNotEqualTo(0x31C3);
+    }
+
+    @Test
+    public void testPartitionKeys() throws Exception {
+
+        Map<Integer, List<String>> result = SlotHash.partition(new Utf8StringCodec(),
+                ImmutableList.of("b{123456789}", "key", "a{123456789}"));
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0x31C3)).containsExactly("b{123456789}", "a{123456789}");
+        assertThat(result.get(SlotHash.getSlot("key"))).containsExactly("key");
+    }
+
+    @Test
+    public void testPartitionKeyValues() throws Exception {
+
+        Map<Integer, Map<String, String>> result = SlotHash.partition(new Utf8StringCodec(),
+                ImmutableMap.of("a{123456789}", "1", "key", "2", "b{123456789}", "3"));
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0x31C3)).isEqualTo(ImmutableMap.of("a{123456789}", "1", "b{123456789}", "3"));
+        assertThat(result.get(SlotHash.getSlot("key"))).isEqualTo(ImmutableMap.of("key", "2"));
+    }
+
+    @Test
+    public void testPartitionByNode() throws Exception {
+
+        Partitions partitions = ClusterPartitionParser
+                .parse("c37ab8396be428403d4e55c0d317348be27ed973 127.0.0.1:7381 master - 0 0 1 connected 8192-16383\n"
+                        + "3d005a179da7d8dc1adae6409d47b39c369e992b 127.0.0.1:7380 master - 0 0 2 connected 0-8191\n");
+
+        RedisClusterNode lower = partitions.getPartitions().get(1);
+        RedisClusterNode upper = partitions.getPartitions().get(0);
+
+        Map<RedisClusterNode, List<String>> result = SlotHash.partitionByNode(partitions, new Utf8StringCodec(),
+                ImmutableList.of("123456789", "a", "b"));
+
+        assertThat(SlotHash.getSlot("a")).isGreaterThan(8191);
+        assertThat(SlotHash.getSlot("b")).isLessThan(8192);
+        assertThat(result.get(upper)).containsExactly("123456789", "a");
+        assertThat(result.get(lower)).containsExactly("b");
+
+        Map<RedisClusterNode, Map<String, String>> keyValues = SlotHash.partitionByNode(partitions, new Utf8StringCodec(),
+                ImmutableMap.of("a", "1", "b", "2"));
+        assertThat(keyValues.get(upper)).isEqualTo(ImmutableMap.of("a", "1"));
+        assertThat(keyValues.get(lower)).isEqualTo(ImmutableMap.of("b", "2"));
+    }
+
+    @Test(expected = RedisException.class)
+    public void testPartitionByNodeWithUncoveredSlot() throws Exception {
+
+        Partitions partitions = ClusterPartitionParser
+                .parse("c37ab8396be428403d4e55c0d317348be27ed973 127.0.0.1:7381 master - 0 0 1 connected 0\n");
+
+        SlotHash.partitionByNode(partitions, new Utf8StringCodec(), ImmutableList.of("a"));
+    }
 }
@@ -0,0 +1,128 @@
+package com.lambdaworks.redis.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import com.lambdaworks.redis.cluster.models.partitions.ClusterPartitionParser;
+import com.lambdaworks.redis.cluster.models.partitions.Partitions;
+import com.lambdaworks.redis.cluster.models.partitions.RedisClusterNode;
+
+public class TopologySnapshotTest {
+
+    private static String nodes = "c37ab8396be428403d4e55c0d317348be27ed973 127.0.0.1:7381 master - 111 1401258245007 222 connected 7000 12000 12002-16383\n"
+            + "3d005a179da7d8dc1adae6409d47b39c369e992b 127.0.0.1:7380 master - 0 1401258245007 2 disconnected 8000-11999\n"
+            + "4213a8dabb94f92eb6a860f4d0729e6a25d43e0c 127.0.0.1:7379 myself,master - 0 0 1 connected 0-6999 7001-7999 12001\n"
+            + "5f4a2236d00008fba7ac0dd24b95762b446767bd 127.0.0.1:7382 slave,fail? 4213a8dabb94f92eb6a860f4d0729e6a25d43e0c 0 0 1 connected\n";
+
+    private File file;
+
+    @Before
+    public void before() throws Exception {
+        file = File.createTempFile("lettuce-topology", ".nodes");
+    }
+
+    @After
+    public void after() throws Exception {
+        file.delete();
+    }
+
+    @Test
+    public void writeAndRead() throws Exception {
+
+        Partitions partitions = ClusterPartitionParser.parse(nodes);
+        TopologySnapshot.write(file, partitions);
+
+        Partitions result = TopologySnapshot.read(file);
+
+        assertThat(result.getPartitions()).hasSize(4);
+        for (int i = 0; i < 4; i++) {
+            RedisClusterNode expected = partitions.getPartitions().get(i);
+            RedisClusterNode actual = result.getPartitions().get(i);
+
+            assertThat(actual.getNodeId()).isEqualTo(expected.getNodeId());
+            assertThat(actual.getUri().getHost()).isEqualTo(expected.getUri().getHost());
+            assertThat(actual.getUri().getPort()).isEqualTo(expected.getUri().getPort());
+            assertThat(actual.getFlags()).isEqualTo(expected.getFlags());
+            assertThat(actual.getSlaveOf()).isEqualTo(expected.getSlaveOf());
+            assertThat(actual.getConfigEpoch()).isEqualTo(expected.getConfigEpoch());
+            assertThat(actual.isConnected()).isEqualTo(expected.isConnected());
+            assertThat(actual.getSlots()).isEqualTo(expected.getSlots());
+        }
+
+        assertThat(tempFiles()).isEmpty();
+    }
+
+    @Test
+    public void concurrentWriters() throws Exception {
+
+        final Partitions partitions = ClusterPartitionParser.parse(nodes);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Object>> futures = Lists.newArrayList();
+        for (int i = 0; i < 20; i++) {
+            futures.add(executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    TopologySnapshot.write(file, partitions);
+                    return null;
+                }
+            }));
+        }
+
+        for (Future<Object> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(TopologySnapshot.read(file).getPartitions()).hasSize(4);
+        assertThat(tempFiles()).isEmpty();
+    }
+
+    @Test
+    public void formatSlotRanges() throws Exception {
+
+        Partitions partitions = ClusterPartitionParser.parse(nodes);
+
+        assertThat(TopologySnapshot.format(partitions.getPartitions().get(0))).isEqualTo(
+                "c37ab8396be428403d4e55c0d317348be27ed973 127.0.0.1:7381 master - 111 1401258245007 222 connected "
+                        + "7000 12000 12002-16383");
+        assertThat(partitions.getPartitions().get(3).getFlags()).isEqualTo(
+                ImmutableSet.of(RedisClusterNode.NodeFlag.SLAVE, RedisClusterNode.NodeFlag.EVENTUAL_FAIL));
+        assertThat(TopologySnapshot.format(partitions.getPartitions().get(3))).contains(" fail?,slave ");
+    }
+
+    @Test
+    public void readMissingOrEmptyFile() throws Exception {
+
+        assertThat(TopologySnapshot.read(file)).isNull();
+
+        file.delete();
+        assertThat(TopologySnapshot.read(file)).isNull();
+
+        Files.write("\n", file, Charsets.UTF_8);
+        assertThat(TopologySnapshot.read(file)).isNull();
+    }
+
+    private File[] tempFiles() {
+        return file.getAbsoluteFile().getParentFile().listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith("." + file.getName() + ".");
+            }
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.lambdaworks.redis.masterslave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.lambdaworks.redis.RedisURI;
+import com.lambdaworks.redis.models.role.RedisInstance;
+
+public class MasterSlaveConnectionProviderTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void selectByLatency() throws Exception {
+
+        MasterSlaveNode fast = slave(6480, 100, 5 * MILLIS);
+        MasterSlaveNode similar = slave(6481, 100, 8 * MILLIS);
+        MasterSlaveNode slow = slave(6482, 100, 20 * MILLIS);
+
+        List<MasterSlaveNode> result = MasterSlaveConnectionProvider.selectReadNodes(ImmutableList.of(slow, similar, fast),
+                100, 0);
+
+        assertThat(result).containsExactly(fast, similar);
+    }
+
+    @Test
+    public void excludeLaggingAndUnknownSlaves() throws Exception {
+
+        MasterSlaveNode lagging = slave(6480, 100, 1);
+        MasterSlaveNode unknown = slave(6481, 1000, -1);
+        MasterSlaveNode current = slave(6482, 900, 3 * MILLIS);
+
+        List<MasterSlaveNode> result = MasterSlaveConnectionProvider.selectReadNodes(
+                ImmutableList.of(lagging, unknown, current), 1000, 100);
+
+        assertThat(result).containsExactly(current);
+    }
+
+    @Test
+    public void noSlaves() throws Exception {
+
+        List<MasterSlaveNode> result = MasterSlaveConnectionProvider.selectReadNodes(
+                ImmutableList.of(slave(6480, 0, 1)), 1000, 100);
+
+        assertThat(result).isEmpty();
+    }
+
+    private MasterSlaveNode slave(int port, long replicationOffset, long latency) {
+        return new MasterSlaveNode(RedisURI.Builder.redis("localhost", port).build(), RedisInstance.Role.SLAVE,
+                replicationOffset, latency);
+    }
+}
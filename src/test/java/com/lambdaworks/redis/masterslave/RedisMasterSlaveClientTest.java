@@ -0,0 +1,146 @@
+package com.lambdaworks.redis.masterslave;
+
+import static com.google.code.tempusfugit.temporal.Duration.*;
+import static com.google.code.tempusfugit.temporal.Timeout.*;
+import static com.lambdaworks.redis.TestSettings.*;
+import static com.lambdaworks.redis.masterslave.MasterSlaveConnectionOptions.Builder.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.code.tempusfugit.temporal.Condition;
+import com.google.code.tempusfugit.temporal.WaitFor;
+import com.lambdaworks.redis.RedisClient;
+import com.lambdaworks.redis.RedisConnection;
+import com.lambdaworks.redis.RedisURI;
+import com.lambdaworks.redis.models.role.RedisInstance;
+import com.lambdaworks.redis.models.role.RedisMasterInstance;
+import com.lambdaworks.redis.models.role.RoleParser;
+
+public class RedisMasterSlaveClientTest {
+
+    private static RedisClient client;
+
+    private int masterPort;
+    private int slavePort;
+    private RedisMasterSlaveClient masterSlaveClient;
+
+    @BeforeClass
+    public static void setupClient() {
+        client = new RedisClient(host(), port());
+    }
+
+    @AfterClass
+    public static void shutdownClient() {
+        client.shutdown(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Before
+    public void before() throws Exception {
+
+        masterPort = isMaster(port(5)) ? port(5) : port(6);
+        slavePort = masterPort == port(5) ? port(6) : port(5);
+
+        WaitFor.waitOrTimeout(new Condition() {
+            @Override
+            public boolean isSatisfied() {
+                RedisConnection<String, String> master = connect(masterPort);
+                try {
+                    return !((RedisMasterInstance) RoleParser.parse(master.role())).getSlaves().isEmpty();
+                } finally {
+                    master.close();
+                }
+            }
+        }, timeout(seconds(20)));
+
+        masterSlaveClient = new RedisMasterSlaveClient(RedisURI.Builder.redis(hostAddr(), slavePort).build());
+    }
+
+    @After
+    public void after() throws Exception {
+        masterSlaveClient.shutdown(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void discoverTopologyFromSlave() throws Exception {
+
+        RedisMasterSlaveAsyncConnection<String, String> connection = masterSlaveClient
+                .connectMasterSlaveAsync(refreshPeriod(0, TimeUnit.SECONDS));
+
+        List<MasterSlaveNode> nodes = connection.getNodes();
+        assertThat(nodes).hasSize(2);
+
+        assertThat(nodes.get(0).is(RedisInstance.Role.MASTER)).isTrue();
+        assertThat(nodes.get(0).getUri().getPort()).isEqualTo(masterPort);
+        assertThat(nodes.get(1).is(RedisInstance.Role.SLAVE)).isTrue();
+        assertThat(nodes.get(1).getUri().getPort()).isEqualTo(slavePort);
+        assertThat(nodes.get(1).getLatency()).isGreaterThan(0);
+
+        connection.close();
+    }
+
+    @Test
+    public void readsFromSlaveAndWritesToMaster() throws Exception {
+
+        RedisMasterSlaveConnection<String, String> connection = masterSlaveClient.connectMasterSlave();
+        RedisConnection<String, String> slave = connect(slavePort);
+
+        long misses = keyspaceMisses(slave);
+        for (int i = 0; i < 5; i++) {
+            assertThat(connection.get("masterslave-missing-" + i)).isNull();
+        }
+        assertThat(keyspaceMisses(slave)).isEqualTo(misses + 5);
+
+        assertThat(connection.set("masterslave-key", "value")).isEqualTo("OK");
+        assertThat(connection.waitForReplication(1, 1000)).isEqualTo(1);
+        assertThat(connection.get("masterslave-key")).isEqualTo("value");
+        connection.del("masterslave-key");
+
+        slave.close();
+        connection.close();
+    }
+
+    @Test
+    public void transactionIsExecutedOnMaster() throws Exception {
+
+        RedisMasterSlaveConnection<String, String> connection = masterSlaveClient.connectMasterSlave();
+
+        connection.multi();
+        connection.set("masterslave-key", "value");
+        connection.get("masterslave-key");
+        List<Object> result = connection.exec();
+        assertThat(result).containsExactly("OK", "value");
+        connection.del("masterslave-key");
+
+        connection.close();
+    }
+
+    private static boolean isMaster(int port) {
+        RedisConnection<String, String> connection = connect(port);
+        try {
+            return RoleParser.parse(connection.role()).getRole() == RedisInstance.Role.MASTER;
+        } finally {
+            connection.close();
+        }
+    }
+
+    private static RedisConnection<String, String> connect(int port) {
+        return client.connect(RedisURI.Builder.redis(hostAddr(), port).build());
+    }
+
+    private static long keyspaceMisses(RedisConnection<String, String> connection) {
+        for (String line : connection.info("stats").split("\r\n")) {
+            if (line.startsWith("keyspace_misses:")) {
+                return Long.parseLong(line.substring("keyspace_misses:".length()));
+            }
+        }
+        return -1;
+    }
+}
@@ -6,15 +6,19 @@ import static org.mockito.Mockito.*;
 
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import com.lambdaworks.redis.RedisAsyncConnectionImpl;
 import com.lambdaworks.redis.codec.Utf8StringCodec;
 import com.lambdaworks.redis.output.StatusOutput;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
 
 @RunWith(MockitoJUnitRunner.class)
 public class CommandHandlerTest {
@@ -32,6 +36,49 @@ public class CommandHandlerTest {
         verify(context).fireExceptionCaught(any(Exception.class));
     }
 
+    @Test
+    public void testReplayInChunks() throws Exception {
+        BlockingQueue<RedisCommand<String, String, ?>> queue = new LinkedBlockingQueue<RedisCommand<String, String, ?>>();
+        CommandHandler<String, String> handler = new CommandHandler<String, String>(queue);
+        new RedisAsyncConnectionImpl<String, String>(handler, new Utf8StringCodec(), 60, TimeUnit.SECONDS);
+
+        int count = CommandHandler.REPLAY_CHUNK_SIZE * 2 + 1;
+        for (int i = 0; i < count; i++) {
+            handler.write(new Command<String, String, String>(CommandType.PING, new StatusOutput<String, String>(
+                    new Utf8StringCodec()), null));
+        }
+
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        assertThat(queue).hasSize(CommandHandler.REPLAY_CHUNK_SIZE);
+
+        channel.runPendingTasks();
+        channel.runPendingTasks();
+        assertThat(queue).hasSize(count);
+    }
+
+    @Test
+    public void testDropExpiredBufferedCommands() throws Exception {
+        BlockingQueue<RedisCommand<String, String, ?>> queue = new LinkedBlockingQueue<RedisCommand<String, String, ?>>();
+        CommandHandler<String, String> handler = new CommandHandler<String, String>(queue);
+        new RedisAsyncConnectionImpl<String, String>(handler, new Utf8StringCodec(), 500, TimeUnit.MILLISECONDS);
+
+        Command<String, String, String> expired = new Command<String, String, String>(CommandType.PING,
+                new StatusOutput<String, String>(new Utf8StringCodec()), null);
+        handler.write(expired);
+        Thread.sleep(600);
+
+        Command<String, String, String> recent = new Command<String, String, String>(CommandType.PING,
+                new StatusOutput<String, String>(new Utf8StringCodec()), null);
+        handler.write(recent);
+
+        new EmbeddedChannel(handler);
+
+        assertThat(expired.isDone()).isTrue();
+        assertThat(expired.getOutput().getError()).isEqualTo("Command timed out while buffered");
+        assertThat(recent.isDone()).isFalse();
+        assertThat(queue).containsExactly(recent);
+    }
+
     @Test
     public void testExceptionWithQueue() throws Exception {
         q.clear();
@@ -0,0 +1,193 @@
+package com.lambdaworks.redis.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.lambdaworks.redis.AbstractCommandTest;
+import com.lambdaworks.redis.KeyValue;
+import com.lambdaworks.redis.RedisCommandExecutionException;
+import com.lambdaworks.redis.ScanArgs;
+import com.lambdaworks.redis.ScoredValue;
+
+public class ReactiveConnectionTest extends AbstractCommandTest {
+
+    private RedisReactiveConnection<String, String> reactive;
+
+    @Before
+    public void openReactiveConnection() throws Exception {
+        reactive = client.connectReactive();
+    }
+
+    @After
+    public void closeReactiveConnection() throws Exception {
+        reactive.close();
+    }
+
+    @Test(timeout = 5000)
+    public void scan() throws Exception {
+        for (int i = 0; i < 250; i++) {
+            redis.set("key-" + i, value);
+        }
+
+        TestSubscriber<String> subscriber = new TestSubscriber<String>();
+        reactive.scan(ScanArgs.Builder.limit(10)).subscribe(subscriber);
+        subscriber.request(Long.MAX_VALUE);
+
+        subscriber.awaitTermination();
+        assertThat(subscriber.error).isNull();
+        assertThat(subscriber.elements).hasSize(250);
+    }
+
+    @Test(timeout = 5000)
+    public void hscan() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            redis.hset(key, "field-" + i, "value-" + i);
+        }
+
+        TestSubscriber<KeyValue<String, String>> subscriber = new TestSubscriber<KeyValue<String, String>>();
+        reactive.hscan(key, ScanArgs.Builder.limit(10)).subscribe(subscriber);
+        subscriber.request(Long.MAX_VALUE);
+
+        subscriber.awaitTermination();
+        assertThat(subscriber.elements).hasSize(100).contains(kv("field-42", "value-42"));
+    }
+
+    @Test(timeout = 5000)
+    public void sscanAndZscan() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            redis.sadd("set", "member-" + i);
+            redis.zadd("zset", i, "member-" + i);
+        }
+
+        TestSubscriber<String> members = new TestSubscriber<String>();
+        reactive.sscan("set").subscribe(members);
+        members.request(Long.MAX_VALUE);
+        members.awaitTermination();
+        assertThat(members.elements).hasSize(100);
+
+        TestSubscriber<ScoredValue<String>> scoredValues = new TestSubscriber<ScoredValue<String>>();
+        reactive.zscan("zset").subscribe(scoredValues);
+        scoredValues.request(Long.MAX_VALUE);
+        scoredValues.awaitTermination();
+        assertThat(scoredValues.elements).hasSize(100).contains(new ScoredValue<String>(7, "member-7"));
+    }
+
+    @Test(timeout = 5000)
+    public void lrangeRespectsDemand() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            redis.rpush(key, "" + i);
+        }
+
+        TestSubscriber<String> subscriber = new TestSubscriber<String>();
+        reactive.lrange(key, 0, -1, 10).subscribe(subscriber);
+
+        Thread.sleep(100);
+        assertThat(subscriber.elements).isEmpty();
+
+        subscriber.request(15);
+        Thread.sleep(100);
+        assertThat(subscriber.elements).hasSize(15);
+        assertThat(subscriber.completed.getCount()).isEqualTo(1);
+
+        subscriber.request(100);
+        subscriber.awaitTermination();
+        assertThat(subscriber.elements).hasSize(100);
+        assertThat(subscriber.elements.get(0)).isEqualTo("0");
+        assertThat(subscriber.elements.get(99)).isEqualTo("99");
+    }
+
+    @Test(timeout = 5000)
+    public void lrangeRange() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            redis.rpush(key, "" + i);
+        }
+
+        TestSubscriber<String> subscriber = new TestSubscriber<String>();
+        reactive.lrange(key, 5, 24, 7).subscribe(subscriber);
+        subscriber.request(Long.MAX_VALUE);
+
+        subscriber.awaitTermination();
+        assertThat(subscriber.elements).hasSize(20);
+        assertThat(subscriber.elements.get(0)).isEqualTo("5");
+        assertThat(subscriber.elements.get(19)).isEqualTo("24");
+    }
+
+    @Test(timeout = 5000)
+    public void cancel() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            redis.rpush(key, "" + i);
+        }
+
+        TestSubscriber<String> subscriber = new TestSubscriber<String>();
+        reactive.lrange(key, 0, -1, 10).subscribe(subscriber);
+        subscriber.request(5);
+        Thread.sleep(100);
+        subscriber.subscription.cancel();
+        subscriber.request(100);
+        Thread.sleep(100);
+
+        assertThat(subscriber.elements).hasSize(5);
+        assertThat(subscriber.completed.getCount()).isEqualTo(1);
+    }
+
+    @Test(timeout = 5000)
+    public void error() throws Exception {
+        redis.set(key, value);
+
+        TestSubscriber<String> subscriber = new TestSubscriber<String>();
+        reactive.lrange(key, 0, -1).subscribe(subscriber);
+        subscriber.request(1);
+
+        subscriber.awaitTermination();
+        assertThat(subscriber.error).isInstanceOf(RedisCommandExecutionException.class);
+    }
+
+    protected KeyValue<String, String> kv(String key, String value) {
+        return new KeyValue<String, String>(key, value);
+    }
+
+    private static class TestSubscriber<T> implements Subscriber<T> {
+
+        final List<T> elements = new CopyOnWriteArrayList<T>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile Subscription subscription;
+        volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T element) {
+            elements.add(element);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+
+        void request(long n) {
+            subscription.request(n);
+        }
+
+        void awaitTermination() throws InterruptedException {
+            completed.await(5, TimeUnit.SECONDS);
+        }
+    }
+}